@@ -0,0 +1,114 @@
+package com.braintreepayments.api
+
+import com.braintreepayments.api.Configuration.Companion.fromJson
+import org.json.JSONObject
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.lang.management.ManagementFactory
+
+/**
+ * Compares restoring a cached configuration by parsing its JSON document against decoding its
+ * binary encoding, and prints the time and bytes allocated per restore. Each restore reads one
+ * value from every payment method section, so that sections parsed lazily from JSON are counted.
+ * [ConfigurationCodecEquivalenceUnitTest] checks that both produce the same configuration.
+ *
+ * Run with `./gradlew :BraintreeCore:testDebugUnitTest -Pbenchmarks --tests '*Benchmark'`.
+ */
+@RunWith(RobolectricTestRunner::class)
+class ConfigurationCodecBenchmark {
+
+    private lateinit var configurationString: String
+    private lateinit var encoded: ByteArray
+
+    @Before
+    fun beforeEach() {
+        // a configuration with every payment method section enabled
+        val merged = JSONObject()
+        listOf(
+            Fixtures.CONFIGURATION_WITH_GOOGLE_PAY,
+            Fixtures.CONFIGURATION_WITH_GRAPHQL,
+            Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL,
+            Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO,
+            Fixtures.CONFIGURATION_WITH_SAMSUNGPAY,
+            Fixtures.CONFIGURATION_WITH_SUPPORTED_CARD_TYPES,
+            Fixtures.CONFIGURATION_WITH_UNIONPAY,
+            Fixtures.CONFIGURATION_WITH_VISA_CHECKOUT
+        ).forEach { fixture ->
+            val json = JSONObject(fixture)
+            json.keys().forEach { key -> merged.put(key, json.get(key)) }
+        }
+        configurationString = merged.toString()
+        encoded = ConfigurationCodec.encode(fromJson(configurationString))
+    }
+
+    @Test
+    fun benchmark_jsonVersusBinary() {
+        repeat(WARMUP_ITERATIONS) {
+            readSections(fromJson(configurationString))
+            readSections(ConfigurationCodec.decode(encoded)!!)
+        }
+
+        val jsonBytesStart = allocatedBytes()
+        val jsonStart = System.nanoTime()
+        repeat(ITERATIONS) { readSections(fromJson(configurationString)) }
+        val jsonNanos = System.nanoTime() - jsonStart
+        val jsonBytesEnd = allocatedBytes()
+
+        val binaryBytesStart = allocatedBytes()
+        val binaryStart = System.nanoTime()
+        repeat(ITERATIONS) { readSections(ConfigurationCodec.decode(encoded)!!) }
+        val binaryNanos = System.nanoTime() - binaryStart
+        val binaryBytesEnd = allocatedBytes()
+
+        println(
+            "%d iterations, %d byte document, %d byte encoding%n  json:   %d us/op, %s bytes/op%n  binary: %d us/op, %s bytes/op"
+                .format(
+                    ITERATIONS,
+                    configurationString.length,
+                    encoded.size,
+                    jsonNanos / ITERATIONS / 1000,
+                    perOp(jsonBytesStart, jsonBytesEnd),
+                    binaryNanos / ITERATIONS / 1000,
+                    perOp(binaryBytesStart, binaryBytesEnd)
+                )
+        )
+    }
+
+    private fun readSections(configuration: Configuration) = configuration.run {
+        listOf(
+            braintreeApiAccessToken,
+            supportedCardTypes,
+            googlePaySupportedNetworks,
+            graphQLUrl,
+            payPalClientId,
+            samsungPayAuthorization,
+            isUnionPayEnabled,
+            venmoAccessToken,
+            visaCheckoutApiKey
+        )
+    }
+
+    private fun perOp(start: Long, end: Long): String =
+        if (start < 0) "n/a" else ((end - start) / ITERATIONS).toString()
+
+    /**
+     * @return bytes allocated by the current thread so far, or a negative value if the JVM does
+     * not support allocation tracking.
+     */
+    private fun allocatedBytes(): Long {
+        val bean = ManagementFactory.getThreadMXBean()
+        if (bean is com.sun.management.ThreadMXBean &&
+            bean.isThreadAllocatedMemorySupported && bean.isThreadAllocatedMemoryEnabled
+        ) {
+            return bean.getThreadAllocatedBytes(Thread.currentThread().id)
+        }
+        return -1
+    }
+
+    companion object {
+        private const val WARMUP_ITERATIONS = 50
+        private const val ITERATIONS = 500
+    }
+}
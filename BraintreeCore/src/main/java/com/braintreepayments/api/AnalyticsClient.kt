@@ -1,6 +1,7 @@
 package com.braintreepayments.api
 
 import android.content.Context
+import android.util.JsonWriter
 import androidx.annotation.VisibleForTesting
 import androidx.work.Data
 import androidx.work.ExistingWorkPolicy
@@ -8,9 +9,8 @@ import androidx.work.ListenableWorker
 import androidx.work.OneTimeWorkRequest
 import androidx.work.WorkManager
 import com.braintreepayments.api.AnalyticsDatabase.Companion.getInstance
-import org.json.JSONArray
 import org.json.JSONException
-import org.json.JSONObject
+import java.io.StringWriter
 import java.util.*
 import java.util.concurrent.TimeUnit
 
@@ -19,15 +19,22 @@ internal class AnalyticsClient @VisibleForTesting constructor(
     private val httpClient: BraintreeHttpClient,
     private val analyticsDatabase: AnalyticsDatabase,
     private val workManager: WorkManager,
-    private val deviceInspector: DeviceInspector
+    private val deviceInspector: DeviceInspector,
+    private val analyticsEventBuffer: AnalyticsEventBuffer,
+    private val analyticsStore: BraintreeStore
 ) {
     constructor(context: Context) : this(
         BraintreeHttpClient(),
         getInstance(context.applicationContext),
         WorkManager.getInstance(context.applicationContext),
-        DeviceInspector()
+        DeviceInspector(),
+        AnalyticsEventBuffer.getInstance(context),
+        BraintreeStore.getInstance(context, BraintreeStore.Segment.ANALYTICS)
     )
 
+    private var lastUploadWorkRequestId: UUID? = null
+    private var lastUploadScheduledAt = 0L
+
     fun sendEvent(
         configuration: Configuration,
         event: AnalyticsEvent,
@@ -35,32 +42,27 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         integration: String?,
         authorization: Authorization
     ): UUID {
-        scheduleAnalyticsWrite(event, authorization)
-        return scheduleAnalyticsUpload(configuration, authorization, sessionId, integration)
-    }
-
-    private fun scheduleAnalyticsWrite(
-        event: AnalyticsEvent, authorization: Authorization
-    ) {
-        val inputData = Data.Builder()
-            .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(WORK_INPUT_KEY_EVENT_NAME, "android.${event.name}")
-            .putString(WORK_INPUT_KEY_PAYPAL_CONTEXT_ID, event.payPalContextId)
-            .putString(WORK_INPUT_KEY_LINK_TYPE, event.linkType)
-            .putLong(WORK_INPUT_KEY_TIMESTAMP, event.timestamp)
-            .putBoolean(WORK_INPUT_KEY_VENMO_INSTALLED, event.venmoInstalled)
-            .putBoolean(WORK_INPUT_KEY_IS_VAULT_REQUEST, event.isVaultRequest)
-            .build()
-
-        val analyticsWorkRequest =
-            OneTimeWorkRequest.Builder(AnalyticsWriteToDbWorker::class.java)
-                .setInputData(inputData)
-                .build()
-        workManager.enqueueUniqueWork(
-            WORK_NAME_ANALYTICS_WRITE, ExistingWorkPolicy.APPEND_OR_REPLACE, analyticsWorkRequest
+        analyticsEventBuffer.append(
+            AnalyticsEvent(
+                "android.${event.name}",
+                event.payPalContextId,
+                event.linkType,
+                event.timestamp,
+                event.venmoInstalled,
+                event.isVaultRequest
+            )
+        )
+        return scheduleAnalyticsUpload(
+            configuration,
+            authorization,
+            sessionId,
+            integration,
+            System.currentTimeMillis()
         )
     }
 
+    // NEXT_MAJOR_VERSION: remove along with AnalyticsWriteToDbWorker; events are now written in
+    // bulk by AnalyticsEventBuffer. Kept so that work enqueued by previous SDK versions completes.
     fun writeAnalytics(inputData: Data): ListenableWorker.Result {
         val eventName = inputData.getString(WORK_INPUT_KEY_EVENT_NAME)
         val payPalContextId = inputData.getString(WORK_INPUT_KEY_PAYPAL_CONTEXT_ID)
@@ -86,15 +88,36 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         }
     }
 
+    /**
+     * Enqueue an upload of all stored events. The work request only carries a reference to the
+     * authorization, which is kept in [analyticsStore] under the configuration cache key, along
+     * with the few configuration values the upload needs, to keep WorkManager input data small.
+     */
+    @Synchronized
     private fun scheduleAnalyticsUpload(
         configuration: Configuration,
         authorization: Authorization,
         sessionId: String?,
-        integration: String?
+        integration: String?,
+        currentTimeMillis: Long
     ): UUID {
+        // an upload enqueued within the last DELAY_TIME_SECONDS has not run yet, so enqueueing
+        // another one would be discarded by ExistingWorkPolicy.KEEP
+        val lastRequestId = lastUploadWorkRequestId
+        val uploadDelayMillis = TimeUnit.SECONDS.toMillis(DELAY_TIME_SECONDS)
+        if (lastRequestId != null && currentTimeMillis - lastUploadScheduledAt < uploadDelayMillis) {
+            return lastRequestId
+        }
+
+        val cacheKey = ConfigurationLoader.createCacheKey(authorization)
+        val authorizationKey = authorizationKey(cacheKey)
+        // does not wait for the store to load, and only writes to disk if the value changed
+        analyticsStore.putString(authorizationKey, authorization.toString())
+
         val inputData = Data.Builder()
-            .putString(WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
             .putString(WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
@@ -106,34 +129,32 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         workManager.enqueueUniqueWork(
             WORK_NAME_ANALYTICS_UPLOAD, ExistingWorkPolicy.KEEP, analyticsWorkRequest
         )
+        lastUploadWorkRequestId = analyticsWorkRequest.id
+        lastUploadScheduledAt = currentTimeMillis
         return analyticsWorkRequest.id
     }
 
     fun uploadAnalytics(context: Context?, inputData: Data): ListenableWorker.Result {
-        val configuration = getConfigurationFromData(inputData)
-        val authorization = getAuthorizationFromData(inputData)
+        // work enqueued by previous SDK versions carries the full configuration and authorization
+        val legacyConfiguration = getConfigurationFromData(inputData)
+        val environment =
+            inputData.getString(WORK_INPUT_KEY_ENVIRONMENT) ?: legacyConfiguration?.environment
+        val merchantId =
+            inputData.getString(WORK_INPUT_KEY_MERCHANT_ID) ?: legacyConfiguration?.merchantId
+        val authorization = getAuthorization(inputData)
         val sessionId = inputData.getString(WORK_INPUT_KEY_SESSION_ID)
         val integration = inputData.getString(WORK_INPUT_KEY_INTEGRATION)
         val isMissingInputData =
-            listOf(configuration, authorization, sessionId, integration).contains(null)
+            listOf(environment, merchantId, authorization, sessionId, integration).contains(null)
         return if (isMissingInputData) {
             ListenableWorker.Result.failure()
         } else {
             try {
-                val analyticsEventDao = analyticsDatabase.analyticsEventDao()
-                val events = analyticsEventDao.getAllEvents()
-                if (events.isNotEmpty()) {
-                    val metadata = deviceInspector.getDeviceMetadata(context, configuration, sessionId, integration)
-                    val analyticsRequest = serializeEvents(authorization, events, metadata)
+                // persist events still buffered in this process so they are part of the upload
+                analyticsEventBuffer.flushBlocking()
 
-                    httpClient.post(
-                        FPTI_ANALYTICS_URL,
-                        analyticsRequest.toString(),
-                        configuration,
-                        authorization
-                    )
-                    analyticsEventDao.deleteEvents(events)
-                }
+                uploadEvents(context, environment, merchantId, authorization, sessionId, integration)
+                removeStoredAuthorization(inputData)
                 ListenableWorker.Result.success()
             } catch (e: Exception) {
                 ListenableWorker.Result.failure()
@@ -141,6 +162,80 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         }
     }
 
+    /**
+     * Upload stored events page by page, oldest first. Each page is split into requests of at most
+     * [MAX_BATCH_PAYLOAD_SIZE] characters, and events are deleted as soon as the request that
+     * contained them succeeds, so a failure only leaves the remaining events for the next attempt.
+     */
+    @Suppress("LongParameterList")
+    private fun uploadEvents(
+        context: Context?,
+        environment: String?,
+        merchantId: String?,
+        authorization: Authorization?,
+        sessionId: String?,
+        integration: String?
+    ) {
+        val analyticsEventDao = analyticsDatabase.analyticsEventDao()
+        var batchParams: String? = null
+        var lastEventId = 0L
+        while (true) {
+            val events = analyticsEventDao.getEventsAfter(lastEventId, UPLOAD_PAGE_SIZE)
+            val pageLastEventId = events.lastOrNull()?.id ?: break
+            if (pageLastEventId <= lastEventId) {
+                break
+            }
+            lastEventId = pageLastEventId
+
+            val params = batchParams ?: serializeBatchParams(
+                authorization,
+                deviceInspector.getDeviceMetadata(
+                    context,
+                    environment,
+                    merchantId,
+                    sessionId,
+                    integration
+                )
+            ).also { batchParams = it }
+
+            val batch = mutableListOf<AnalyticsEvent>()
+            val batchJSON = StringBuilder()
+            for (event in events) {
+                val eventJSON = serializeEvent(event)
+                val exceedsMaxSize =
+                    batchJSON.length + eventJSON.length + params.length > MAX_BATCH_PAYLOAD_SIZE
+                if (batch.isNotEmpty() && exceedsMaxSize) {
+                    uploadBatch(authorization, params, batch, batchJSON)
+                    batch.clear()
+                    batchJSON.setLength(0)
+                }
+                if (batchJSON.isNotEmpty()) {
+                    batchJSON.append(',')
+                }
+                batchJSON.append(eventJSON)
+                batch.add(event)
+            }
+            if (batch.isNotEmpty()) {
+                uploadBatch(authorization, params, batch, batchJSON)
+            }
+        }
+    }
+
+    private fun uploadBatch(
+        authorization: Authorization?,
+        batchParams: String,
+        batch: List<AnalyticsEvent>,
+        eventsJSON: CharSequence
+    ) {
+        httpClient.post(
+            FPTI_ANALYTICS_URL,
+            buildAnalyticsRequest(batchParams, eventsJSON),
+            null,
+            authorization
+        )
+        analyticsDatabase.analyticsEventDao().deleteEvents(batch.toList())
+    }
+
     fun reportCrash(
         context: Context?,
         configuration: Configuration?,
@@ -167,24 +262,45 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         val event = AnalyticsEvent("android.crash", null, null, timestamp)
         val events = listOf(event)
         try {
-            val analyticsRequest = serializeEvents(authorization, events, metadata)
+            val analyticsRequest = buildAnalyticsRequest(
+                serializeBatchParams(authorization, metadata),
+                events.joinToString(",") { serializeEvent(it) }
+            )
             httpClient.post(
                 path = FPTI_ANALYTICS_URL,
-                data = analyticsRequest.toString(),
+                data = analyticsRequest,
                 configuration = null,
                 authorization = authorization,
+                priority = HttpRequest.PRIORITY_LOW,
                 callback = HttpNoResponse()
             )
         } catch (e: JSONException) { /* ignored */
         }
     }
 
+    private fun getAuthorization(inputData: Data): Authorization? {
+        val authorizationString =
+            inputData.getString(WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY)?.let { cacheKey ->
+                analyticsStore.getString(authorizationKey(cacheKey), null)
+            } ?: inputData.getString(WORK_INPUT_KEY_AUTHORIZATION)
+        return authorizationString?.let { Authorization.fromString(it) }
+    }
+
+    /**
+     * The authorization is only kept for as long as an upload needs it; uploads scheduled later
+     * store it again.
+     */
+    private fun removeStoredAuthorization(inputData: Data) {
+        inputData.getString(WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY)?.let { cacheKey ->
+            analyticsStore.removeKeys(listOf(authorizationKey(cacheKey)))
+        }
+    }
+
     @Throws(JSONException::class)
-    private fun serializeEvents(
+    private fun serializeBatchParams(
         authorization: Authorization?,
-        events: List<AnalyticsEvent>,
         metadata: DeviceMetadata
-    ): JSONObject {
+    ): String {
         val batchParamsJSON = metadata.toJSON()
         authorization?.let {
             if (it is ClientToken) {
@@ -193,30 +309,39 @@ internal class AnalyticsClient @VisibleForTesting constructor(
                 batchParamsJSON.put(TOKENIZATION_KEY, it.bearer)
             }
         }
+        return batchParamsJSON.toString()
+    }
 
-        val eventsContainerJSON = JSONObject()
-        eventsContainerJSON.put(BATCH_PARAMS_KEY, batchParamsJSON)
-
-        val eventParamsJSON = JSONArray()
-        for (analyticsEvent in events) {
-            val singleEventJSON = JSONObject()
-                .put(EVENT_NAME_KEY, analyticsEvent.name)
-                .putOpt(PAYPAL_CONTEXT_ID_KEY, analyticsEvent.payPalContextId)
-                .putOpt(LINK_TYPE_KEY, analyticsEvent.linkType)
-                .put(TIMESTAMP_KEY, analyticsEvent.timestamp)
-                .put(VENMO_INSTALLED_KEY, analyticsEvent.venmoInstalled)
-                .put(IS_VAULT_REQUEST_KEY, analyticsEvent.isVaultRequest)
-                .put(TENANT_NAME_KEY, "Braintree")
-            eventParamsJSON.put(singleEventJSON)
+    private fun serializeEvent(analyticsEvent: AnalyticsEvent): String {
+        val stringWriter = StringWriter()
+        JsonWriter(stringWriter).use { writer ->
+            writer.beginObject()
+            writer.name(EVENT_NAME_KEY).value(analyticsEvent.name)
+            analyticsEvent.payPalContextId?.let { writer.name(PAYPAL_CONTEXT_ID_KEY).value(it) }
+            analyticsEvent.linkType?.let { writer.name(LINK_TYPE_KEY).value(it) }
+            writer.name(TIMESTAMP_KEY).value(analyticsEvent.timestamp)
+            writer.name(VENMO_INSTALLED_KEY).value(analyticsEvent.venmoInstalled)
+            writer.name(IS_VAULT_REQUEST_KEY).value(analyticsEvent.isVaultRequest)
+            writer.name(TENANT_NAME_KEY).value("Braintree")
+            writer.endObject()
         }
-        eventsContainerJSON.put(EVENT_PARAMS_KEY, eventParamsJSON)
+        return stringWriter.toString()
+    }
 
+    private fun buildAnalyticsRequest(batchParams: String, eventsJSON: CharSequence): String {
         // Single-element "events" array required by FPTI formatting
-        val eventsArray = JSONArray(arrayOf(eventsContainerJSON))
-        return JSONObject().put(EVENTS_CONTAINER_KEY, eventsArray)
+        return StringBuilder(batchParams.length + eventsJSON.length + REQUEST_ENVELOPE_SIZE)
+            .append("{\"").append(EVENTS_CONTAINER_KEY).append("\":[{\"")
+            .append(BATCH_PARAMS_KEY).append("\":").append(batchParams)
+            .append(",\"").append(EVENT_PARAMS_KEY).append("\":[").append(eventsJSON)
+            .append("]}]}")
+            .toString()
     }
 
     companion object {
+        private const val UPLOAD_PAGE_SIZE = 100
+        private const val MAX_BATCH_PAYLOAD_SIZE = 64 * 1024
+        private const val REQUEST_ENVELOPE_SIZE = 64
         private const val FPTI_ANALYTICS_URL = "https://api-m.paypal.com/v1/tracking/batch/events"
         private const val PAYPAL_CONTEXT_ID_KEY = "paypal_context_id"
         private const val VENMO_INSTALLED_KEY = "venmo_installed"
@@ -235,6 +360,9 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         const val WORK_NAME_ANALYTICS_WRITE = "writeAnalyticsToDb"
         const val WORK_INPUT_KEY_AUTHORIZATION = "authorization"
         const val WORK_INPUT_KEY_CONFIGURATION = "configuration"
+        const val WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY = "configurationCacheKey"
+        const val WORK_INPUT_KEY_ENVIRONMENT = "environment"
+        const val WORK_INPUT_KEY_MERCHANT_ID = "merchantId"
         const val WORK_INPUT_KEY_EVENT_NAME = "eventName"
         const val WORK_INPUT_KEY_INTEGRATION = "integration"
         const val WORK_INPUT_KEY_SESSION_ID = "sessionId"
@@ -244,11 +372,9 @@ internal class AnalyticsClient @VisibleForTesting constructor(
         const val WORK_INPUT_KEY_IS_VAULT_REQUEST = "isVaultRequest"
         const val WORK_INPUT_KEY_LINK_TYPE = "linkType"
         private const val DELAY_TIME_SECONDS = 30L
+        private const val AUTHORIZATION_KEY_PREFIX = "authorization_"
 
-        private fun getAuthorizationFromData(inputData: Data?): Authorization? =
-            inputData?.getString(WORK_INPUT_KEY_AUTHORIZATION)?.let {
-                Authorization.fromString(it)
-            }
+        private fun authorizationKey(cacheKey: String) = AUTHORIZATION_KEY_PREFIX + cacheKey
 
         private fun getConfigurationFromData(inputData: Data?): Configuration? =
             inputData?.getString(WORK_INPUT_KEY_CONFIGURATION)?.let {
@@ -0,0 +1,132 @@
+package com.braintreepayments.api
+
+import android.content.ComponentCallbacks2
+import android.content.Context
+import androidx.annotation.VisibleForTesting
+import androidx.annotation.WorkerThread
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * In-memory buffer for analytics events. Recording an event is an in-memory append; buffered
+ * events are written to [AnalyticsDatabase] in a single transaction once [maxBatchSize] events
+ * have accumulated, [flushDelayMillis] after the first event was buffered, or when the
+ * application's UI is hidden. When more than [capacity] events are waiting to be written, the
+ * oldest events are dropped; the database itself keeps at most [MAX_STORED_EVENTS] events.
+ */
+internal class AnalyticsEventBuffer @VisibleForTesting constructor(
+    private val analyticsDatabase: AnalyticsDatabase,
+    private val executor: ScheduledExecutorService,
+    private val maxBatchSize: Int = MAX_BATCH_SIZE,
+    private val flushDelayMillis: Long = FLUSH_DELAY_MILLIS,
+    private val capacity: Int = CAPACITY
+) : ComponentCallbacks2 {
+
+    private val events = ArrayDeque<AnalyticsEvent>()
+    private var scheduledFlush: ScheduledFuture<*>? = null
+
+    /**
+     * Number of events dropped because the buffer was full.
+     */
+    @get:Synchronized
+    var droppedEventCount = 0L
+        private set
+
+    @Synchronized
+    fun append(event: AnalyticsEvent) {
+        if (events.size >= capacity) {
+            events.removeFirst()
+            droppedEventCount++
+        }
+        events.addLast(event)
+
+        if (events.size >= maxBatchSize) {
+            flush()
+        } else if (scheduledFlush == null) {
+            scheduledFlush =
+                executor.schedule({ flush() }, flushDelayMillis, TimeUnit.MILLISECONDS)
+        }
+    }
+
+    /**
+     * Write all buffered events to the database on a background thread.
+     */
+    fun flush() {
+        val batch = drain()
+        if (batch.isNotEmpty()) {
+            executor.execute { write(batch) }
+        }
+    }
+
+    /**
+     * Write all buffered events to the database on the calling thread.
+     */
+    @WorkerThread
+    fun flushBlocking() {
+        write(drain())
+    }
+
+    @Synchronized
+    private fun drain(): List<AnalyticsEvent> {
+        scheduledFlush?.cancel(false)
+        scheduledFlush = null
+
+        val batch = events.toList()
+        events.clear()
+        return batch
+    }
+
+    private fun write(batch: List<AnalyticsEvent>) {
+        if (batch.isNotEmpty()) {
+            val analyticsEventDao = analyticsDatabase.analyticsEventDao()
+            analyticsDatabase.runInTransaction(Runnable {
+                analyticsEventDao.insertEvents(batch)
+                // bound the table while events cannot be uploaded, e.g. when the device is offline
+                analyticsEventDao.deleteOldestEvents(MAX_STORED_EVENTS)
+            })
+        }
+    }
+
+    override fun onTrimMemory(level: Int) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            flush()
+        }
+    }
+
+    override fun onLowMemory() {
+        flush()
+    }
+
+    override fun onConfigurationChanged(newConfig: android.content.res.Configuration) {
+        // do nothing
+    }
+
+    companion object {
+        private const val MAX_BATCH_SIZE = 20
+        private const val FLUSH_DELAY_MILLIS = 5000L
+        private const val CAPACITY = 500
+
+        @VisibleForTesting
+        const val MAX_STORED_EVENTS = 1000
+
+        @Volatile
+        private var INSTANCE: AnalyticsEventBuffer? = null
+
+        fun getInstance(context: Context): AnalyticsEventBuffer =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: AnalyticsEventBuffer(
+                    AnalyticsDatabase.getInstance(context.applicationContext),
+                    Executors.newSingleThreadScheduledExecutor { runnable ->
+                        // a daemon thread so that the buffer never keeps the process alive
+                        Thread(runnable, "braintree-analytics-buffer").apply { isDaemon = true }
+                    }
+                ).also {
+                    // flush buffered events when the app moves to the background
+                    context.applicationContext.registerComponentCallbacks(it)
+                    INSTANCE = it
+                }
+            }
+    }
+}
@@ -11,8 +11,23 @@ internal interface AnalyticsEventDao {
     @Insert
     fun insertEvent(event: AnalyticsEvent)
 
-    @Query("SELECT * FROM analytics_event")
-    fun getAllEvents(): List<AnalyticsEvent>
+    @Insert
+    fun insertEvents(events: List<AnalyticsEvent>)
+
+    /**
+     * Read up to [limit] events with an id greater than [afterId], oldest first.
+     */
+    @Query("SELECT * FROM analytics_event WHERE _id > :afterId ORDER BY _id ASC LIMIT :limit")
+    fun getEventsAfter(afterId: Long, limit: Int): List<AnalyticsEvent>
+
+    /**
+     * Delete the oldest events so that at most [maxEvents] events remain.
+     */
+    @Query(
+        "DELETE FROM analytics_event WHERE _id NOT IN " +
+            "(SELECT _id FROM analytics_event ORDER BY _id DESC LIMIT :maxEvents)"
+    )
+    fun deleteOldestEvents(maxEvents: Int)
 
     @Delete
     fun deleteEvents(events: List<AnalyticsEvent>)
@@ -11,40 +11,73 @@ import org.json.JSONObject
 class ApiClient(private val braintreeClient: BraintreeClient) {
 
     fun tokenizeGraphQL(tokenizePayload: JSONObject, callback: TokenizeCallback) =
-        braintreeClient.run {
+        tokenizeGraphQL(tokenizePayload, true, callback)
+
+    /**
+     * @param sendAnalyticsEvents false to skip the per-request tokenization events, for callers
+     * that report a single summary event for many requests instead.
+     */
+    fun tokenizeGraphQL(
+        tokenizePayload: JSONObject,
+        sendAnalyticsEvents: Boolean,
+        callback: TokenizeCallback
+    ) = braintreeClient.run {
+        if (sendAnalyticsEvents) {
             sendAnalyticsEvent("card.graphql.tokenization.started")
-            sendGraphQLPOST(tokenizePayload.toString(), object : HttpResponseCallback {
-                override fun onResult(responseBody: String?, httpError: Exception?) {
-                    parseResponseToJSON(responseBody)?.let { json ->
+        }
+        // the response is parsed once by the GraphQL client and passed through as is
+        sendGraphQLPOSTForJSON(tokenizePayload.toString(), object : JSONResponseCallback {
+            override fun onResult(response: JSONObject?, httpError: Exception?) {
+                response?.let { json ->
+                    if (sendAnalyticsEvents) {
                         sendAnalyticsEvent("card.graphql.tokenization.success")
-                        callback.onResult(json, null)
-                    } ?: httpError?.let { error ->
+                    }
+                    callback.onResult(json, null)
+                } ?: httpError?.let { error ->
+                    if (sendAnalyticsEvents) {
                         sendAnalyticsEvent("card.graphql.tokenization.failure")
-                        callback.onResult(null, error)
                     }
+                    callback.onResult(null, error)
                 }
-            })
-        }
+            }
+        })
+    }
 
     fun tokenizeREST(paymentMethod: PaymentMethod, callback: TokenizeCallback) =
-        braintreeClient.run {
-            val url = versionedPath("$PAYMENT_METHOD_ENDPOINT/${paymentMethod.apiPath}")
-            paymentMethod.setSessionId(braintreeClient.sessionId)
+        tokenizeREST(paymentMethod, true, callback)
+
+    /**
+     * @param sendAnalyticsEvents false to skip the per-request tokenization events, for callers
+     * that report a single summary event for many requests instead.
+     */
+    fun tokenizeREST(
+        paymentMethod: PaymentMethod,
+        sendAnalyticsEvents: Boolean,
+        callback: TokenizeCallback
+    ) = braintreeClient.run {
+        val url = versionedPath("$PAYMENT_METHOD_ENDPOINT/${paymentMethod.apiPath}")
+        paymentMethod.setSessionId(braintreeClient.sessionId)
 
+        if (sendAnalyticsEvents) {
             sendAnalyticsEvent("card.rest.tokenization.started")
-            sendPOST(
-                url = url,
-                data = paymentMethod.buildJSON().toString(),
-            ) { responseBody, httpError ->
-                parseResponseToJSON(responseBody)?.let { json ->
+        }
+        sendJSONPOST(
+            url = url,
+            payload = { writer -> paymentMethod.writeJSON(writer) },
+        ) { responseBody, httpError ->
+            parseResponseToJSON(responseBody)?.let { json ->
+                if (sendAnalyticsEvents) {
                     sendAnalyticsEvent("card.rest.tokenization.success")
-                    callback.onResult(json, null)
-                } ?: httpError?.let { error ->
+                }
+                callback.onResult(json, null)
+            } ?: httpError?.let { error ->
+                if (sendAnalyticsEvents) {
                     sendAnalyticsEvent("card.rest.tokenization.failure")
-                    callback.onResult(null, error)
                 }
+                callback.onResult(null, error)
             }
         }
+    }
 
     private fun parseResponseToJSON(responseBody: String?): JSONObject? =
         responseBody?.let {
@@ -7,6 +7,9 @@ import android.net.Uri
 import androidx.annotation.RestrictTo
 import androidx.annotation.VisibleForTesting
 import androidx.fragment.app.FragmentActivity
+import kotlinx.coroutines.suspendCancellableCoroutine
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
 
 /**
  * Core Braintree class that handles network requests.
@@ -173,6 +176,17 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         }
     }
 
+    /**
+     * Fetch and cache Braintree configuration ahead of time, for example when your checkout
+     * screen is created, so that the first payment request does not have to wait for a
+     * configuration request to complete.
+     *
+     * Calling this method is optional. Configuration is fetched on demand when it is not called.
+     */
+    open fun prefetchConfiguration() {
+        getConfiguration { _, _ -> }
+    }
+
     /**
      * @suppress
      */
@@ -227,19 +241,35 @@ open class BraintreeClient @VisibleForTesting internal constructor(
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    fun sendGET(url: String, responseCallback: HttpResponseCallback) {
-        getAuthorization { authorization, authError ->
-            if (authorization != null) {
-                getConfiguration { configuration, configError ->
-                    if (configuration != null) {
-                        httpClient.get(url, configuration, authorization, responseCallback)
-                    } else {
-                        responseCallback.onResult(null, configError)
-                    }
-                }
-            } else {
-                responseCallback.onResult(null, authError)
-            }
+    fun sendGET(url: String, responseCallback: HttpResponseCallback) =
+        sendGET(url, null, responseCallback)
+
+    /**
+     * Send a GET request bound to [requestHandle]. The deadline of the handle also covers loading
+     * authorization and configuration. Once the handle is cancelled, [responseCallback] is not
+     * called.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGET(
+        url: String,
+        requestHandle: HttpRequestHandle?,
+        responseCallback: HttpResponseCallback
+    ) {
+        withRequestContext(
+            requestHandle,
+            { error -> responseCallback.onResult(null, error) }
+        ) { configuration, authorization ->
+            httpClient.get(
+                url,
+                configuration,
+                authorization,
+                HttpClient.NO_RETRY,
+                HttpRequest.PRIORITY_HIGH,
+                requestHandle,
+                responseCallback
+            )
         }
     }
 
@@ -253,50 +283,237 @@ open class BraintreeClient @VisibleForTesting internal constructor(
         data: String,
         additionalHeaders: Map<String, String> = emptyMap(),
         responseCallback: HttpResponseCallback,
+    ) = sendPOST(url, data, additionalHeaders, null, responseCallback)
+
+    /**
+     * Send a POST request bound to [requestHandle]. See [sendGET] for deadline and cancellation.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendPOST(
+        url: String,
+        data: String,
+        additionalHeaders: Map<String, String>,
+        requestHandle: HttpRequestHandle?,
+        responseCallback: HttpResponseCallback,
+    ) {
+        withRequestContext(
+            requestHandle,
+            { error -> responseCallback.onResult(null, error) }
+        ) { configuration, authorization ->
+            httpClient.post(
+                path = url,
+                data = data,
+                configuration = configuration,
+                authorization = authorization,
+                additionalHeaders = additionalHeaders,
+                requestHandle = requestHandle,
+                callback = responseCallback
+            )
+        }
+    }
+
+    /**
+     * Send a POST request whose JSON object body is written by [payload] directly into the
+     * connection, instead of being passed as an already serialized string. See [sendGET] for
+     * deadline and cancellation.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    @JvmOverloads
+    fun sendJSONPOST(
+        url: String,
+        payload: JSONPayloadWriter,
+        additionalHeaders: Map<String, String> = emptyMap(),
+        requestHandle: HttpRequestHandle? = null,
+        responseCallback: HttpResponseCallback,
     ) {
-        getAuthorization { authorization, authError ->
-            if (authorization != null) {
-                getConfiguration { configuration, configError ->
-                    if (configuration != null) {
-                        httpClient.post(
-                            path = url,
-                            data = data,
-                            configuration = configuration,
-                            authorization = authorization,
-                            additionalHeaders = additionalHeaders,
-                            callback = responseCallback
-                        )
-                    } else {
-                        responseCallback.onResult(null, configError)
-                    }
-                }
+        withRequestContext(
+            requestHandle,
+            { error -> responseCallback.onResult(null, error) }
+        ) { configuration, authorization ->
+            httpClient.postJSON(
+                path = url,
+                payload = payload,
+                configuration = configuration,
+                authorization = authorization,
+                additionalHeaders = additionalHeaders,
+                requestHandle = requestHandle,
+                callback = responseCallback
+            )
+        }
+    }
+
+    /**
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLPOST(payload: String?, responseCallback: HttpResponseCallback) =
+        sendGraphQLPOST(payload, null, responseCallback)
+
+    /**
+     * Send a GraphQL request bound to [requestHandle]. See [sendGET] for deadline and
+     * cancellation.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLPOST(
+        payload: String?,
+        requestHandle: HttpRequestHandle?,
+        responseCallback: HttpResponseCallback
+    ) {
+        withRequestContext(
+            requestHandle,
+            { error -> responseCallback.onResult(null, error) }
+        ) { configuration, authorization ->
+            graphQLClient.post(
+                payload,
+                configuration,
+                authorization,
+                requestHandle,
+                responseCallback
+            )
+        }
+    }
+
+    /**
+     * Send a GraphQL request and deliver the response already parsed as JSON, so that callers
+     * that need a [org.json.JSONObject] do not parse the response body a second time. See
+     * [sendGET] for deadline and cancellation.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    @JvmOverloads
+    fun sendGraphQLPOSTForJSON(
+        payload: String?,
+        requestHandle: HttpRequestHandle? = null,
+        responseCallback: JSONResponseCallback
+    ) {
+        withRequestContext(
+            requestHandle,
+            { error -> responseCallback.onResult(null, error) }
+        ) { configuration, authorization ->
+            graphQLClient.postForJSON(
+                payload,
+                configuration,
+                authorization,
+                requestHandle,
+                responseCallback
+            )
+        }
+    }
+
+    /**
+     * Send several GraphQL operations as a single batched request. Each operation receives its
+     * own result or error through its callback.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    fun sendGraphQLBatch(operations: List<GraphQLOperation>) {
+        withRequestContext(
+            null,
+            { error -> operations.forEach { it.deliver(null, error) } }
+        ) { configuration, authorization ->
+            graphQLClient.postBatch(operations, configuration, authorization)
+        }
+    }
+
+    /**
+     * Suspending variant of [getConfiguration] that returns the configuration or throws the error
+     * that prevented it from loading.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    suspend fun getConfiguration(): Configuration = suspendCancellableCoroutine { continuation ->
+        getConfiguration { configuration, configError ->
+            if (configuration != null) {
+                continuation.resume(configuration)
             } else {
-                responseCallback.onResult(null, authError)
+                continuation.resumeWithException(
+                    configError ?: BraintreeException("Unable to load configuration")
+                )
             }
         }
     }
 
     /**
+     * Suspending variant of [sendGET]. The request is sent with a handle of its own, so
+     * cancelling the calling coroutine, e.g. with `withTimeout`, aborts the request if it is in
+     * flight.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    suspend fun sendGET(url: String): String = awaitResponse { requestHandle, callback ->
+        sendGET(url, requestHandle, callback)
+    }
+
+    /**
+     * Suspending variant of [sendPOST]. See the suspending [sendGET] for cancellation.
+     *
+     * @suppress
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    suspend fun sendPOST(
+        url: String,
+        data: String,
+        additionalHeaders: Map<String, String> = emptyMap()
+    ): String = awaitResponse { requestHandle, callback ->
+        sendPOST(url, data, additionalHeaders, requestHandle, callback)
+    }
+
+    /**
+     * Suspending variant of [sendGraphQLPOST]. See the suspending [sendGET] for cancellation.
+     *
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    fun sendGraphQLPOST(payload: String?, responseCallback: HttpResponseCallback) {
+    suspend fun sendGraphQLPOST(payload: String?): String =
+        awaitResponse { requestHandle, callback ->
+            sendGraphQLPOST(payload, requestHandle, callback)
+        }
+
+    private suspend fun awaitResponse(
+        sendRequest: (HttpRequestHandle, HttpResponseCallback) -> Unit
+    ): String = suspendCancellableCoroutine { continuation ->
+        val requestHandle = HttpRequestHandle()
+        continuation.invokeOnCancellation { requestHandle.cancel() }
+        sendRequest(requestHandle, HttpResponseCallback { responseBody, httpError ->
+            if (responseBody != null) {
+                continuation.resume(responseBody)
+            } else {
+                continuation.resumeWithException(
+                    httpError ?: BraintreeException("Request failed without a response")
+                )
+            }
+        })
+    }
+
+    private fun withRequestContext(
+        requestHandle: HttpRequestHandle?,
+        onError: (Exception?) -> Unit,
+        sendRequest: (Configuration, Authorization) -> Unit
+    ) {
         getAuthorization { authorization, authError ->
             if (authorization != null) {
                 getConfiguration { configuration, configError ->
-                    if (configuration != null) {
-                        graphQLClient.post(
-                            payload,
-                            configuration,
-                            authorization,
-                            responseCallback
+                    when {
+                        requestHandle?.isCancelled == true -> Unit
+                        requestHandle?.isDeadlineExceeded == true -> onError(
+                            DeadlineExceededException("Request deadline passed while loading configuration")
                         )
-                    } else {
-                        responseCallback.onResult(null, configError)
+                        configuration != null -> sendRequest(configuration, authorization)
+                        else -> onError(configError)
                     }
                 }
-            } else {
-                responseCallback.onResult(null, authError)
+            } else if (requestHandle?.isCancelled != true) {
+                onError(authError)
             }
         }
     }
@@ -30,7 +30,10 @@ internal data class BraintreeClientParams @VisibleForTesting constructor(
         returnUrlScheme = options.returnUrlScheme ?: createDefaultReturnUrlScheme(options.context),
         appLinkReturnUri = options.appLinkReturnUri,
         integrationType = options.integrationType ?: IntegrationType.CUSTOM
-    )
+    ) {
+        // load stored SDK state in the background before the first request needs it
+        BraintreeStore.preload(context)
+    }
 
     val applicationContext: Context = context.applicationContext
     val braintreeReturnUrlScheme =
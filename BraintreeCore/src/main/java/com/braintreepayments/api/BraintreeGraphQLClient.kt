@@ -1,59 +1,238 @@
 package com.braintreepayments.api
 
 import java.util.Locale
-import javax.net.ssl.SSLException
 
 internal class BraintreeGraphQLClient(
-    private val httpClient: HttpClient = createDefaultHttpClient()
+    private val httpClient: HttpClient = createDefaultHttpClient(),
+    private val persistedQueries: GraphQLPersistedQueries = GraphQLPersistedQueries.getInstance(),
+    private val responseParser: BraintreeGraphQLResponseParser = BraintreeGraphQLResponseParser()
 ) {
 
+    /**
+     * Send a GraphQL request to [path] relative to the GraphQL URL. Requests to a path use
+     * persisted queries in the same way as requests to the GraphQL URL itself.
+     */
     fun post(
         path: String?,
         data: String?,
         configuration: Configuration,
         authorization: Authorization,
         callback: HttpResponseCallback
+    ) = post(path, data, configuration, authorization, null, callback)
+
+    fun post(
+        data: String?,
+        configuration: Configuration,
+        authorization: Authorization,
+        callback: HttpResponseCallback
+    ) = post(data, configuration, authorization, null, callback)
+
+    fun post(
+        data: String?,
+        configuration: Configuration,
+        authorization: Authorization,
+        requestHandle: HttpRequestHandle?,
+        callback: HttpResponseCallback
+    ) = post("", data, configuration, authorization, requestHandle, callback)
+
+    @Suppress("LongParameterList")
+    private fun post(
+        path: String?,
+        data: String?,
+        configuration: Configuration,
+        authorization: Authorization,
+        requestHandle: HttpRequestHandle?,
+        callback: HttpResponseCallback
     ) {
         if (authorization is InvalidAuthorization) {
             val message = authorization.errorMessage
             callback.onResult(null, BraintreeException(message))
             return
         }
-        val request = HttpRequest()
-            .method("POST")
-            .path(path)
-            .data(data)
-            .baseUrl(configuration.graphQLUrl)
-            .addHeader("User-Agent", "braintree/android/" + BuildConfig.VERSION_NAME)
-            .addHeader("Authorization",
-                String.format(Locale.US, "Bearer %s", authorization.bearer))
-            .addHeader("Braintree-Version", GraphQLConstants.Headers.API_VERSION)
-        httpClient.sendRequest(request, callback)
+        val persistedQuery = createPersistedQuery(data, configuration)
+        if (persistedQuery == null) {
+            httpClient.sendRequest(
+                createRequest(path, data, configuration, authorization, requestHandle),
+                callback
+            )
+            return
+        }
+
+        httpClient.sendRequest(
+            createRequest(path, persistedQuery.hashedData, configuration, authorization, requestHandle)
+        ) { responseBody, error ->
+            if (error is PersistedQueryException) {
+                httpClient.sendRequest(
+                    createRequest(
+                        path,
+                        onPersistedQueryMiss(error, data, persistedQuery),
+                        configuration,
+                        authorization,
+                        requestHandle
+                    ),
+                    callback
+                )
+            } else {
+                callback.onResult(responseBody, error)
+            }
+        }
     }
 
-    fun post(
+    /**
+     * Same as [post], but delivers the response parsed as JSON. The response is parsed once, by
+     * [BraintreeGraphQLResponseParser] when checking it for errors.
+     */
+    fun postForJSON(
         data: String?,
         configuration: Configuration,
         authorization: Authorization,
-        callback: HttpResponseCallback
+        requestHandle: HttpRequestHandle?,
+        callback: JSONResponseCallback
     ) {
         if (authorization is InvalidAuthorization) {
             val message = authorization.errorMessage
             callback.onResult(null, BraintreeException(message))
             return
         }
-        val request = HttpRequest()
-            .method("POST")
-            .path("")
-            .data(data)
-            .baseUrl(configuration.graphQLUrl)
-            .addHeader("User-Agent", "braintree/android/" + BuildConfig.VERSION_NAME)
-            .addHeader("Authorization",
-                String.format(Locale.US, "Bearer %s", authorization.bearer))
-            .addHeader("Braintree-Version", GraphQLConstants.Headers.API_VERSION)
-        httpClient.sendRequest(request, callback)
+        val persistedQuery = createPersistedQuery(data, configuration)
+        if (persistedQuery == null) {
+            httpClient.sendJSONRequest(
+                createRequest("", data, configuration, authorization, requestHandle),
+                callback
+            )
+            return
+        }
+
+        httpClient.sendJSONRequest(
+            createRequest("", persistedQuery.hashedData, configuration, authorization, requestHandle)
+        ) { response, error ->
+            if (error is PersistedQueryException) {
+                httpClient.sendJSONRequest(
+                    createRequest(
+                        "",
+                        onPersistedQueryMiss(error, data, persistedQuery),
+                        configuration,
+                        authorization,
+                        requestHandle
+                    ),
+                    callback
+                )
+            } else {
+                callback.onResult(response, error)
+            }
+        }
+    }
+
+    /**
+     * Send several operations as a single GraphQL request whose body is a JSON array of the
+     * operations' request bodies. The server answers with an array of results in the same order,
+     * which are checked for errors and delivered to each operation's callback separately.
+     * Transport errors, or a response that cannot be split into one result per operation, are
+     * delivered to every operation.
+     *
+     * Operations are always sent with their full query documents; persisted queries are not used
+     * within batches. Unless the gateway enables the `batched_operations` feature, each operation
+     * is sent as a request of its own instead.
+     */
+    fun postBatch(
+        operations: List<GraphQLOperation>,
+        configuration: Configuration,
+        authorization: Authorization
+    ) {
+        if (operations.isEmpty()) {
+            return
+        }
+        if (authorization is InvalidAuthorization) {
+            val error = BraintreeException(authorization.errorMessage)
+            operations.forEach { it.deliver(null, error) }
+            return
+        }
+        if (operations.size == 1 ||
+            !configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.BATCHED_OPERATIONS)
+        ) {
+            operations.forEach { operation ->
+                post(
+                    operation.payload,
+                    configuration,
+                    authorization,
+                    operation.requestHandle,
+                    operation::deliver
+                )
+            }
+            return
+        }
+
+        val data = operations.joinToString(separator = ",", prefix = "[", postfix = "]") {
+            it.payload
+        }
+        httpClient.sendRequest(
+            createRequest("", data, configuration, authorization, null)
+        ) { responseBody, error ->
+            if (responseBody == null) {
+                operations.forEach { it.deliver(null, error) }
+                return@sendRequest
+            }
+            val results = try {
+                responseParser.parseBatch(responseBody, operations.size)
+            } catch (parseError: Exception) {
+                operations.forEach { it.deliver(null, parseError) }
+                return@sendRequest
+            }
+            operations.forEachIndexed { i, operation ->
+                operation.deliver(results[i].responseBody, results[i].error)
+            }
+        }
     }
 
+    /**
+     * @return the persisted query forms of [data] if the gateway has enabled automatic persisted
+     * queries and the server has not rejected them before; otherwise null.
+     */
+    private fun createPersistedQuery(
+        data: String?,
+        configuration: Configuration
+    ): GraphQLPersistedQueries.Request? {
+        if (!persistedQueries.isSupported ||
+            !configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.PERSISTED_QUERIES)
+        ) {
+            return null
+        }
+        return persistedQueries.createRequest(data)
+    }
+
+    /**
+     * @return the body to resend after the server could not resolve a persisted query hash: the
+     * full document along with its hash so that the server can store it, or the original request
+     * if the server does not support persisted queries.
+     */
+    private fun onPersistedQueryMiss(
+        error: PersistedQueryException,
+        data: String?,
+        persistedQuery: GraphQLPersistedQueries.Request
+    ): String? = if (error.isSupported) {
+        persistedQuery.fullData
+    } else {
+        persistedQueries.markUnsupported()
+        data
+    }
+
+    private fun createRequest(
+        path: String?,
+        data: String?,
+        configuration: Configuration,
+        authorization: Authorization,
+        requestHandle: HttpRequestHandle?
+    ): HttpRequest = HttpRequest()
+        .method("POST")
+        .path(path)
+        .data(data)
+        .baseUrl(configuration.graphQLUrl)
+        .handle(requestHandle)
+        .addHeader("User-Agent", "braintree/android/" + BuildConfig.VERSION_NAME)
+        .addHeader("Authorization",
+            String.format(Locale.US, "Bearer %s", authorization.bearer))
+        .addHeader("Braintree-Version", GraphQLConstants.Headers.API_VERSION)
+
     @Throws(Exception::class)
     fun post(
         path: String?,
@@ -65,25 +244,31 @@ internal class BraintreeGraphQLClient(
             val message = authorization.errorMessage
             throw BraintreeException(message)
         }
-        val request = HttpRequest()
-            .method("POST")
-            .path(path)
-            .data(data)
-            .baseUrl(configuration.graphQLUrl)
-            .addHeader("User-Agent", "braintree/android/" + BuildConfig.VERSION_NAME)
-            .addHeader("Authorization",
-                String.format(Locale.US, "Bearer %s", authorization.bearer))
-            .addHeader("Braintree-Version", GraphQLConstants.Headers.API_VERSION)
-        return httpClient.sendRequest(request)
+        val persistedQuery = createPersistedQuery(data, configuration)
+            ?: return httpClient.sendRequest(
+                createRequest(path, data, configuration, authorization, null)
+            )
+
+        return try {
+            httpClient.sendRequest(
+                createRequest(path, persistedQuery.hashedData, configuration, authorization, null)
+            )
+        } catch (error: PersistedQueryException) {
+            httpClient.sendRequest(
+                createRequest(
+                    path,
+                    onPersistedQueryMiss(error, data, persistedQuery),
+                    configuration,
+                    authorization,
+                    null
+                )
+            )
+        }
     }
 
     companion object {
 
-        @Throws(SSLException::class)
-        private fun createDefaultHttpClient(): HttpClient {
-            val socketFactory =
-                TLSSocketFactory(TLSCertificatePinning.createCertificateInputStream())
-            return HttpClient(socketFactory, BraintreeGraphQLResponseParser())
-        }
+        private fun createDefaultHttpClient(): HttpClient =
+            HttpClient(PinnedTLSSocketFactory, BraintreeGraphQLResponseParser())
     }
 }
@@ -1,6 +1,8 @@
 package com.braintreepayments.api
 
 import androidx.annotation.VisibleForTesting
+import org.json.JSONArray
+import org.json.JSONException
 import org.json.JSONObject
 import java.net.HttpURLConnection
 
@@ -9,7 +11,7 @@ import java.net.HttpURLConnection
  */
 internal class BraintreeGraphQLResponseParser @VisibleForTesting constructor(
     private val baseParser: HttpResponseParser
-) : HttpResponseParser {
+) : JSONResponseParser {
 
     constructor() : this(BaseHttpResponseParser())
 
@@ -21,8 +23,64 @@ internal class BraintreeGraphQLResponseParser @VisibleForTesting constructor(
     @Throws(Exception::class)
     override fun parse(responseCode: Int, connection: HttpURLConnection): String {
         val response = baseParser.parse(responseCode, connection)
-        val errors = JSONObject(response).optJSONArray(GraphQLConstants.Keys.ERRORS)
-        if (errors == null) return response
+        if (isBatchResponse(response)) {
+            // each operation of a batch is checked on its own by parseBatch
+            return response
+        }
+        checkForErrors(JSONObject(response), response)
+        return response
+    }
+
+    /**
+     * Split the response to a batched request into the results of its operations. Errors are
+     * checked for each operation separately, so a failed operation does not fail the others.
+     *
+     * @param response the body of the batched response, a JSON array with one result per
+     * operation in request order.
+     * @param operationCount the number of operations in the batched request.
+     * @return one result per operation, holding either its response body or its error.
+     */
+    @Throws(JSONException::class, UnexpectedException::class)
+    fun parseBatch(response: String, operationCount: Int): List<BatchResult> {
+        val results = JSONArray(response)
+        if (results.length() != operationCount) {
+            throw UnexpectedException(
+                "Expected $operationCount results in batched GraphQL response, got ${results.length()}"
+            )
+        }
+        return (0 until operationCount).map { i ->
+            val json = results.getJSONObject(i)
+            val body = json.toString()
+            try {
+                checkForErrors(json, body)
+                BatchResult(body, null)
+            } catch (error: Exception) {
+                BatchResult(null, error)
+            }
+        }
+    }
+
+    /**
+     * The result of one operation of a batched request.
+     */
+    class BatchResult(val responseBody: String?, val error: Exception?)
+
+    /**
+     * @param responseCode the response code returned when the http request was made.
+     * @param connection the connection through which the http request was made.
+     * @return the body of the http response, parsed once and already checked for errors.
+     */
+    @Throws(Exception::class)
+    override fun parseJSON(responseCode: Int, connection: HttpURLConnection): JSONObject {
+        val response = baseParser.parse(responseCode, connection)
+        return JSONObject(response).also { checkForErrors(it, response) }
+    }
+
+    private fun isBatchResponse(response: String) = response.trimStart().startsWith("[")
+
+    @Throws(Exception::class)
+    private fun checkForErrors(json: JSONObject, response: String) {
+        val errors = json.optJSONArray(GraphQLConstants.Keys.ERRORS) ?: return
 
         for (i in 0 until errors.length()) {
             val error = errors.getJSONObject(i)
@@ -32,6 +90,12 @@ internal class BraintreeGraphQLResponseParser @VisibleForTesting constructor(
                 GraphQLConstants.Keys.MESSAGE,
                 "An Unexpected Exception Occurred"
             )
+            when (message) {
+                GraphQLConstants.ErrorMessages.PERSISTED_QUERY_NOT_FOUND ->
+                    throw PersistedQueryException(message, isSupported = true)
+                GraphQLConstants.ErrorMessages.PERSISTED_QUERY_NOT_SUPPORTED ->
+                    throw PersistedQueryException(message, isSupported = false)
+            }
             if (extensions == null) {
                 throw UnexpectedException(message)
             }
@@ -1,10 +1,11 @@
 package com.braintreepayments.api
 
 import android.net.Uri
+import android.util.JsonWriter
 import com.braintreepayments.api.HttpClient.RetryStrategy
 import org.json.JSONException
 import org.json.JSONObject
-import javax.net.ssl.SSLException
+import java.io.OutputStreamWriter
 
 /**
  * Network request class that handles Braintree request specifics and threading.
@@ -43,36 +44,60 @@ internal class BraintreeHttpClient(
         authorization: Authorization?,
         @RetryStrategy retryStrategy: Int,
         callback: HttpResponseCallback
+    ) = get(path, configuration, authorization, retryStrategy, HttpRequest.PRIORITY_HIGH, callback)
+
+    /**
+     * Make a HTTP GET request to Braintree using the base url, path and authorization provided.
+     * If the path is a full url, it will be used instead of the previously provided url.
+     * @param path The path or url to request from the server via GET
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param retryStrategy retry strategy
+     * @param priority scheduling priority of the request on the shared network executor
+     * @param callback [HttpResponseCallback]
+     */
+    @Suppress("LongParameterList")
+    operator fun get(
+        path: String,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        @RetryStrategy retryStrategy: Int,
+        @HttpRequest.Priority priority: Int,
+        callback: HttpResponseCallback
+    ) = get(path, configuration, authorization, retryStrategy, priority, null, callback)
+
+    /**
+     * Make a HTTP GET request to Braintree using the base url, path and authorization provided.
+     * If the path is a full url, it will be used instead of the previously provided url.
+     * @param path The path or url to request from the server via GET
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param retryStrategy retry strategy
+     * @param priority scheduling priority of the request on the shared network executor
+     * @param requestHandle deadline and cancellation for the request
+     * @param callback [HttpResponseCallback]
+     */
+    @Suppress("LongParameterList")
+    operator fun get(
+        path: String,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        @RetryStrategy retryStrategy: Int,
+        @HttpRequest.Priority priority: Int,
+        requestHandle: HttpRequestHandle?,
+        callback: HttpResponseCallback
     ) {
-        if (authorization is InvalidAuthorization) {
-            val message = authorization.errorMessage
-            callback.onResult(null, BraintreeException(message))
-            return
-        }
-        val isRelativeURL = !path.startsWith("http")
-        if (configuration == null && isRelativeURL) {
-            val message =
-                "Braintree HTTP GET request without configuration cannot have a relative path."
-            val relativeURLNotAllowedError = BraintreeException(message)
-            callback.onResult(null, relativeURLNotAllowedError)
+        val request = try {
+            createGetRequest(path, configuration, authorization)
+        } catch (e: BraintreeException) {
+            callback.onResult(null, e)
             return
         }
-        val targetPath = if (authorization is ClientToken) {
-            Uri.parse(path).buildUpon()
-                .appendQueryParameter(AUTHORIZATION_FINGERPRINT_KEY, authorization.bearer)
-                .toString()
-        } else {
-            path
-        }
-        val request = HttpRequest().method("GET").path(targetPath)
-            .addHeader(USER_AGENT_HEADER, "braintree/android/" + BuildConfig.VERSION_NAME)
-        if (isRelativeURL && configuration != null) {
-            request.baseUrl(configuration.clientApiUrl)
-        }
-        if (authorization is TokenizationKey) {
-            request.addHeader(CLIENT_KEY_HEADER, authorization.bearer)
-        }
-        httpClient.sendRequest(request, retryStrategy, callback)
+        httpClient.sendRequest(
+            request.priority(priority).handle(requestHandle),
+            retryStrategy,
+            callback
+        )
     }
 
     /**
@@ -82,54 +107,67 @@ internal class BraintreeHttpClient(
      * @param data The body of the POST request
      * @param configuration configuration for the Braintree Android SDK.
      * @param authorization
+     * @param additionalHeaders additional headers to send with the request
+     * @param priority scheduling priority of the request on the shared network executor
+     * @param requestHandle deadline and cancellation for the request
      * @param callback [HttpResponseCallback]
      */
-    @Suppress("CyclomaticComplexMethod")
+    @Suppress("CyclomaticComplexMethod", "LongParameterList")
     fun post(
         path: String,
         data: String,
         configuration: Configuration?,
         authorization: Authorization?,
         additionalHeaders: Map<String, String> = emptyMap(),
+        @HttpRequest.Priority priority: Int = HttpRequest.PRIORITY_HIGH,
+        requestHandle: HttpRequestHandle? = null,
         callback: HttpResponseCallback
     ) {
-        if (authorization is InvalidAuthorization) {
-            val message = authorization.errorMessage
-            callback.onResult(null, BraintreeException(message))
+        val request = try {
+            createPostRequest(path, data, configuration, authorization, additionalHeaders)
+        } catch (e: BraintreeException) {
+            callback.onResult(null, e)
             return
-        }
-        val isRelativeURL = !path.startsWith("http")
-        if (configuration == null && isRelativeURL) {
-            val message =
-                "Braintree HTTP GET request without configuration cannot have a relative path."
-            val relativeURLNotAllowedError = BraintreeException(message)
-            callback.onResult(null, relativeURLNotAllowedError)
+        } catch (e: JSONException) {
+            callback.onResult(null, e)
             return
         }
-        val requestData = if (authorization is ClientToken) {
-            try {
-                JSONObject(data).put(
-                    AUTHORIZATION_FINGERPRINT_KEY,
-                    authorization.authorizationFingerprint
-                ).toString()
-            } catch (e: JSONException) {
-                callback.onResult(null, e)
-                return
-            }
-        } else {
-            data
-        }
-        val request = HttpRequest().method("POST").path(path).data(requestData)
-            .addHeader(USER_AGENT_HEADER, "braintree/android/" + BuildConfig.VERSION_NAME)
-        if (isRelativeURL && configuration != null) {
-            request.baseUrl(configuration.clientApiUrl)
-        }
-        if (authorization is TokenizationKey) {
-            request.addHeader(CLIENT_KEY_HEADER, authorization.bearer)
+        httpClient.sendRequest(request.priority(priority).handle(requestHandle), callback)
+    }
+
+    /**
+     * Make a HTTP POST request to Braintree with a JSON object body written by [payload].
+     * The payload is streamed to the connection together with any authorization fields, so the
+     * body is never serialized to an intermediate string or parsed again to add authorization.
+     * If the path is a full url, it will be used instead of the previously provided url.
+     * @param path The path or url to request from the server via HTTP POST
+     * @param payload writes the fields of the body of the POST request
+     * @param configuration configuration for the Braintree Android SDK.
+     * @param authorization
+     * @param additionalHeaders additional headers to send with the request
+     * @param priority scheduling priority of the request on the shared network executor
+     * @param requestHandle deadline and cancellation for the request
+     * @param callback [HttpResponseCallback]
+     */
+    @Suppress("LongParameterList")
+    fun postJSON(
+        path: String,
+        payload: JSONPayloadWriter,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        additionalHeaders: Map<String, String> = emptyMap(),
+        @HttpRequest.Priority priority: Int = HttpRequest.PRIORITY_HIGH,
+        requestHandle: HttpRequestHandle? = null,
+        callback: HttpResponseCallback
+    ) {
+        val request = try {
+            createPostRequest(path, configuration, authorization, additionalHeaders)
+        } catch (e: BraintreeException) {
+            callback.onResult(null, e)
+            return
         }
-        authorization?.bearer?.let { token -> request.addHeader("Authorization", "Bearer $token") }
-        additionalHeaders.forEach { (name, value) -> request.addHeader(name, value) }
-        httpClient.sendRequest(request, callback)
+        request.body(createJSONBody(payload, authorization))
+        httpClient.sendRequest(request.priority(priority).handle(requestHandle), callback)
     }
 
     /**
@@ -174,16 +212,109 @@ internal class BraintreeHttpClient(
         return httpClient.sendRequest(request)
     }
 
+    @Throws(BraintreeException::class)
+    private fun createGetRequest(
+        path: String,
+        configuration: Configuration?,
+        authorization: Authorization?
+    ): HttpRequest {
+        if (authorization is InvalidAuthorization) {
+            throw BraintreeException(authorization.errorMessage)
+        }
+        val isRelativeURL = !path.startsWith("http")
+        if (configuration == null && isRelativeURL) {
+            val message =
+                "Braintree HTTP GET request without configuration cannot have a relative path."
+            throw BraintreeException(message)
+        }
+        val targetPath = if (authorization is ClientToken) {
+            Uri.parse(path).buildUpon()
+                .appendQueryParameter(AUTHORIZATION_FINGERPRINT_KEY, authorization.bearer)
+                .toString()
+        } else {
+            path
+        }
+        val request = HttpRequest().method("GET").path(targetPath)
+            .addHeader(USER_AGENT_HEADER, "braintree/android/" + BuildConfig.VERSION_NAME)
+        if (isRelativeURL && configuration != null) {
+            request.baseUrl(configuration.clientApiUrl)
+        }
+        if (authorization is TokenizationKey) {
+            request.addHeader(CLIENT_KEY_HEADER, authorization.bearer)
+        }
+        return request
+    }
+
+    @Throws(BraintreeException::class, JSONException::class)
+    private fun createPostRequest(
+        path: String,
+        data: String,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        additionalHeaders: Map<String, String>
+    ): HttpRequest {
+        val request = createPostRequest(path, configuration, authorization, additionalHeaders)
+        val requestData = if (authorization is ClientToken) {
+            JSONObject(data).put(
+                AUTHORIZATION_FINGERPRINT_KEY,
+                authorization.authorizationFingerprint
+            ).toString()
+        } else {
+            data
+        }
+        return request.data(requestData)
+    }
+
+    @Throws(BraintreeException::class)
+    private fun createPostRequest(
+        path: String,
+        configuration: Configuration?,
+        authorization: Authorization?,
+        additionalHeaders: Map<String, String>
+    ): HttpRequest {
+        if (authorization is InvalidAuthorization) {
+            throw BraintreeException(authorization.errorMessage)
+        }
+        val isRelativeURL = !path.startsWith("http")
+        if (configuration == null && isRelativeURL) {
+            val message =
+                "Braintree HTTP GET request without configuration cannot have a relative path."
+            throw BraintreeException(message)
+        }
+        val request = HttpRequest().method("POST").path(path)
+            .addHeader(USER_AGENT_HEADER, "braintree/android/" + BuildConfig.VERSION_NAME)
+        if (isRelativeURL && configuration != null) {
+            request.baseUrl(configuration.clientApiUrl)
+        }
+        if (authorization is TokenizationKey) {
+            request.addHeader(CLIENT_KEY_HEADER, authorization.bearer)
+        }
+        authorization?.bearer?.let { token -> request.addHeader("Authorization", "Bearer $token") }
+        additionalHeaders.forEach { (name, value) -> request.addHeader(name, value) }
+        return request
+    }
+
+    private fun createJSONBody(
+        payload: JSONPayloadWriter,
+        authorization: Authorization?
+    ) = HttpRequestBody { out ->
+        // the output stream is closed by the HTTP client once the body has been written
+        val writer = JsonWriter(OutputStreamWriter(out, Charsets.UTF_8))
+        writer.beginObject()
+        if (authorization is ClientToken) {
+            writer.name(AUTHORIZATION_FINGERPRINT_KEY).value(authorization.authorizationFingerprint)
+        }
+        payload.writeFields(writer)
+        writer.endObject()
+        writer.flush()
+    }
+
     companion object {
         private const val AUTHORIZATION_FINGERPRINT_KEY = "authorizationFingerprint"
         private const val USER_AGENT_HEADER = "User-Agent"
         private const val CLIENT_KEY_HEADER = "Client-Key"
 
-        @Throws(SSLException::class)
-        private fun createDefaultHttpClient(): HttpClient {
-            val socketFactory =
-                TLSSocketFactory(TLSCertificatePinning.createCertificateInputStream())
-            return HttpClient(socketFactory, BraintreeHttpResponseParser())
-        }
+        private fun createDefaultHttpClient(): HttpClient =
+            HttpClient(PinnedTLSSocketFactory, BraintreeHttpResponseParser())
     }
 }
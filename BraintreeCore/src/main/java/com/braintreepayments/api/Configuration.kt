@@ -2,7 +2,6 @@ package com.braintreepayments.api
 
 import androidx.annotation.RestrictTo
 import org.json.JSONException
-import org.json.JSONObject
 
 // NEXT MAJOR VERSION: remove 'open' modifiers, Java classes/methods are open by default
 // Ref: https://kotlin-quick-reference.com/102c-R-open-final-classes.html
@@ -39,31 +38,22 @@ import org.json.JSONObject
  * @property payPalUserAgreementUrl the PayPal app user agreement url.
  * @property supportedCardTypes a list of card types supported by the merchant.
  */
-open class Configuration internal constructor(configurationString: String?) {
+open class Configuration internal constructor(
+    /**
+     * The parsed values this configuration was created from.
+     */
+    internal val data: ConfigurationData
+) {
+
+    @Throws(JSONException::class)
+    internal constructor(configurationString: String?) : this(
+        ConfigurationData.fromJson(configurationString)
+    )
 
     /**
      * @suppress
      */
     companion object {
-        private const val ASSETS_URL_KEY = "assetsUrl"
-        private const val BRAINTREE_API_KEY = "braintreeApi"
-        private const val CARDINAL_AUTHENTICATION_JWT = "cardinalAuthenticationJWT"
-        private const val CARD_KEY = "creditCards"
-        private const val CHALLENGES_KEY = "challenges"
-        private const val CLIENT_API_URL_KEY = "clientApiUrl"
-        private const val ENVIRONMENT_KEY = "environment"
-        private const val GOOGLE_PAY_KEY = "androidPay"
-        private const val GRAPHQL_KEY = "graphQL"
-        private const val MERCHANT_ACCOUNT_ID_KEY = "merchantAccountId"
-        private const val MERCHANT_ID_KEY = "merchantId"
-        private const val PAYPAL_ENABLED_KEY = "paypalEnabled"
-        private const val PAYPAL_KEY = "paypal"
-        private const val PAY_WITH_VENMO_KEY = "payWithVenmo"
-        private const val SAMSUNG_PAY_KEY = "samsungPay"
-        private const val THREE_D_SECURE_ENABLED_KEY = "threeDSecureEnabled"
-        private const val UNIONPAY_KEY = "unionPay"
-        private const val VISA_CHECKOUT_KEY = "visaCheckout"
-
         @JvmStatic
         @Throws(JSONException::class)
         fun fromJson(configurationString: String?): Configuration {
@@ -79,20 +69,29 @@ open class Configuration internal constructor(configurationString: String?) {
     open val environment: String
     open val isCvvChallengePresent: Boolean
     open val isGooglePayEnabled: Boolean
+        get() = data.googlePayConfiguration.isEnabled
     open val isLocalPaymentEnabled: Boolean
     open val isPayPalEnabled: Boolean
     open val isPostalCodeChallengePresent: Boolean
     open val isSamsungPayEnabled: Boolean
+        get() = data.samsungPayConfiguration.isEnabled
     open val isThreeDSecureEnabled: Boolean
     open val isUnionPayEnabled: Boolean
+        get() = data.unionPayConfiguration.isEnabled
     open val isVenmoEnabled: Boolean
+        get() = data.venmoConfiguration.isAccessTokenValid
     open val isVisaCheckoutEnabled: Boolean
+        get() = data.visaCheckoutConfiguration.isEnabled
     open val merchantAccountId: String?
     open val merchantId: String
     open val payPalDirectBaseUrl: String?
+        get() = data.payPalConfiguration.directBaseUrl
     open val payPalPrivacyUrl: String?
+        get() = data.payPalConfiguration.privacyUrl
     open val payPalUserAgreementUrl: String?
+        get() = data.payPalConfiguration.userAgreementUrl
     open val supportedCardTypes: List<String>
+        get() = data.cardConfiguration.supportedCardTypes
     // endregion
 
     // region Internal Properties
@@ -102,12 +101,14 @@ open class Configuration internal constructor(configurationString: String?) {
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val braintreeApiAccessToken: String
+        get() = data.braintreeApiConfiguration.accessToken
 
     /**
      * @return the base url for accessing Braintree API.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val braintreeApiUrl: String
+        get() = data.braintreeApiConfiguration.url
 
     /**
      * @return the authorization fingerprint to use for Google Payment, only allows tokenizing
@@ -115,54 +116,63 @@ open class Configuration internal constructor(configurationString: String?) {
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePayAuthorizationFingerprint: String?
+        get() = data.googlePayConfiguration.googleAuthorizationFingerprint
 
     /**
      * @return the Google Pay display name to show to the user.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePayDisplayName: String
+        get() = data.googlePayConfiguration.displayName
 
     /**
      * @return the current Google Pay environment.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePayEnvironment: String?
+        get() = data.googlePayConfiguration.environment
 
     /**
      * @return the PayPal Client ID used by Google Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePayPayPalClientId: String
+        get() = data.googlePayConfiguration.paypalClientId
 
     /**
      * @return a list of supported card networks for Google Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val googlePaySupportedNetworks: List<String>
+        get() = data.googlePayConfiguration.supportedNetworks
 
     /**
      * @return the GraphQL url.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val graphQLUrl: String
+        get() = data.graphQLConfiguration.url
 
     /**
      * @return a boolean indicating whether Braintree API is enabled for this merchant.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isBraintreeApiEnabled: Boolean
+        get() = data.braintreeApiConfiguration.isEnabled
 
     /**
      * @return `true` if fraud device data collection should occur; `false` otherwise.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isFraudDataCollectionEnabled: Boolean
+        get() = data.cardConfiguration.isFraudDataCollectionEnabled
 
     /**
      * @return `true` if GraphQL is enabled for the merchant account; `false` otherwise.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isGraphQLEnabled: Boolean
+        get() = data.graphQLConfiguration.isEnabled
 
     /**
      * @return `true` if Kount is enabled for the merchant account; `false` otherwise.
@@ -175,6 +185,7 @@ open class Configuration internal constructor(configurationString: String?) {
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val isPayPalTouchDisabled: Boolean
+        get() = data.payPalConfiguration.isTouchDisabled
 
     /**
      * @return the Kount merchant id set in the Gateway.
@@ -187,189 +198,134 @@ open class Configuration internal constructor(configurationString: String?) {
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val payPalClientId: String?
+        get() = data.payPalConfiguration.clientId
 
     /**
      * @return the PayPal currency code.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val payPalCurrencyIsoCode: String?
+        get() = data.payPalConfiguration.currencyIsoCode
 
     /**
      * @return the PayPal app display name.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val payPalDisplayName: String?
+        get() = data.payPalConfiguration.displayName
 
     /**
      * @return the current environment for PayPal.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val payPalEnvironment: String?
+        get() = data.payPalConfiguration.environment
 
     /**
      * @return the authorization to use with Samsung Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPayAuthorization: String
+        get() = data.samsungPayConfiguration.samsungAuthorization
 
     /**
      * @return the Braintree environment Samsung Pay should interact with.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPayEnvironment: String
+        get() = data.samsungPayConfiguration.environment
 
     /**
      * @return the merchant display name for Samsung Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPayMerchantDisplayName: String
+        get() = data.samsungPayConfiguration.merchantDisplayName
 
     /**
      * @return the Samsung Pay service id associated with the merchant.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPayServiceId: String
+        get() = data.samsungPayConfiguration.serviceId
 
     /**
      * @return a list of card brands supported by Samsung Pay.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val samsungPaySupportedCardBrands: List<String>
+        get() = data.samsungPayConfiguration.supportedCardBrands
 
     /**
      * @return the Access Token used by the Venmo app to tokenize on behalf of the merchant.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val venmoAccessToken: String
+        get() = data.venmoConfiguration.accessToken
 
     /**
      * @return the Venmo environment used to handle this payment.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val venmoEnvironment: String
+        get() = data.venmoConfiguration.environment
 
     /**
      * @return the Venmo merchant id used by the Venmo app to authorize payment.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val venmoMerchantId: String
+        get() = data.venmoConfiguration.merchantId
 
     /**
      * @return a boolean indicating whether ECD is enabled for this Venmo merchant.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val venmoEnrichedCustomerDataEnabled: Boolean
+        get() = data.venmoConfiguration.enrichedCustomerDataEnabled
 
     /**
      * @return the Visa Checkout API key configured in the Braintree Control Panel.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val visaCheckoutApiKey: String
+        get() = data.visaCheckoutConfiguration.apiKey
 
     /**
      * @return the Visa Checkout External Client ID configured in the Braintree Control Panel.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val visaCheckoutExternalClientId: String
+        get() = data.visaCheckoutConfiguration.externalClientId
 
     /**
      * @return the Visa Checkout supported networks enabled for the merchant account.
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP) val visaCheckoutSupportedNetworks: List<String>
+        get() = data.visaCheckoutConfiguration.acceptedCardBrands
 
-    private val braintreeApiConfiguration: BraintreeApiConfiguration
-    private val cardConfiguration: CardConfiguration
-    private val challenges: MutableSet<String>
-    private val configurationString: String
-    private val googlePayConfiguration: GooglePayConfiguration
-    private val graphQLConfiguration: GraphQLConfiguration
-    private val payPalConfiguration: PayPalConfiguration
-    private val samsungPayConfiguration: SamsungPayConfiguration
-    private val unionPayConfiguration: UnionPayConfiguration
-    private val venmoConfiguration: VenmoConfiguration
-    private val visaCheckoutConfiguration: VisaCheckoutConfiguration
     // endregion
 
     init {
-        // TODO: make configuration non-null once ConfigurationLoader is migrated to Kotlin
-        if (configurationString == null) {
-            throw JSONException("Configuration cannot be null")
-        }
-
-        this.configurationString = configurationString
-        val json = JSONObject(configurationString)
-        assetsUrl = Json.optString(json, ASSETS_URL_KEY, "")
-        clientApiUrl = json.getString(CLIENT_API_URL_KEY)
-
-        // parse json challenges
-        challenges = mutableSetOf()
-        json.optJSONArray(CHALLENGES_KEY)?.let { challengesArray ->
-            for (i in 0 until challengesArray.length()) {
-                challenges.add(challengesArray.optString(i, ""))
-            }
-        }
+        val challenges = data.challenges
 
-        braintreeApiConfiguration = BraintreeApiConfiguration(json.optJSONObject(BRAINTREE_API_KEY))
-        cardConfiguration = CardConfiguration(json.optJSONObject(CARD_KEY))
-        cardinalAuthenticationJwt = Json.optString(json, CARDINAL_AUTHENTICATION_JWT, null)
-        environment = json.getString(ENVIRONMENT_KEY)
-        googlePayConfiguration = GooglePayConfiguration(json.optJSONObject(GOOGLE_PAY_KEY))
-        graphQLConfiguration = GraphQLConfiguration(json.optJSONObject(GRAPHQL_KEY))
-        isPayPalEnabled = json.optBoolean(PAYPAL_ENABLED_KEY, false)
-        isThreeDSecureEnabled = json.optBoolean(THREE_D_SECURE_ENABLED_KEY, false)
-        merchantAccountId = Json.optString(json, MERCHANT_ACCOUNT_ID_KEY, null)
-        merchantId = json.getString(MERCHANT_ID_KEY)
-        payPalConfiguration = PayPalConfiguration(json.optJSONObject(PAYPAL_KEY))
-        samsungPayConfiguration = SamsungPayConfiguration(json.optJSONObject(SAMSUNG_PAY_KEY))
-        unionPayConfiguration = UnionPayConfiguration(json.optJSONObject(UNIONPAY_KEY))
-        venmoConfiguration = VenmoConfiguration(json.optJSONObject(PAY_WITH_VENMO_KEY))
-        visaCheckoutConfiguration = VisaCheckoutConfiguration(json.optJSONObject(VISA_CHECKOUT_KEY))
+        assetsUrl = data.assetsUrl
+        cardinalAuthenticationJwt = data.cardinalAuthenticationJwt
+        clientApiUrl = data.clientApiUrl
+        environment = data.environment
+        isPayPalEnabled = data.isPayPalEnabled
+        isThreeDSecureEnabled = data.isThreeDSecureEnabled
+        merchantAccountId = data.merchantAccountId
+        merchantId = data.merchantId
 
         isCvvChallengePresent = challenges.contains("cvv")
-        isGooglePayEnabled = googlePayConfiguration.isEnabled
         isLocalPaymentEnabled = isPayPalEnabled // Local Payments are enabled when PayPal is enabled
         isPostalCodeChallengePresent = challenges.contains("postal_code")
-        isSamsungPayEnabled = samsungPayConfiguration.isEnabled
-        isUnionPayEnabled = unionPayConfiguration.isEnabled
-        isVenmoEnabled = venmoConfiguration.isAccessTokenValid
-        isVisaCheckoutEnabled = visaCheckoutConfiguration.isEnabled
-        payPalDirectBaseUrl = payPalConfiguration.directBaseUrl
-        payPalPrivacyUrl = payPalConfiguration.privacyUrl
-        payPalUserAgreementUrl = payPalConfiguration.userAgreementUrl
-
-        braintreeApiAccessToken = braintreeApiConfiguration.accessToken
-        braintreeApiUrl = braintreeApiConfiguration.url
-        googlePayAuthorizationFingerprint = googlePayConfiguration.googleAuthorizationFingerprint
-        googlePayDisplayName = googlePayConfiguration.displayName
-        googlePayEnvironment = googlePayConfiguration.environment
-        googlePayPayPalClientId = googlePayConfiguration.paypalClientId
-        googlePaySupportedNetworks = googlePayConfiguration.supportedNetworks
-        graphQLUrl = graphQLConfiguration.url
-        isBraintreeApiEnabled = braintreeApiConfiguration.isEnabled
-        isFraudDataCollectionEnabled = cardConfiguration.isFraudDataCollectionEnabled
-        isGraphQLEnabled = graphQLConfiguration.isEnabled
+
         // NEXT MAJOR VERSION: remove Kount related properties
         isKountEnabled = false
-        isPayPalTouchDisabled = payPalConfiguration.isTouchDisabled
         kountMerchantId = ""
-        payPalClientId = payPalConfiguration.clientId
-        payPalCurrencyIsoCode = payPalConfiguration.currencyIsoCode
-        payPalDisplayName = payPalConfiguration.displayName
-        payPalEnvironment = payPalConfiguration.environment
-        samsungPayAuthorization = samsungPayConfiguration.samsungAuthorization
-        samsungPayEnvironment = samsungPayConfiguration.environment
-        samsungPayMerchantDisplayName = samsungPayConfiguration.merchantDisplayName
-        samsungPayServiceId = samsungPayConfiguration.serviceId
-        samsungPaySupportedCardBrands = samsungPayConfiguration.supportedCardBrands.toList()
-        supportedCardTypes = cardConfiguration.supportedCardTypes
-        venmoAccessToken = venmoConfiguration.accessToken
-        venmoEnvironment = venmoConfiguration.environment
-        venmoMerchantId = venmoConfiguration.merchantId
-        venmoEnrichedCustomerDataEnabled = venmoConfiguration.enrichedCustomerDataEnabled
-        visaCheckoutApiKey = visaCheckoutConfiguration.apiKey
-        visaCheckoutExternalClientId = visaCheckoutConfiguration.externalClientId
-        visaCheckoutSupportedNetworks = visaCheckoutConfiguration.acceptedCardBrands
     }
 
     // region Public Methods
@@ -377,7 +333,7 @@ open class Configuration internal constructor(configurationString: String?) {
      * @return Configuration as a json [String].
      */
     open fun toJson(): String {
-        return configurationString
+        return data.configurationString
     }
     // endregion
 
@@ -390,6 +346,7 @@ open class Configuration internal constructor(configurationString: String?) {
      * @suppress
      */
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-    fun isGraphQLFeatureEnabled(feature: String) = graphQLConfiguration.isFeatureEnabled(feature)
+    fun isGraphQLFeatureEnabled(feature: String) =
+        data.graphQLConfiguration.isFeatureEnabled(feature)
     // endregion
 }
@@ -2,54 +2,249 @@ package com.braintreepayments.api
 
 import android.content.Context
 import androidx.annotation.VisibleForTesting
+import androidx.annotation.WorkerThread
 import java.util.concurrent.TimeUnit
 
+/**
+ * Two-tier cache for [Configuration]. Parsed configurations are held in memory for the lifetime
+ * of the process, and their binary encoding, see [ConfigurationCodec], is persisted to a file of
+ * its own through [BraintreeStore.putBytes] so that a cold process can skip both the network
+ * request and JSON parsing. Both tiers share the same time to live. A persisted entry written in
+ * another format version is restored from its JSON document, and an entry that cannot be decoded
+ * at all is dropped so that the configuration is fetched again.
+ *
+ * Lookups never wait for [BraintreeStore] to finish loading: while it is still loading, only the
+ * in-memory tier is consulted and callers fall back to fetching the configuration. Lookups that
+ * may reach the persisted tier read from disk and must be made off the main thread;
+ * [getMemoryConfiguration] only consults the in-memory tier and is safe to call from any thread.
+ *
+ * Entries that have outlived their time to live remain available through
+ * [getStaleConfiguration] for a limited period, so that callers can use them while a fresh
+ * configuration is fetched in the background.
+ *
+ * Both tiers are bounded. The in-memory tier evicts its least recently used entry, and each save
+ * removes persisted entries that are too old to be served as well as the least recently saved
+ * entries beyond [MAX_PERSISTED_ENTRIES], including entries written by earlier SDK versions.
+ */
 internal class ConfigurationCache @VisibleForTesting constructor(
-        private val sharedPreferences: BraintreeSharedPreferences
+        private val store: BraintreeStore
     ) {
 
-    fun getConfiguration(cacheKey: String): String? {
+    private val memoryCache = object : LinkedHashMap<String, CachedConfiguration>(
+        MAX_MEMORY_ENTRIES, LOAD_FACTOR, true
+    ) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, CachedConfiguration>?) =
+            size > MAX_MEMORY_ENTRIES
+    }
+
+    /**
+     * Number of lookups served by the in-memory tier. Each lookup counts once, as a hit when the
+     * in-memory tier serves it and as a miss otherwise.
+     */
+    @get:Synchronized
+    var memoryHitCount = 0L
+        private set
+
+    /**
+     * Number of lookups that had to fall back to [BraintreeStore].
+     */
+    @get:Synchronized
+    var memoryMissCount = 0L
+        private set
+
+    /**
+     * A configuration found by [lookUpConfiguration].
+     *
+     * @property isStale `true` if [configuration] has outlived its time to live and should be
+     * refreshed, `false` otherwise.
+     */
+    class CacheEntry(val configuration: Configuration, val isStale: Boolean)
+
+    /**
+     * Retrieve a configuration that is either fresh or still recent enough to be served while a
+     * fresh configuration is fetched, in a single lookup.
+     */
+    @WorkerThread
+    fun lookUpConfiguration(cacheKey: String): CacheEntry? {
+        return lookUpConfiguration(cacheKey, System.currentTimeMillis())
+    }
+
+    @WorkerThread
+    fun lookUpConfiguration(cacheKey: String, currentTimeMillis: Long): CacheEntry? =
+        findConfiguration(cacheKey, currentTimeMillis, MAX_STALE_AGE)?.let { cached ->
+            CacheEntry(
+                cached.configuration,
+                currentTimeMillis - cached.timestamp >= TIME_TO_LIVE
+            )
+        }
+
+    /**
+     * Retrieve a configuration from the in-memory tier only, without touching [BraintreeStore].
+     * A miss is not counted, since callers go on to [lookUpConfiguration].
+     */
+    fun getMemoryConfiguration(cacheKey: String): Configuration? {
+        return getMemoryConfiguration(cacheKey, System.currentTimeMillis())
+    }
+
+    @Synchronized
+    fun getMemoryConfiguration(cacheKey: String, currentTimeMillis: Long): Configuration? {
+        val cachedConfiguration = memoryCache[cacheKey] ?: return null
+        if (currentTimeMillis - cachedConfiguration.timestamp >= TIME_TO_LIVE) {
+            return null
+        }
+        memoryHitCount++
+        return cachedConfiguration.configuration
+    }
+
+    @WorkerThread
+    fun getConfiguration(cacheKey: String): Configuration? {
         return getConfiguration(cacheKey, System.currentTimeMillis())
     }
 
-    fun getConfiguration(cacheKey: String, currentTimeMillis: Long): String? {
-        val timestampKey = "${cacheKey}_timestamp"
-        if (sharedPreferences.containsKey(timestampKey)) {
-            val timeInCache = currentTimeMillis - sharedPreferences.getLong(timestampKey)
-            if (timeInCache < TIME_TO_LIVE) {
-                return sharedPreferences.getString(cacheKey, "")
+    @WorkerThread
+    fun getConfiguration(cacheKey: String, currentTimeMillis: Long): Configuration? =
+        findConfiguration(cacheKey, currentTimeMillis, TIME_TO_LIVE)?.configuration
+
+    /**
+     * Retrieve a configuration that may have outlived its time to live, but is still recent
+     * enough to be served while a fresh configuration is fetched.
+     */
+    @WorkerThread
+    fun getStaleConfiguration(cacheKey: String): Configuration? {
+        return getStaleConfiguration(cacheKey, System.currentTimeMillis())
+    }
+
+    @WorkerThread
+    fun getStaleConfiguration(cacheKey: String, currentTimeMillis: Long): Configuration? =
+        findConfiguration(cacheKey, currentTimeMillis, MAX_STALE_AGE)?.configuration
+
+    private fun findConfiguration(
+        cacheKey: String,
+        currentTimeMillis: Long,
+        maxAge: Long
+    ): CachedConfiguration? {
+        getMemoryEntry(cacheKey, currentTimeMillis, maxAge)?.let { return it }
+        if (!store.isLoaded) {
+            return null
+        }
+
+        // the persisted tier is read without holding the lock so that in-memory lookups made
+        // from the main thread never wait on disk
+        val timestampKey = timestampKey(cacheKey)
+        if (store.containsKey(timestampKey)) {
+            val timestamp = store.getLong(timestampKey)
+            if (currentTimeMillis - timestamp < maxAge) {
+                val cachedConfiguration = store.getBytes(cacheKey)
+                    ?.let(ConfigurationCodec::decode)
+                    ?.let { CachedConfiguration(it, timestamp) }
+                synchronized(this) {
+                    if (cachedConfiguration == null) {
+                        removePersistedEntries(listOf(cacheKey))
+                    } else {
+                        memoryCache[cacheKey] = cachedConfiguration
+                    }
+                }
+                return cachedConfiguration
             }
         }
         return null
     }
 
+    @Synchronized
+    private fun getMemoryEntry(
+        cacheKey: String,
+        currentTimeMillis: Long,
+        maxAge: Long
+    ): CachedConfiguration? {
+        memoryCache[cacheKey]?.let { cachedConfiguration ->
+            val age = currentTimeMillis - cachedConfiguration.timestamp
+            if (age < maxAge) {
+                memoryHitCount++
+                return cachedConfiguration
+            }
+            if (age >= MAX_STALE_AGE) {
+                memoryCache.remove(cacheKey)
+            }
+        }
+        memoryMissCount++
+        return null
+    }
+
     fun saveConfiguration(configuration: Configuration, cacheKey: String?) {
         saveConfiguration(configuration, cacheKey, System.currentTimeMillis())
     }
 
+    @Synchronized
     fun saveConfiguration(
         configuration: Configuration,
         cacheKey: String?,
         currentTimeMillis: Long
     ) {
-        val timestampKey = "${cacheKey}_timestamp"
-        sharedPreferences.putStringAndLong(
-            cacheKey,
-            configuration.toJson(),
-            timestampKey,
-            currentTimeMillis
-        )
+        if (cacheKey == null) {
+            return
+        }
+        memoryCache.values.removeAll { cached ->
+            currentTimeMillis - cached.timestamp >= MAX_STALE_AGE
+        }
+        memoryCache[cacheKey] = CachedConfiguration(configuration, currentTimeMillis)
+        evictPersistedEntries(cacheKey, currentTimeMillis)
+        store.putBytes(cacheKey, ConfigurationCodec.encode(configuration))
+        store.putLong(timestampKey(cacheKey), currentTimeMillis)
     }
 
+    private fun evictPersistedEntries(savedCacheKey: String, currentTimeMillis: Long) {
+        // entries left behind while the store was loading are evicted by a later save
+        if (!store.isLoaded) {
+            return
+        }
+        val timestamps = store.keys
+            .filter { it.endsWith(TIMESTAMP_SUFFIX) }
+            .map { it.removeSuffix(TIMESTAMP_SUFFIX) }
+            .filter { it != savedCacheKey }
+            .associateWith { store.getLong(timestampKey(it)) }
+
+        val (expired, live) = timestamps.keys.partition { cacheKey ->
+            currentTimeMillis - timestamps.getValue(cacheKey) >= MAX_STALE_AGE
+        }
+        val evicted = expired + live
+            .sortedByDescending { timestamps.getValue(it) }
+            .drop(MAX_PERSISTED_ENTRIES - 1)
+
+        if (evicted.isNotEmpty()) {
+            evicted.forEach { memoryCache.remove(it) }
+            removePersistedEntries(evicted)
+        }
+    }
+
+    private fun removePersistedEntries(cacheKeys: List<String>) {
+        // entries written by earlier SDK versions hold the configuration under the cache key
+        store.removeKeys(cacheKeys.flatMap { listOf(it, timestampKey(it)) })
+        store.removeBytes(cacheKeys)
+    }
+
+    private class CachedConfiguration(val configuration: Configuration, val timestamp: Long)
+
     companion object {
         private val TIME_TO_LIVE = TimeUnit.MINUTES.toMillis(5)
+        private val MAX_STALE_AGE = TimeUnit.HOURS.toMillis(1)
+
+        @VisibleForTesting
+        const val MAX_MEMORY_ENTRIES = 4
+
+        @VisibleForTesting
+        const val MAX_PERSISTED_ENTRIES = 4
+
+        private const val LOAD_FACTOR = 0.75f
+        private const val TIMESTAMP_SUFFIX = "_timestamp"
+
+        private fun timestampKey(cacheKey: String) = "$cacheKey$TIMESTAMP_SUFFIX"
 
         @Volatile
         private var INSTANCE: ConfigurationCache? = null
         fun getInstance(context: Context): ConfigurationCache =
             INSTANCE ?: synchronized(this) {
                 INSTANCE ?: ConfigurationCache(
-                    BraintreeSharedPreferences.getInstance(context)
+                    BraintreeStore.getInstance(context, BraintreeStore.Segment.CONFIGURATION)
                 ).also { INSTANCE = it }
             }
     }
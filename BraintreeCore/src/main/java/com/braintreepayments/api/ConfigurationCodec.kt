@@ -0,0 +1,231 @@
+package com.braintreepayments.api
+
+import androidx.annotation.VisibleForTesting
+import org.json.JSONException
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+
+/**
+ * Versioned binary encoding of a [Configuration], so that a cached configuration can be restored
+ * on process start without parsing JSON.
+ *
+ * An encoding starts with a magic number, the format version and the configuration JSON
+ * document, in that order for every format version. The rest holds the parsed values of the
+ * configuration, see [ConfigurationData]: the top-level values followed by the values of each
+ * payment method section. Decoding an encoding of the current format version restores those
+ * values as they are. An encoding of another format version is restored by parsing its JSON
+ * document instead, so that entries written by other SDK versions remain usable.
+ */
+internal object ConfigurationCodec {
+
+    private const val MAGIC = 0x42544346 // "BTCF"
+
+    @VisibleForTesting
+    const val FORMAT_VERSION = 2
+
+    fun encode(configuration: Configuration): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { output ->
+            output.writeInt(MAGIC)
+            output.writeInt(FORMAT_VERSION)
+            output.writeString(configuration.data.configurationString)
+            writeData(output, configuration.data)
+        }
+        return bytes.toByteArray()
+    }
+
+    /**
+     * @return the decoded configuration, or null if [bytes] is not an encoding of a
+     * configuration.
+     */
+    @Suppress("SwallowedException")
+    fun decode(bytes: ByteArray): Configuration? =
+        try {
+            DataInputStream(ByteArrayInputStream(bytes)).use { input ->
+                if (input.readInt() != MAGIC) {
+                    null
+                } else {
+                    val formatVersion = input.readInt()
+                    val document = input.readString()
+                    if (formatVersion == FORMAT_VERSION) {
+                        Configuration(readData(input, document))
+                    } else {
+                        Configuration.fromJson(document)
+                    }
+                }
+            }
+        } catch (e: IOException) {
+            null
+        } catch (e: JSONException) {
+            null
+        }
+
+    // sections that have not been used are parsed for encoding without being kept, so that
+    // saving a configuration does not count as using its sections
+    private fun writeData(output: DataOutputStream, data: ConfigurationData) = output.run {
+        writeString(data.assetsUrl)
+        writeNullableString(data.cardinalAuthenticationJwt)
+        writeStrings(data.challenges)
+        writeString(data.clientApiUrl)
+        writeString(data.environment)
+        writeBoolean(data.isPayPalEnabled)
+        writeBoolean(data.isThreeDSecureEnabled)
+        writeNullableString(data.merchantAccountId)
+        writeString(data.merchantId)
+
+        data.braintreeApi.peek().let {
+            writeString(it.accessToken)
+            writeString(it.url)
+        }
+        data.card.peek().let {
+            writeStrings(it.supportedCardTypes)
+            writeBoolean(it.isFraudDataCollectionEnabled)
+        }
+        data.googlePay.peek().let {
+            writeBoolean(it.isEnabled)
+            writeNullableString(it.googleAuthorizationFingerprint)
+            writeNullableString(it.environment)
+            writeString(it.displayName)
+            writeStrings(it.supportedNetworks)
+            writeString(it.paypalClientId)
+        }
+        data.graphQL.peek().let {
+            writeString(it.url)
+            writeStrings(it.features)
+        }
+        data.payPal.peek().let {
+            writeNullableString(it.directBaseUrl)
+            writeNullableString(it.displayName)
+            writeNullableString(it.clientId)
+            writeNullableString(it.privacyUrl)
+            writeNullableString(it.userAgreementUrl)
+            writeNullableString(it.environment)
+            writeBoolean(it.isTouchDisabled)
+            writeNullableString(it.currencyIsoCode)
+        }
+        data.samsungPay.peek().let {
+            writeString(it.environment)
+            writeString(it.serviceId)
+            writeString(it.merchantDisplayName)
+            writeStrings(it.supportedCardBrands)
+            writeString(it.samsungAuthorization)
+        }
+        writeBoolean(data.unionPay.peek().isEnabled)
+        data.venmo.peek().let {
+            writeString(it.accessToken)
+            writeString(it.environment)
+            writeString(it.merchantId)
+            writeBoolean(it.enrichedCustomerDataEnabled)
+        }
+        data.visaCheckout.peek().let {
+            writeString(it.apiKey)
+            writeString(it.externalClientId)
+            writeStrings(it.acceptedCardBrands)
+        }
+    }
+
+    private fun readData(input: DataInputStream, document: String) = input.run {
+        ConfigurationData(
+            assetsUrl = readString(),
+            cardinalAuthenticationJwt = readNullableString(),
+            challenges = readStrings().toSet(),
+            clientApiUrl = readString(),
+            environment = readString(),
+            isPayPalEnabled = readBoolean(),
+            isThreeDSecureEnabled = readBoolean(),
+            merchantAccountId = readNullableString(),
+            merchantId = readString(),
+            braintreeApi = ConfigurationData.Section.of(
+                BraintreeApiConfiguration(readString(), readString())
+            ),
+            card = ConfigurationData.Section.of(
+                CardConfiguration(readStrings(), readBoolean())
+            ),
+            googlePay = ConfigurationData.Section.of(
+                GooglePayConfiguration(
+                    readBoolean(),
+                    readNullableString(),
+                    readNullableString(),
+                    readString(),
+                    readStrings(),
+                    readString()
+                )
+            ),
+            graphQL = ConfigurationData.Section.of(
+                GraphQLConfiguration(readString(), readStrings().toSet())
+            ),
+            payPal = ConfigurationData.Section.of(
+                PayPalConfiguration(
+                    readNullableString(),
+                    readNullableString(),
+                    readNullableString(),
+                    readNullableString(),
+                    readNullableString(),
+                    readNullableString(),
+                    readBoolean(),
+                    readNullableString()
+                )
+            ),
+            samsungPay = ConfigurationData.Section.of(
+                SamsungPayConfiguration(
+                    readString(),
+                    readString(),
+                    readString(),
+                    readStrings(),
+                    readString()
+                )
+            ),
+            unionPay = ConfigurationData.Section.of(UnionPayConfiguration(readBoolean())),
+            venmo = ConfigurationData.Section.of(
+                VenmoConfiguration(readString(), readString(), readString(), readBoolean())
+            ),
+            visaCheckout = ConfigurationData.Section.of(
+                VisaCheckoutConfiguration(readString(), readString(), readStrings())
+            ),
+            configurationString = document
+        )
+    }
+
+    // writeUTF is limited to 64 KB, which a configuration document could exceed
+    private fun DataOutputStream.writeString(value: String) {
+        val bytes = value.toByteArray(StandardCharsets.UTF_8)
+        writeInt(bytes.size)
+        write(bytes)
+    }
+
+    private fun DataOutputStream.writeNullableString(value: String?) {
+        writeBoolean(value != null)
+        value?.let { writeString(it) }
+    }
+
+    private fun DataOutputStream.writeStrings(values: Collection<String>) {
+        writeInt(values.size)
+        values.forEach { writeString(it) }
+    }
+
+    private fun DataInputStream.readString(): String {
+        val length = readInt()
+        if (length < 0 || length > available()) {
+            throw IOException("Invalid string length $length")
+        }
+        val bytes = ByteArray(length)
+        readFully(bytes)
+        return String(bytes, StandardCharsets.UTF_8)
+    }
+
+    private fun DataInputStream.readNullableString(): String? =
+        if (readBoolean()) readString() else null
+
+    private fun DataInputStream.readStrings(): List<String> {
+        val count = readInt()
+        // every string takes at least the four bytes of its length
+        if (count < 0 || count > available() / 4) {
+            throw IOException("Invalid string count $count")
+        }
+        return List(count) { readString() }
+    }
+}
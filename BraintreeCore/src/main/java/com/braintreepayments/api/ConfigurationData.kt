@@ -0,0 +1,199 @@
+package com.braintreepayments.api
+
+import androidx.annotation.VisibleForTesting
+import org.json.JSONException
+import org.json.JSONObject
+import org.json.JSONTokener
+
+/**
+ * The values a [Configuration] is created from, parsed either from the configuration JSON
+ * returned by the gateway or decoded from its cached binary form, see [ConfigurationCodec].
+ *
+ * Top-level values are parsed up front. When parsed from JSON, payment method sections are kept
+ * as raw JSON and parsed the first time they are used, so the cost of parsing a configuration
+ * scales with the payment methods the app actually uses. When decoded, every section is restored
+ * from its encoded values and no JSON is parsed.
+ *
+ * @property configurationString the configuration JSON document, returned by
+ * [Configuration.toJson].
+ */
+internal class ConfigurationData(
+    val assetsUrl: String,
+    val cardinalAuthenticationJwt: String?,
+    val challenges: Set<String>,
+    val clientApiUrl: String,
+    val environment: String,
+    val isPayPalEnabled: Boolean,
+    val isThreeDSecureEnabled: Boolean,
+    val merchantAccountId: String?,
+    val merchantId: String,
+    val braintreeApi: Section<BraintreeApiConfiguration>,
+    val card: Section<CardConfiguration>,
+    val googlePay: Section<GooglePayConfiguration>,
+    val graphQL: Section<GraphQLConfiguration>,
+    val payPal: Section<PayPalConfiguration>,
+    val samsungPay: Section<SamsungPayConfiguration>,
+    val unionPay: Section<UnionPayConfiguration>,
+    val venmo: Section<VenmoConfiguration>,
+    val visaCheckout: Section<VisaCheckoutConfiguration>,
+    val configurationString: String
+) {
+
+    val braintreeApiConfiguration get() = braintreeApi.value
+    val cardConfiguration get() = card.value
+    val googlePayConfiguration get() = googlePay.value
+    val graphQLConfiguration get() = graphQL.value
+    val payPalConfiguration get() = payPal.value
+    val samsungPayConfiguration get() = samsungPay.value
+    val unionPayConfiguration get() = unionPay.value
+    val venmoConfiguration get() = venmo.value
+    val visaCheckoutConfiguration get() = visaCheckout.value
+
+    private val sections = mapOf(
+        BRAINTREE_API_KEY to braintreeApi,
+        CARD_KEY to card,
+        GOOGLE_PAY_KEY to googlePay,
+        GRAPHQL_KEY to graphQL,
+        PAYPAL_KEY to payPal,
+        SAMSUNG_PAY_KEY to samsungPay,
+        UNIONPAY_KEY to unionPay,
+        PAY_WITH_VENMO_KEY to venmo,
+        VISA_CHECKOUT_KEY to visaCheckout
+    )
+
+    /**
+     * The names of the payment method sections that have been parsed or decoded so far.
+     */
+    @get:VisibleForTesting
+    val parsedSections: Set<String>
+        get() = sections.filterValues { it.isParsed }.keys
+
+    /**
+     * A payment method section of the configuration.
+     */
+    class Section<T> private constructor(
+        private val parsed: Lazy<T>,
+        private val parse: () -> T
+    ) {
+
+        val value: T
+            get() = parsed.value
+
+        val isParsed: Boolean
+            get() = parsed.isInitialized()
+
+        /**
+         * @return the value of this section without keeping it, so that reading a section that
+         * has not been used yet, for example to encode it, does not count as a use.
+         */
+        fun peek(): T = if (parsed.isInitialized()) parsed.value else parse()
+
+        companion object {
+
+            /**
+             * A section parsed from its raw JSON the first time it is used. A section that is
+             * absent or is not a JSON object is parsed from null, like
+             * [JSONObject.optJSONObject] would return.
+             */
+            fun <T> fromJson(sectionJson: String?, parse: (JSONObject?) -> T): Section<T> {
+                val parseJson = { parse(parseSection(sectionJson)) }
+                return Section(lazy(parseJson), parseJson)
+            }
+
+            fun <T> of(value: T): Section<T> = Section(lazyOf(value)) { value }
+        }
+    }
+
+    companion object {
+        private const val ASSETS_URL_KEY = "assetsUrl"
+        private const val BRAINTREE_API_KEY = "braintreeApi"
+        private const val CARDINAL_AUTHENTICATION_JWT = "cardinalAuthenticationJWT"
+        private const val CARD_KEY = "creditCards"
+        private const val CHALLENGES_KEY = "challenges"
+        private const val CLIENT_API_URL_KEY = "clientApiUrl"
+        private const val ENVIRONMENT_KEY = "environment"
+        private const val GOOGLE_PAY_KEY = "androidPay"
+        private const val GRAPHQL_KEY = "graphQL"
+        private const val MERCHANT_ACCOUNT_ID_KEY = "merchantAccountId"
+        private const val MERCHANT_ID_KEY = "merchantId"
+        private const val PAYPAL_ENABLED_KEY = "paypalEnabled"
+        private const val PAYPAL_KEY = "paypal"
+        private const val PAY_WITH_VENMO_KEY = "payWithVenmo"
+        private const val SAMSUNG_PAY_KEY = "samsungPay"
+        private const val THREE_D_SECURE_ENABLED_KEY = "threeDSecureEnabled"
+        private const val UNIONPAY_KEY = "unionPay"
+        private const val VISA_CHECKOUT_KEY = "visaCheckout"
+
+        private val TOP_LEVEL_KEYS = listOf(
+            ASSETS_URL_KEY,
+            CARDINAL_AUTHENTICATION_JWT,
+            CHALLENGES_KEY,
+            CLIENT_API_URL_KEY,
+            ENVIRONMENT_KEY,
+            MERCHANT_ACCOUNT_ID_KEY,
+            MERCHANT_ID_KEY,
+            PAYPAL_ENABLED_KEY,
+            THREE_D_SECURE_ENABLED_KEY
+        )
+
+        @Throws(JSONException::class)
+        fun fromJson(configurationString: String?): ConfigurationData {
+            // TODO: make configuration non-null once ConfigurationLoader is migrated to Kotlin
+            if (configurationString == null) {
+                throw JSONException("Configuration cannot be null")
+            }
+            val members = JsonObjectMembers.read(configurationString)
+
+            // only the small top-level values are parsed here; sections stay raw
+            val json = JSONObject()
+            TOP_LEVEL_KEYS.forEach { key ->
+                members[key]?.let { json.put(key, JSONTokener(it).nextValue()) }
+            }
+
+            val challenges = mutableSetOf<String>()
+            json.optJSONArray(CHALLENGES_KEY)?.let { challengesArray ->
+                for (i in 0 until challengesArray.length()) {
+                    challenges.add(challengesArray.optString(i, ""))
+                }
+            }
+
+            return ConfigurationData(
+                assetsUrl = Json.optString(json, ASSETS_URL_KEY, ""),
+                cardinalAuthenticationJwt = Json.optString(json, CARDINAL_AUTHENTICATION_JWT, null),
+                challenges = challenges,
+                clientApiUrl = json.getString(CLIENT_API_URL_KEY),
+                environment = json.getString(ENVIRONMENT_KEY),
+                isPayPalEnabled = json.optBoolean(PAYPAL_ENABLED_KEY, false),
+                isThreeDSecureEnabled = json.optBoolean(THREE_D_SECURE_ENABLED_KEY, false),
+                merchantAccountId = Json.optString(json, MERCHANT_ACCOUNT_ID_KEY, null),
+                merchantId = json.getString(MERCHANT_ID_KEY),
+                braintreeApi = Section.fromJson(members[BRAINTREE_API_KEY]) {
+                    BraintreeApiConfiguration(it)
+                },
+                card = Section.fromJson(members[CARD_KEY]) { CardConfiguration(it) },
+                googlePay = Section.fromJson(members[GOOGLE_PAY_KEY]) {
+                    GooglePayConfiguration(it)
+                },
+                graphQL = Section.fromJson(members[GRAPHQL_KEY]) { GraphQLConfiguration(it) },
+                payPal = Section.fromJson(members[PAYPAL_KEY]) { PayPalConfiguration(it) },
+                samsungPay = Section.fromJson(members[SAMSUNG_PAY_KEY]) {
+                    SamsungPayConfiguration(it)
+                },
+                unionPay = Section.fromJson(members[UNIONPAY_KEY]) { UnionPayConfiguration(it) },
+                venmo = Section.fromJson(members[PAY_WITH_VENMO_KEY]) { VenmoConfiguration(it) },
+                visaCheckout = Section.fromJson(members[VISA_CHECKOUT_KEY]) {
+                    VisaCheckoutConfiguration(it)
+                },
+                configurationString = configurationString
+            )
+        }
+
+        @Suppress("SwallowedException")
+        private fun parseSection(sectionJson: String?): JSONObject? =
+            try {
+                sectionJson?.let { JSONTokener(it).nextValue() as? JSONObject }
+            } catch (e: JSONException) {
+                null
+            }
+    }
+}
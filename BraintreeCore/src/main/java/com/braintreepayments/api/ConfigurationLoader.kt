@@ -2,15 +2,18 @@ package com.braintreepayments.api
 
 import android.content.Context
 import android.net.Uri
-import android.util.Base64
 import org.json.JSONException
 
 internal class ConfigurationLoader internal constructor(
     private val httpClient: BraintreeHttpClient,
-    private val configurationCache: ConfigurationCache
+    private val configurationCache: ConfigurationCache,
+    private val pendingRequests: PendingConfigurationRequests = PendingConfigurationRequests(),
+    private val scheduler: Scheduler = ThreadScheduler()
 ) {
     constructor(context: Context, httpClient: BraintreeHttpClient) : this(
-        httpClient, ConfigurationCache.getInstance(context)
+        httpClient,
+        ConfigurationCache.getInstance(context),
+        PendingConfigurationRequests.sharedInstance
     )
 
     fun loadConfiguration(authorization: Authorization, callback: ConfigurationLoaderCallback) {
@@ -24,55 +27,73 @@ internal class ConfigurationLoader internal constructor(
             .appendQueryParameter("configVersion", "3")
             .build()
             .toString()
-        val cachedConfig = getCachedConfiguration(authorization, configUrl)
+        val cacheKey = createCacheKey(authorization)
+        configurationCache.getMemoryConfiguration(cacheKey)?.let { memoryConfig ->
+            callback.onResult(memoryConfig, null)
+            return
+        }
 
-        cachedConfig?.let {
-            callback.onResult(cachedConfig, null)
-        } ?: run {
-            httpClient.get(configUrl, null, authorization, HttpClient.RETRY_MAX_3_TIMES,
-                object : HttpResponseCallback {
-                    override fun onResult(responseBody: String?, httpError: Exception?) {
-                        responseBody?.let {
-                            try {
-                                val configuration = Configuration.fromJson(it)
-                                saveConfigurationToCache(configuration, authorization, configUrl)
-                                callback.onResult(configuration, null)
-                            } catch (jsonException: JSONException) {
-                                callback.onResult(null, jsonException)
-                            }
-                        } ?: httpError?.let { error ->
-                            val errorMessageFormat = "Request for configuration has failed: %s"
-                            val errorMessage = String.format(errorMessageFormat, error.message)
-                            val configurationException = ConfigurationException(errorMessage, error)
-                            callback.onResult(null, configurationException)
-                        }
+        // the persisted tier is read from disk, so look it up off the main thread
+        scheduler.runOnBackground({
+            val cacheEntry = configurationCache.lookUpConfiguration(cacheKey)
+            scheduler.runOnMain {
+                cacheEntry?.let {
+                    callback.onResult(cacheEntry.configuration, null)
+                    if (cacheEntry.isStale) {
+                        // the expired configuration was served; refresh it in the background
+                        fetchConfiguration(authorization, configUrl, cacheKey) { _, _ -> }
                     }
-                })
-        }
+                } ?: run {
+                    fetchConfiguration(authorization, configUrl, cacheKey, callback)
+                }
+            }
+        }, HttpRequest.PRIORITY_HIGH)
     }
 
-    private fun saveConfigurationToCache(
-        configuration: Configuration,
+    private fun fetchConfiguration(
         authorization: Authorization,
-        configUrl: String
+        configUrl: String,
+        cacheKey: String,
+        callback: ConfigurationLoaderCallback
     ) {
-        val cacheKey = createCacheKey(authorization, configUrl)
-        configurationCache.saveConfiguration(configuration, cacheKey)
-    }
+        // join the in-flight request for this cache key if there is one
+        if (!pendingRequests.add(cacheKey, callback)) return
 
-    private fun getCachedConfiguration(authorization: Authorization, configUrl: String): Configuration? {
-        val cacheKey = createCacheKey(authorization, configUrl)
-        val cachedConfigResponse = configurationCache.getConfiguration(cacheKey)
-        return try {
-            Configuration.fromJson(cachedConfigResponse)
-        } catch (e: JSONException) {
-            null
-        }
+        httpClient.get(configUrl, null, authorization, HttpClient.RETRY_MAX_3_TIMES,
+            HttpRequest.PRIORITY_NORMAL, object : HttpResponseCallback {
+                override fun onResult(responseBody: String?, httpError: Exception?) {
+                    val callbacks = pendingRequests.remove(cacheKey)
+                    responseBody?.let {
+                        try {
+                            val configuration = Configuration.fromJson(it)
+                            configurationCache.saveConfiguration(configuration, cacheKey)
+                            callbacks.forEach { waiter -> waiter.onResult(configuration, null) }
+                        } catch (jsonException: JSONException) {
+                            callbacks.forEach { waiter -> waiter.onResult(null, jsonException) }
+                        }
+                    } ?: httpError?.let { error ->
+                        val errorMessageFormat = "Request for configuration has failed: %s"
+                        val errorMessage = String.format(errorMessageFormat, error.message)
+                        val configurationException = ConfigurationException(errorMessage, error)
+                        callbacks.forEach { waiter ->
+                            waiter.onResult(null, configurationException)
+                        }
+                    }
+                }
+            })
     }
 
     companion object {
-        private fun createCacheKey(authorization: Authorization, configUrl: String): String {
-            return Base64.encodeToString("$configUrl${authorization.bearer}".toByteArray(), 0)
+
+        /**
+         * Configuration can differ between client tokens for the same merchant, for example when
+         * they are generated for different merchant accounts, so the key is derived from the
+         * bearer as well as the configuration URL. The key is a digest so that the bearer itself
+         * is not written to disk as part of it.
+         */
+        @JvmStatic
+        fun createCacheKey(authorization: Authorization): String {
+            return Sha256.hex("${authorization.configUrl}|${authorization.bearer}")
         }
     }
 }
@@ -15,11 +15,13 @@ import androidx.annotation.VisibleForTesting
 class DeviceInspector @VisibleForTesting internal constructor(
     private val appHelper: AppHelper,
     private val signatureVerifier: SignatureVerifier,
+    private val deviceMetadataCache: DeviceMetadataCache = DeviceMetadataCache(),
 ) {
 
     constructor() : this(
         AppHelper(),
         SignatureVerifier(),
+        DeviceMetadataCache.sharedInstance,
     )
 
     internal fun getDeviceMetadata(
@@ -27,22 +29,44 @@ class DeviceInspector @VisibleForTesting internal constructor(
         configuration: Configuration?,
         sessionId: String?,
         integration: String?
+    ): DeviceMetadata = getDeviceMetadata(
+        context,
+        configuration?.environment,
+        configuration?.merchantId,
+        sessionId,
+        integration
+    )
+
+    internal fun getDeviceMetadata(
+        context: Context?,
+        environment: String?,
+        merchantId: String?,
+        sessionId: String?,
+        integration: String?
     ): DeviceMetadata {
+        val appMetadata = deviceMetadataCache.getAppMetadata(context?.packageName) {
+            DeviceMetadataCache.AppMetadata(
+                appName = getAppName(context),
+                appVersion = getAppVersion(context),
+                dropInVersion = dropInVersion,
+                isSimulator = isDeviceEmulator
+            )
+        }
         return DeviceMetadata(
             appId = context?.packageName,
-            appName = getAppName(context),
+            appName = appMetadata.appName,
             clientSDKVersion = BuildConfig.VERSION_NAME,
             clientOs = getAPIVersion(),
             component = "braintreeclientsdk",
             deviceManufacturer = Build.MANUFACTURER,
             deviceModel = Build.MODEL,
-            dropInSDKVersion = dropInVersion,
-            environment = configuration?.environment,
+            dropInSDKVersion = appMetadata.dropInVersion,
+            environment = environment,
             eventSource = "mobile-native",
             integrationType = integration,
-            isSimulator = isDeviceEmulator,
-            merchantAppVersion = getAppVersion(context),
-            merchantId = configuration?.merchantId,
+            isSimulator = appMetadata.isSimulator,
+            merchantAppVersion = appMetadata.appVersion,
+            merchantId = merchantId,
             platform = "Android",
             sessionId = sessionId
         )
@@ -61,11 +85,15 @@ class DeviceInspector @VisibleForTesting internal constructor(
     }
 
     fun isPayPalInstalled(context: Context?): Boolean {
-        return appHelper.isAppInstalled(context, PAYPAL_APP_PACKAGE)
+        return deviceMetadataCache.isAppInstalled(context, PAYPAL_APP_PACKAGE) {
+            appHelper.isAppInstalled(context, PAYPAL_APP_PACKAGE)
+        }
     }
 
     fun isVenmoInstalled(context: Context?): Boolean {
-        return appHelper.isAppInstalled(context, VENMO_APP_PACKAGE)
+        return deviceMetadataCache.isAppInstalled(context, VENMO_APP_PACKAGE) {
+            appHelper.isAppInstalled(context, VENMO_APP_PACKAGE)
+        }
     }
 
     private val isDeviceEmulator: Boolean
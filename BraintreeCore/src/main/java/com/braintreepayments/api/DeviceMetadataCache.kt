@@ -0,0 +1,85 @@
+package com.braintreepayments.api
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import androidx.annotation.VisibleForTesting
+
+/**
+ * Process-wide snapshot of device and app information that is expensive to look up. Values that
+ * cannot change while the process is alive (app name, app version, Drop-in version) are computed
+ * once. Whether another app is installed is cached until a package broadcast reports that the app
+ * was added, removed or changed.
+ */
+internal class DeviceMetadataCache @VisibleForTesting constructor() {
+
+    internal class AppMetadata(
+        val appName: String,
+        val appVersion: String,
+        val dropInVersion: String?,
+        val isSimulator: Boolean
+    )
+
+    private val appMetadata = HashMap<String, AppMetadata>()
+    private val appInstalledStates = HashMap<String, Boolean>()
+    private var isPackageReceiverRegistered = false
+
+    private val packageChangeReceiver = object : BroadcastReceiver() {
+        override fun onReceive(context: Context?, intent: Intent?) {
+            invalidateAppInstalledState(intent?.data?.schemeSpecificPart)
+        }
+    }
+
+    @Synchronized
+    fun getAppMetadata(packageName: String?, loader: () -> AppMetadata): AppMetadata =
+        appMetadata.getOrPut(packageName.orEmpty(), loader)
+
+    @Synchronized
+    fun isAppInstalled(context: Context?, packageName: String, loader: () -> Boolean): Boolean {
+        appInstalledStates[packageName]?.let { return it }
+
+        val isInstalled = loader()
+        // without package broadcasts a cached value could go stale, so only cache once registered
+        if (registerPackageReceiver(context)) {
+            appInstalledStates[packageName] = isInstalled
+        }
+        return isInstalled
+    }
+
+    /**
+     * Discard the cached installed state for [packageName], or for every package when null.
+     */
+    @Synchronized
+    fun invalidateAppInstalledState(packageName: String?) {
+        if (packageName == null) {
+            appInstalledStates.clear()
+        } else {
+            appInstalledStates.remove(packageName)
+        }
+    }
+
+    @Suppress("SwallowedException", "TooGenericExceptionCaught")
+    private fun registerPackageReceiver(context: Context?): Boolean {
+        if (!isPackageReceiverRegistered && context != null) {
+            val filter = IntentFilter().apply {
+                addAction(Intent.ACTION_PACKAGE_ADDED)
+                addAction(Intent.ACTION_PACKAGE_REMOVED)
+                addAction(Intent.ACTION_PACKAGE_REPLACED)
+                addAction(Intent.ACTION_PACKAGE_CHANGED)
+                addDataScheme("package")
+            }
+            isPackageReceiverRegistered = try {
+                context.applicationContext.registerReceiver(packageChangeReceiver, filter)
+                true
+            } catch (e: RuntimeException) {
+                false
+            }
+        }
+        return isPackageReceiverRegistered
+    }
+
+    companion object {
+        val sharedInstance = DeviceMetadataCache()
+    }
+}
@@ -0,0 +1,27 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * A GraphQL request sent as one operation of a batched request. Each operation receives its own
+ * result, or its own error, through [responseCallback].
+ *
+ * @property payload the GraphQL request body of this operation.
+ * @property requestHandle an optional handle to cancel delivery of this operation's result.
+ * @property responseCallback the callback for this operation's result.
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+class GraphQLOperation @JvmOverloads constructor(
+    val payload: String,
+    val requestHandle: HttpRequestHandle? = null,
+    val responseCallback: HttpResponseCallback
+) {
+
+    internal fun deliver(responseBody: String?, error: Exception?) {
+        if (requestHandle?.isCancelled != true) {
+            responseCallback.onResult(responseBody, error)
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.braintreepayments.api
+
+import androidx.annotation.VisibleForTesting
+import org.json.JSONException
+import org.json.JSONObject
+import org.json.JSONTokener
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Automatic persisted queries for [BraintreeGraphQLClient]. A request is first sent with only the
+ * SHA-256 hash of its query document in `extensions.persistedQuery`. When the server does not know
+ * the hash yet it answers with a `PersistedQueryNotFound` error, and the request is sent again
+ * with both the full document and the hash so that the server can store it for later requests.
+ *
+ * Query documents are a small, fixed set of constants, so their hashes are computed once per
+ * process and cached by the JSON string literal the document appears as in request bodies. A
+ * request body is split into its top-level members without parsing them, see
+ * [JsonObjectMembers], and both forms are spliced together from the members as they were
+ * written, so that bodies streamed by callers are neither parsed nor re-serialized.
+ */
+internal class GraphQLPersistedQueries @VisibleForTesting constructor(
+    private val maxCachedHashes: Int
+) {
+
+    /**
+     * A GraphQL request body in its two persisted query forms.
+     *
+     * @property hashedData the request with its query document replaced by the document hash.
+     * @property fullData the request with both the query document and its hash.
+     */
+    class Request(val hashedData: String, val fullData: String)
+
+    private val hashes = ConcurrentHashMap<String, String>()
+
+    /**
+     * Set once the server answered that it does not support persisted queries, after which
+     * requests are sent with their full query document again.
+     */
+    @Volatile
+    var isSupported = true
+        private set
+
+    fun markUnsupported() {
+        isSupported = false
+    }
+
+    /**
+     * @param data a GraphQL request body.
+     * @return the persisted query forms of [data], or null if [data] is not a JSON object with a
+     * query document, in which case it should be sent as is.
+     */
+    fun createRequest(data: String?): Request? {
+        if (data == null) {
+            return null
+        }
+        return try {
+            val members = JsonObjectMembers.read(data)
+            val queryLiteral = members[GraphQLConstants.Keys.QUERY] ?: return null
+            val hash = hashQueryLiteral(queryLiteral) ?: return null
+
+            val extension = "${JSONObject.quote(GraphQLConstants.Keys.EXTENSIONS)}:" +
+                persistedQueryExtension(hash)
+            val hashedData = StringBuilder(data.length + extension.length).append('{')
+            val fullData = StringBuilder(data.length + extension.length).append('{')
+            members.forEach { (name, value) ->
+                // an extensions member is replaced, as the full request body would be
+                if (name == GraphQLConstants.Keys.EXTENSIONS) {
+                    return@forEach
+                }
+                val member = "${JSONObject.quote(name)}:$value,"
+                if (name != GraphQLConstants.Keys.QUERY) {
+                    hashedData.append(member)
+                }
+                fullData.append(member)
+            }
+            Request(
+                hashedData.append(extension).append('}').toString(),
+                fullData.append(extension).append('}').toString()
+            )
+        } catch (ignored: JSONException) {
+            null
+        }
+    }
+
+    /**
+     * @param literal the raw JSON value of a request's query member.
+     * @return the hash of the query document, or null if [literal] is not a non-empty string.
+     */
+    @Throws(JSONException::class)
+    private fun hashQueryLiteral(literal: String): String? {
+        hashes[literal]?.let { return it }
+        val query = JSONTokener(literal).nextValue() as? String
+        if (query.isNullOrEmpty()) {
+            return null
+        }
+        val hash = Sha256.hex(query)
+        // only a handful of documents exist; do not let unexpected ones grow the cache unbounded
+        if (hashes.size < maxCachedHashes) {
+            hashes[literal] = hash
+        }
+        return hash
+    }
+
+    companion object {
+
+        private const val MAX_CACHED_HASHES = 32
+        private const val PERSISTED_QUERY_VERSION = 1
+
+        @Volatile
+        private var INSTANCE: GraphQLPersistedQueries? = null
+
+        fun getInstance(): GraphQLPersistedQueries =
+            INSTANCE ?: synchronized(this) {
+                INSTANCE ?: GraphQLPersistedQueries(MAX_CACHED_HASHES).also { INSTANCE = it }
+            }
+
+        private fun persistedQueryExtension(hash: String): String =
+            JSONObject().put(
+                GraphQLConstants.Keys.PERSISTED_QUERY,
+                JSONObject()
+                    .put(GraphQLConstants.Keys.VERSION, PERSISTED_QUERY_VERSION)
+                    .put(GraphQLConstants.Keys.SHA256_HASH, hash)
+            ).toString()
+    }
+}
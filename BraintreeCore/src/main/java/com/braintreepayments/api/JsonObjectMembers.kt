@@ -0,0 +1,124 @@
+package com.braintreepayments.api
+
+import org.json.JSONException
+import org.json.JSONTokener
+
+/**
+ * Splits a JSON object into the raw JSON text of each of its members. Member values are skipped
+ * over rather than parsed, so that each value can be parsed on its own once it is needed.
+ */
+internal object JsonObjectMembers {
+
+    /**
+     * @param json a JSON object
+     * @return the raw JSON text of the value of each member of [json], by member name, in
+     * document order.
+     * @throws JSONException if [json] is not a JSON object.
+     */
+    @Throws(JSONException::class)
+    fun read(json: String): Map<String, String> {
+        val members = LinkedHashMap<String, String>()
+        var index = skipWhitespace(json, 0)
+        expect(json, index, '{')
+        index = skipWhitespace(json, index + 1)
+        if (json.getOrNull(index) == '}') {
+            return members
+        }
+        while (true) {
+            expect(json, index, '"')
+            val nameEnd = skipString(json, index)
+            val name = readName(json, index, nameEnd)
+
+            index = skipWhitespace(json, nameEnd)
+            expect(json, index, ':')
+            val valueStart = skipWhitespace(json, index + 1)
+            val valueEnd = skipValue(json, valueStart)
+            members[name] = json.substring(valueStart, valueEnd)
+
+            index = skipWhitespace(json, valueEnd)
+            when (json.getOrNull(index)) {
+                ',' -> index = skipWhitespace(json, index + 1)
+                '}' -> return members
+                else -> throw JSONException("Expected ',' or '}' at character $index")
+            }
+        }
+    }
+
+    private fun readName(json: String, start: Int, end: Int): String {
+        val name = json.substring(start + 1, end - 1)
+        // names without escapes, which is every name in practice, need no decoding
+        return if (name.indexOf('\\') < 0) {
+            name
+        } else {
+            JSONTokener(json.substring(start, end)).nextValue() as String
+        }
+    }
+
+    private fun skipValue(json: String, start: Int): Int =
+        when (json.getOrNull(start)) {
+            '"' -> skipString(json, start)
+            '{', '[' -> skipContainer(json, start)
+            else -> skipLiteral(json, start)
+        }
+
+    /**
+     * @return the index after the closing quote of the string starting at [start].
+     */
+    private fun skipString(json: String, start: Int): Int {
+        var index = start + 1
+        while (index < json.length) {
+            when (json[index]) {
+                '\\' -> index += 2
+                '"' -> return index + 1
+                else -> index++
+            }
+        }
+        throw JSONException("Unterminated string at character $start")
+    }
+
+    private fun skipContainer(json: String, start: Int): Int {
+        var depth = 0
+        var index = start
+        while (index < json.length) {
+            when (json[index]) {
+                '"' -> {
+                    index = skipString(json, index)
+                    continue
+                }
+                '{', '[' -> depth++
+                '}', ']' -> if (--depth == 0) return index + 1
+            }
+            index++
+        }
+        throw JSONException("Unterminated object or array at character $start")
+    }
+
+    private fun skipLiteral(json: String, start: Int): Int {
+        var index = start
+        while (index < json.length && json[index] !in LITERAL_TERMINATORS &&
+            !json[index].isWhitespace()
+        ) {
+            index++
+        }
+        if (index == start) {
+            throw JSONException("Expected a value at character $start")
+        }
+        return index
+    }
+
+    private fun skipWhitespace(json: String, start: Int): Int {
+        var index = start
+        while (index < json.length && json[index].isWhitespace()) {
+            index++
+        }
+        return index
+    }
+
+    private fun expect(json: String, index: Int, expected: Char) {
+        if (json.getOrNull(index) != expected) {
+            throw JSONException("Expected '$expected' at character $index")
+        }
+    }
+
+    private const val LITERAL_TERMINATORS = ",}]"
+}
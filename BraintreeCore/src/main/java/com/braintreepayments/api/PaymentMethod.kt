@@ -1,9 +1,11 @@
 package com.braintreepayments.api
 
 import android.os.Parcel
+import android.util.JsonWriter
 import androidx.annotation.RestrictTo
 import org.json.JSONException
 import org.json.JSONObject
+import java.io.IOException
 
 /**
  * An abstract class to extend when creating a payment method. Contains logic and
@@ -89,6 +91,37 @@ abstract class PaymentMethod {
         return base
     }
 
+    /**
+     * Write the fields of the REST tokenization request body, the same fields as [buildJSON], to
+     * a writer whose enclosing object is already open. Payment methods that can write their
+     * fields directly override this; by default the fields of [buildJSON] are copied.
+     *
+     * @suppress
+     */
+    @Throws(IOException::class)
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    open fun writeJSON(writer: JsonWriter) {
+        val json = try {
+            buildJSON()
+        } catch (e: JSONException) {
+            throw IOException(e)
+        }
+        Json.writeFields(writer, json)
+    }
+
+    /**
+     * Write the metadata field that [buildJSON] adds to every request body.
+     *
+     * @suppress
+     */
+    @Throws(IOException::class)
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    protected fun writeMetadataJSON(writer: JsonWriter) {
+        writer.name(MetadataBuilder.META_KEY).beginObject()
+        Json.writeFields(writer, buildMetadataJSON())
+        writer.endObject()
+    }
+
     protected constructor(parcel: Parcel) {
         _integration = parcel.readString()
         _source = parcel.readString()
@@ -0,0 +1,48 @@
+package com.braintreepayments.api
+
+/**
+ * Tracks configuration requests that are in flight so that concurrent loads for the same cache
+ * key share a single network fetch and a single parse of the response.
+ */
+internal class PendingConfigurationRequests {
+
+    private val callbacksByCacheKey =
+        mutableMapOf<String, MutableList<ConfigurationLoaderCallback>>()
+
+    /**
+     * Total number of callers that were served by a fetch started by another caller.
+     */
+    @get:Synchronized
+    var coalescedWaiterCount = 0L
+        private set
+
+    /**
+     * Register a callback for the configuration identified by [cacheKey].
+     *
+     * @return `true` if no request is in flight for [cacheKey] and the caller should start one,
+     * `false` if the callback will be notified when the in-flight request completes.
+     */
+    @Synchronized
+    fun add(cacheKey: String, callback: ConfigurationLoaderCallback): Boolean {
+        val callbacks = callbacksByCacheKey[cacheKey]
+        return if (callbacks == null) {
+            callbacksByCacheKey[cacheKey] = mutableListOf(callback)
+            true
+        } else {
+            callbacks.add(callback)
+            coalescedWaiterCount++
+            false
+        }
+    }
+
+    /**
+     * Remove and return every callback waiting on the configuration identified by [cacheKey].
+     */
+    @Synchronized
+    fun remove(cacheKey: String): List<ConfigurationLoaderCallback> =
+        callbacksByCacheKey.remove(cacheKey) ?: emptyList()
+
+    companion object {
+        val sharedInstance = PendingConfigurationRequests()
+    }
+}
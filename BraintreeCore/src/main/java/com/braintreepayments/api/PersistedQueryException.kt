@@ -0,0 +1,13 @@
+package com.braintreepayments.api
+
+/**
+ * Error returned by the GraphQL API when it cannot resolve the hash of an automatic persisted
+ * query. [BraintreeGraphQLClient] handles it by resending the request with its full query
+ * document, so it is not delivered to callers.
+ *
+ * @property isSupported false if the server does not support persisted queries at all.
+ */
+internal class PersistedQueryException(
+    message: String?,
+    val isSupported: Boolean
+) : BraintreeException(message)
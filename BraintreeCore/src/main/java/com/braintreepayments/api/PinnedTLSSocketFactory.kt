@@ -0,0 +1,47 @@
+package com.braintreepayments.api
+
+import java.net.InetAddress
+import java.net.Socket
+import javax.net.ssl.SSLSocketFactory
+
+/**
+ * Process-wide [SSLSocketFactory] that trusts only the certificates in [TLSCertificatePinning].
+ *
+ * The certificate bundle is parsed and the underlying SSLContext is initialized once, when the
+ * first socket is created. This happens on a network thread instead of each time an HTTP client
+ * is constructed. Every client shares the same SSLContext, and therefore the same TLS session
+ * cache, so a session negotiated by one client can be resumed by another.
+ */
+internal object PinnedTLSSocketFactory : SSLSocketFactory() {
+
+    private val delegate: SSLSocketFactory by lazy {
+        TLSSocketFactory(TLSCertificatePinning.createCertificateInputStream())
+    }
+
+    override fun getDefaultCipherSuites(): Array<String> = delegate.defaultCipherSuites
+
+    override fun getSupportedCipherSuites(): Array<String> = delegate.supportedCipherSuites
+
+    override fun createSocket(s: Socket?, host: String?, port: Int, autoClose: Boolean): Socket =
+        delegate.createSocket(s, host, port, autoClose)
+
+    override fun createSocket(host: String?, port: Int): Socket =
+        delegate.createSocket(host, port)
+
+    override fun createSocket(
+        host: String?,
+        port: Int,
+        localHost: InetAddress?,
+        localPort: Int
+    ): Socket = delegate.createSocket(host, port, localHost, localPort)
+
+    override fun createSocket(host: InetAddress?, port: Int): Socket =
+        delegate.createSocket(host, port)
+
+    override fun createSocket(
+        address: InetAddress?,
+        port: Int,
+        localAddress: InetAddress?,
+        localPort: Int
+    ): Socket = delegate.createSocket(address, port, localAddress, localPort)
+}
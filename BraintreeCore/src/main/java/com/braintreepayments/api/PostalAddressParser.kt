@@ -1,7 +1,9 @@
 package com.braintreepayments.api
 
+import android.util.JsonReader
 import androidx.annotation.RestrictTo
 import org.json.JSONObject
+import java.io.IOException
 
 /**
  * @suppress
@@ -42,59 +44,99 @@ object PostalAddressParser {
     @JvmStatic
     fun fromJson(accountAddress: JSONObject?): PostalAddress =
         // If we don't have an account address, return an empty PostalAddress.
-        accountAddress?.let {
-            var streetAddress = Json.optString(accountAddress, STREET_ADDRESS_KEY, null)
-            var extendedAddress = Json.optString(accountAddress, EXTENDED_ADDRESS_KEY, null)
-            var countryCodeAlpha2 = Json.optString(accountAddress, COUNTRY_CODE_ALPHA_2_KEY, null)
+        accountAddress?.let { json ->
+            fromFields { key -> Json.optString(json, key, null) }
+        } ?: PostalAddress()
 
-            // Check alternate keys
-            streetAddress = streetAddress ?: Json.optString(accountAddress, LINE_1_KEY, null)
-            extendedAddress = extendedAddress ?: Json.optString(accountAddress, LINE_2_KEY, null)
-            countryCodeAlpha2 = countryCodeAlpha2 ?: Json.optString(accountAddress, COUNTRY_CODE_KEY, null)
+    /**
+     * Streaming counterpart of [fromJson]. Reads the address at the current position of [reader];
+     * only address fields are kept and a value that is not an object returns an empty
+     * [PostalAddress].
+     */
+    @JvmStatic
+    @Throws(IOException::class)
+    fun fromJsonReader(reader: JsonReader): PostalAddress {
+        if (!Json.nextIsObject(reader)) {
+            return PostalAddress()
+        }
 
-            streetAddress = streetAddress ?: Json.optString(accountAddress, VENMO_GQL_ADDRESS1_KEY, null)
-            extendedAddress = extendedAddress ?: Json.optString(accountAddress, VENMO_GQL_ADDRESS2_KEY, null)
-            // If this is a UserAddress-like JSON, parse it as such
-            if (streetAddress == null && Json.optString(
-                    accountAddress,
-                    USER_ADDRESS_NAME_KEY,
-                    null
-                ) != null
-            ) {
-                return@let fromUserAddressJson(accountAddress)
+        val fields = HashMap<String, String>()
+        reader.beginObject()
+        while (reader.hasNext()) {
+            val name = reader.nextName()
+            if (name in ADDRESS_KEYS) {
+                Json.nextString(reader, null)?.let { fields[name] = it }
+            } else {
+                reader.skipValue()
             }
+        }
+        reader.endObject()
+        return fromFields { key -> fields[key] }
+    }
 
-            PostalAddress().apply {
-                recipientName = Json.optString(accountAddress, RECIPIENT_NAME_KEY, null)
-                this.streetAddress = streetAddress
-                this.extendedAddress = extendedAddress
-                locality = Json.optString(accountAddress, LOCALITY_KEY, null)
-                region = Json.optString(accountAddress, REGION_KEY, null)
-                postalCode = Json.optString(accountAddress, POSTAL_CODE_KEY, null)
-                this.countryCodeAlpha2 = countryCodeAlpha2
+    private fun fromFields(field: (String) -> String?): PostalAddress {
+        var streetAddress = field(STREET_ADDRESS_KEY)
+        var extendedAddress = field(EXTENDED_ADDRESS_KEY)
+        var countryCodeAlpha2 = field(COUNTRY_CODE_ALPHA_2_KEY)
 
-                recipientName = recipientName ?: Json.optString(accountAddress, VENMO_GQL_RECIPIENT_KEY, null)
-                locality = locality ?: Json.optString(accountAddress, VENMO_GQL_LOCALITY_KEY, null)
-                region = region ?: Json.optString(accountAddress, VENMO_GQL_REGION_KEY, null)
-            }
-        } ?: PostalAddress()
+        // Check alternate keys
+        streetAddress = streetAddress ?: field(LINE_1_KEY)
+        extendedAddress = extendedAddress ?: field(LINE_2_KEY)
+        countryCodeAlpha2 = countryCodeAlpha2 ?: field(COUNTRY_CODE_KEY)
+
+        streetAddress = streetAddress ?: field(VENMO_GQL_ADDRESS1_KEY)
+        extendedAddress = extendedAddress ?: field(VENMO_GQL_ADDRESS2_KEY)
+        // If this is a UserAddress-like JSON, parse it as such
+        if (streetAddress == null && field(USER_ADDRESS_NAME_KEY) != null) {
+            return fromUserAddressFields(field)
+        }
+
+        return PostalAddress().apply {
+            recipientName = field(RECIPIENT_NAME_KEY)
+            this.streetAddress = streetAddress
+            this.extendedAddress = extendedAddress
+            locality = field(LOCALITY_KEY)
+            region = field(REGION_KEY)
+            postalCode = field(POSTAL_CODE_KEY)
+            this.countryCodeAlpha2 = countryCodeAlpha2
+
+            recipientName = recipientName ?: field(VENMO_GQL_RECIPIENT_KEY)
+            locality = locality ?: field(VENMO_GQL_LOCALITY_KEY)
+            region = region ?: field(VENMO_GQL_REGION_KEY)
+        }
+    }
 
     fun fromUserAddressJson(json: JSONObject): PostalAddress =
+        fromUserAddressFields { key -> Json.optString(json, key, null) }
+
+    private fun fromUserAddressFields(field: (String) -> String?): PostalAddress =
         PostalAddress().apply {
-            recipientName = Json.optString(json, USER_ADDRESS_NAME_KEY, "")
-            phoneNumber = Json.optString(json, USER_ADDRESS_PHONE_NUMBER_KEY, "")
-            streetAddress = Json.optString(json, USER_ADDRESS_ADDRESS_1_KEY, "")
-            extendedAddress = formatExtendedUserAddress(json)
-            locality = Json.optString(json, USER_ADDRESS_LOCALITY_KEY, "")
-            region = Json.optString(json, USER_ADDRESS_ADMINISTRATIVE_AREA_KEY, "")
-            countryCodeAlpha2 = Json.optString(json, USER_ADDRESS_COUNTRY_CODE_KEY, "")
-            postalCode = Json.optString(json, USER_ADDRESS_POSTAL_CODE_KEY, "")
-            sortingCode = Json.optString(json, USER_ADDRESS_SORTING_CODE_KEY, "")
+            recipientName = field(USER_ADDRESS_NAME_KEY) ?: ""
+            phoneNumber = field(USER_ADDRESS_PHONE_NUMBER_KEY) ?: ""
+            streetAddress = field(USER_ADDRESS_ADDRESS_1_KEY) ?: ""
+            extendedAddress = formatExtendedUserAddress(field)
+            locality = field(USER_ADDRESS_LOCALITY_KEY) ?: ""
+            region = field(USER_ADDRESS_ADMINISTRATIVE_AREA_KEY) ?: ""
+            countryCodeAlpha2 = field(USER_ADDRESS_COUNTRY_CODE_KEY) ?: ""
+            postalCode = field(USER_ADDRESS_POSTAL_CODE_KEY) ?: ""
+            sortingCode = field(USER_ADDRESS_SORTING_CODE_KEY) ?: ""
         }
 
-    private fun formatExtendedUserAddress(address: JSONObject): String =
-        (Json.optString(address, USER_ADDRESS_ADDRESS_2_KEY, "") + "\n" +
-        Json.optString(address, USER_ADDRESS_ADDRESS_3_KEY, "") + "\n" +
-        Json.optString(address, USER_ADDRESS_ADDRESS_4_KEY, "") + "\n" +
-        Json.optString(address, USER_ADDRESS_ADDRESS_5_KEY, "")).trim()
+    private fun formatExtendedUserAddress(field: (String) -> String?): String =
+        ((field(USER_ADDRESS_ADDRESS_2_KEY) ?: "") + "\n" +
+        (field(USER_ADDRESS_ADDRESS_3_KEY) ?: "") + "\n" +
+        (field(USER_ADDRESS_ADDRESS_4_KEY) ?: "") + "\n" +
+        (field(USER_ADDRESS_ADDRESS_5_KEY) ?: "")).trim()
+
+    // every key read by fromFields; other fields are skipped without being read
+    private val ADDRESS_KEYS = setOf(
+        RECIPIENT_NAME_KEY, STREET_ADDRESS_KEY, EXTENDED_ADDRESS_KEY, LOCALITY_KEY,
+        COUNTRY_CODE_ALPHA_2_KEY, POSTAL_CODE_KEY, REGION_KEY, LINE_1_KEY, LINE_2_KEY,
+        COUNTRY_CODE_KEY, USER_ADDRESS_NAME_KEY, USER_ADDRESS_PHONE_NUMBER_KEY,
+        USER_ADDRESS_ADDRESS_1_KEY, USER_ADDRESS_ADDRESS_2_KEY, USER_ADDRESS_ADDRESS_3_KEY,
+        USER_ADDRESS_ADDRESS_4_KEY, USER_ADDRESS_ADDRESS_5_KEY, USER_ADDRESS_SORTING_CODE_KEY,
+        USER_ADDRESS_LOCALITY_KEY, USER_ADDRESS_ADMINISTRATIVE_AREA_KEY, VENMO_GQL_RECIPIENT_KEY,
+        VENMO_GQL_ADDRESS1_KEY, VENMO_GQL_ADDRESS2_KEY, VENMO_GQL_LOCALITY_KEY,
+        VENMO_GQL_REGION_KEY
+    )
 }
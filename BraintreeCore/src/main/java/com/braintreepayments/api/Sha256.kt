@@ -0,0 +1,28 @@
+package com.braintreepayments.api
+
+import java.nio.charset.StandardCharsets
+import java.security.MessageDigest
+
+/**
+ * SHA-256 digests as lowercase hex strings, for cache keys and GraphQL persisted query hashes.
+ */
+internal object Sha256 {
+
+    private val HEX_DIGITS = "0123456789abcdef".toCharArray()
+
+    /**
+     * @param value the text to digest, encoded as UTF-8.
+     * @return the SHA-256 digest of [value] as 64 lowercase hex digits.
+     */
+    fun hex(value: String): String {
+        val digest = MessageDigest.getInstance("SHA-256")
+            .digest(value.toByteArray(StandardCharsets.UTF_8))
+        val hex = CharArray(digest.size * 2)
+        digest.forEachIndexed { i, byte ->
+            val bits = byte.toInt() and 0xff
+            hex[i * 2] = HEX_DIGITS[bits ushr 4]
+            hex[i * 2 + 1] = HEX_DIGITS[bits and 0x0f]
+        }
+        return String(hex)
+    }
+}
@@ -0,0 +1,13 @@
+package com.braintreepayments.api
+
+import androidx.annotation.RestrictTo
+
+/**
+ * Callback for receiving a persisted identifier from [UUIDHelper].
+ *
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface UUIDCallback {
+    fun onResult(uuid: String)
+}
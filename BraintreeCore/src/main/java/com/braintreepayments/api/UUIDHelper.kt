@@ -12,19 +12,25 @@ import java.util.*
 class UUIDHelper {
 
     /**
+     * Get a persistent UUID for this application install. Reading it never waits for stored
+     * identifiers to load.
+     *
      * @param context Android Context
-     * @return A persistent UUID for this application install.
+     * @param callback receives the UUID, right away if stored identifiers have loaded and on the
+     * main thread otherwise
      */
-    fun getPersistentUUID(context: Context?): String? {
-        return getPersistentUUID(BraintreeSharedPreferences.getInstance(context))
+    fun getPersistentUUID(context: Context?, callback: UUIDCallback) {
+        val braintreeStore =
+            BraintreeStore.getInstance(context, BraintreeStore.Segment.IDENTIFIERS)
+        braintreeStore.whenLoaded { callback.onResult(getPersistentUUID(braintreeStore)) }
     }
 
     @VisibleForTesting
-    internal fun getPersistentUUID(braintreeSharedPreferences: BraintreeSharedPreferences): String? {
-        var uuid = braintreeSharedPreferences.getString(BRAINTREE_UUID_KEY, null)
+    internal fun getPersistentUUID(braintreeStore: BraintreeStore): String {
+        var uuid = braintreeStore.getString(BRAINTREE_UUID_KEY, null)
         if (uuid == null) {
             uuid = formattedUUID
-            braintreeSharedPreferences.putString(BRAINTREE_UUID_KEY, uuid)
+            braintreeStore.putString(BRAINTREE_UUID_KEY, uuid)
         }
         return uuid
     }
@@ -32,16 +38,26 @@ class UUIDHelper {
     val formattedUUID: String
         get() = UUID.randomUUID().toString().replace("-", "")
 
-    fun getInstallationGUID(context: Context?): String {
-        return getInstallationGUID(BraintreeSharedPreferences.getInstance(context))
+    /**
+     * Get the installation GUID for this application install. Reading it never waits for stored
+     * identifiers to load.
+     *
+     * @param context Android Context
+     * @param callback receives the GUID, right away if stored identifiers have loaded and on the
+     * main thread otherwise
+     */
+    fun getInstallationGUID(context: Context?, callback: UUIDCallback) {
+        val braintreeStore =
+            BraintreeStore.getInstance(context, BraintreeStore.Segment.IDENTIFIERS)
+        braintreeStore.whenLoaded { callback.onResult(getInstallationGUID(braintreeStore)) }
     }
 
     @VisibleForTesting
-    internal fun getInstallationGUID(braintreeSharedPreferences: BraintreeSharedPreferences): String {
-        var installationGUID = braintreeSharedPreferences.getString(INSTALL_GUID, null)
+    internal fun getInstallationGUID(braintreeStore: BraintreeStore): String {
+        var installationGUID = braintreeStore.getString(INSTALL_GUID, null)
         if (installationGUID == null) {
             installationGUID = UUID.randomUUID().toString()
-            braintreeSharedPreferences.putString(INSTALL_GUID, installationGUID)
+            braintreeStore.putString(INSTALL_GUID, installationGUID)
         }
         return installationGUID
     }
@@ -34,6 +34,9 @@ class AnalyticsClientUnitTest {
     private lateinit var workManager: WorkManager
     private lateinit var analyticsDatabase: AnalyticsDatabase
     private lateinit var analyticsEventDao: AnalyticsEventDao
+    private lateinit var analyticsEventBuffer: AnalyticsEventBuffer
+    private lateinit var analyticsStore: BraintreeStore
+    private lateinit var cacheKey: String
 
     private var timestamp: Long = 0
 
@@ -54,31 +57,69 @@ class AnalyticsClientUnitTest {
         analyticsDatabase = mockk(relaxed = true)
         analyticsEventDao = mockk(relaxed = true)
         workManager = mockk(relaxed = true)
+        analyticsEventBuffer = mockk(relaxed = true)
+        analyticsStore = mockk(relaxed = true)
+        cacheKey = ConfigurationLoader.createCacheKey(authorization)
 
         every { analyticsDatabase.analyticsEventDao() } returns analyticsEventDao
+        every {
+            analyticsStore.getString("authorization_$cacheKey", null)
+        } returns authorization.toString()
+        every { analyticsEventDao.getEventsAfter(any(), any()) } returns emptyList()
     }
 
     @Test
     @Throws(JSONException::class)
-    fun sendEvent_enqueuesAnalyticsWriteToDbWorker() {
-        val workRequestSlot = slot<OneTimeWorkRequest>()
-        every {
-            workManager.enqueueUniqueWork(
-                "writeAnalyticsToDb",
-                ExistingWorkPolicy.APPEND_OR_REPLACE,
-                capture(workRequestSlot)
-            )
-        } returns mockk()
-
-        var event = AnalyticsEvent(eventName, null, null, 123)
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+    fun sendEvent_appendsEventToAnalyticsEventBuffer() {
+        val event = AnalyticsEvent(eventName, payPalContextId, linkType, 123, true, true)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         sut.sendEvent(configuration, event, sessionId, integration, authorization)
 
-        val workSpec = workRequestSlot.captured.workSpec
-        assertEquals(AnalyticsWriteToDbWorker::class.java.name, workSpec.workerClassName)
-        assertEquals(authorization.toString(), workSpec.input.getString("authorization"))
-        assertEquals("android.sample-event-name", workSpec.input.getString("eventName"))
-        assertEquals(123, workSpec.input.getLong("timestamp", 0))
+        val eventSlot = slot<AnalyticsEvent>()
+        verify { analyticsEventBuffer.append(capture(eventSlot)) }
+
+        val bufferedEvent = eventSlot.captured
+        assertEquals("android.sample-event-name", bufferedEvent.name)
+        assertEquals(payPalContextId, bufferedEvent.payPalContextId)
+        assertEquals(linkType, bufferedEvent.linkType)
+        assertEquals(123, bufferedEvent.timestamp)
+        assertTrue(bufferedEvent.venmoInstalled)
+        assertTrue(bufferedEvent.isVaultRequest)
+    }
+
+    @Test
+    fun sendEvent_doesNotEnqueueAnalyticsWriteToDbWorker() {
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
+        sut.sendEvent(configuration, AnalyticsEvent(eventName), sessionId, integration, authorization)
+
+        verify(exactly = 0) {
+            workManager.enqueueUniqueWork("writeAnalyticsToDb", any(), any<OneTimeWorkRequest>())
+        }
+    }
+
+    @Test
+    fun sendEvent_whenUploadIsAlreadyScheduled_doesNotEnqueueAnotherUploadWorker() {
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
+        val firstId =
+            sut.sendEvent(configuration, AnalyticsEvent(eventName), sessionId, integration, authorization)
+        val secondId =
+            sut.sendEvent(configuration, AnalyticsEvent(eventName), sessionId, integration, authorization)
+
+        assertEquals(firstId, secondId)
+        verify(exactly = 1) {
+            workManager.enqueueUniqueWork(
+                "uploadAnalytics",
+                ExistingWorkPolicy.KEEP,
+                any<OneTimeWorkRequest>()
+            )
+        }
+        verify(exactly = 2) { analyticsEventBuffer.append(any()) }
     }
 
     @Test
@@ -94,25 +135,42 @@ class AnalyticsClientUnitTest {
         } returns mockk()
 
         val event = AnalyticsEvent(eventName)
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         sut.sendEvent(configuration, event, sessionId, integration, authorization)
 
         val workSpec = workRequestSlot.captured.workSpec
         assertEquals(30000, workSpec.initialDelay)
         assertEquals(AnalyticsUploadWorker::class.java.name, workSpec.workerClassName)
-        assertEquals(configuration.toJson(), workSpec.input.getString("configuration"))
-        assertEquals(authorization.toString(), workSpec.input.getString("authorization"))
+        assertEquals(cacheKey, workSpec.input.getString("configurationCacheKey"))
+        assertEquals(configuration.environment, workSpec.input.getString("environment"))
+        assertEquals(configuration.merchantId, workSpec.input.getString("merchantId"))
+        assertNull(workSpec.input.getString("configuration"))
+        assertNull(workSpec.input.getString("authorization"))
         assertEquals("sample-session-id", workSpec.input.getString("sessionId"))
         assertEquals("sample-integration", workSpec.input.getString("integration"))
     }
 
+    @Test
+    fun sendEvent_storesAuthorizationUnderConfigurationCacheKey() {
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
+        sut.sendEvent(configuration, AnalyticsEvent(eventName), sessionId, integration, authorization)
+
+        verify { analyticsStore.putString("authorization_$cacheKey", authorization.toString()) }
+    }
+
     @Test
     fun writeAnalytics_whenEventNameAndTimestampArePresent_returnsSuccess() {
         val inputData = Data.Builder()
             .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
             .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
             .build()
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val result = sut.writeAnalytics(inputData)
         assertTrue(result is ListenableWorker.Result.Success)
     }
@@ -123,7 +181,9 @@ class AnalyticsClientUnitTest {
             .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
             .build()
         val sut =
-            AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+            AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val result = sut.writeAnalytics(inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
     }
@@ -134,7 +194,9 @@ class AnalyticsClientUnitTest {
             .putString(AnalyticsClient.WORK_INPUT_KEY_EVENT_NAME, eventName)
             .build()
         val sut =
-            AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+            AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val result = sut.writeAnalytics(inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
     }
@@ -149,7 +211,9 @@ class AnalyticsClientUnitTest {
             .putString(AnalyticsClient.WORK_INPUT_KEY_PAYPAL_CONTEXT_ID, payPalContextId)
             .putLong(AnalyticsClient.WORK_INPUT_KEY_TIMESTAMP, timestamp)
             .build()
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         sut.writeAnalytics(inputData)
 
         val event = analyticsEventSlot.captured
@@ -162,12 +226,15 @@ class AnalyticsClientUnitTest {
     @Throws(Exception::class)
     fun uploadAnalytics_whenNoEventsExist_doesNothing() {
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         sut.uploadAnalytics(context, inputData)
 
         // or confirmVerified(httpClient)
@@ -178,15 +245,16 @@ class AnalyticsClientUnitTest {
     @Throws(Exception::class)
     fun uploadAnalytics_whenEventsExist_sendsAllEvents() {
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
         val metadata = createSampleDeviceMetadata()
 
         every {
-            deviceInspector.getDeviceMetadata(context, any(), sessionId, integration)
+            deviceInspector.getDeviceMetadata(context, any(), any(), sessionId, integration)
         } returns metadata
 
         val events: MutableList<AnalyticsEvent> = ArrayList()
@@ -194,7 +262,8 @@ class AnalyticsClientUnitTest {
         events.add(AnalyticsEvent("event1", payPalContextId, null, 456))
         events.add(AnalyticsEvent("event2", null, linkType, 789))
         events.add(AnalyticsEvent("event3", payPalContextId, linkType, 987))
-        every { analyticsEventDao.getAllEvents() } returns events
+        assignIds(events)
+        every { analyticsEventDao.getEventsAfter(0L, any()) } returns events
 
         val analyticsJSONSlot = slot<String>()
         every {
@@ -206,7 +275,9 @@ class AnalyticsClientUnitTest {
             )
         }
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         sut.uploadAnalytics(context, inputData)
 
         val analyticsJson = JSONObject(analyticsJSONSlot.captured)
@@ -238,14 +309,16 @@ class AnalyticsClientUnitTest {
     }
 
     @Test
-    fun uploadAnalytics_whenConfigurationIsNull_doesNothing() {
+    fun uploadAnalytics_whenConfigurationValuesAreMissing_doesNothing() {
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
 
@@ -255,14 +328,19 @@ class AnalyticsClientUnitTest {
 
     @Test
     @Throws(JSONException::class)
-    fun uploadAnalytics_whenAuthorizationIsNull_doesNothing() {
+    fun uploadAnalytics_whenAuthorizationIsNotStored_doesNothing() {
+        every { analyticsStore.getString("authorization_$cacheKey", null) } returns null
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
 
@@ -273,25 +351,34 @@ class AnalyticsClientUnitTest {
     @Test
     @Throws(JSONException::class)
     fun uploadAnalytics_whenAuthorizationIsClientToken_includesAuthFingerprintBatchParam() {
+        val clientTokenCacheKey =
+            ConfigurationLoader.createCacheKey(fromString(Fixtures.BASE64_CLIENT_TOKEN2))
+        every {
+            analyticsStore.getString("authorization_$clientTokenCacheKey", null)
+        } returns Fixtures.BASE64_CLIENT_TOKEN2
         val inputData = Data.Builder()
-                .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, Fixtures.BASE64_CLIENT_TOKEN2)
-                .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
-                .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
-                .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
-                .build()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, clientTokenCacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
 
         every {
-            deviceInspector.getDeviceMetadata(context, any(), sessionId, integration)
+            deviceInspector.getDeviceMetadata(context, any(), any(), sessionId, integration)
         } returns createSampleDeviceMetadata()
 
         val events: MutableList<AnalyticsEvent> = ArrayList()
         events.add(AnalyticsEvent("event0"))
-        every { analyticsEventDao.getAllEvents() } returns events
+        assignIds(events)
+        every { analyticsEventDao.getEventsAfter(0L, any()) } returns events
 
         val analyticsJSONSlot = slot<String>()
         every { httpClient.post(any(), capture(analyticsJSONSlot), any(), any()) }
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         sut.uploadAnalytics(context, inputData)
 
         val analyticsJson = JSONObject(analyticsJSONSlot.captured)
@@ -305,12 +392,15 @@ class AnalyticsClientUnitTest {
     @Throws(JSONException::class)
     fun uploadAnalytics_whenSessionIdIsNull_doesNothing() {
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
 
@@ -322,12 +412,15 @@ class AnalyticsClientUnitTest {
     @Throws(JSONException::class)
     fun uploadAnalytics_whenIntegrationIsNull_doesNothing() {
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .build()
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
 
@@ -335,19 +428,42 @@ class AnalyticsClientUnitTest {
         verify { httpClient wasNot Called }
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_flushesBufferedEventsBeforeReadingDatabase() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
+        sut.uploadAnalytics(context, inputData)
+
+        verifyOrder {
+            analyticsEventBuffer.flushBlocking()
+            analyticsEventDao.getEventsAfter(0L, any())
+        }
+    }
+
     @Test
     @Throws(Exception::class)
     fun uploadAnalytics_deletesDatabaseEventsOnSuccessResponse() {
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
 
         val metadata = createSampleDeviceMetadata()
         every {
-            deviceInspector.getDeviceMetadata(context, any(), sessionId, integration)
+            deviceInspector.getDeviceMetadata(context, any(), any(), sessionId, integration)
         } returns metadata
 
         val events: MutableList<AnalyticsEvent> = ArrayList()
@@ -355,26 +471,135 @@ class AnalyticsClientUnitTest {
         events.add(AnalyticsEvent("event1", payPalContextId, null, 456))
         events.add(AnalyticsEvent("event2", null, linkType, 789))
         events.add(AnalyticsEvent("event3", payPalContextId, linkType, 987))
-        every { analyticsEventDao.getAllEvents() } returns events
+        assignIds(events)
+        every { analyticsEventDao.getEventsAfter(0L, any()) } returns events
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         sut.uploadAnalytics(context, inputData)
 
         verify { analyticsEventDao.deleteEvents(events) }
+        verify { analyticsStore.removeKeys(listOf("authorization_$cacheKey")) }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_readsEventsPageByPageAndDeletesEachUploadedPage() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+
+        every {
+            deviceInspector.getDeviceMetadata(context, any(), any(), sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val events = listOf(AnalyticsEvent("event0"), AnalyticsEvent("event1"), AnalyticsEvent("event2"))
+        assignIds(events)
+        val firstPage = events.subList(0, 2)
+        val secondPage = events.subList(2, 3)
+        every { analyticsEventDao.getEventsAfter(0L, any()) } returns firstPage
+        every { analyticsEventDao.getEventsAfter(2L, any()) } returns secondPage
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
+        val result = sut.uploadAnalytics(context, inputData)
+
+        assertTrue(result is ListenableWorker.Result.Success)
+        verify(exactly = 2) { httpClient.post(any(), any(), any(), any()) }
+        verifyOrder {
+            analyticsEventDao.deleteEvents(firstPage)
+            analyticsEventDao.deleteEvents(secondPage)
+            analyticsEventDao.getEventsAfter(3L, any())
+        }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_whenPageExceedsMaxPayloadSize_splitsPageIntoMultipleRequests() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+
+        every {
+            deviceInspector.getDeviceMetadata(context, any(), any(), sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val largeEventName = "a".repeat(40 * 1024)
+        val events = listOf(AnalyticsEvent(largeEventName), AnalyticsEvent(largeEventName))
+        assignIds(events)
+        every { analyticsEventDao.getEventsAfter(0L, any()) } returns events
+
+        val requests = mutableListOf<String>()
+        every { httpClient.post(any(), capture(requests), any(), any()) } returns ""
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
+        sut.uploadAnalytics(context, inputData)
+
+        assertEquals(2, requests.size)
+        for (request in requests) {
+            val eventJSON = JSONObject(request).getJSONArray("events")[0] as JSONObject
+            assertEquals(1, eventJSON.getJSONArray("event_params").length())
+        }
+        verify { analyticsEventDao.deleteEvents(listOf(events[0])) }
+        verify { analyticsEventDao.deleteEvents(listOf(events[1])) }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_whenLaterBatchFails_keepsOnlyEventsThatWereNotUploaded() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+
+        every {
+            deviceInspector.getDeviceMetadata(context, any(), any(), sessionId, integration)
+        } returns createSampleDeviceMetadata()
+
+        val events = listOf(AnalyticsEvent("event0"), AnalyticsEvent("event1"))
+        assignIds(events)
+        every { analyticsEventDao.getEventsAfter(0L, any()) } returns events.subList(0, 1)
+        every { analyticsEventDao.getEventsAfter(1L, any()) } returns events.subList(1, 2)
+        every { httpClient.post(any(), any(), any(), any()) } returns "" andThenThrows Exception("error")
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
+        val result = sut.uploadAnalytics(context, inputData)
+
+        assertTrue(result is ListenableWorker.Result.Failure)
+        verify(exactly = 1) { analyticsEventDao.deleteEvents(any()) }
+        verify { analyticsEventDao.deleteEvents(events.subList(0, 1)) }
     }
 
     @Test
     @Throws(Exception::class)
     fun uploadAnalytics_whenAnalyticsSendFails_returnsError() {
         val inputData = Data.Builder()
-            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
-            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION_CACHE_KEY, cacheKey)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_ENVIRONMENT, configuration.environment)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_MERCHANT_ID, configuration.merchantId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
             .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
             .build()
 
         every {
-            deviceInspector.getDeviceMetadata(context, any(), sessionId, integration)
+            deviceInspector.getDeviceMetadata(context, any(), any(), sessionId, integration)
         } returns createSampleDeviceMetadata()
 
         val events: MutableList<AnalyticsEvent> = ArrayList()
@@ -382,14 +607,56 @@ class AnalyticsClientUnitTest {
         events.add(AnalyticsEvent("event1", payPalContextId, null, 456))
         events.add(AnalyticsEvent("event0", null, linkType, 789))
         events.add(AnalyticsEvent("event1", payPalContextId, linkType, 987))
-        every { analyticsEventDao.getAllEvents() } returns events
+        assignIds(events)
+        every { analyticsEventDao.getEventsAfter(0L, any()) } returns events
 
         val httpError = Exception("error")
         every { httpClient.post(any(), any(), any(), any()) } throws httpError
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val result = sut.uploadAnalytics(context, inputData)
         assertTrue(result is ListenableWorker.Result.Failure)
+        // the authorization is only removed once an upload succeeds
+        verify(exactly = 0) { analyticsStore.removeKeys(any()) }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun uploadAnalytics_withInputDataFromPreviousSdkVersion_sendsEvents() {
+        val inputData = Data.Builder()
+            .putString(AnalyticsClient.WORK_INPUT_KEY_AUTHORIZATION, authorization.toString())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_CONFIGURATION, configuration.toJson())
+            .putString(AnalyticsClient.WORK_INPUT_KEY_SESSION_ID, sessionId)
+            .putString(AnalyticsClient.WORK_INPUT_KEY_INTEGRATION, integration)
+            .build()
+
+        every {
+            deviceInspector.getDeviceMetadata(
+                context,
+                configuration.environment,
+                configuration.merchantId,
+                sessionId,
+                integration
+            )
+        } returns createSampleDeviceMetadata()
+
+        val events = listOf(AnalyticsEvent("event0"))
+        assignIds(events)
+        every { analyticsEventDao.getEventsAfter(0L, any()) } returns events
+
+        val analyticsJSONSlot = slot<String>()
+        every { httpClient.post(any(), capture(analyticsJSONSlot), any(), any()) } returns ""
+
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
+        val result = sut.uploadAnalytics(context, inputData)
+
+        assertTrue(result is ListenableWorker.Result.Success)
+        val eventJSON = JSONObject(analyticsJSONSlot.captured).getJSONArray("events")[0]
+        verifyBatchParams((eventJSON as JSONObject)["batch_params"] as JSONObject)
     }
 
     @Test
@@ -407,11 +674,14 @@ class AnalyticsClientUnitTest {
                 data = capture(analyticsJSONSlot),
                 configuration = any(),
                 authorization = authorization,
+                priority = HttpRequest.PRIORITY_LOW,
                 callback = any()
             )
         } returns Unit
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val event = AnalyticsEvent(eventName)
         sut.sendEvent(configuration, event, sessionId, integration, authorization)
 
@@ -441,7 +711,9 @@ class AnalyticsClientUnitTest {
             deviceInspector.getDeviceMetadata(context, configuration, sessionId, integration)
         } returns metadata
 
-        val sut = AnalyticsClient(httpClient, analyticsDatabase, workManager, deviceInspector)
+        val sut = AnalyticsClient(
+            httpClient, analyticsDatabase, workManager, deviceInspector, analyticsEventBuffer, analyticsStore
+        )
         val event = AnalyticsEvent(eventName)
         sut.sendEvent(configuration, event, sessionId, integration, authorization)
 
@@ -451,6 +723,10 @@ class AnalyticsClientUnitTest {
         verify { httpClient wasNot Called }
     }
 
+    private fun assignIds(events: List<AnalyticsEvent>) {
+        events.forEachIndexed { index, event -> event.id = index + 1L }
+    }
+
     private fun verifyBatchParams(batchParams: JSONObject) {
         assertEquals("fake-app-id", batchParams["app_id"])
         assertEquals("fake-app-name", batchParams["app_name"])
@@ -0,0 +1,125 @@
+package com.braintreepayments.api
+
+import android.content.ComponentCallbacks2
+import io.mockk.*
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+class AnalyticsEventBufferUnitTest {
+
+    private lateinit var analyticsDatabase: AnalyticsDatabase
+    private lateinit var analyticsEventDao: AnalyticsEventDao
+    private lateinit var executor: ScheduledExecutorService
+    private lateinit var scheduledFuture: ScheduledFuture<*>
+    private lateinit var scheduledFlushSlot: CapturingSlot<Runnable>
+
+    @Before
+    fun beforeEach() {
+        analyticsDatabase = mockk(relaxed = true)
+        analyticsEventDao = mockk(relaxed = true)
+        executor = mockk(relaxed = true)
+        scheduledFuture = mockk(relaxed = true)
+        scheduledFlushSlot = slot()
+
+        every { analyticsDatabase.analyticsEventDao() } returns analyticsEventDao
+        every { analyticsDatabase.runInTransaction(any<Runnable>()) } answers {
+            firstArg<Runnable>().run()
+        }
+        every { executor.execute(any()) } answers { firstArg<Runnable>().run() }
+        every {
+            executor.schedule(capture(scheduledFlushSlot), any(), any())
+        } returns scheduledFuture
+    }
+
+    @Test
+    fun append_doesNotWriteToDatabaseImmediately() {
+        val sut = AnalyticsEventBuffer(analyticsDatabase, executor, 3, 5000L, 10)
+        sut.append(AnalyticsEvent("event0"))
+
+        verify { analyticsEventDao wasNot Called }
+    }
+
+    @Test
+    fun append_schedulesFlushAfterDelay() {
+        val sut = AnalyticsEventBuffer(analyticsDatabase, executor, 3, 5000L, 10)
+        sut.append(AnalyticsEvent("event0"))
+        sut.append(AnalyticsEvent("event1"))
+
+        verify(exactly = 1) { executor.schedule(any(), 5000L, TimeUnit.MILLISECONDS) }
+
+        scheduledFlushSlot.captured.run()
+
+        val eventsSlot = slot<List<AnalyticsEvent>>()
+        verify(exactly = 1) { analyticsEventDao.insertEvents(capture(eventsSlot)) }
+        assertEquals(listOf("event0", "event1"), eventsSlot.captured.map { it.name })
+    }
+
+    @Test
+    fun append_whenBatchSizeIsReached_writesBatchAndCancelsScheduledFlush() {
+        val sut = AnalyticsEventBuffer(analyticsDatabase, executor, 3, 5000L, 10)
+        sut.append(AnalyticsEvent("event0"))
+        sut.append(AnalyticsEvent("event1"))
+        sut.append(AnalyticsEvent("event2"))
+
+        val eventsSlot = slot<List<AnalyticsEvent>>()
+        verify(exactly = 1) { analyticsEventDao.insertEvents(capture(eventsSlot)) }
+        assertEquals(listOf("event0", "event1", "event2"), eventsSlot.captured.map { it.name })
+        verify { scheduledFuture.cancel(false) }
+    }
+
+    @Test
+    fun append_whenBufferIsFull_dropsOldestEvents() {
+        val sut = AnalyticsEventBuffer(analyticsDatabase, executor, 10, 5000L, 2)
+        sut.append(AnalyticsEvent("event0"))
+        sut.append(AnalyticsEvent("event1"))
+        sut.append(AnalyticsEvent("event2"))
+        sut.flushBlocking()
+
+        val eventsSlot = slot<List<AnalyticsEvent>>()
+        verify { analyticsEventDao.insertEvents(capture(eventsSlot)) }
+        assertEquals(listOf("event1", "event2"), eventsSlot.captured.map { it.name })
+        assertEquals(1, sut.droppedEventCount)
+    }
+
+    @Test
+    fun flushBlocking_evictsOldestStoredEventsAfterInsert() {
+        val sut = AnalyticsEventBuffer(analyticsDatabase, executor, 3, 5000L, 10)
+        sut.append(AnalyticsEvent("event0"))
+        sut.flushBlocking()
+
+        verifyOrder {
+            analyticsEventDao.insertEvents(any())
+            analyticsEventDao.deleteOldestEvents(AnalyticsEventBuffer.MAX_STORED_EVENTS)
+        }
+    }
+
+    @Test
+    fun flushBlocking_whenBufferIsEmpty_doesNotWriteToDatabase() {
+        val sut = AnalyticsEventBuffer(analyticsDatabase, executor, 3, 5000L, 10)
+        sut.flushBlocking()
+
+        verify { analyticsEventDao wasNot Called }
+    }
+
+    @Test
+    fun onTrimMemory_whenUiHidden_writesBufferedEvents() {
+        val sut = AnalyticsEventBuffer(analyticsDatabase, executor, 3, 5000L, 10)
+        sut.append(AnalyticsEvent("event0"))
+        sut.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+
+        verify(exactly = 1) { analyticsEventDao.insertEvents(any()) }
+    }
+
+    @Test
+    fun onTrimMemory_whenUiVisible_doesNotWriteBufferedEvents() {
+        val sut = AnalyticsEventBuffer(analyticsDatabase, executor, 3, 5000L, 10)
+        sut.append(AnalyticsEvent("event0"))
+        sut.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW)
+
+        verify(exactly = 0) { analyticsEventDao.insertEvents(any()) }
+    }
+}
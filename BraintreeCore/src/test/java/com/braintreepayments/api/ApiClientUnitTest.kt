@@ -34,8 +34,10 @@ class ApiClientUnitTest {
             .sessionId("session-id")
             .build()
 
-        val bodySlot = slot<String>()
-        every { braintreeClient.sendPOST(any(), capture(bodySlot), any(), any()) } returns Unit
+        val payloadSlot = slot<JSONPayloadWriter>()
+        every {
+            braintreeClient.sendJSONPOST(any(), capture(payloadSlot), any(), any(), any())
+        } returns Unit
 
         val sut = ApiClient(braintreeClient)
         val card = spyk(Card())
@@ -43,10 +45,10 @@ class ApiClientUnitTest {
 
         verifyOrder {
             card.setSessionId("session-id")
-            braintreeClient.sendPOST(any(), any(), any(), any())
+            braintreeClient.sendJSONPOST(any(), any(), any(), any(), any())
         }
 
-        val data = JSONObject(bodySlot.captured).getJSONObject("_meta")
+        val data = JSONPayloadHelper.toJSONObject(payloadSlot.captured).getJSONObject("_meta")
         assertEquals("session-id", data.getString("sessionId"))
     }
 
@@ -59,13 +61,15 @@ class ApiClientUnitTest {
             .build()
 
         val graphQLBodySlot = slot<String>()
-        every { braintreeClient.sendGraphQLPOST(capture(graphQLBodySlot), any()) } returns Unit
+        every {
+            braintreeClient.sendGraphQLPOSTForJSON(capture(graphQLBodySlot), any(), any())
+        } returns Unit
 
         val sut = ApiClient(braintreeClient)
         val card = Card()
         sut.tokenizeGraphQL(card.buildJSONForGraphQL(), tokenizeCallback)
 
-        verify(inverse = true) { braintreeClient.sendPOST(any(), any(), any(), any()) }
+        verify(inverse = true) { braintreeClient.sendJSONPOST(any(), any(), any(), any(), any()) }
         assertEquals(card.buildJSONForGraphQL().toString(), graphQLBodySlot.captured)
     }
 
@@ -93,7 +97,7 @@ class ApiClientUnitTest {
         sut.tokenizeREST(UnionPayCard(), tokenizeCallback)
         sut.tokenizeREST(VenmoAccount(), tokenizeCallback)
 
-        verify(inverse = true) { braintreeClient.sendGraphQLPOST(any(), any()) }
+        verify(inverse = true) { braintreeClient.sendGraphQLPOSTForJSON(any(), any(), any()) }
     }
 
     @Test
@@ -111,6 +115,23 @@ class ApiClientUnitTest {
         verify { braintreeClient.sendAnalyticsEvent("card.graphql.tokenization.success") }
     }
 
+    @Test
+    @Throws(BraintreeException::class, JSONException::class)
+    fun tokenizeGraphQL_forwardsParsedResponseWithoutParsingItAgain() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLEnabledConfig)
+            .build()
+        val response = JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD)
+        every { braintreeClient.sendGraphQLPOSTForJSON(any(), any(), any()) } answers { call ->
+            (call.invocation.args[2] as JSONResponseCallback).onResult(response, null)
+        }
+
+        val sut = ApiClient(braintreeClient)
+        sut.tokenizeGraphQL(Card().buildJSONForGraphQL(), tokenizeCallback)
+
+        verify { tokenizeCallback.onResult(refEq(response), null) }
+    }
+
     @Test
     @Throws(BraintreeException::class, JSONException::class)
     fun tokenizeGraphQL_sendGraphQLAnalyticsEventOnFailure() {
@@ -125,13 +146,54 @@ class ApiClientUnitTest {
     }
 
     @Test
-    fun `when tokenizeREST is called, braintreeClient sendPOST is called with empty headers`() {
+    fun `when tokenizeREST is called, braintreeClient sendJSONPOST is called with empty headers`() {
         val braintreeClient = MockkBraintreeClientBuilder().build()
         val sut = ApiClient(braintreeClient)
 
         sut.tokenizeREST(mockk(relaxed = true), mockk(relaxed = true))
 
-        verify { braintreeClient.sendPOST(any(), any(), emptyMap(), any()) }
+        verify { braintreeClient.sendJSONPOST(any(), any(), emptyMap(), any(), any()) }
+    }
+
+    @Test
+    fun tokenizeREST_writesPaymentMethodJSONAsRequestBody() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLDisabledConfig)
+            .build()
+
+        val payloadSlot = slot<JSONPayloadWriter>()
+        every {
+            braintreeClient.sendJSONPOST(any(), capture(payloadSlot), any(), any(), any())
+        } returns Unit
+
+        val card = Card()
+        card.number = "4111111111111111"
+        card.expirationMonth = "12"
+        card.expirationYear = "2030"
+        ApiClient(braintreeClient).tokenizeREST(card, tokenizeCallback)
+
+        assertEquals(
+            card.buildJSON().toString(),
+            JSONPayloadHelper.toJSONObject(payloadSlot.captured).toString()
+        )
+    }
+
+    @Test
+    fun tokenizeREST_whenAnalyticsEventsDisabled_doesNotSendAnalyticsEvents() {
+        val braintreeClient = MockkBraintreeClientBuilder()
+            .configurationSuccess(graphQLDisabledConfig)
+            .build()
+        every {
+            braintreeClient.sendJSONPOST(any(), any(), any(), any(), any())
+        } answers { call ->
+            (call.invocation.args[4] as HttpResponseCallback)
+                .onResult(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD, null)
+        }
+
+        ApiClient(braintreeClient).tokenizeREST(Card(), false, tokenizeCallback)
+
+        verify { tokenizeCallback.onResult(any(), null) }
+        verify(inverse = true) { braintreeClient.sendAnalyticsEvent(any(), any()) }
     }
 
     @Test
@@ -8,6 +8,10 @@ import androidx.fragment.app.FragmentActivity
 import androidx.test.core.app.ApplicationProvider
 import androidx.work.testing.WorkManagerTestInitHelper
 import io.mockk.*
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.yield
 import org.json.JSONException
 import org.json.JSONObject
 import org.junit.Assert.*
@@ -84,6 +88,19 @@ class BraintreeClientUnitTest {
         verify { callback.onResult(configuration, null) }
     }
 
+    @Test
+    fun prefetchConfiguration_loadsConfiguration() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        sut.prefetchConfiguration()
+
+        verify { configurationLoader.loadConfiguration(authorization, any()) }
+    }
+
     @Test
     fun configuration_forwardsAuthorizationLoaderError() {
         val authFetchError = Exception("auth fetch error")
@@ -163,6 +180,39 @@ class BraintreeClientUnitTest {
                 "sample-url",
                 configuration,
                 authorization,
+                HttpClient.NO_RETRY,
+                HttpRequest.PRIORITY_HIGH,
+                null,
+                httpResponseCallback
+            )
+        }
+    }
+
+    @Test
+    fun sendGET_withRequestHandle_forwardsRequestHandleToHttpClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val requestHandle = HttpRequestHandle()
+
+        sut.sendGET("sample-url", requestHandle, httpResponseCallback)
+        verify {
+            braintreeHttpClient.get(
+                "sample-url",
+                configuration,
+                authorization,
+                HttpClient.NO_RETRY,
+                HttpRequest.PRIORITY_HIGH,
+                requestHandle,
                 httpResponseCallback
             )
         }
@@ -350,11 +400,177 @@ class BraintreeClientUnitTest {
                 "{}",
                 configuration,
                 authorization,
+                null,
                 httpResponseCallback
             )
         }
     }
 
+    @Test
+    fun sendGraphQLPOST_whenRequestDeadlineHasPassed_forwardsDeadlineExceededErrorToCallback() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(mockk(relaxed = true))
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        sut.sendGraphQLPOST("{}", HttpRequestHandle(0), httpResponseCallback)
+
+        verify { httpResponseCallback.onResult(null, ofType(DeadlineExceededException::class)) }
+        verify(exactly = 0) { braintreeGraphQLClient.post(any(), any(), any(), any(), any()) }
+    }
+
+    @Test
+    fun sendPOST_whenRequestHandleIsCancelled_doesNotSendRequestOrNotifyCallback() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(mockk(relaxed = true))
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val requestHandle = HttpRequestHandle()
+        requestHandle.cancel()
+
+        sut.sendPOST("sample-url", "{}", emptyMap(), requestHandle, httpResponseCallback)
+
+        verify(exactly = 0) { braintreeHttpClient.post(any(), any(), any(), any(), any(), any(), any(), any()) }
+        verify { httpResponseCallback wasNot Called }
+    }
+
+    @Test
+    fun sendGET_suspend_returnsResponseFromHttpClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+        every {
+            braintreeHttpClient.get(
+                "sample-url",
+                configuration,
+                authorization,
+                HttpClient.NO_RETRY,
+                HttpRequest.PRIORITY_HIGH,
+                any(),
+                any()
+            )
+        } answers { lastArg<HttpResponseCallback>().onResult("sample-response", null) }
+
+        val sut = BraintreeClient(createDefaultParams(configurationLoader, authorizationLoader))
+        val result = runBlocking { sut.sendGET("sample-url") }
+
+        assertEquals("sample-response", result)
+    }
+
+    @Test
+    fun sendPOST_suspend_onGetConfigurationFailure_throwsError() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configurationError(Exception("configuration error"))
+            .build()
+
+        val sut = BraintreeClient(createDefaultParams(configurationLoader, authorizationLoader))
+        val error = assertThrows(Exception::class.java) {
+            runBlocking { sut.sendPOST("sample-url", "{}") }
+        }
+
+        assertEquals("configuration error", error.message)
+    }
+
+    @Test
+    fun sendGraphQLPOST_suspend_whenCoroutineIsCancelled_cancelsRequest() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(mockk(relaxed = true))
+            .build()
+        val requestHandleSlot = slot<HttpRequestHandle>()
+        every {
+            braintreeGraphQLClient.post("{}", any(), any(), capture(requestHandleSlot), any())
+        } just runs
+
+        val sut = BraintreeClient(createDefaultParams(configurationLoader, authorizationLoader))
+        runBlocking {
+            val request = launch { sut.sendGraphQLPOST("{}") }
+            yield()
+            request.cancelAndJoin()
+        }
+
+        assertTrue(requestHandleSlot.captured.isCancelled)
+    }
+
+    @Test
+    fun sendJSONPOST_onGetConfigurationSuccess_forwardsRequestToHttpClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+
+        val payload = mockk<JSONPayloadWriter>()
+        val headers = mapOf("name" to "value")
+        val requestHandle = HttpRequestHandle()
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+        sut.sendJSONPOST("sample-url", payload, headers, requestHandle, httpResponseCallback)
+
+        verify {
+            braintreeHttpClient.postJSON(
+                path = "sample-url",
+                payload = payload,
+                configuration = configuration,
+                authorization = authorization,
+                additionalHeaders = headers,
+                requestHandle = requestHandle,
+                callback = httpResponseCallback
+            )
+        }
+    }
+
+    @Test
+    fun sendJSONPOST_onGetConfigurationFailure_forwardsErrorToCallback() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val exception = Exception("configuration error")
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configurationError(exception)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val httpResponseCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        sut.sendJSONPOST("sample-url", mockk(), responseCallback = httpResponseCallback)
+
+        verify { httpResponseCallback.onResult(null, exception) }
+        verify(exactly = 0) {
+            braintreeHttpClient.postJSON(any(), any(), any(), any(), any(), any(), any(), any())
+        }
+    }
+
     @Test
     fun sendGraphQLPOST_onAuthorizationFailure_forwardsErrorToCallback() {
         val authError = Exception("authorization error")
@@ -391,6 +607,99 @@ class BraintreeClientUnitTest {
         verify { httpResponseCallback.onResult(null, exception) }
     }
 
+    @Test
+    fun sendGraphQLPOSTForJSON_onGetConfigurationSuccess_forwardsRequestToGraphQLClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val jsonResponseCallback = mockk<JSONResponseCallback>(relaxed = true)
+
+        sut.sendGraphQLPOSTForJSON("{}", null, jsonResponseCallback)
+        verify {
+            braintreeGraphQLClient.postForJSON(
+                "{}",
+                configuration,
+                authorization,
+                null,
+                jsonResponseCallback
+            )
+        }
+    }
+
+    @Test
+    fun sendGraphQLPOSTForJSON_onGetConfigurationFailure_forwardsErrorToCallback() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val exception = Exception("configuration error")
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configurationError(exception)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val jsonResponseCallback = mockk<JSONResponseCallback>(relaxed = true)
+
+        sut.sendGraphQLPOSTForJSON("{}", null, jsonResponseCallback)
+        verify { jsonResponseCallback.onResult(null, exception) }
+    }
+
+    @Test
+    fun sendGraphQLBatch_onGetConfigurationSuccess_forwardsOperationsToGraphQLClient() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val configuration = mockk<Configuration>(relaxed = true)
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configuration(configuration)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val operations = listOf(
+            GraphQLOperation("{}", null, mockk(relaxed = true)),
+            GraphQLOperation("{}", null, mockk(relaxed = true))
+        )
+
+        sut.sendGraphQLBatch(operations)
+
+        verify { braintreeGraphQLClient.postBatch(operations, configuration, authorization) }
+    }
+
+    @Test
+    fun sendGraphQLBatch_onGetConfigurationFailure_forwardsErrorToEveryOperation() {
+        val authorizationLoader = MockkAuthorizationLoaderBuilder()
+            .authorization(authorization)
+            .build()
+
+        val exception = Exception("configuration error")
+        val configurationLoader = MockkConfigurationLoaderBuilder()
+            .configurationError(exception)
+            .build()
+
+        val params = createDefaultParams(configurationLoader, authorizationLoader)
+        val sut = BraintreeClient(params)
+        val firstCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val secondCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        sut.sendGraphQLBatch(
+            listOf(GraphQLOperation("{}", null, firstCallback), GraphQLOperation("{}", null, secondCallback))
+        )
+
+        verify { firstCallback.onResult(null, exception) }
+        verify { secondCallback.onResult(null, exception) }
+    }
+
     @Test
     @Throws(JSONException::class)
     fun sendAnalyticsEvent_sendsEventToAnalyticsClient() {
@@ -3,8 +3,12 @@ package com.braintreepayments.api
 import io.mockk.every
 import io.mockk.mockk
 import io.mockk.slot
+import io.mockk.verify
 import org.json.JSONException
+import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -20,6 +24,7 @@ class BraintreeGraphQLClientUnitTest {
     private lateinit var httpClient: HttpClient
     private lateinit var httpResponseCallback: HttpResponseCallback
     private lateinit var configuration: Configuration
+    private lateinit var batchedConfiguration: Configuration
     private lateinit var authorization: Authorization
 
     @Before
@@ -29,6 +34,8 @@ class BraintreeGraphQLClientUnitTest {
         httpResponseCallback = mockk()
         authorization = Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN)
         configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL)
+        batchedConfiguration =
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_BATCHED_OPERATIONS)
     }
 
     @Test
@@ -75,6 +82,45 @@ class BraintreeGraphQLClientUnitTest {
         assertEquals("2018-03-06", headers["Braintree-Version"])
     }
 
+    @Test
+    @Throws(MalformedURLException::class, URISyntaxException::class)
+    fun postForJSON_sendsJSONRequest() {
+        val jsonResponseCallback = mockk<JSONResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendJSONRequest(capture(httpRequestSlot), jsonResponseCallback)
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.postForJSON("data", configuration, authorization, null, jsonResponseCallback)
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(URL("https://example-graphql.com/graphql"), httpRequest.url)
+        assertEquals("data", String(httpRequest.data, StandardCharsets.UTF_8))
+        assertEquals("POST", httpRequest.method)
+
+        val headers = httpRequest.headers
+        assertEquals("braintree/android/" + BuildConfig.VERSION_NAME, headers["User-Agent"])
+        assertEquals("Bearer encoded_auth_fingerprint", headers["Authorization"])
+        assertEquals("2018-03-06", headers["Braintree-Version"])
+    }
+
+    @Test
+    fun postForJSON_withInvalidToken_forwardsExceptionToCallback() {
+        val authorization = InvalidAuthorization("invalid", "token invalid")
+        val jsonResponseCallback = mockk<JSONResponseCallback>()
+
+        val exceptionSlot = slot<BraintreeException>()
+        every {
+            jsonResponseCallback.onResult(null, capture(exceptionSlot))
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient)
+        sut.postForJSON("data", configuration, authorization, null, jsonResponseCallback)
+
+        assertEquals("token invalid", exceptionSlot.captured.message)
+    }
+
     @Test
     @Throws(Exception::class)
     fun post_withPathAndDataAndConfiguration_sendsHttpRequest() {
@@ -139,4 +185,337 @@ class BraintreeGraphQLClientUnitTest {
             assertEquals("token invalid", e.message)
         }
     }
+
+    @Test
+    fun post_withPersistedQueriesEnabled_sendsQueryHashInsteadOfDocument() {
+        val persistedQueries = GraphQLPersistedQueries(32)
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), any<HttpResponseCallback>())
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, persistedQueries)
+        sut.post(PERSISTED_QUERY_DATA, configuration, authorization, null, httpResponseCallback)
+
+        val data = JSONObject(String(httpRequestSlot.captured.data, StandardCharsets.UTF_8))
+        assertFalse(data.has("query"))
+        assertEquals(Sha256.hex("query Document { id }"), persistedQueryHash(data))
+        assertEquals("some-id", data.getJSONObject("variables").getString("id"))
+    }
+
+    @Test
+    fun post_withPathAndPersistedQueriesEnabled_sendsQueryHashToPath() {
+        val persistedQueries = GraphQLPersistedQueries(32)
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), any<HttpResponseCallback>())
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, persistedQueries)
+        sut.post("sample/path", PERSISTED_QUERY_DATA, configuration, authorization, httpResponseCallback)
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(URL("https://example-graphql.com/graphql/sample/path"), httpRequest.url)
+        val data = JSONObject(String(httpRequest.data, StandardCharsets.UTF_8))
+        assertFalse(data.has("query"))
+        assertEquals(Sha256.hex("query Document { id }"), persistedQueryHash(data))
+    }
+
+    @Test
+    fun post_withPersistedQueriesDisabledByConfiguration_sendsDocument() {
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), any<HttpResponseCallback>())
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, GraphQLPersistedQueries(32))
+        sut.post(PERSISTED_QUERY_DATA, configuration, authorization, null, httpResponseCallback)
+
+        assertEquals(PERSISTED_QUERY_DATA, String(httpRequestSlot.captured.data, StandardCharsets.UTF_8))
+    }
+
+    @Test
+    fun post_whenPersistedQueryIsNotFound_resendsFullDocumentWithHash() {
+        val persistedQueries = GraphQLPersistedQueries(32)
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val requests = mutableListOf<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(requests), any<HttpResponseCallback>())
+        } answers {
+            val callback = secondArg<HttpResponseCallback>()
+            if (requests.size == 1) {
+                callback.onResult(null, PersistedQueryException("PersistedQueryNotFound", true))
+            } else {
+                callback.onResult("response", null)
+            }
+        }
+        every { httpResponseCallback.onResult("response", null) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, persistedQueries)
+        sut.post(PERSISTED_QUERY_DATA, configuration, authorization, null, httpResponseCallback)
+
+        assertEquals(2, requests.size)
+        val retry = JSONObject(String(requests[1].data, StandardCharsets.UTF_8))
+        assertEquals("query Document { id }", retry.getString("query"))
+        assertEquals(Sha256.hex("query Document { id }"), persistedQueryHash(retry))
+        assertTrue(persistedQueries.isSupported)
+        verify { httpResponseCallback.onResult("response", null) }
+    }
+
+    @Test
+    fun post_whenPersistedQueriesAreNotSupported_resendsOriginalRequestAndStopsHashing() {
+        val persistedQueries = GraphQLPersistedQueries(32)
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val requests = mutableListOf<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(requests), any<HttpResponseCallback>())
+        } answers {
+            val callback = secondArg<HttpResponseCallback>()
+            if (requests.size == 1) {
+                callback.onResult(null, PersistedQueryException("PersistedQueryNotSupported", false))
+            } else {
+                callback.onResult("response", null)
+            }
+        }
+        every { httpResponseCallback.onResult("response", null) } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, persistedQueries)
+        sut.post(PERSISTED_QUERY_DATA, configuration, authorization, null, httpResponseCallback)
+        sut.post(PERSISTED_QUERY_DATA, configuration, authorization, null, httpResponseCallback)
+
+        assertEquals(3, requests.size)
+        assertEquals(PERSISTED_QUERY_DATA, String(requests[1].data, StandardCharsets.UTF_8))
+        assertEquals(PERSISTED_QUERY_DATA, String(requests[2].data, StandardCharsets.UTF_8))
+        assertFalse(persistedQueries.isSupported)
+    }
+
+    @Test
+    fun postForJSON_whenPersistedQueryIsNotFound_resendsFullDocumentWithHash() {
+        val persistedQueries = GraphQLPersistedQueries(32)
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val jsonResponseCallback = mockk<JSONResponseCallback>(relaxed = true)
+        val response = JSONObject()
+        val requests = mutableListOf<HttpRequest>()
+        every {
+            httpClient.sendJSONRequest(capture(requests), any())
+        } answers {
+            val callback = secondArg<JSONResponseCallback>()
+            if (requests.size == 1) {
+                callback.onResult(null, PersistedQueryException("PersistedQueryNotFound", true))
+            } else {
+                callback.onResult(response, null)
+            }
+        }
+
+        val sut = BraintreeGraphQLClient(httpClient, persistedQueries)
+        sut.postForJSON(PERSISTED_QUERY_DATA, configuration, authorization, null, jsonResponseCallback)
+
+        assertEquals(2, requests.size)
+        val first = JSONObject(String(requests[0].data, StandardCharsets.UTF_8))
+        assertFalse(first.has("query"))
+        val retry = JSONObject(String(requests[1].data, StandardCharsets.UTF_8))
+        assertEquals("query Document { id }", retry.getString("query"))
+        verify(exactly = 1) { jsonResponseCallback.onResult(response, null) }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun post_withPathAndDataAndConfiguration_whenPersistedQueryIsNotFound_resendsFullDocument() {
+        val persistedQueries = GraphQLPersistedQueries(32)
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES)
+        val requests = mutableListOf<HttpRequest>()
+        every { httpClient.sendRequest(capture(requests)) } answers {
+            if (requests.size == 1) {
+                throw PersistedQueryException("PersistedQueryNotFound", true)
+            }
+            "response"
+        }
+
+        val sut = BraintreeGraphQLClient(httpClient, persistedQueries)
+        val result = sut.post("", PERSISTED_QUERY_DATA, configuration, authorization)
+
+        assertEquals("response", result)
+        assertEquals(2, requests.size)
+        val retry = JSONObject(String(requests[1].data, StandardCharsets.UTF_8))
+        assertEquals("query Document { id }", retry.getString("query"))
+        assertEquals(Sha256.hex("query Document { id }"), persistedQueryHash(retry))
+    }
+
+    @Test
+    fun postBatch_sendsOperationsAsSingleArrayRequest() {
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), any<HttpResponseCallback>())
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, GraphQLPersistedQueries(32))
+        sut.postBatch(
+            listOf(
+                GraphQLOperation("""{"query":"first"}""", null, mockk(relaxed = true)),
+                GraphQLOperation("""{"query":"second"}""", null, mockk(relaxed = true))
+            ),
+            batchedConfiguration,
+            authorization
+        )
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(URL("https://example-graphql.com/graphql"), httpRequest.url)
+        assertEquals(
+            """[{"query":"first"},{"query":"second"}]""",
+            String(httpRequest.data, StandardCharsets.UTF_8)
+        )
+        assertEquals("Bearer encoded_auth_fingerprint", httpRequest.headers["Authorization"])
+    }
+
+    @Test
+    fun postBatch_deliversEachResultToItsOperation() {
+        val firstCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val secondCallback = mockk<HttpResponseCallback>(relaxed = true)
+        every {
+            httpClient.sendRequest(any(), any<HttpResponseCallback>())
+        } answers {
+            secondArg<HttpResponseCallback>().onResult(
+                """[{"data":{"id":"first"}},{"errors":[{"message":"Failed"}]}]""",
+                null
+            )
+        }
+
+        val sut = BraintreeGraphQLClient(httpClient, GraphQLPersistedQueries(32))
+        sut.postBatch(
+            listOf(
+                GraphQLOperation("{}", null, firstCallback),
+                GraphQLOperation("{}", null, secondCallback)
+            ),
+            batchedConfiguration,
+            authorization
+        )
+
+        verify { firstCallback.onResult("""{"data":{"id":"first"}}""", null) }
+        val errorSlot = slot<Exception>()
+        verify { secondCallback.onResult(null, capture(errorSlot)) }
+        assertTrue(errorSlot.captured is UnexpectedException)
+        assertEquals("Failed", errorSlot.captured.message)
+    }
+
+    @Test
+    fun postBatch_onHttpError_forwardsErrorToEveryOperation() {
+        val error = Exception("network error")
+        val firstCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val secondCallback = mockk<HttpResponseCallback>(relaxed = true)
+        every {
+            httpClient.sendRequest(any(), any<HttpResponseCallback>())
+        } answers { secondArg<HttpResponseCallback>().onResult(null, error) }
+
+        val sut = BraintreeGraphQLClient(httpClient, GraphQLPersistedQueries(32))
+        sut.postBatch(
+            listOf(
+                GraphQLOperation("{}", null, firstCallback),
+                GraphQLOperation("{}", null, secondCallback)
+            ),
+            batchedConfiguration,
+            authorization
+        )
+
+        verify { firstCallback.onResult(null, error) }
+        verify { secondCallback.onResult(null, error) }
+    }
+
+    @Test
+    fun postBatch_doesNotDeliverResultToCancelledOperation() {
+        val requestHandle = HttpRequestHandle()
+        val firstCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val secondCallback = mockk<HttpResponseCallback>(relaxed = true)
+        every {
+            httpClient.sendRequest(any(), any<HttpResponseCallback>())
+        } answers {
+            requestHandle.cancel()
+            secondArg<HttpResponseCallback>().onResult("""[{"data":{}},{"data":{}}]""", null)
+        }
+
+        val sut = BraintreeGraphQLClient(httpClient, GraphQLPersistedQueries(32))
+        sut.postBatch(
+            listOf(
+                GraphQLOperation("{}", requestHandle, firstCallback),
+                GraphQLOperation("{}", null, secondCallback)
+            ),
+            batchedConfiguration,
+            authorization
+        )
+
+        verify(exactly = 0) { firstCallback.onResult(any(), any()) }
+        verify { secondCallback.onResult("""{"data":{}}""", null) }
+    }
+
+    @Test
+    fun postBatch_whenBatchedOperationsAreNotEnabled_sendsEachOperationSeparately() {
+        val httpRequests = mutableListOf<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequests), any<HttpResponseCallback>())
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, GraphQLPersistedQueries(32))
+        sut.postBatch(
+            listOf(
+                GraphQLOperation("""{"query":"first"}""", null, mockk(relaxed = true)),
+                GraphQLOperation("""{"query":"second"}""", null, mockk(relaxed = true))
+            ),
+            configuration,
+            authorization
+        )
+
+        assertEquals(
+            listOf("""{"query":"first"}""", """{"query":"second"}"""),
+            httpRequests.map { String(it.data, StandardCharsets.UTF_8) }
+        )
+    }
+
+    @Test
+    fun postBatch_withSingleOperation_sendsPlainRequest() {
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), any<HttpResponseCallback>())
+        } returns Unit
+
+        val sut = BraintreeGraphQLClient(httpClient, GraphQLPersistedQueries(32))
+        sut.postBatch(
+            listOf(GraphQLOperation("""{"query":"first"}""", null, mockk(relaxed = true))),
+            configuration,
+            authorization
+        )
+
+        assertEquals(
+            """{"query":"first"}""",
+            String(httpRequestSlot.captured.data, StandardCharsets.UTF_8)
+        )
+    }
+
+    @Test
+    fun postBatch_withInvalidToken_forwardsExceptionToEveryOperation() {
+        val authorization = InvalidAuthorization("invalid", "token invalid")
+        val firstCallback = mockk<HttpResponseCallback>(relaxed = true)
+        val secondCallback = mockk<HttpResponseCallback>(relaxed = true)
+
+        val sut = BraintreeGraphQLClient(httpClient, GraphQLPersistedQueries(32))
+        sut.postBatch(
+            listOf(
+                GraphQLOperation("{}", null, firstCallback),
+                GraphQLOperation("{}", null, secondCallback)
+            ),
+            configuration,
+            authorization
+        )
+
+        verify { firstCallback.onResult(null, any<BraintreeException>()) }
+        verify { secondCallback.onResult(null, any<BraintreeException>()) }
+    }
+
+    private fun persistedQueryHash(data: JSONObject): String =
+        data.getJSONObject("extensions").getJSONObject("persistedQuery").getString("sha256Hash")
+
+    companion object {
+        private const val PERSISTED_QUERY_DATA =
+            """{"query":"query Document { id }","variables":{"id":"some-id"}}"""
+    }
 }
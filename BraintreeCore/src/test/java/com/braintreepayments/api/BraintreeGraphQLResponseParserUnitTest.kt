@@ -2,6 +2,7 @@ package com.braintreepayments.api
 
 import io.mockk.every
 import io.mockk.mockk
+import org.json.JSONObject
 import org.junit.Assert.*
 import org.junit.Before
 import org.junit.Test
@@ -110,4 +111,102 @@ class BraintreeGraphQLResponseParserUnitTest {
             assertEquals("An Unexpected Exception Occurred", e.message)
         }
     }
+
+    @Test
+    @Throws(Exception::class)
+    fun parseJSON_returnsParsedResponse() {
+        every { baseParser.parse(123, urlConnection) } returns Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        val result = sut.parseJSON(123, urlConnection)
+
+        val expected = JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD)
+        assertEquals(expected.toString(), result.toString())
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parseJSON_onUserError_throwsErrorWithResponseException() {
+        every { baseParser.parse(123, urlConnection) } returns Fixtures.ERRORS_GRAPHQL_CREDIT_CARD_ERROR
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parseJSON(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: ErrorWithResponse) {
+            assertEquals("Input is invalid.", e.message)
+            assertNotNull(e.errorFor("creditCard"))
+        }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_onPersistedQueryNotFound_throwsPersistedQueryException() {
+        every {
+            baseParser.parse(123, urlConnection)
+        } returns """{"errors": [{"message": "PersistedQueryNotFound"}]}"""
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parse(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: PersistedQueryException) {
+            assertEquals("PersistedQueryNotFound", e.message)
+            assertTrue(e.isSupported)
+        }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parseJSON_onPersistedQueryNotSupported_throwsPersistedQueryException() {
+        every {
+            baseParser.parse(123, urlConnection)
+        } returns """{"errors": [{"message": "PersistedQueryNotSupported", "extensions": {}}]}"""
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parseJSON(123, urlConnection)
+            fail("No exception was thrown")
+        } catch (e: PersistedQueryException) {
+            assertEquals("PersistedQueryNotSupported", e.message)
+            assertFalse(e.isSupported)
+        }
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parse_withBatchResponse_returnsResponseWithoutCheckingErrors() {
+        val response = """[{"data": {}}, {"errors": [{"message": "Failed"}]}]"""
+        every { baseParser.parse(123, urlConnection) } returns response
+
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        assertEquals(response, sut.parse(123, urlConnection))
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun parseBatch_checksErrorsOfEachOperationSeparately() {
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        val results = sut.parseBatch(
+            """[{"data": {"id": "first"}}, ${Fixtures.ERRORS_GRAPHQL_CREDIT_CARD_ERROR}]""",
+            2
+        )
+
+        assertEquals(2, results.size)
+        assertEquals("first", JSONObject(results[0].responseBody!!).getJSONObject("data").getString("id"))
+        assertNull(results[0].error)
+        assertNull(results[1].responseBody)
+        assertTrue(results[1].error is ErrorWithResponse)
+    }
+
+    @Test
+    fun parseBatch_whenResultCountDoesNotMatch_throwsUnexpectedException() {
+        val sut = BraintreeGraphQLResponseParser(baseParser)
+        try {
+            sut.parseBatch("""[{"data": {}}]""", 2)
+            fail("No exception was thrown")
+        } catch (e: UnexpectedException) {
+            assertEquals("Expected 2 results in batched GraphQL response, got 1", e.message)
+        }
+    }
 }
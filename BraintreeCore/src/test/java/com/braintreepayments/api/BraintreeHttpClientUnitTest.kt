@@ -12,6 +12,7 @@ import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
+import java.io.ByteArrayOutputStream
 import java.net.MalformedURLException
 import java.net.URISyntaxException
 import java.net.URL
@@ -138,6 +139,20 @@ class BraintreeHttpClientUnitTest {
         assertEquals("token invalid", exception.message)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun postSync_doesNotSendAuthorizationHeader() {
+        val tokenizationKey: Authorization = TokenizationKey(Fixtures.TOKENIZATION_KEY)
+
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot)) } returns "sample result"
+
+        val sut = BraintreeHttpClient(httpClient)
+        sut.post("https://example.com/sample/path", "{}", null, tokenizationKey)
+
+        assertFalse(httpRequestSlot.captured.headers.containsKey("Authorization"))
+    }
+
     @Test
     @Throws(Exception::class)
     fun postSync_withTokenizationKey_forwardsHttpRequestToHttpClient() {
@@ -273,6 +288,57 @@ class BraintreeHttpClientUnitTest {
         assertEquals("{}", String(httpRequest.data, StandardCharsets.UTF_8))
     }
 
+    @Test
+    fun postAsync_withRequestHandle_attachesRequestHandleToHttpRequest() {
+        val tokenizationKey: Authorization = TokenizationKey(Fixtures.TOKENIZATION_KEY)
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), callback) } returns Unit
+
+        val requestHandle = HttpRequestHandle(5000)
+        val sut = BraintreeHttpClient(httpClient)
+        sut.post(
+            path = "sample/path",
+            data = "{}",
+            configuration = configuration,
+            authorization = tokenizationKey,
+            requestHandle = requestHandle,
+            callback = callback
+        )
+
+        val httpRequest = httpRequestSlot.captured
+        assertSame(requestHandle, httpRequest.requestHandle)
+        assertTrue(httpRequest.readTimeout <= 5000)
+    }
+
+    @Test
+    fun get_withRequestHandle_attachesRequestHandleToHttpRequest() {
+        val tokenizationKey: Authorization = TokenizationKey(Fixtures.TOKENIZATION_KEY)
+        val callback = mockk<HttpResponseCallback>()
+
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), HttpClient.NO_RETRY, callback)
+        } returns Unit
+
+        val requestHandle = HttpRequestHandle()
+        val sut = BraintreeHttpClient(httpClient)
+        sut.get(
+            "https://example.com/sample/path",
+            null,
+            tokenizationKey,
+            HttpClient.NO_RETRY,
+            HttpRequest.PRIORITY_HIGH,
+            requestHandle,
+            callback
+        )
+
+        assertSame(requestHandle, httpRequestSlot.captured.requestHandle)
+    }
+
     @Test
     @Throws(MalformedURLException::class, URISyntaxException::class)
     fun postAsync_withClientToken_forwardsHttpRequestToHttpClient() {
@@ -408,6 +474,110 @@ class BraintreeHttpClientUnitTest {
         assertEquals("token invalid", exception.message)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun postJSONAsync_withClientToken_streamsAuthorizationFingerprintAndPayload() {
+        val clientToken = Authorization.fromString(
+            FixturesHelper.base64Encode(Fixtures.CLIENT_TOKEN)
+        ) as ClientToken
+
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), callback) } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        sut.postJSON(
+            path = "sample/path",
+            payload = { writer -> writer.name("key").value("value") },
+            configuration = configuration,
+            authorization = clientToken,
+            callback = callback
+        )
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(URL("https://example.com/sample/path"), httpRequest.url)
+        assertEquals("POST", httpRequest.method)
+        assertNull(httpRequest.data)
+        val expectedData = """{"authorizationFingerprint":"${clientToken.authorizationFingerprint}",""" +
+            """"key":"value"}"""
+        assertEquals(expectedData, writeBody(httpRequest))
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun postJSONAsync_withTokenizationKey_streamsPayloadOnly() {
+        val tokenizationKey = Authorization.fromString(Fixtures.TOKENIZATION_KEY)
+
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), callback) } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        sut.postJSON(
+            path = "sample/path",
+            payload = { writer -> writer.name("key").value("value") },
+            configuration = configuration,
+            authorization = tokenizationKey,
+            callback = callback
+        )
+
+        val httpRequest = httpRequestSlot.captured
+        assertEquals(Fixtures.TOKENIZATION_KEY, httpRequest.headers["Client-Key"])
+        assertEquals("""{"key":"value"}""", writeBody(httpRequest))
+    }
+
+    @Test
+    fun postJSONAsync_withInvalidToken_forwardsExceptionToCallback() {
+        val configuration = mockk<Configuration>()
+        val authorization: Authorization =
+            InvalidAuthorization("invalid", "token invalid")
+
+        val exceptionSlot = slot<BraintreeException>()
+        val callback = mockk<HttpResponseCallback>()
+        every { callback.onResult(null, capture(exceptionSlot)) } returns Unit
+
+        val sut = BraintreeHttpClient(httpClient)
+        sut.postJSON(
+            path = "sample/path",
+            payload = mockk(),
+            configuration = configuration,
+            authorization = authorization,
+            callback = callback
+        )
+
+        assertEquals("token invalid", exceptionSlot.captured.message)
+        verify(exactly = 0) { httpClient.sendRequest(any(), any<HttpResponseCallback>()) }
+    }
+
+    @Test
+    fun postJSONAsync_withRequestHandle_attachesRequestHandleToHttpRequest() {
+        val configuration = mockk<Configuration>()
+        every { configuration.clientApiUrl } returns "https://example.com"
+
+        val callback = mockk<HttpResponseCallback>()
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), callback) } returns Unit
+
+        val requestHandle = HttpRequestHandle()
+        val sut = BraintreeHttpClient(httpClient)
+        sut.postJSON(
+            path = "sample/path",
+            payload = mockk(),
+            configuration = configuration,
+            authorization = Authorization.fromString(Fixtures.TOKENIZATION_KEY),
+            requestHandle = requestHandle,
+            callback = callback
+        )
+
+        assertSame(requestHandle, httpRequestSlot.captured.requestHandle)
+    }
+
     @Test
     fun `when post is called with authorization bearer, Authorization header is added to the request`() {
         val token: String = UUID.randomUUID().toString()
@@ -473,4 +643,68 @@ class BraintreeHttpClientUnitTest {
             }, callback)
         }
     }
+
+    @Test
+    fun `when post is called without a priority, request is scheduled with high priority`() {
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), any()) } just runs
+
+        val sut = BraintreeHttpClient(httpClient)
+        sut.post(
+            path = "sample/path",
+            data = "{}",
+            configuration = mockk(relaxed = true),
+            authorization = mockk(relaxed = true),
+            callback = mockk()
+        )
+
+        assertEquals(HttpRequest.PRIORITY_HIGH, httpRequestSlot.captured.priority)
+    }
+
+    @Test
+    fun `when post is called with a priority, priority is set on the request`() {
+        val httpRequestSlot = slot<HttpRequest>()
+        every { httpClient.sendRequest(capture(httpRequestSlot), any()) } just runs
+
+        val sut = BraintreeHttpClient(httpClient)
+        sut.post(
+            path = "sample/path",
+            data = "{}",
+            configuration = mockk(relaxed = true),
+            authorization = mockk(relaxed = true),
+            priority = HttpRequest.PRIORITY_LOW,
+            callback = mockk()
+        )
+
+        assertEquals(HttpRequest.PRIORITY_LOW, httpRequestSlot.captured.priority)
+    }
+
+    @Test
+    fun `when get is called with a priority, priority is set on the request`() {
+        val tokenizationKey: Authorization = TokenizationKey(Fixtures.TOKENIZATION_KEY)
+        val callback = mockk<HttpResponseCallback>()
+
+        val httpRequestSlot = slot<HttpRequest>()
+        every {
+            httpClient.sendRequest(capture(httpRequestSlot), HttpClient.RETRY_MAX_3_TIMES, callback)
+        } just runs
+
+        val sut = BraintreeHttpClient(httpClient)
+        sut.get(
+            "https://example.com/sample/path",
+            null,
+            tokenizationKey,
+            HttpClient.RETRY_MAX_3_TIMES,
+            HttpRequest.PRIORITY_NORMAL,
+            callback
+        )
+
+        assertEquals(HttpRequest.PRIORITY_NORMAL, httpRequestSlot.captured.priority)
+    }
+
+    private fun writeBody(httpRequest: HttpRequest): String {
+        val out = ByteArrayOutputStream()
+        httpRequest.body.writeTo(out)
+        return String(out.toByteArray(), StandardCharsets.UTF_8)
+    }
 }
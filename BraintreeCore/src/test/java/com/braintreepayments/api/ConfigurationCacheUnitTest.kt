@@ -4,57 +4,381 @@ import com.braintreepayments.api.Configuration.Companion.fromJson
 import org.robolectric.RobolectricTestRunner
 import io.mockk.*
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
+import java.nio.ByteBuffer
 import java.util.concurrent.TimeUnit
 
 @RunWith(RobolectricTestRunner::class)
 class ConfigurationCacheUnitTest {
 
-    private var braintreeSharedPreferences: BraintreeSharedPreferences = mockk(relaxed = true)
+    private var braintreeStore: BraintreeStore = mockk(relaxed = true)
+
+    @Before
+    fun beforeEach() {
+        every { braintreeStore.isLoaded } returns true
+    }
 
     @Test
     fun saveConfiguration_savesConfigurationInSharedPrefs() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
-        val sut = ConfigurationCache(braintreeSharedPreferences)
+        val sut = ConfigurationCache(braintreeStore)
         sut.saveConfiguration(configuration, "cacheKey", 123L)
         verify {
-            braintreeSharedPreferences.putStringAndLong(
-                "cacheKey",
-                configuration.toJson(),
-                "cacheKey_timestamp",
-                123L
-            )
+            braintreeStore.putBytes("cacheKey", ConfigurationCodec.encode(configuration))
+            braintreeStore.putLong("cacheKey_timestamp", 123L)
         }
     }
 
     @Test
     fun getConfiguration_returnsConfigurationFromSharedPrefs() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
-        every { braintreeSharedPreferences.containsKey("cacheKey_timestamp") } returns true
-        every { braintreeSharedPreferences.getLong("cacheKey_timestamp") } returns 0L
-        every { braintreeSharedPreferences.getString("cacheKey", "") } returns configuration.toJson()
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+        every {
+            braintreeStore.getBytes("cacheKey")
+        } returns ConfigurationCodec.encode(configuration)
 
-        val sut = ConfigurationCache(braintreeSharedPreferences)
+        val sut = ConfigurationCache(braintreeStore)
         sut.saveConfiguration(configuration, "cacheKey", 0)
 
         assertEquals(
             configuration.toJson(),
-            sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5) - 1)
+            sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5) - 1)?.toJson()
         )
     }
 
+    @Test
+    fun getConfiguration_whenPersistedEntryIsBinaryEncoded_decodesConfiguration() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+        every {
+            braintreeStore.getBytes("cacheKey")
+        } returns ConfigurationCodec.encode(configuration)
+
+        val sut = ConfigurationCache(braintreeStore)
+        val result = sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5) - 1)
+
+        assertEquals(configuration.payPalClientId, result?.payPalClientId)
+        assertEquals(configuration.merchantId, result?.merchantId)
+    }
+
+    @Test
+    fun getConfiguration_whenPersistedEntryHasAnotherFormatVersion_restoresItFromJson() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+        val bytes = ConfigurationCodec.encode(configuration)
+        ByteBuffer.wrap(bytes).putInt(4, ConfigurationCodec.FORMAT_VERSION + 1)
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+        every { braintreeStore.getBytes("cacheKey") } returns bytes
+
+        val sut = ConfigurationCache(braintreeStore)
+
+        assertEquals(configuration.toJson(), sut.getConfiguration("cacheKey", 1)?.toJson())
+        verify(exactly = 0) { braintreeStore.removeBytes(any()) }
+    }
+
+    @Test
+    fun getConfiguration_whenPersistedEntryCannotBeDecoded_dropsEntryAndReturnsNull() {
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+        every { braintreeStore.getBytes("cacheKey") } returns byteArrayOf(1, 2, 3, 4, 5, 6, 7, 8)
+
+        val sut = ConfigurationCache(braintreeStore)
+
+        assertNull(sut.getConfiguration("cacheKey", 1))
+        verify { braintreeStore.removeKeys(listOf("cacheKey", "cacheKey_timestamp")) }
+        verify { braintreeStore.removeBytes(listOf("cacheKey")) }
+    }
+
+    @Test
+    fun getConfiguration_whenStoreIsLoading_returnsNullWithoutWaitingForStore() {
+        every { braintreeStore.isLoaded } returns false
+
+        val sut = ConfigurationCache(braintreeStore)
+
+        assertNull(sut.getConfiguration("cacheKey", 1))
+        assertNull(sut.getStaleConfiguration("cacheKey", 1))
+        verify(exactly = 0) { braintreeStore.containsKey(any()) }
+        verify(exactly = 0) { braintreeStore.getBytes(any()) }
+    }
+
+    @Test
+    fun saveConfiguration_whenStoreIsLoading_savesWithoutWaitingForStore() {
+        every { braintreeStore.isLoaded } returns false
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        assertSame(configuration, sut.getConfiguration("cacheKey", 1))
+        verify(exactly = 0) { braintreeStore.keys }
+        verify { braintreeStore.putBytes("cacheKey", any()) }
+        verify { braintreeStore.putLong("cacheKey_timestamp", 0) }
+    }
+
+    @Test
+    fun saveConfiguration_afterFetch_doesNotParseUnusedPaymentMethodSections() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+        assertEquals(emptySet<String>(), configuration.data.parsedSections)
+
+        configuration.payPalClientId
+        assertEquals(setOf("paypal"), configuration.data.parsedSections)
+    }
+
     @Test
     fun getConfiguration_whenCacheEntryExpires_returnsNull() {
         val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
-        every { braintreeSharedPreferences.containsKey("cacheKey_timestamp") } returns true
-        every { braintreeSharedPreferences.getLong("cacheKey_timestamp") } returns TimeUnit.MINUTES.toMillis(5)
-        every { braintreeSharedPreferences.getString("cacheKey", "") } returns configuration.toJson()
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns TimeUnit.MINUTES.toMillis(5)
+        every {
+            braintreeStore.getBytes("cacheKey")
+        } returns ConfigurationCodec.encode(configuration)
 
-        val sut = ConfigurationCache(braintreeSharedPreferences)
+        val sut = ConfigurationCache(braintreeStore)
         sut.saveConfiguration(configuration, "cacheKey", 0)
 
         assertNull(sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(20)))
     }
+
+    @Test
+    fun getConfiguration_whenConfigurationWasSavedInProcess_returnsParsedConfigurationFromMemory() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        assertSame(configuration, sut.getConfiguration("cacheKey", 1))
+        assertEquals(1, sut.memoryHitCount)
+        assertEquals(0, sut.memoryMissCount)
+        verify(exactly = 0) { braintreeStore.getBytes("cacheKey") }
+    }
+
+    @Test
+    fun getConfiguration_onColdProcess_parsesConfigurationFromSharedPrefsOnce() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+        every {
+            braintreeStore.getBytes("cacheKey")
+        } returns ConfigurationCodec.encode(configuration)
+
+        val sut = ConfigurationCache(braintreeStore)
+        val first = sut.getConfiguration("cacheKey", 1)
+        val second = sut.getConfiguration("cacheKey", 2)
+
+        assertEquals(configuration.merchantId, first?.merchantId)
+        assertSame(first, second)
+        assertEquals(1, sut.memoryHitCount)
+        assertEquals(1, sut.memoryMissCount)
+        verify(exactly = 1) { braintreeStore.getBytes("cacheKey") }
+    }
+
+    @Test
+    fun getMemoryConfiguration_whenConfigurationWasSavedInProcess_returnsItWithoutReadingStore() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        assertSame(configuration, sut.getMemoryConfiguration("cacheKey", 1))
+        assertEquals(1, sut.memoryHitCount)
+        verify(exactly = 0) { braintreeStore.containsKey(any()) }
+        verify(exactly = 0) { braintreeStore.getBytes(any()) }
+    }
+
+    @Test
+    fun getMemoryConfiguration_whenOnlyPersisted_returnsNullWithoutReadingStore() {
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+
+        val sut = ConfigurationCache(braintreeStore)
+
+        assertNull(sut.getMemoryConfiguration("cacheKey", 1))
+        assertEquals(0, sut.memoryMissCount)
+        verify(exactly = 0) { braintreeStore.containsKey(any()) }
+        verify(exactly = 0) { braintreeStore.getBytes(any()) }
+    }
+
+    @Test
+    fun getMemoryConfiguration_whenMemoryEntryExpires_returnsNull() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        assertNull(sut.getMemoryConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5)))
+        assertEquals(0, sut.memoryHitCount)
+    }
+
+    @Test
+    fun getConfiguration_whenMemoryEntryExpires_returnsNull() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        assertNull(sut.getConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(5)))
+        assertEquals(1, sut.memoryMissCount)
+    }
+
+    @Test
+    fun lookUpConfiguration_whenEntryIsFresh_returnsEntryThatIsNotStale() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        val entry = sut.lookUpConfiguration("cacheKey", 1)
+        assertSame(configuration, entry?.configuration)
+        assertFalse(entry!!.isStale)
+    }
+
+    @Test
+    fun lookUpConfiguration_whenMemoryEntryIsStale_countsOneHit() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        val entry = sut.lookUpConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(10))
+        assertSame(configuration, entry?.configuration)
+        assertTrue(entry!!.isStale)
+        assertEquals(1, sut.memoryHitCount)
+        assertEquals(0, sut.memoryMissCount)
+    }
+
+    @Test
+    fun lookUpConfiguration_whenPersistedEntryIsStale_countsOneMiss() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+        every {
+            braintreeStore.getBytes("cacheKey")
+        } returns ConfigurationCodec.encode(configuration)
+
+        val sut = ConfigurationCache(braintreeStore)
+
+        val entry = sut.lookUpConfiguration("cacheKey", TimeUnit.MINUTES.toMillis(10))
+        assertEquals(configuration.merchantId, entry?.configuration?.merchantId)
+        assertTrue(entry!!.isStale)
+        assertEquals(0, sut.memoryHitCount)
+        assertEquals(1, sut.memoryMissCount)
+        verify(exactly = 1) { braintreeStore.getBytes("cacheKey") }
+    }
+
+    @Test
+    fun lookUpConfiguration_whenEntryIsTooOld_returnsNullAndCountsOneMiss() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        assertNull(sut.lookUpConfiguration("cacheKey", TimeUnit.HOURS.toMillis(2)))
+        assertEquals(0, sut.memoryHitCount)
+        assertEquals(1, sut.memoryMissCount)
+    }
+
+    @Test
+    fun getStaleConfiguration_whenEntryHasExpiredButIsRecent_returnsConfiguration() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        val currentTime = TimeUnit.MINUTES.toMillis(10)
+        assertNull(sut.getConfiguration("cacheKey", currentTime))
+        assertSame(configuration, sut.getStaleConfiguration("cacheKey", currentTime))
+    }
+
+    @Test
+    fun getStaleConfiguration_whenEntryIsTooOld_returnsNull() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        every { braintreeStore.containsKey("cacheKey_timestamp") } returns true
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 0)
+
+        assertNull(sut.getStaleConfiguration("cacheKey", TimeUnit.HOURS.toMillis(1)))
+    }
+
+    @Test
+    fun getConfiguration_whenMemoryTierIsFull_evictsLeastRecentlyUsedEntry() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+
+        val sut = ConfigurationCache(braintreeStore)
+        for (i in 0 until ConfigurationCache.MAX_MEMORY_ENTRIES) {
+            sut.saveConfiguration(configuration, "cacheKey$i", 0)
+        }
+        sut.getConfiguration("cacheKey0", 1)
+        sut.saveConfiguration(configuration, "newCacheKey", 0)
+
+        assertSame(configuration, sut.getConfiguration("cacheKey0", 1))
+        assertNull(sut.getConfiguration("cacheKey1", 1))
+    }
+
+    @Test
+    fun saveConfiguration_removesPersistedEntriesThatAreTooOldToServe() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        every { braintreeStore.keys } returns setOf(
+            "expired", "expired_timestamp", "recent", "recent_timestamp", "braintreeUUID"
+        )
+        every { braintreeStore.getLong("expired_timestamp") } returns 0L
+        every {
+            braintreeStore.getLong("recent_timestamp")
+        } returns TimeUnit.MINUTES.toMillis(50)
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", TimeUnit.HOURS.toMillis(1))
+
+        verify { braintreeStore.removeKeys(listOf("expired", "expired_timestamp")) }
+        verify { braintreeStore.removeBytes(listOf("expired")) }
+    }
+
+    @Test
+    fun saveConfiguration_whenPersistedTierIsFull_removesLeastRecentlySavedEntries() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        val storedKeys = mutableSetOf<String>()
+        for (i in 1..ConfigurationCache.MAX_PERSISTED_ENTRIES) {
+            storedKeys += listOf("cacheKey$i", "cacheKey${i}_timestamp")
+            every { braintreeStore.getLong("cacheKey${i}_timestamp") } returns i.toLong()
+        }
+        every { braintreeStore.keys } returns storedKeys
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", 100L)
+
+        verify { braintreeStore.removeKeys(listOf("cacheKey1", "cacheKey1_timestamp")) }
+        verify { braintreeStore.removeBytes(listOf("cacheKey1")) }
+        verify {
+            braintreeStore.putBytes("cacheKey", ConfigurationCodec.encode(configuration))
+            braintreeStore.putLong("cacheKey_timestamp", 100L)
+        }
+    }
+
+    @Test
+    fun saveConfiguration_whenEntryIsRefreshed_doesNotEvictIt() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN)
+        every { braintreeStore.keys } returns setOf("cacheKey", "cacheKey_timestamp")
+        every { braintreeStore.getLong("cacheKey_timestamp") } returns 0L
+
+        val sut = ConfigurationCache(braintreeStore)
+        sut.saveConfiguration(configuration, "cacheKey", TimeUnit.HOURS.toMillis(2))
+
+        verify(exactly = 0) { braintreeStore.removeKeys(any()) }
+    }
 }
@@ -0,0 +1,59 @@
+package com.braintreepayments.api
+
+import com.braintreepayments.api.Configuration.Companion.fromJson
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+/**
+ * Checks that restoring a cached configuration from its binary encoding yields the same
+ * configuration as parsing its JSON document, for a configuration with every payment method
+ * section enabled.
+ */
+@RunWith(RobolectricTestRunner::class)
+class ConfigurationCodecEquivalenceUnitTest {
+
+    private lateinit var configurationString: String
+    private lateinit var encoded: ByteArray
+
+    @Before
+    fun beforeEach() {
+        // a configuration with every payment method section enabled
+        val merged = JSONObject()
+        listOf(
+            Fixtures.CONFIGURATION_WITH_GOOGLE_PAY,
+            Fixtures.CONFIGURATION_WITH_GRAPHQL,
+            Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL,
+            Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO,
+            Fixtures.CONFIGURATION_WITH_SAMSUNGPAY,
+            Fixtures.CONFIGURATION_WITH_SUPPORTED_CARD_TYPES,
+            Fixtures.CONFIGURATION_WITH_UNIONPAY,
+            Fixtures.CONFIGURATION_WITH_VISA_CHECKOUT
+        ).forEach { fixture ->
+            val json = JSONObject(fixture)
+            json.keys().forEach { key -> merged.put(key, json.get(key)) }
+        }
+        configurationString = merged.toString()
+        encoded = ConfigurationCodec.encode(fromJson(configurationString))
+    }
+
+    @Test
+    fun decode_producesSameConfigurationAsJson() {
+        val parsed = fromJson(configurationString)
+        val decoded = ConfigurationCodec.decode(encoded)!!
+
+        assertEquals(parsed.toJson(), decoded.toJson())
+        assertEquals(parsed.googlePaySupportedNetworks, decoded.googlePaySupportedNetworks)
+        assertEquals(parsed.graphQLUrl, decoded.graphQLUrl)
+        assertEquals(parsed.isGooglePayEnabled, decoded.isGooglePayEnabled)
+        assertEquals(parsed.payPalClientId, decoded.payPalClientId)
+        assertEquals(parsed.payPalDirectBaseUrl, decoded.payPalDirectBaseUrl)
+        assertEquals(parsed.samsungPaySupportedCardBrands, decoded.samsungPaySupportedCardBrands)
+        assertEquals(parsed.supportedCardTypes, decoded.supportedCardTypes)
+        assertEquals(parsed.venmoAccessToken, decoded.venmoAccessToken)
+        assertEquals(parsed.visaCheckoutSupportedNetworks, decoded.visaCheckoutSupportedNetworks)
+    }
+}
@@ -0,0 +1,163 @@
+package com.braintreepayments.api
+
+import com.braintreepayments.api.Configuration.Companion.fromJson
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+
+@RunWith(RobolectricTestRunner::class)
+class ConfigurationCodecUnitTest {
+
+    @Test
+    fun decode_returnsConfigurationEqualToEncodedConfiguration() {
+        val fixtures = listOf(
+            Fixtures.CONFIGURATION_WITH_GOOGLE_PAY,
+            Fixtures.CONFIGURATION_WITH_GRAPHQL,
+            Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL,
+            Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO,
+            Fixtures.CONFIGURATION_WITH_SAMSUNGPAY,
+            Fixtures.CONFIGURATION_WITH_SUPPORTED_CARD_TYPES,
+            Fixtures.CONFIGURATION_WITH_UNIONPAY,
+            Fixtures.CONFIGURATION_WITH_VISA_CHECKOUT,
+            Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN
+        )
+        fixtures.forEach { fixture ->
+            val configuration = fromJson(fixture)
+            val decoded = ConfigurationCodec.decode(ConfigurationCodec.encode(configuration))
+            assertSameConfiguration(configuration, decoded!!)
+        }
+    }
+
+    @Test
+    fun encode_doesNotKeepPaymentMethodSectionsThatWereNotUsed() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO)
+
+        ConfigurationCodec.encode(configuration)
+
+        assertEquals(emptySet<String>(), configuration.data.parsedSections)
+    }
+
+    @Test
+    fun decode_restoresEveryPaymentMethodSectionWithoutParsingJson() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_PAY_WITH_VENMO)
+
+        val decoded = ConfigurationCodec.decode(ConfigurationCodec.encode(configuration))!!
+
+        assertEquals(PAYMENT_METHOD_SECTIONS, decoded.data.parsedSections)
+    }
+
+    @Test
+    fun decode_whenFormatVersionDiffers_restoresConfigurationFromJsonDocument() {
+        val configuration = fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY)
+        val bytes = ConfigurationCodec.encode(configuration)
+        ByteBuffer.wrap(bytes).putInt(4, ConfigurationCodec.FORMAT_VERSION + 1)
+
+        val decoded = ConfigurationCodec.decode(bytes)!!
+
+        assertSameConfiguration(configuration, decoded)
+        assertEquals(emptySet<String>(), decoded.data.parsedSections)
+    }
+
+    @Test
+    fun decode_whenFormatVersionDiffers_ignoresEncodedValues() {
+        val document = Fixtures.CONFIGURATION_WITH_GOOGLE_PAY.toByteArray(StandardCharsets.UTF_8)
+        val bytes = ByteBuffer.allocate(12 + document.size + 3)
+            .putInt(0x42544346)
+            .putInt(ConfigurationCodec.FORMAT_VERSION + 1)
+            .putInt(document.size)
+            .put(document)
+            .put(byteArrayOf(1, 2, 3))
+            .array()
+
+        val decoded = ConfigurationCodec.decode(bytes)!!
+
+        assertSameConfiguration(fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY), decoded)
+    }
+
+    @Test
+    fun decode_whenBytesAreInvalid_returnsNull() {
+        val bytes = ConfigurationCodec.encode(fromJson(Fixtures.CONFIGURATION_WITH_GOOGLE_PAY))
+
+        assertNull(ConfigurationCodec.decode(ByteArray(0)))
+        assertNull(ConfigurationCodec.decode(bytes.copyOf(bytes.size - 1)))
+        assertNull(ConfigurationCodec.decode(byteArrayOf(1, 2, 3, 4, 5, 6, 7, 8)))
+    }
+
+    private fun assertSameConfiguration(expected: Configuration, actual: Configuration) {
+        assertEquals(expected.toJson(), actual.toJson())
+        CONFIGURATION_VALUES.forEach { value ->
+            assertEquals(value(expected), value(actual))
+        }
+        assertEquals(
+            expected.isGraphQLFeatureEnabled("tokenize_credit_cards"),
+            actual.isGraphQLFeatureEnabled("tokenize_credit_cards")
+        )
+    }
+
+    companion object {
+        private val PAYMENT_METHOD_SECTIONS = setOf(
+            "androidPay",
+            "braintreeApi",
+            "creditCards",
+            "graphQL",
+            "payWithVenmo",
+            "paypal",
+            "samsungPay",
+            "unionPay",
+            "visaCheckout"
+        )
+
+        private val CONFIGURATION_VALUES = listOf<(Configuration) -> Any?>(
+            { it.assetsUrl },
+            { it.cardinalAuthenticationJwt },
+            { it.clientApiUrl },
+            { it.environment },
+            { it.isCvvChallengePresent },
+            { it.isGooglePayEnabled },
+            { it.isLocalPaymentEnabled },
+            { it.isPayPalEnabled },
+            { it.isPostalCodeChallengePresent },
+            { it.isSamsungPayEnabled },
+            { it.isThreeDSecureEnabled },
+            { it.isUnionPayEnabled },
+            { it.isVenmoEnabled },
+            { it.isVisaCheckoutEnabled },
+            { it.merchantAccountId },
+            { it.merchantId },
+            { it.payPalDirectBaseUrl },
+            { it.payPalPrivacyUrl },
+            { it.payPalUserAgreementUrl },
+            { it.supportedCardTypes },
+            { it.braintreeApiAccessToken },
+            { it.braintreeApiUrl },
+            { it.googlePayAuthorizationFingerprint },
+            { it.googlePayDisplayName },
+            { it.googlePayEnvironment },
+            { it.googlePayPayPalClientId },
+            { it.googlePaySupportedNetworks },
+            { it.graphQLUrl },
+            { it.isFraudDataCollectionEnabled },
+            { it.isPayPalTouchDisabled },
+            { it.payPalClientId },
+            { it.payPalCurrencyIsoCode },
+            { it.payPalDisplayName },
+            { it.payPalEnvironment },
+            { it.samsungPayAuthorization },
+            { it.samsungPayEnvironment },
+            { it.samsungPayMerchantDisplayName },
+            { it.samsungPayServiceId },
+            { it.samsungPaySupportedCardBrands },
+            { it.venmoAccessToken },
+            { it.venmoEnvironment },
+            { it.venmoMerchantId },
+            { it.venmoEnrichedCustomerDataEnabled },
+            { it.visaCheckoutApiKey },
+            { it.visaCheckoutExternalClientId },
+            { it.visaCheckoutSupportedNetworks }
+        )
+    }
+}
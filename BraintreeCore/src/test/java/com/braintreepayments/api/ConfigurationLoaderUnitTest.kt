@@ -4,7 +4,11 @@ import android.util.Base64
 import io.mockk.*
 import org.robolectric.RobolectricTestRunner
 import org.json.JSONException
+import org.json.JSONObject
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotEquals
+import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
 import java.lang.Exception
@@ -15,13 +19,36 @@ class ConfigurationLoaderUnitTest {
     private var braintreeHttpClient: BraintreeHttpClient = mockk(relaxed = true)
     private var callback: ConfigurationLoaderCallback = mockk(relaxed = true)
     private var authorization: Authorization = mockk(relaxed = true)
+    private var backgroundTaskCount = 0
+
+    // runs tasks synchronously and records how many were posted to the background
+    private val scheduler = object : Scheduler {
+        override fun runOnMain(runnable: Runnable) = runnable.run()
+
+        override fun runOnBackground(runnable: Runnable) =
+            runOnBackground(runnable, HttpRequest.PRIORITY_HIGH)
+
+        override fun runOnBackground(runnable: Runnable, priority: Int) =
+            runOnBackground(runnable, priority, 0)
+
+        override fun runOnBackground(runnable: Runnable, priority: Int, delayMillis: Long) {
+            backgroundTaskCount++
+            runnable.run()
+        }
+    }
+
+    @Before
+    fun beforeEach() {
+        every { configurationCache.getMemoryConfiguration(any()) } returns null
+        every { configurationCache.lookUpConfiguration(any()) } returns null
+    }
 
     @Test
     fun loadConfiguration_loadsConfigurationForTheCurrentEnvironment() {
 
         every { authorization.configUrl } returns "https://example.com/config"
 
-        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
         sut.loadConfiguration(authorization, callback)
 
         val expectedConfigUrl = "https://example.com/config?configVersion=3"
@@ -32,6 +59,7 @@ class ConfigurationLoaderUnitTest {
                     null,
                     authorization,
                     HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
                     capture(callbackSlot)
             )
         }
@@ -47,7 +75,7 @@ class ConfigurationLoaderUnitTest {
         every { authorization.configUrl } returns "https://example.com/config"
         every { authorization.bearer } returns "bearer"
 
-        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
         sut.loadConfiguration(authorization, callback)
 
         val expectedConfigUrl = "https://example.com/config?configVersion=3"
@@ -58,16 +86,14 @@ class ConfigurationLoaderUnitTest {
                     null,
                     authorization,
                     HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
                     capture(callbackSlot)
             )
         }
 
         val httpResponseCallback = callbackSlot.captured
         httpResponseCallback.onResult(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN, null)
-        val cacheKey = Base64.encodeToString(
-            "https://example.com/config?configVersion=3bearer".toByteArray(),
-            0
-        )
+        val cacheKey = ConfigurationLoader.createCacheKey(authorization)
 
         verify {
             configurationCache.saveConfiguration(ofType(Configuration::class), cacheKey)
@@ -77,7 +103,7 @@ class ConfigurationLoaderUnitTest {
     @Test
     fun loadConfiguration_onJSONParsingError_forwardsExceptionToErrorResponseListener() {
         every { authorization.configUrl } returns "https://example.com/config"
-        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
         sut.loadConfiguration(authorization, callback)
 
         val callbackSlot = slot<HttpResponseCallback>()
@@ -87,6 +113,7 @@ class ConfigurationLoaderUnitTest {
                     null,
                     authorization,
                     HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
                     capture(callbackSlot)
             )
         }
@@ -100,7 +127,7 @@ class ConfigurationLoaderUnitTest {
     @Test
     fun loadConfiguration_onHttpError_forwardsExceptionToErrorResponseListener() {
         every { authorization.configUrl } returns "https://example.com/config"
-        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
         sut.loadConfiguration(authorization, callback)
 
         val callbackSlot = slot<HttpResponseCallback>()
@@ -111,6 +138,7 @@ class ConfigurationLoaderUnitTest {
                     null,
                     authorization,
                     HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
                     capture(callbackSlot)
             )
         }
@@ -130,10 +158,161 @@ class ConfigurationLoaderUnitTest {
         )
     }
 
+    @Test
+    fun loadConfiguration_whenRequestIsInFlight_sharesSingleFetchBetweenCallers() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        every { authorization.bearer } returns "bearer"
+
+        val pendingRequests = PendingConfigurationRequests()
+        val secondCallback = mockk<ConfigurationLoaderCallback>(relaxed = true)
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, pendingRequests, scheduler)
+        sut.loadConfiguration(authorization, callback)
+        sut.loadConfiguration(authorization, secondCallback)
+
+        val callbackSlot = slot<HttpResponseCallback>()
+        verify(exactly = 1) {
+            braintreeHttpClient.get(
+                    "https://example.com/config?configVersion=3",
+                    null,
+                    authorization,
+                    HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
+                    capture(callbackSlot)
+            )
+        }
+        assertEquals(1, pendingRequests.coalescedWaiterCount)
+
+        callbackSlot.captured.onResult(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN, null)
+
+        val configurationSlot = slot<Configuration>()
+        verify { callback.onResult(capture(configurationSlot), null) }
+        verify { secondCallback.onResult(configurationSlot.captured, null) }
+        verify(exactly = 1) {
+            configurationCache.saveConfiguration(ofType(Configuration::class), any<String>())
+        }
+    }
+
+    @Test
+    fun loadConfiguration_whenInFlightRequestFails_forwardsErrorToAllCallers() {
+        every { authorization.configUrl } returns "https://example.com/config"
+
+        val secondCallback = mockk<ConfigurationLoaderCallback>(relaxed = true)
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
+        sut.loadConfiguration(authorization, callback)
+        sut.loadConfiguration(authorization, secondCallback)
+
+        val callbackSlot = slot<HttpResponseCallback>()
+        verify(exactly = 1) {
+            braintreeHttpClient.get(
+                    ofType(String::class),
+                    null,
+                    authorization,
+                    HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
+                    capture(callbackSlot)
+            )
+        }
+        callbackSlot.captured.onResult(null, Exception("http error"))
+
+        verify { callback.onResult(null, ofType(ConfigurationException::class)) }
+        verify { secondCallback.onResult(null, ofType(ConfigurationException::class)) }
+    }
+
+    @Test
+    fun loadConfiguration_afterInFlightRequestCompletes_startsNewFetch() {
+        every { authorization.configUrl } returns "https://example.com/config"
+
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
+        sut.loadConfiguration(authorization, callback)
+
+        val callbackSlot = slot<HttpResponseCallback>()
+        verify {
+            braintreeHttpClient.get(
+                    ofType(String::class),
+                    null,
+                    authorization,
+                    HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
+                    capture(callbackSlot)
+            )
+        }
+        callbackSlot.captured.onResult(null, Exception("http error"))
+
+        sut.loadConfiguration(authorization, callback)
+        verify(exactly = 2) {
+            braintreeHttpClient.get(
+                    ofType(String::class),
+                    null,
+                    authorization,
+                    HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
+                    any()
+            )
+        }
+    }
+
+    @Test
+    fun loadConfiguration_whenCachedConfigurationIsStale_returnsItAndRefreshesInBackground() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        val staleConfiguration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN)
+        every {
+            configurationCache.lookUpConfiguration(any())
+        } returns ConfigurationCache.CacheEntry(staleConfiguration, true)
+
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
+        sut.loadConfiguration(authorization, callback)
+
+        verify { callback.onResult(staleConfiguration, null) }
+
+        val callbackSlot = slot<HttpResponseCallback>()
+        verify {
+            braintreeHttpClient.get(
+                    "https://example.com/config?configVersion=3",
+                    null,
+                    authorization,
+                    HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
+                    capture(callbackSlot)
+            )
+        }
+
+        callbackSlot.captured.onResult(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN, null)
+        verify { configurationCache.saveConfiguration(ofType(Configuration::class), any<String>()) }
+        verify(exactly = 1) { callback.onResult(any(), any()) }
+    }
+
+    @Test
+    fun loadConfiguration_whenBackgroundRefreshFails_doesNotNotifyCallbackAgain() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        val staleConfiguration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN)
+        every {
+            configurationCache.lookUpConfiguration(any())
+        } returns ConfigurationCache.CacheEntry(staleConfiguration, true)
+
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
+        sut.loadConfiguration(authorization, callback)
+
+        val callbackSlot = slot<HttpResponseCallback>()
+        verify {
+            braintreeHttpClient.get(
+                    ofType(String::class),
+                    null,
+                    authorization,
+                    HttpClient.RETRY_MAX_3_TIMES,
+                    HttpRequest.PRIORITY_NORMAL,
+                    capture(callbackSlot)
+            )
+        }
+        callbackSlot.captured.onResult(null, Exception("http error"))
+
+        verify(exactly = 1) { callback.onResult(staleConfiguration, null) }
+        verify(exactly = 0) { callback.onResult(null, any()) }
+    }
+
     @Test
     fun loadConfiguration_whenInvalidToken_forwardsExceptionToCallback() {
         val authorization: Authorization = InvalidAuthorization("invalid", "token invalid")
-        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
         sut.loadConfiguration(authorization, callback)
         val errorSlot = slot<BraintreeException>()
         verify {
@@ -146,15 +325,17 @@ class ConfigurationLoaderUnitTest {
 
     @Test
     fun loadConfiguration_whenCachedConfigurationAvailable_loadsConfigurationFromCache() {
-        val cacheKey = Base64.encodeToString(
-            "https://example.com/config?configVersion=3bearer".toByteArray(),
-            0
-        )
         every { authorization.configUrl } returns "https://example.com/config"
         every { authorization.bearer } returns "bearer"
-        every { configurationCache.getConfiguration(cacheKey) } returns Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN
+        val cacheKey = ConfigurationLoader.createCacheKey(authorization)
+        every {
+            configurationCache.lookUpConfiguration(cacheKey)
+        } returns ConfigurationCache.CacheEntry(
+            Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN),
+            false
+        )
 
-        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache)
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
         sut.loadConfiguration(authorization, callback)
 
         verify(exactly = 0) {
@@ -163,9 +344,92 @@ class ConfigurationLoaderUnitTest {
                     null,
                     authorization,
                     ofType(Int::class),
+                    ofType(Int::class),
                     ofType(HttpResponseCallback::class)
             )
         }
         verify { callback.onResult(ofType(Configuration::class), null) }
     }
+
+    @Test
+    fun loadConfiguration_whenConfigurationIsInMemory_returnsItWithoutReadingPersistedTier() {
+        every { authorization.configUrl } returns "https://example.com/config"
+        val configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_ACCESS_TOKEN)
+        every { configurationCache.getMemoryConfiguration(any()) } returns configuration
+
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
+        sut.loadConfiguration(authorization, callback)
+
+        verify { callback.onResult(configuration, null) }
+        assertEquals(0, backgroundTaskCount)
+        verify(exactly = 0) { configurationCache.lookUpConfiguration(any()) }
+    }
+
+    @Test
+    fun loadConfiguration_whenConfigurationIsNotInMemory_readsPersistedTierInBackground() {
+        every { authorization.configUrl } returns "https://example.com/config"
+
+        val sut = ConfigurationLoader(braintreeHttpClient, configurationCache, scheduler = scheduler)
+        sut.loadConfiguration(authorization, callback)
+
+        assertEquals(1, backgroundTaskCount)
+        verify(exactly = 1) { configurationCache.lookUpConfiguration(any()) }
+        verify(exactly = 0) { configurationCache.getConfiguration(any()) }
+        verify(exactly = 0) { configurationCache.getStaleConfiguration(any()) }
+    }
+
+    @Test
+    fun createCacheKey_isStableForTheSameAuthorization() {
+        assertEquals(
+            ConfigurationLoader.createCacheKey(clientToken("https://example.com/config", "fingerprint")),
+            ConfigurationLoader.createCacheKey(clientToken("https://example.com/config", "fingerprint"))
+        )
+    }
+
+    @Test
+    fun createCacheKey_differsForClientTokensThatDifferOnlyByMerchantAccount() {
+        val configUrl = "https://example.com/config"
+        val first = clientToken(
+            configUrl,
+            "hash|created_at=2024-06-01&merchant_account_id=account-1&merchant_id=merchant"
+        )
+        val second = clientToken(
+            configUrl,
+            "hash|created_at=2024-06-01&merchant_account_id=account-2&merchant_id=merchant"
+        )
+
+        assertNotEquals(
+            ConfigurationLoader.createCacheKey(first),
+            ConfigurationLoader.createCacheKey(second)
+        )
+    }
+
+    @Test
+    fun createCacheKey_differsByConfigUrlAndAuthorizationType() {
+        val configUrl = TokenizationKey(Fixtures.TOKENIZATION_KEY).configUrl
+        val key = ConfigurationLoader.createCacheKey(clientToken(configUrl, "fingerprint"))
+
+        assertNotEquals(
+            key,
+            ConfigurationLoader.createCacheKey(clientToken("https://example.com/other", "fingerprint"))
+        )
+        assertNotEquals(
+            key,
+            ConfigurationLoader.createCacheKey(TokenizationKey(Fixtures.TOKENIZATION_KEY))
+        )
+    }
+
+    @Test
+    fun createCacheKey_doesNotContainBearer() {
+        val key = ConfigurationLoader.createCacheKey(clientToken("https://example.com/config", "fingerprint"))
+
+        assertFalse(key.contains("fingerprint"))
+    }
+
+    private fun clientToken(configUrl: String, fingerprint: String): ClientToken {
+        val json = JSONObject()
+            .put("configUrl", configUrl)
+            .put("authorizationFingerprint", fingerprint)
+        return ClientToken(Base64.encodeToString(json.toString().toByteArray(), Base64.NO_WRAP))
+    }
 }
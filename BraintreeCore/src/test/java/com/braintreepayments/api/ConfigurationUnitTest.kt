@@ -447,4 +447,13 @@ class ConfigurationUnitTest {
         val sut = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL)
         assertEquals("https://example-graphql.com/graphql", sut.graphQLUrl)
     }
+
+    @Test
+    fun paymentMethodSections_areParsedOnceAndReused() {
+        val sut = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL)
+
+        assertSame(sut.data.payPalConfiguration, sut.data.payPalConfiguration)
+        assertSame(sut.supportedCardTypes, sut.supportedCardTypes)
+        assertEquals(sut.payPalClientId, Configuration.fromJson(sut.toJson()).payPalClientId)
+    }
 }
@@ -234,6 +234,18 @@ class DeviceInspectorUnitTest {
         assertEquals("integration_merchant_id", metadata.toJSON().getString("merchant_id"))
     }
 
+    @Test
+    @Throws(PackageManager.NameNotFoundException::class, JSONException::class)
+    fun getDeviceMetadata_whenCalledMultipleTimes_queriesPackageManagerOnce() {
+        sut.getDeviceMetadata(context, btConfiguration, "session-id", "integration-type")
+        val metadata = sut.getDeviceMetadata(context, btConfiguration, "other-session-id", "other-integration-type")
+
+        verify(exactly = 1) { packageManager.getApplicationInfo("com.sample.app", 0) }
+        verify(exactly = 1) { packageManager.getPackageInfo("com.sample.app", 0) }
+        assertEquals("other-session-id", metadata.toJSON().getString("session_id"))
+        assertEquals("other-integration-type", metadata.toJSON().getString("api_integration_type"))
+    }
+
     @Test
     fun isPayPalInstalled_forwardsIsPayPalInstalledResultFromAppHelper() {
         every { appHelper.isAppInstalled(context, "com.paypal.android.p2pmobile") } returns true
@@ -246,6 +258,15 @@ class DeviceInspectorUnitTest {
         assertTrue(sut.isVenmoInstalled(context))
     }
 
+    @Test
+    fun isVenmoInstalled_whenCalledMultipleTimes_queriesAppHelperOnce() {
+        every { appHelper.isAppInstalled(context, "com.venmo") } returns true
+
+        assertTrue(sut.isVenmoInstalled(context))
+        assertTrue(sut.isVenmoInstalled(context))
+        verify(exactly = 1) { appHelper.isAppInstalled(context, "com.venmo") }
+    }
+
     @Test
     fun isVenmoAppSwitchAvailable_checksForVenmoIntentAvailability() {
         sut.isVenmoAppSwitchAvailable(context)
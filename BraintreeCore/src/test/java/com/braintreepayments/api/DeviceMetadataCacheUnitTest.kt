@@ -0,0 +1,97 @@
+package com.braintreepayments.api
+
+import android.content.Context
+import android.content.Intent
+import android.net.Uri
+import android.os.Looper
+import androidx.test.core.app.ApplicationProvider
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+
+@RunWith(RobolectricTestRunner::class)
+class DeviceMetadataCacheUnitTest {
+
+    private lateinit var context: Context
+    private lateinit var sut: DeviceMetadataCache
+
+    @Before
+    fun beforeEach() {
+        context = ApplicationProvider.getApplicationContext()
+        sut = DeviceMetadataCache()
+    }
+
+    @Test
+    fun getAppMetadata_loadsMetadataOncePerPackage() {
+        var loadCount = 0
+        val loader = {
+            loadCount++
+            DeviceMetadataCache.AppMetadata("app-name", "1.0.0", null, false)
+        }
+
+        val first = sut.getAppMetadata("com.sample.app", loader)
+        val second = sut.getAppMetadata("com.sample.app", loader)
+
+        assertSame(first, second)
+        assertEquals(1, loadCount)
+    }
+
+    @Test
+    fun isAppInstalled_cachesInstalledState() {
+        var loadCount = 0
+        val loader = {
+            loadCount++
+            true
+        }
+
+        assertTrue(sut.isAppInstalled(context, "com.venmo", loader))
+        assertTrue(sut.isAppInstalled(context, "com.venmo", loader))
+        assertEquals(1, loadCount)
+    }
+
+    @Test
+    fun isAppInstalled_whenContextIsNull_doesNotCacheInstalledState() {
+        var loadCount = 0
+        val loader = {
+            loadCount++
+            false
+        }
+
+        assertFalse(sut.isAppInstalled(null, "com.venmo", loader))
+        assertFalse(sut.isAppInstalled(null, "com.venmo", loader))
+        assertEquals(2, loadCount)
+    }
+
+    @Test
+    fun isAppInstalled_afterPackageBroadcast_reloadsInstalledStateForThatPackage() {
+        var venmoLoadCount = 0
+        var payPalLoadCount = 0
+        sut.isAppInstalled(context, "com.venmo") { venmoLoadCount++; true }
+        sut.isAppInstalled(context, "com.paypal.android.p2pmobile") { payPalLoadCount++; true }
+
+        val intent = Intent(Intent.ACTION_PACKAGE_REMOVED, Uri.parse("package:com.venmo"))
+        context.sendBroadcast(intent)
+        shadowOf(Looper.getMainLooper()).idle()
+
+        assertFalse(sut.isAppInstalled(context, "com.venmo") { venmoLoadCount++; false })
+        sut.isAppInstalled(context, "com.paypal.android.p2pmobile") { payPalLoadCount++; true }
+        assertEquals(2, venmoLoadCount)
+        assertEquals(1, payPalLoadCount)
+    }
+
+    @Test
+    fun invalidateAppInstalledState_whenPackageNameIsNull_clearsAllInstalledStates() {
+        var loadCount = 0
+        sut.isAppInstalled(context, "com.venmo") { loadCount++; true }
+        sut.invalidateAppInstalledState(null)
+        sut.isAppInstalled(context, "com.venmo") { loadCount++; true }
+
+        assertEquals(2, loadCount)
+    }
+}
@@ -0,0 +1,132 @@
+package com.braintreepayments.api
+
+import org.json.JSONObject
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class GraphQLPersistedQueriesUnitTest {
+
+    private lateinit var sut: GraphQLPersistedQueries
+
+    @Before
+    fun beforeEach() {
+        sut = GraphQLPersistedQueries(32)
+    }
+
+    @Test
+    fun getInstance_returnsSingleton() {
+        assertSame(GraphQLPersistedQueries.getInstance(), GraphQLPersistedQueries.getInstance())
+    }
+
+    @Test
+    fun createRequest_whenCacheIsFull_stillHashesQuery() {
+        sut = GraphQLPersistedQueries(1)
+        sut.createRequest("""{"query": "abc"}""")
+
+        val request = sut.createRequest("""{"query": "hello"}""")!!
+
+        assertEquals(
+            "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824",
+            JSONObject(request.hashedData).getJSONObject("extensions")
+                .getJSONObject("persistedQuery").getString("sha256Hash")
+        )
+    }
+
+    @Test
+    fun createRequest_replacesQueryWithHash() {
+        val data = JSONObject()
+            .put("query", "abc")
+            .put("operationName", "Operation")
+            .put("variables", JSONObject().put("id", "some-id"))
+            .toString()
+
+        val request = sut.createRequest(data)!!
+
+        val hashed = JSONObject(request.hashedData)
+        assertFalse(hashed.has("query"))
+        assertEquals("Operation", hashed.getString("operationName"))
+        assertEquals("some-id", hashed.getJSONObject("variables").getString("id"))
+
+        val persistedQuery = hashed.getJSONObject("extensions").getJSONObject("persistedQuery")
+        assertEquals(1, persistedQuery.getInt("version"))
+        assertEquals(Sha256.hex("abc"), persistedQuery.getString("sha256Hash"))
+    }
+
+    @Test
+    fun createRequest_fullDataContainsQueryAndHash() {
+        val request = sut.createRequest("""{"query": "abc"}""")!!
+
+        val full = JSONObject(request.fullData)
+        assertEquals("abc", full.getString("query"))
+        assertEquals(
+            Sha256.hex("abc"),
+            full.getJSONObject("extensions").getJSONObject("persistedQuery").getString("sha256Hash")
+        )
+    }
+
+    @Test
+    fun createRequest_keepsOtherMembersAsWritten() {
+        val data = """{"query":"abc","variables": { "input" : [1, 2.50, "\u00e9"] }}"""
+
+        val request = sut.createRequest(data)!!
+
+        val extensions = """"extensions":{"persistedQuery":{"version":1,"sha256Hash":"${Sha256.hex("abc")}"}}"""
+        assertEquals(
+            """{"variables":{ "input" : [1, 2.50, "\u00e9"] },$extensions}""",
+            request.hashedData
+        )
+        assertEquals(
+            """{"query":"abc","variables":{ "input" : [1, 2.50, "\u00e9"] },$extensions}""",
+            request.fullData
+        )
+    }
+
+    @Test
+    fun createRequest_replacesExistingExtensions() {
+        val request = sut.createRequest("""{"extensions": {"other": true}, "query": "abc"}""")!!
+
+        val extensions = JSONObject(request.fullData).getJSONObject("extensions")
+        assertFalse(extensions.has("other"))
+        assertEquals(
+            Sha256.hex("abc"),
+            extensions.getJSONObject("persistedQuery").getString("sha256Hash")
+        )
+    }
+
+    @Test
+    fun createRequest_whenQueryContainsEscapes_hashesDecodedDocument() {
+        val request = sut.createRequest("""{"query": "mutation {\n  id\u0020}"}""")!!
+
+        assertEquals(
+            Sha256.hex("mutation {\n  id }"),
+            JSONObject(request.hashedData).getJSONObject("extensions")
+                .getJSONObject("persistedQuery").getString("sha256Hash")
+        )
+    }
+
+    @Test
+    fun createRequest_withoutQuery_returnsNull() {
+        assertNull(sut.createRequest("""{"variables": {}}"""))
+        assertNull(sut.createRequest("""{"query": ""}"""))
+        assertNull(sut.createRequest("""{"query": 1}"""))
+        assertNull(sut.createRequest("not-json"))
+        assertNull(sut.createRequest(null))
+    }
+
+    @Test
+    fun markUnsupported_disablesPersistedQueries() {
+        assertTrue(sut.isSupported)
+
+        sut.markUnsupported()
+
+        assertFalse(sut.isSupported)
+    }
+}
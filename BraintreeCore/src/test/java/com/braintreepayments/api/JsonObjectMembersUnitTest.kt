@@ -0,0 +1,65 @@
+package com.braintreepayments.api
+
+import org.json.JSONException
+import org.junit.Assert.assertEquals
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class JsonObjectMembersUnitTest {
+
+    @Test
+    fun read_returnsRawJsonOfEveryMemberInDocumentOrder() {
+        val json = """
+            {
+              "string": "a \"quoted\" } value",
+              "number": -1.5e3,
+              "boolean": true,
+              "null": null,
+              "object": { "nested": [1, { "deep": "]" }] },
+              "array": [ "x", "y" ]
+            }
+        """
+
+        val members = JsonObjectMembers.read(json)
+
+        assertEquals(
+            listOf("string", "number", "boolean", "null", "object", "array"),
+            members.keys.toList()
+        )
+        assertEquals("\"a \\\"quoted\\\" } value\"", members["string"])
+        assertEquals("-1.5e3", members["number"])
+        assertEquals("true", members["boolean"])
+        assertEquals("null", members["null"])
+        assertEquals("{ \"nested\": [1, { \"deep\": \"]\" }] }", members["object"])
+        assertEquals("[ \"x\", \"y\" ]", members["array"])
+    }
+
+    @Test
+    fun read_decodesEscapedNames() {
+        val members = JsonObjectMembers.read("{\"a\\u0062c\":1}")
+
+        assertEquals(mapOf("abc" to "1"), members)
+    }
+
+    @Test
+    fun read_withEmptyObject_returnsNoMembers() {
+        assertEquals(emptyMap<String, String>(), JsonObjectMembers.read(" { } "))
+    }
+
+    @Test(expected = JSONException::class)
+    fun read_whenJsonIsNotAnObject_throwsJSONException() {
+        JsonObjectMembers.read("[1, 2]")
+    }
+
+    @Test(expected = JSONException::class)
+    fun read_whenObjectIsUnterminated_throwsJSONException() {
+        JsonObjectMembers.read("{\"a\": {\"b\": 1}")
+    }
+
+    @Test(expected = JSONException::class)
+    fun read_whenValueIsMissing_throwsJSONException() {
+        JsonObjectMembers.read("{\"a\": }")
+    }
+}
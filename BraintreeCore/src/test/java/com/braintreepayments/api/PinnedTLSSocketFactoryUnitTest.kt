@@ -0,0 +1,16 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class PinnedTLSSocketFactoryUnitTest {
+
+    @Test
+    fun supportedCipherSuites_initializesFactoryFromPinnedCertificates() {
+        assertTrue(PinnedTLSSocketFactory.supportedCipherSuites.isNotEmpty())
+        assertTrue(PinnedTLSSocketFactory.defaultCipherSuites.isNotEmpty())
+    }
+}
@@ -2,12 +2,14 @@ package com.braintreepayments.api
 
 import org.robolectric.RobolectricTestRunner
 import android.os.Parcel
+import android.util.JsonReader
 import org.json.JSONException
 import org.json.JSONObject
 import org.junit.Assert.*
 
 import org.junit.Test
 import org.junit.runner.RunWith
+import java.io.StringReader
 
 @RunWith(RobolectricTestRunner::class)
 class PostalAddressUnitTest {
@@ -110,4 +112,63 @@ class PostalAddressUnitTest {
         postalAddress.countryCodeAlpha2 = "US"
         assertFalse(postalAddress.isEmpty)
     }
+
+    @Test
+    fun fromJsonReader_parsesStandardJson() {
+        val reader = JsonReader(StringReader(Fixtures.PAYMENT_METHODS_PAYPAL_ADDRESS))
+        val postalAddress = PostalAddressParser.fromJsonReader(reader)
+
+        assertEquals("123 Fake St.", postalAddress.streetAddress)
+        assertEquals("Apt. 3", postalAddress.extendedAddress)
+        assertEquals("Oakland", postalAddress.locality)
+        assertEquals("CA", postalAddress.region)
+        assertEquals("94602", postalAddress.postalCode)
+        assertEquals("US", postalAddress.countryCodeAlpha2)
+        assertEquals("John Fakerson", postalAddress.recipientName)
+    }
+
+    @Test
+    fun fromJsonReader_parsesAlternateJson() {
+        val reader = JsonReader(StringReader(Fixtures.PAYMENT_METHODS_PAYPAL_ADDRESS_ALTERNATE))
+        val postalAddress = PostalAddressParser.fromJsonReader(reader)
+
+        assertEquals("123 Fake St.", postalAddress.streetAddress)
+        assertEquals("Apt. 3", postalAddress.extendedAddress)
+        assertEquals("US", postalAddress.countryCodeAlpha2)
+        assertEquals("John Fakerson", postalAddress.recipientName)
+    }
+
+    @Test
+    fun fromJsonReader_parsesUserAddressJson() {
+        val json = """
+            {
+                "name": "John Fakerson",
+                "address1": "123 Fake St.",
+                "address2": "Apt. 3",
+                "locality": "Oakland",
+                "administrativeArea": "CA",
+                "countryCode": "US",
+                "postalCode": "94602",
+                "unknown": { "nested": [1, 2, 3] }
+            }
+        """
+        val postalAddress = PostalAddressParser.fromJsonReader(JsonReader(StringReader(json)))
+        val expected = PostalAddressParser.fromJson(JSONObject(json))
+
+        assertEquals(expected.recipientName, postalAddress.recipientName)
+        assertEquals(expected.streetAddress, postalAddress.streetAddress)
+        assertEquals(expected.extendedAddress, postalAddress.extendedAddress)
+        assertEquals(expected.locality, postalAddress.locality)
+        assertEquals(expected.region, postalAddress.region)
+        assertEquals(expected.countryCodeAlpha2, postalAddress.countryCodeAlpha2)
+        assertEquals(expected.postalCode, postalAddress.postalCode)
+    }
+
+    @Test
+    fun fromJsonReader_whenValueIsNotAnObject_returnsEmptyPostalAddress() {
+        val reader = JsonReader(StringReader("null"))
+        val postalAddress = PostalAddressParser.fromJsonReader(reader)
+
+        assertTrue(postalAddress.isEmpty)
+    }
 }
@@ -0,0 +1,23 @@
+package com.braintreepayments.api
+
+import org.junit.Assert.assertEquals
+import org.junit.Test
+
+class Sha256UnitTest {
+
+    @Test
+    fun hex_returnsLowercaseHexDigest() {
+        assertEquals(
+            "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+            Sha256.hex("abc")
+        )
+    }
+
+    @Test
+    fun hex_encodesValueAsUtf8() {
+        assertEquals(
+            "4a99557e4033c3539de2eb65472017cad5f9557f7a0625a09f1c3f6e2ba69c4c",
+            Sha256.hex("é")
+        )
+    }
+}
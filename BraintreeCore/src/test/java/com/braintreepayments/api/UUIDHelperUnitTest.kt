@@ -10,27 +10,27 @@ import org.junit.Test
 import java.util.*
 
 class UUIDHelperUnitTest {
-    private var braintreeSharedPreferences: BraintreeSharedPreferences = mockk(relaxed = true)
+    private var braintreeStore: BraintreeStore = mockk(relaxed = true)
 
     @Test
     fun getInstallationGUID_returnsNewGUIDWhenOneDoesNotExistAndPersistsIt() {
         every {
-            braintreeSharedPreferences.getString("InstallationGUID", null)
+            braintreeStore.getString("InstallationGUID", null)
         } returns null
 
         val sut = UUIDHelper()
-        val uuid = sut.getInstallationGUID(braintreeSharedPreferences)
+        val uuid = sut.getInstallationGUID(braintreeStore)
         assertNotNull(uuid)
-        verify { braintreeSharedPreferences.putString("InstallationGUID", uuid) }
+        verify { braintreeStore.putString("InstallationGUID", uuid) }
     }
 
     @Test
     fun getInstallationGUID_returnsExistingGUIDWhenOneExist() {
         val uuid = UUID.randomUUID().toString()
         every {
-            braintreeSharedPreferences.getString("InstallationGUID", null)
+            braintreeStore.getString("InstallationGUID", null)
         } returns uuid
         val sut = UUIDHelper()
-        assertEquals(uuid, sut.getInstallationGUID(braintreeSharedPreferences))
+        assertEquals(uuid, sut.getInstallationGUID(braintreeStore))
     }
 }
@@ -66,15 +66,19 @@ public class DataCollector {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
                 if (configuration != null) {
-                    final JSONObject deviceData = new JSONObject();
-                    try {
-                        String clientMetadataId = getPayPalClientMetadataId(appContext, configuration, dataCollectorRequest);
-                        if (!TextUtils.isEmpty(clientMetadataId)) {
-                            deviceData.put(CORRELATION_ID_KEY, clientMetadataId);
+                    getPayPalClientMetadataId(appContext, configuration, dataCollectorRequest, new PayPalClientMetadataIdCallback() {
+                        @Override
+                        public void onResult(@Nullable String clientMetadataId) {
+                            final JSONObject deviceData = new JSONObject();
+                            try {
+                                if (!TextUtils.isEmpty(clientMetadataId)) {
+                                    deviceData.put(CORRELATION_ID_KEY, clientMetadataId);
+                                }
+                            } catch (JSONException ignored) {
+                            }
+                            callback.onResult(deviceData.toString(), null);
                         }
-                    } catch (JSONException ignored) {
-                    }
-                    callback.onResult(deviceData.toString(), null);
+                    });
                 } else {
                     callback.onResult(null, error);
                 }
@@ -111,17 +115,18 @@ public class DataCollector {
      * @param configuration the merchant configuration
      * @param dataCollectorRequest The {@link DataCollectorRequest} containing the configuration for
      * the data collection request
-     * @return The client metadata id associated with the collected data.
+     * @param callback receives the client metadata id associated with the collected data.
      */
-    private String getPayPalClientMetadataId(
+    private void getPayPalClientMetadataId(
         Context context,
         Configuration configuration,
-        DataCollectorRequest dataCollectorRequest
+        DataCollectorRequest dataCollectorRequest,
+        PayPalClientMetadataIdCallback callback
     ) {
         try {
-            return payPalDataCollector.getClientMetadataId(context, configuration, dataCollectorRequest.getHasUserLocationConsent());
+            payPalDataCollector.getClientMetadataId(context, configuration, dataCollectorRequest.getHasUserLocationConsent(), callback);
         } catch (NoClassDefFoundError ignored) {
+            callback.onResult("");
         }
-        return "";
     }
 }
@@ -2,7 +2,11 @@ package com.braintreepayments.api;
 
 import static junit.framework.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,6 +21,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 
 @RunWith(RobolectricTestRunner.class)
@@ -28,6 +34,7 @@ public class DataCollectorUnitTest {
 
     private Configuration configuration;
     private UUIDHelper uuidHelper;
+    private String clientMetadataId;
 
     @Before
     public void beforeEach() throws JSONException {
@@ -38,6 +45,17 @@ public class DataCollectorUnitTest {
         uuidHelper = mock(UUIDHelper.class);
 
         when(uuidHelper.getFormattedUUID()).thenReturn("sample-formatted-uuid");
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                PayPalClientMetadataIdCallback callback =
+                        (PayPalClientMetadataIdCallback) invocation.getArguments()[3];
+                callback.onResult(clientMetadataId);
+                return null;
+            }
+        }).when(payPalDataCollector).getClientMetadataId(any(Context.class), any(Configuration.class),
+                anyBoolean(), any(PayPalClientMetadataIdCallback.class));
     }
 
     @Test
@@ -58,7 +76,7 @@ public class DataCollectorUnitTest {
 
     @Test
     public void collectDeviceData_getsDeviceDataJSONWithCorrelationIdFromPayPal() throws Exception {
-        when(payPalDataCollector.getClientMetadataId(context, configuration, false)).thenReturn("sample_correlation_id");
+        clientMetadataId = "sample_correlation_id";
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(configuration)
@@ -92,7 +110,8 @@ public class DataCollectorUnitTest {
         ArgumentCaptor<String> deviceDataCaptor = ArgumentCaptor.forClass(String.class);
         verify(callback).onResult(deviceDataCaptor.capture(), (Exception) isNull());
 
-        verify(payPalDataCollector).getClientMetadataId(context, configuration, false);
+        verify(payPalDataCollector).getClientMetadataId(same(context), same(configuration), eq(false),
+                any(PayPalClientMetadataIdCallback.class));
     }
 
     @Test
@@ -111,6 +130,7 @@ public class DataCollectorUnitTest {
         ArgumentCaptor<String> deviceDataCaptor = ArgumentCaptor.forClass(String.class);
         verify(callback).onResult(deviceDataCaptor.capture(), (Exception) isNull());
 
-        verify(payPalDataCollector).getClientMetadataId(context, configuration, true);
+        verify(payPalDataCollector).getClientMetadataId(same(context), same(configuration), eq(true),
+                any(PayPalClientMetadataIdCallback.class));
     }
 }
\ No newline at end of file
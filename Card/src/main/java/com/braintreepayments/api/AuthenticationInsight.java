@@ -2,11 +2,14 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
 
 import androidx.annotation.NonNull;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Information pertaining to the regulatory environment for a credit card if authentication insight
  * is requested during tokenization.
@@ -29,12 +32,46 @@ public class AuthenticationInsight implements Parcelable {
             regulationEnv = Json.optString(json, REST_REGULATION_ENVIRONMENT_KEY, "");
         }
 
+        return new AuthenticationInsight(normalize(regulationEnv));
+    }
+
+    /**
+     * Streaming counterpart of {@link #fromJson(JSONObject)}. Reads the value at the current
+     * position of {@code reader} and returns null if it is not an object.
+     */
+    static AuthenticationInsight fromJsonReader(JsonReader reader) throws IOException {
+        if (!Json.nextIsObject(reader)) {
+            return null;
+        }
+
+        String graphQLRegulationEnv = null;
+        boolean hasGraphQLRegulationEnv = false;
+        String restRegulationEnv = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case GRAPHQL_REGULATION_ENVIRONMENT_KEY:
+                    hasGraphQLRegulationEnv = true;
+                    graphQLRegulationEnv = Json.nextString(reader, "");
+                    break;
+                case REST_REGULATION_ENVIRONMENT_KEY:
+                    restRegulationEnv = Json.nextString(reader, "");
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        String regulationEnv = hasGraphQLRegulationEnv ? graphQLRegulationEnv : restRegulationEnv;
+        return new AuthenticationInsight(normalize(regulationEnv));
+    }
+
+    private static String normalize(String regulationEnv) {
         if ("psdtwo".equalsIgnoreCase(regulationEnv)) {
             regulationEnv = "psd2";
         }
-        regulationEnv = regulationEnv.toLowerCase();
-
-        return new AuthenticationInsight(regulationEnv);
+        return regulationEnv.toLowerCase();
     }
 
     AuthenticationInsight(String regulationEnvironment) {
@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
@@ -10,6 +11,8 @@ import androidx.annotation.RestrictTo;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Base class used to build various types of cards
  */
@@ -379,6 +382,52 @@ abstract class BaseCard extends PaymentMethod implements Parcelable {
         return json;
     }
 
+    /**
+     * Stream the fields of {@link #buildJSON()} without building the JSON tree.
+     *
+     * @hide
+     */
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void writeJSON(JsonWriter writer) throws IOException {
+        writeMetadataJSON(writer);
+
+        writer.name(CREDIT_CARD_KEY).beginObject();
+        Json.writeOpt(writer, NUMBER_KEY, number);
+        Json.writeOpt(writer, CVV_KEY, cvv);
+        Json.writeOpt(writer, EXPIRATION_MONTH_KEY, expirationMonth);
+        Json.writeOpt(writer, EXPIRATION_YEAR_KEY, expirationYear);
+        Json.writeOpt(writer, CARDHOLDER_NAME_KEY, cardholderName);
+
+        if (hasBillingAddress()) {
+            writer.name(BILLING_ADDRESS_KEY).beginObject();
+            Json.writeOpt(writer, FIRST_NAME_KEY, firstName);
+            Json.writeOpt(writer, LAST_NAME_KEY, lastName);
+            Json.writeOpt(writer, COMPANY_KEY, company);
+            Json.writeOpt(writer, LOCALITY_KEY, locality);
+            Json.writeOpt(writer, POSTAL_CODE_KEY, postalCode);
+            Json.writeOpt(writer, REGION_KEY, region);
+            Json.writeOpt(writer, STREET_ADDRESS_KEY, streetAddress);
+            Json.writeOpt(writer, EXTENDED_ADDRESS_KEY, extendedAddress);
+            Json.writeOpt(writer, COUNTRY_CODE_ALPHA3_KEY, countryCode);
+            writer.endObject();
+        }
+        writeCreditCardFields(writer);
+        writer.endObject();
+    }
+
+    /**
+     * Write additional fields of the credit card object in {@link #writeJSON(JsonWriter)}.
+     */
+    void writeCreditCardFields(JsonWriter writer) throws IOException {
+    }
+
+    private boolean hasBillingAddress() {
+        return firstName != null || lastName != null || company != null || locality != null
+                || postalCode != null || region != null || streetAddress != null
+                || extendedAddress != null || countryCode != null;
+    }
+
     /**
      * @hide
      */
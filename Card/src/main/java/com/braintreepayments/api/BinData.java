@@ -2,12 +2,14 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.StringDef;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
@@ -65,6 +67,65 @@ public class BinData implements Parcelable {
         return binData;
     }
 
+    /**
+     * Streaming counterpart of {@link #fromJson(JSONObject)}. Reads the value at the current
+     * position of {@code reader}; a missing or non-object value produces the same defaults as a
+     * {@code null} {@link JSONObject}.
+     */
+    static BinData fromJsonReader(JsonReader reader) throws IOException {
+        BinData binData = new BinData();
+        binData.prepaid = UNKNOWN;
+        binData.healthcare = UNKNOWN;
+        binData.debit = UNKNOWN;
+        binData.durbinRegulated = UNKNOWN;
+        binData.commercial = UNKNOWN;
+        binData.payroll = UNKNOWN;
+        binData.issuingBank = "";
+        binData.countryOfIssuance = "";
+        binData.productId = "";
+
+        if (reader == null || !Json.nextIsObject(reader)) {
+            return binData;
+        }
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case PREPAID_KEY:
+                    binData.prepaid = Json.nextString(reader, UNKNOWN);
+                    break;
+                case HEALTHCARE_KEY:
+                    binData.healthcare = Json.nextString(reader, UNKNOWN);
+                    break;
+                case DEBIT_KEY:
+                    binData.debit = Json.nextString(reader, UNKNOWN);
+                    break;
+                case DURBIN_REGULATED_KEY:
+                    binData.durbinRegulated = Json.nextString(reader, UNKNOWN);
+                    break;
+                case COMMERCIAL_KEY:
+                    binData.commercial = Json.nextString(reader, UNKNOWN);
+                    break;
+                case PAYROLL_KEY:
+                    binData.payroll = Json.nextString(reader, UNKNOWN);
+                    break;
+                case ISSUING_BANK_KEY:
+                    binData.issuingBank = Json.nextString(reader, UNKNOWN);
+                    break;
+                case COUNTRY_OF_ISSUANCE_KEY:
+                    binData.countryOfIssuance = Json.nextString(reader, UNKNOWN);
+                    break;
+                case PRODUCT_ID_KEY:
+                    binData.productId = Json.nextString(reader, UNKNOWN);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return binData;
+    }
+
     private static String convertNullToUnknown(JSONObject json, String key) {
         if (json.has(key) && json.isNull(key)) {
             return UNKNOWN;
@@ -0,0 +1,227 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tokenizes a list of cards for {@link CardClient#tokenizeAll(List, CardTokenizeAllCallback)}.
+ * Cards are sent in batched GraphQL requests when the gateway enables both GraphQL tokenization
+ * and batched operations, one GraphQL request per card when it only enables GraphQL tokenization,
+ * or one REST request per card otherwise, with at most {@link #MAX_CONCURRENT_REQUESTS} requests
+ * in flight.
+ */
+class BulkCardTokenizer {
+
+    static final int GRAPHQL_BATCH_SIZE = 10;
+    static final int MAX_CONCURRENT_REQUESTS = 4;
+
+    private final BraintreeClient braintreeClient;
+    private final ApiClient apiClient;
+    private final List<Card> cards;
+    private final CardTokenizeAllCallback callback;
+
+    private final Queue<Runnable> pendingRequests = new ArrayDeque<>();
+    private int successCount;
+    private int failureCount;
+
+    BulkCardTokenizer(BraintreeClient braintreeClient, ApiClient apiClient, List<Card> cards,
+                      CardTokenizeAllCallback callback) {
+        this.braintreeClient = braintreeClient;
+        this.apiClient = apiClient;
+        this.cards = cards;
+        this.callback = callback;
+    }
+
+    void start(Configuration configuration) {
+        boolean shouldTokenizeViaGraphQL =
+            configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.TOKENIZE_CREDIT_CARDS);
+        boolean shouldBatchGraphQLRequests =
+            configuration.isGraphQLFeatureEnabled(GraphQLConstants.Features.BATCHED_OPERATIONS);
+
+        if (shouldTokenizeViaGraphQL && shouldBatchGraphQLRequests) {
+            queueGraphQLBatches();
+        } else if (shouldTokenizeViaGraphQL) {
+            queueGraphQLRequests();
+        } else {
+            for (int i = 0; i < cards.size(); i++) {
+                queueRESTRequest(i);
+            }
+        }
+
+        for (int i = 0; i < MAX_CONCURRENT_REQUESTS; i++) {
+            startNextRequest();
+        }
+    }
+
+    void failAll(@Nullable Exception error) {
+        for (int i = 0; i < cards.size(); i++) {
+            onCardResult(i, null, error);
+        }
+    }
+
+    private void queueGraphQLBatches() {
+        String sessionId = braintreeClient.getSessionId();
+        List<Integer> indices = new ArrayList<>();
+        List<String> payloads = new ArrayList<>();
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            card.setSessionId(sessionId);
+            try {
+                payloads.add(card.buildJSONForGraphQL().toString());
+                indices.add(i);
+            } catch (BraintreeException | JSONException e) {
+                onCardResult(i, null, e);
+                continue;
+            }
+
+            if (indices.size() == GRAPHQL_BATCH_SIZE) {
+                queueGraphQLBatch(indices, payloads);
+                indices = new ArrayList<>();
+                payloads = new ArrayList<>();
+            }
+        }
+        if (!indices.isEmpty()) {
+            queueGraphQLBatch(indices, payloads);
+        }
+    }
+
+    private void queueGraphQLBatch(List<Integer> indices, List<String> payloads) {
+        // a batch frees its request slot once every operation in it has a result
+        AtomicInteger remainingOperations = new AtomicInteger(indices.size());
+        final List<GraphQLOperation> operations = new ArrayList<>();
+        for (int i = 0; i < indices.size(); i++) {
+            operations.add(new GraphQLOperation(payloads.get(i), null,
+                graphQLResponseCallback(indices.get(i), remainingOperations)));
+        }
+
+        pendingRequests.add(new Runnable() {
+            @Override
+            public void run() {
+                braintreeClient.sendGraphQLBatch(operations);
+            }
+        });
+    }
+
+    private void queueGraphQLRequests() {
+        String sessionId = braintreeClient.getSessionId();
+        for (int i = 0; i < cards.size(); i++) {
+            Card card = cards.get(i);
+            card.setSessionId(sessionId);
+            try {
+                queueGraphQLRequest(i, card.buildJSONForGraphQL());
+            } catch (BraintreeException | JSONException e) {
+                onCardResult(i, null, e);
+            }
+        }
+    }
+
+    private void queueGraphQLRequest(final int index, final JSONObject tokenizePayload) {
+        pendingRequests.add(new Runnable() {
+            @Override
+            public void run() {
+                apiClient.tokenizeGraphQL(tokenizePayload, false, new TokenizeCallback() {
+                    @Override
+                    public void onResult(JSONObject tokenizationResponse, Exception exception) {
+                        onTokenizationResult(index, tokenizationResponse, exception);
+                        startNextRequest();
+                    }
+                });
+            }
+        });
+    }
+
+    private HttpResponseCallback graphQLResponseCallback(final int index,
+                                                         final AtomicInteger remainingOperations) {
+        return new HttpResponseCallback() {
+            @Override
+            public void onResult(@Nullable String responseBody, @Nullable Exception httpError) {
+                if (responseBody != null) {
+                    try {
+                        onCardResult(index, CardNonce.fromJSON(responseBody), null);
+                    } catch (JSONException e) {
+                        onCardResult(index, null, e);
+                    }
+                } else {
+                    onCardResult(index, null, httpError);
+                }
+
+                if (remainingOperations.decrementAndGet() == 0) {
+                    startNextRequest();
+                }
+            }
+        };
+    }
+
+    private void queueRESTRequest(final int index) {
+        pendingRequests.add(new Runnable() {
+            @Override
+            public void run() {
+                apiClient.tokenizeREST(cards.get(index), false, new TokenizeCallback() {
+                    @Override
+                    public void onResult(JSONObject tokenizationResponse, Exception exception) {
+                        onTokenizationResult(index, tokenizationResponse, exception);
+                        startNextRequest();
+                    }
+                });
+            }
+        });
+    }
+
+    private void onTokenizationResult(int index, JSONObject tokenizationResponse,
+                                      Exception exception) {
+        if (tokenizationResponse != null) {
+            try {
+                onCardResult(index, CardNonce.fromJSON(tokenizationResponse), null);
+            } catch (JSONException e) {
+                onCardResult(index, null, e);
+            }
+        } else {
+            onCardResult(index, null, exception);
+        }
+    }
+
+    private void startNextRequest() {
+        Runnable request;
+        synchronized (this) {
+            request = pendingRequests.poll();
+        }
+        if (request != null) {
+            request.run();
+        }
+    }
+
+    private void onCardResult(int index, CardNonce cardNonce, Exception error) {
+        boolean isLastResult;
+        synchronized (this) {
+            if (cardNonce != null) {
+                successCount++;
+            } else {
+                failureCount++;
+            }
+            isLastResult = (successCount + failureCount) == cards.size();
+        }
+
+        callback.onCardResult(index, cardNonce, error);
+        if (isLastResult) {
+            braintreeClient.sendAnalyticsEvent(summaryEventName());
+            callback.onComplete();
+        }
+    }
+
+    private synchronized String summaryEventName() {
+        if (failureCount == 0) {
+            return "card.tokenize-all.succeeded";
+        } else if (successCount == 0) {
+            return "card.tokenize-all.failed";
+        }
+        return "card.tokenize-all.partially-succeeded";
+    }
+}
@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
@@ -12,6 +13,8 @@ import com.braintreepayments.api.GraphQLConstants.Keys;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Use to construct a card tokenization request.
  */
@@ -23,6 +26,12 @@ public class Card extends BaseCard implements Parcelable {
     private static final String AUTHENTICATION_INSIGHT_REQUESTED_KEY = "authenticationInsight";
     private static final String AUTHENTICATION_INSIGHT_INPUT_KEY = "authenticationInsightInput";
 
+    // built once per process; the documents are identical for every request
+    private static final String TOKENIZE_CREDIT_CARD_MUTATION =
+            buildCardTokenizationGraphQLMutation(false);
+    private static final String TOKENIZE_CREDIT_CARD_WITH_AUTHENTICATION_INSIGHT_MUTATION =
+            buildCardTokenizationGraphQLMutation(true);
+
     private String merchantAccountId;
     private boolean authenticationInsightRequested;
 
@@ -148,6 +157,26 @@ public class Card extends BaseCard implements Parcelable {
         return json;
     }
 
+    /**
+     * @hide
+     */
+    @Override
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public void writeJSON(JsonWriter writer) throws IOException {
+        super.writeJSON(writer);
+        if (authenticationInsightRequested) {
+            Json.writeOpt(writer, MERCHANT_ACCOUNT_ID_KEY, merchantAccountId);
+            writer.name(AUTHENTICATION_INSIGHT_REQUESTED_KEY).value(true);
+        }
+    }
+
+    @Override
+    void writeCreditCardFields(JsonWriter writer) throws IOException {
+        writer.name(OPTIONS_KEY).beginObject();
+        writer.name(VALIDATE_KEY).value(shouldValidate);
+        writer.endObject();
+    }
+
     @Override
     public void writeToParcel(Parcel dest, int flags) {
         super.writeToParcel(dest, flags);
@@ -176,6 +205,12 @@ public class Card extends BaseCard implements Parcelable {
     };
 
     private String getCardTokenizationGraphQLMutation() {
+        return authenticationInsightRequested
+                ? TOKENIZE_CREDIT_CARD_WITH_AUTHENTICATION_INSIGHT_MUTATION
+                : TOKENIZE_CREDIT_CARD_MUTATION;
+    }
+
+    private static String buildCardTokenizationGraphQLMutation(boolean authenticationInsightRequested) {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append("mutation TokenizeCreditCard($input: TokenizeCreditCardInput!");
 
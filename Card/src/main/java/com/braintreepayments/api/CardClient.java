@@ -7,6 +7,9 @@ import androidx.annotation.VisibleForTesting;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Used to tokenize credit or debit cards using a {@link Card}. For more information see the
  * <a href="https://developer.paypal.com/braintree/docs/guides/credit-cards/overview">documentation</a>
@@ -83,6 +86,41 @@ public class CardClient {
         });
     }
 
+    /**
+     * Create a {@link CardNonce} for each {@link Card} in a list.
+     * <p>
+     * Configuration is loaded once for all cards. Cards are tokenized in batched requests when
+     * supported by the gateway, and a limited number of requests are sent at the same time.
+     *
+     * <p>
+     * Each result is returned via
+     * {@link CardTokenizeAllCallback#onCardResult(int, CardNonce, Exception)} as soon as it is
+     * available, so results may arrive in a different order than the cards in the list. Once every
+     * card has a result, {@link CardTokenizeAllCallback#onComplete()} is invoked.
+     *
+     * @param cards a list of {@link Card}
+     * @param callback {@link CardTokenizeAllCallback}
+     */
+    public void tokenizeAll(@NonNull List<Card> cards, @NonNull final CardTokenizeAllCallback callback) {
+        if (cards.isEmpty()) {
+            callback.onComplete();
+            return;
+        }
+
+        final BulkCardTokenizer tokenizer =
+            new BulkCardTokenizer(braintreeClient, apiClient, new ArrayList<>(cards), callback);
+        braintreeClient.getConfiguration(new ConfigurationCallback() {
+            @Override
+            public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
+                if (configuration != null) {
+                    tokenizer.start(configuration);
+                } else {
+                    tokenizer.failAll(error);
+                }
+            }
+        });
+    }
+
     private void handleTokenizeResponse(JSONObject tokenizationResponse, Exception exception, CardTokenizeCallback callback) {
         if (tokenizationResponse != null) {
             try {
@@ -1,6 +1,7 @@
 package com.braintreepayments.api;
 
 import android.os.Parcel;
+import android.util.JsonReader;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -8,6 +9,9 @@ import androidx.annotation.Nullable;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.StringReader;
+
 import static com.braintreepayments.api.BinData.BIN_DATA_KEY;
 
 /**
@@ -66,6 +70,283 @@ public class CardNonce extends PaymentMethodNonce {
         }
     }
 
+    /**
+     * Parse card nonce from a tokenization response without building a JSON tree. Accepts the same
+     * GraphQL, RESTful and plain formats as {@link #fromJSON(JSONObject)}; the response is read in
+     * a single pass and fields that are not part of a {@link CardNonce} are skipped.
+     * @param jsonString tokenization response
+     * @return {@link CardNonce}
+     * @throws JSONException if nonce could not be parsed successfully
+     */
+    @NonNull
+    static CardNonce fromJSON(String jsonString) throws JSONException {
+        JsonReader reader = new JsonReader(new StringReader(jsonString));
+        try {
+            return fromJSONReader(reader);
+        } catch (IOException | IllegalStateException e) {
+            throw Json.toJSONException(e);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    /**
+     * Streaming counterpart of {@link #fromJSON(JSONObject)}. Reads the object at the current
+     * position of {@code reader}.
+     * @param reader reader positioned at a tokenization response or plain card nonce object
+     * @return {@link CardNonce}
+     * @throws JSONException if nonce could not be parsed successfully
+     */
+    @NonNull
+    static CardNonce fromJSONReader(JsonReader reader) throws IOException, JSONException {
+        boolean hasGraphQLData = false;
+        CardNonce graphQLNonce = null;
+        boolean hasRESTResource = false;
+        CardNonce restNonce = null;
+        PlainCardNonceFields plainFields = new PlainCardNonceFields();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (DATA_KEY.equals(name)) {
+                hasGraphQLData = true;
+                graphQLNonce = readGraphQLData(reader);
+            } else if (API_RESOURCE_KEY.equals(name)) {
+                hasRESTResource = true;
+                restNonce = readRESTResource(reader);
+            } else {
+                plainFields.read(name, reader);
+            }
+        }
+        reader.endObject();
+
+        if (hasGraphQLData) {
+            if (graphQLNonce == null) {
+                throw new JSONException("Failed to parse GraphQL response JSON");
+            }
+            return graphQLNonce;
+        } else if (hasRESTResource) {
+            return restNonce;
+        }
+        return plainFields.toCardNonce();
+    }
+
+    private static CardNonce readRESTResource(JsonReader reader) throws IOException, JSONException {
+        CardNonce cardNonce = null;
+        reader.beginArray();
+        if (reader.hasNext()) {
+            cardNonce = readPlainCardNonce(reader);
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+
+        if (cardNonce == null) {
+            throw new JSONException("No value in " + API_RESOURCE_KEY);
+        }
+        return cardNonce;
+    }
+
+    private static CardNonce readPlainCardNonce(JsonReader reader) throws IOException, JSONException {
+        PlainCardNonceFields fields = new PlainCardNonceFields();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            fields.read(reader.nextName(), reader);
+        }
+        reader.endObject();
+        return fields.toCardNonce();
+    }
+
+    private static CardNonce readGraphQLData(JsonReader reader) throws IOException, JSONException {
+        CardNonce cardNonce = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (GRAPHQL_TOKENIZE_CREDIT_CARD_KEY.equals(reader.nextName())) {
+                cardNonce = readGraphQLPayload(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return cardNonce;
+    }
+
+    private static CardNonce readGraphQLPayload(JsonReader reader) throws IOException, JSONException {
+        String nonce = null;
+        AuthenticationInsight authenticationInsight = null;
+        boolean hasCreditCard = false;
+        String lastFour = "";
+        String cardType = "Unknown";
+        String bin = "";
+        BinData binData = null;
+        String expirationMonth = "";
+        String expirationYear = "";
+        String cardholderName = "";
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (TOKEN_KEY.equals(name)) {
+                nonce = Json.nextString(reader, null);
+            } else if (AUTHENTICATION_INSIGHT_KEY.equals(name)) {
+                authenticationInsight = AuthenticationInsight.fromJsonReader(reader);
+            } else if (GRAPHQL_CREDIT_CARD_KEY.equals(name)) {
+                hasCreditCard = true;
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case GRAPHQL_LAST_FOUR_KEY:
+                            lastFour = Json.nextString(reader, "");
+                            break;
+                        case GRAPHQL_BRAND_KEY:
+                            cardType = Json.nextString(reader, "Unknown");
+                            break;
+                        case BIN_KEY:
+                            bin = Json.nextString(reader, "");
+                            break;
+                        case BIN_DATA_KEY:
+                            binData = BinData.fromJsonReader(reader);
+                            break;
+                        case EXPIRATION_MONTH_KEY:
+                            expirationMonth = Json.nextString(reader, "");
+                            break;
+                        case EXPIRATION_YEAR_KEY:
+                            expirationYear = Json.nextString(reader, "");
+                            break;
+                        case CARDHOLDER_NAME_KEY:
+                            cardholderName = Json.nextString(reader, "");
+                            break;
+                        default:
+                            reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!hasCreditCard) {
+            throw new JSONException("No value for " + GRAPHQL_CREDIT_CARD_KEY);
+        }
+        if (nonce == null) {
+            throw new JSONException("No value for " + TOKEN_KEY);
+        }
+        if (binData == null) {
+            binData = BinData.fromJsonReader(null);
+        }
+        String lastTwo = lastFour.length() < 4 ? "" : lastFour.substring(2);
+        ThreeDSecureInfo threeDSecureInfo = ThreeDSecureInfo.fromJsonReader(null);
+        return new CardNonce(cardType, lastTwo, lastFour, threeDSecureInfo, bin, binData, authenticationInsight, expirationMonth, expirationYear, cardholderName, nonce, false);
+    }
+
+    /**
+     * Fields of a plain card nonce object, collected while streaming since they can appear in any
+     * order.
+     */
+    private static class PlainCardNonceFields {
+
+        private String nonce;
+        private boolean isDefault;
+        private boolean hasDetails;
+        private String cardType;
+        private String lastTwo;
+        private String lastFour;
+        private String bin = "";
+        private String expirationMonth = "";
+        private String expirationYear = "";
+        private String cardholderName = "";
+        private ThreeDSecureInfo threeDSecureInfo;
+        private BinData binData;
+        private AuthenticationInsight authenticationInsight;
+
+        void read(String name, JsonReader reader) throws IOException {
+            switch (name) {
+                case PAYMENT_METHOD_NONCE_KEY:
+                    nonce = Json.nextString(reader, null);
+                    break;
+                case PAYMENT_METHOD_DEFAULT_KEY:
+                    isDefault = Json.nextBoolean(reader, false);
+                    break;
+                case CARD_DETAILS_KEY:
+                    hasDetails = true;
+                    readDetails(reader);
+                    break;
+                case THREE_D_SECURE_INFO_KEY:
+                    threeDSecureInfo = ThreeDSecureInfo.fromJsonReader(reader);
+                    break;
+                case BIN_DATA_KEY:
+                    binData = BinData.fromJsonReader(reader);
+                    break;
+                case AUTHENTICATION_INSIGHT_KEY:
+                    authenticationInsight = AuthenticationInsight.fromJsonReader(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
+        private void readDetails(JsonReader reader) throws IOException {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case LAST_TWO_KEY:
+                        lastTwo = Json.nextString(reader, null);
+                        break;
+                    case LAST_FOUR_KEY:
+                        lastFour = Json.nextString(reader, null);
+                        break;
+                    case CARD_TYPE_KEY:
+                        cardType = Json.nextString(reader, null);
+                        break;
+                    case BIN_KEY:
+                        bin = Json.nextString(reader, "");
+                        break;
+                    case EXPIRATION_MONTH_KEY:
+                        expirationMonth = Json.nextString(reader, "");
+                        break;
+                    case EXPIRATION_YEAR_KEY:
+                        expirationYear = Json.nextString(reader, "");
+                        break;
+                    case CARDHOLDER_NAME_KEY:
+                        cardholderName = Json.nextString(reader, "");
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        CardNonce toCardNonce() throws IOException, JSONException {
+            requireValue(PAYMENT_METHOD_NONCE_KEY, nonce);
+            if (!hasDetails) {
+                throw new JSONException("No value for " + CARD_DETAILS_KEY);
+            }
+            requireValue(LAST_TWO_KEY, lastTwo);
+            requireValue(LAST_FOUR_KEY, lastFour);
+            requireValue(CARD_TYPE_KEY, cardType);
+
+            if (threeDSecureInfo == null) {
+                threeDSecureInfo = ThreeDSecureInfo.fromJsonReader(null);
+            }
+            if (binData == null) {
+                binData = BinData.fromJsonReader(null);
+            }
+            return new CardNonce(cardType, lastTwo, lastFour, threeDSecureInfo, bin, binData, authenticationInsight, expirationMonth, expirationYear, cardholderName, nonce, isDefault);
+        }
+
+        private static void requireValue(String name, String value) throws JSONException {
+            if (value == null) {
+                throw new JSONException("No value for " + name);
+            }
+        }
+    }
+
     private static boolean isGraphQLTokenizationResponse(JSONObject inputJSON) {
         return inputJSON.has(DATA_KEY);
     }
@@ -0,0 +1,24 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Callback for receiving results of {@link CardClient#tokenizeAll(java.util.List, CardTokenizeAllCallback)}.
+ */
+public interface CardTokenizeAllCallback {
+
+    /**
+     * Invoked once for each card, in the order tokenization completes.
+     *
+     * @param index the position of the card in the list passed to
+     *              {@link CardClient#tokenizeAll(java.util.List, CardTokenizeAllCallback)}
+     * @param cardNonce {@link CardNonce}
+     * @param error an exception that occurred while tokenizing the card
+     */
+    void onCardResult(int index, @Nullable CardNonce cardNonce, @Nullable Exception error);
+
+    /**
+     * Invoked once after a result has been delivered for every card.
+     */
+    void onComplete();
+}
@@ -2,11 +2,14 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
 
 import androidx.annotation.Nullable;
 
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * A class to contain 3D Secure information about the current
  * {@link CardNonce}
@@ -86,6 +89,128 @@ public class ThreeDSecureInfo implements Parcelable {
         return threeDSecureInfo;
     }
 
+    /**
+     * Streaming counterpart of {@link #fromJson(JSONObject)}. Reads the value at the current
+     * position of {@code reader}, or returns the same defaults as a {@code null} {@link JSONObject}
+     * when {@code reader} is null or the value is not an object.
+     */
+    static ThreeDSecureInfo fromJsonReader(JsonReader reader) throws IOException {
+        ThreeDSecureInfo threeDSecureInfo = new ThreeDSecureInfo();
+        threeDSecureInfo.cavv = "";
+        threeDSecureInfo.dsTransactionId = "";
+        threeDSecureInfo.eciFlag = "";
+        threeDSecureInfo.enrolled = "";
+        threeDSecureInfo.status = "";
+        threeDSecureInfo.threeDSecureVersion = "";
+        threeDSecureInfo.xid = "";
+        threeDSecureInfo.acsTransactionId = "";
+        threeDSecureInfo.threeDSecureAuthenticationId = "";
+        threeDSecureInfo.threeDSecureServerTransactionId = "";
+        threeDSecureInfo.paresStatus = "";
+
+        if (reader == null || !Json.nextIsObject(reader)) {
+            return threeDSecureInfo;
+        }
+
+        boolean hasLiabilityShifted = false;
+        boolean hasLiabilityShiftPossible = false;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case CAVV_KEY:
+                    threeDSecureInfo.cavv = optString(reader);
+                    break;
+                case DS_TRANSACTION_ID_KEY:
+                    threeDSecureInfo.dsTransactionId = optString(reader);
+                    break;
+                case ECI_FLAG_KEY:
+                    threeDSecureInfo.eciFlag = optString(reader);
+                    break;
+                case ENROLLED_KEY:
+                    threeDSecureInfo.enrolled = optString(reader);
+                    break;
+                case LIABILITY_SHIFTED_KEY:
+                    hasLiabilityShifted = true;
+                    threeDSecureInfo.liabilityShifted = Json.nextBoolean(reader, false);
+                    break;
+                case LIABILITY_SHIFT_POSSIBLE_KEY:
+                    hasLiabilityShiftPossible = true;
+                    threeDSecureInfo.liabilityShiftPossible = Json.nextBoolean(reader, false);
+                    break;
+                case STATUS_KEY:
+                    threeDSecureInfo.status = optString(reader);
+                    break;
+                case THREE_D_SECURE_VERSION_KEY:
+                    threeDSecureInfo.threeDSecureVersion = optString(reader);
+                    break;
+                case XID_KEY:
+                    threeDSecureInfo.xid = optString(reader);
+                    break;
+                case ACS_TRANSACTION_ID_KEY:
+                    threeDSecureInfo.acsTransactionId = optString(reader);
+                    break;
+                case THREE_D_SECURE_AUTHENTICATION_ID_KEY:
+                    threeDSecureInfo.threeDSecureAuthenticationId = optString(reader);
+                    break;
+                case THREE_D_SECURE_SERVER_TRANSACTION_ID_KEY:
+                    threeDSecureInfo.threeDSecureServerTransactionId = optString(reader);
+                    break;
+                case PARES_STATUS_KEY:
+                    threeDSecureInfo.paresStatus = optString(reader);
+                    break;
+                case AUTHENTICATION_KEY:
+                    String[] authentication = readTransactionStatus(reader);
+                    if (authentication != null) {
+                        threeDSecureInfo.authenticationTransactionStatus = authentication[0];
+                        threeDSecureInfo.authenticationTransactionStatusReason = authentication[1];
+                    }
+                    break;
+                case LOOKUP_KEY:
+                    String[] lookup = readTransactionStatus(reader);
+                    if (lookup != null) {
+                        threeDSecureInfo.lookupTransactionStatus = lookup[0];
+                        threeDSecureInfo.lookupTransactionStatusReason = lookup[1];
+                    }
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        threeDSecureInfo.wasVerified = hasLiabilityShifted && hasLiabilityShiftPossible;
+        return threeDSecureInfo;
+    }
+
+    /**
+     * @return the transaction status and reason, or null if the value is not an object.
+     */
+    private static String[] readTransactionStatus(JsonReader reader) throws IOException {
+        if (!Json.nextIsObject(reader)) {
+            return null;
+        }
+        String[] status = { "", "" };
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case TRANS_STATUS_KEY:
+                    status[0] = optString(reader);
+                    break;
+                case TRANS_STATUS_REASON_KEY:
+                    status[1] = optString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return status;
+    }
+
+    // matches JSONObject#optString(String), which returns "null" for null values
+    private static String optString(JsonReader reader) throws IOException {
+        return Json.nextString(reader, "null");
+    }
+
     /**
      * @return Cardholder authentication verification value or "CAVV" is the main encrypted message issuers and card networks use to verify authentication has occured. Mastercard uses an "AVV" message which will also be returned in the cavv parameter.
      */
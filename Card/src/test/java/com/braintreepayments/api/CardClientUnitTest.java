@@ -2,9 +2,15 @@ package com.braintreepayments.api;
 
 import static junit.framework.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,8 +24,13 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @RunWith(RobolectricTestRunner.class)
 public class CardClientUnitTest {
 
@@ -31,6 +42,7 @@ public class CardClientUnitTest {
 
     private Configuration graphQLEnabledConfig;
     private Configuration graphQLDisabledConfig;
+    private Configuration graphQLBatchingEnabledConfig;
 
     @Before
     public void beforeEach() throws JSONException {
@@ -42,6 +54,8 @@ public class CardClientUnitTest {
 
         graphQLEnabledConfig = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL);
         graphQLDisabledConfig = Configuration.fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN);
+        graphQLBatchingEnabledConfig =
+                Configuration.fromJson(Fixtures.CONFIGURATION_WITH_GRAPHQL_BATCHED_OPERATIONS);
     }
 
     @Test
@@ -215,4 +229,177 @@ public class CardClientUnitTest {
 
         verify(cardTokenizeCallback).onResult(null, configError);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void tokenizeAll_withEmptyList_completesWithoutLoadingConfiguration() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(new ArrayList<Card>(), callback);
+
+        verify(callback).onComplete();
+        verify(braintreeClient, never()).getConfiguration(any(ConfigurationCallback.class));
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLDisabled_loadsConfigurationOnceAndTokenizesEachCard() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+        apiClient = new MockApiClientBuilder()
+                .tokenizeRESTSuccess(new JSONObject(Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD))
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(3), callback);
+
+        verify(braintreeClient, times(1)).getConfiguration(any(ConfigurationCallback.class));
+        verify(apiClient, times(3)).tokenizeREST(any(Card.class), eq(false), any(TokenizeCallback.class));
+
+        ArgumentCaptor<CardNonce> captor = ArgumentCaptor.forClass(CardNonce.class);
+        for (int i = 0; i < 3; i++) {
+            verify(callback).onCardResult(eq(i), captor.capture(), (Exception) isNull());
+        }
+        assertEquals("123456-12345-12345-a-adfa", captor.getValue().getString());
+
+        InOrder inOrder = Mockito.inOrder(braintreeClient, callback);
+        inOrder.verify(braintreeClient).sendAnalyticsEvent("card.tokenize-all.succeeded");
+        inOrder.verify(callback).onComplete();
+        verify(braintreeClient, never()).sendAnalyticsEvent("card.nonce-received");
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLDisabled_limitsConcurrentRequests() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLDisabledConfig)
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(6), callback);
+
+        ArgumentCaptor<TokenizeCallback> captor = ArgumentCaptor.forClass(TokenizeCallback.class);
+        verify(apiClient, times(BulkCardTokenizer.MAX_CONCURRENT_REQUESTS))
+                .tokenizeREST(any(Card.class), eq(false), captor.capture());
+
+        captor.getAllValues().get(0).onResult(null, new Exception("error"));
+
+        verify(apiClient, times(BulkCardTokenizer.MAX_CONCURRENT_REQUESTS + 1))
+                .tokenizeREST(any(Card.class), eq(false), any(TokenizeCallback.class));
+        verify(callback, never()).onComplete();
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLBatchingEnabled_sendsCardsInBatches() throws JSONException {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLBatchingEnabledConfig)
+                .sessionId("session-id")
+                .build();
+        final List<List<GraphQLOperation>> batches = captureGraphQLBatches(braintreeClient);
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(50), callback);
+
+        assertEquals(BulkCardTokenizer.MAX_CONCURRENT_REQUESTS, batches.size());
+        assertEquals(BulkCardTokenizer.GRAPHQL_BATCH_SIZE, batches.get(0).size());
+        JSONObject payload = new JSONObject(batches.get(0).get(0).getPayload());
+        assertEquals("session-id",
+                payload.getJSONObject("clientSdkMetadata").getString("sessionId"));
+
+        for (GraphQLOperation operation : batches.get(0)) {
+            operation.getResponseCallback().onResult(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD, null);
+        }
+
+        assertEquals(5, batches.size());
+        verify(callback, times(BulkCardTokenizer.GRAPHQL_BATCH_SIZE))
+                .onCardResult(anyInt(), any(CardNonce.class), (Exception) isNull());
+        verify(apiClient, never()).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
+    }
+
+    @Test
+    public void tokenizeAll_whenGraphQLEnabledWithoutBatching_sendsOneRequestPerCardAndLimitsConcurrentRequests() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLEnabledConfig)
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(6), callback);
+
+        ArgumentCaptor<TokenizeCallback> captor = ArgumentCaptor.forClass(TokenizeCallback.class);
+        verify(apiClient, times(BulkCardTokenizer.MAX_CONCURRENT_REQUESTS))
+                .tokenizeGraphQL(any(JSONObject.class), eq(false), captor.capture());
+
+        captor.getAllValues().get(0).onResult(null, new Exception("error"));
+
+        verify(apiClient, times(BulkCardTokenizer.MAX_CONCURRENT_REQUESTS + 1))
+                .tokenizeGraphQL(any(JSONObject.class), eq(false), any(TokenizeCallback.class));
+        verify(braintreeClient, never()).sendGraphQLBatch(anyList());
+        verify(callback).onCardResult(eq(0), (CardNonce) isNull(), any(Exception.class));
+    }
+
+    @Test
+    public void tokenizeAll_withSomeFailures_sendsPartiallySucceededEvent() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configuration(graphQLBatchingEnabledConfig)
+                .build();
+        List<List<GraphQLOperation>> batches = captureGraphQLBatches(braintreeClient);
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(2), callback);
+
+        Exception error = new Exception("error");
+        List<GraphQLOperation> batch = batches.get(0);
+        batch.get(0).getResponseCallback().onResult(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD, null);
+        batch.get(1).getResponseCallback().onResult(null, error);
+
+        verify(callback).onCardResult(eq(0), any(CardNonce.class), (Exception) isNull());
+        verify(callback).onCardResult(1, null, error);
+        verify(callback).onComplete();
+        verify(braintreeClient).sendAnalyticsEvent("card.tokenize-all.partially-succeeded");
+    }
+
+    @Test
+    public void tokenizeAll_propagatesConfigurationFetchErrorToEveryCard() {
+        Exception configError = new Exception("Configuration error.");
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
+                .configurationError(configError)
+                .build();
+        CardTokenizeAllCallback callback = mock(CardTokenizeAllCallback.class);
+
+        CardClient sut = new CardClient(braintreeClient, apiClient);
+        sut.tokenizeAll(createCards(2), callback);
+
+        verify(callback).onCardResult(0, null, configError);
+        verify(callback).onCardResult(1, null, configError);
+        verify(callback).onComplete();
+        verify(braintreeClient).sendAnalyticsEvent("card.tokenize-all.failed");
+    }
+
+    private static List<Card> createCards(int count) {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cards.add(new Card());
+        }
+        return cards;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<GraphQLOperation>> captureGraphQLBatches(BraintreeClient braintreeClient) {
+        final List<List<GraphQLOperation>> batches = new ArrayList<>();
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                batches.add((List<GraphQLOperation>) invocation.getArguments()[0]);
+                return null;
+            }
+        }).when(braintreeClient).sendGraphQLBatch(anyList());
+        return batches;
+    }
+}
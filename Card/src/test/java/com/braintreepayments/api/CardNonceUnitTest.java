@@ -88,6 +88,72 @@ public class CardNonceUnitTest {
         assertEquals("Joe Smith", cardNonce.getCardholderName());
     }
 
+    @Test
+    public void fromJSON_withString_parsesSameCardNonceAsJSONObject() throws JSONException {
+        String[] responses = {
+                Fixtures.PAYMENT_METHOD_CARD,
+                Fixtures.PAYMENT_METHODS_RESPONSE_VISA_CREDIT_CARD,
+                Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD
+        };
+        for (String response : responses) {
+            CardNonce expected = CardNonce.fromJSON(new JSONObject(response));
+            CardNonce cardNonce = CardNonce.fromJSON(response);
+
+            assertEquals(expected.getString(), cardNonce.getString());
+            assertEquals(expected.isDefault(), cardNonce.isDefault());
+            assertEquals(expected.getCardType(), cardNonce.getCardType());
+            assertEquals(expected.getLastTwo(), cardNonce.getLastTwo());
+            assertEquals(expected.getLastFour(), cardNonce.getLastFour());
+            assertEquals(expected.getBin(), cardNonce.getBin());
+            assertEquals(expected.getExpirationMonth(), cardNonce.getExpirationMonth());
+            assertEquals(expected.getExpirationYear(), cardNonce.getExpirationYear());
+            assertEquals(expected.getCardholderName(), cardNonce.getCardholderName());
+            assertBinDataEqual(expected.getBinData(), cardNonce.getBinData());
+            assertEquals(expected.getThreeDSecureInfo().isLiabilityShifted(),
+                    cardNonce.getThreeDSecureInfo().isLiabilityShifted());
+            assertEquals(expected.getThreeDSecureInfo().isLiabilityShiftPossible(),
+                    cardNonce.getThreeDSecureInfo().isLiabilityShiftPossible());
+            assertEquals(expected.getThreeDSecureInfo().wasVerified(),
+                    cardNonce.getThreeDSecureInfo().wasVerified());
+        }
+    }
+
+    @Test
+    public void fromJSON_withString_skipsUnknownFields() throws JSONException {
+        String response = "{" +
+                "\"unknown\": {\"nested\": [1, {\"deeper\": null}]}," +
+                "\"nonce\": \"fake-nonce\"," +
+                "\"type\": \"CreditCard\"," +
+                "\"default\": false," +
+                "\"description\": \"ending in 11\"," +
+                "\"details\": {" +
+                    "\"cardType\": \"Visa\"," +
+                    "\"lastTwo\": \"11\"," +
+                    "\"lastFour\": \"1111\"," +
+                    "\"somethingNew\": [true, false]" +
+                "}" +
+        "}";
+
+        CardNonce cardNonce = CardNonce.fromJSON(response);
+
+        assertEquals("fake-nonce", cardNonce.getString());
+        assertEquals("Visa", cardNonce.getCardType());
+        assertEquals("11", cardNonce.getLastTwo());
+        assertEquals("1111", cardNonce.getLastFour());
+        assertFalse(cardNonce.isDefault());
+        assertEquals(UNKNOWN, cardNonce.getBinData().getPrepaid());
+    }
+
+    @Test(expected = JSONException.class)
+    public void fromJSON_withString_whenNonceIsMissing_throwsJSONException() throws JSONException {
+        CardNonce.fromJSON("{\"details\": {\"cardType\": \"Visa\"}}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void fromJSON_withMalformedString_throwsJSONException() throws JSONException {
+        CardNonce.fromJSON("{\"nonce\": ");
+    }
+
     @Test
     public void fromJSON_withGraphQLTokenizationResponse_parsesCardNonceWithDefaultValues() throws JSONException {
         CardNonce cardNonce = CardNonce.fromJSON(new JSONObject(Fixtures.GRAPHQL_RESPONSE_CREDIT_CARD_MISSING_VALUES));
@@ -7,6 +7,7 @@ import junit.framework.TestCase.assertFalse
 import junit.framework.TestCase.assertNull
 import junit.framework.TestCase.assertTrue
 import org.json.JSONException
+import org.json.JSONObject
 import org.junit.Test
 import org.junit.runner.RunWith
 import org.robolectric.RobolectricTestRunner
@@ -74,6 +75,37 @@ class CardUnitTest {
             "  }" +
             "}"
 
+    @Test
+    fun writeJSON_writesSameFieldsAsBuildJSON() {
+        val card = Card()
+        card.number = VISA
+        card.expirationMonth = "01"
+        card.expirationYear = "2015"
+        card.cvv = "123"
+        card.cardholderName = "Joe Smith"
+        card.firstName = "Joe"
+        card.postalCode = "12345"
+        card.countryCode = "USA"
+        card.shouldValidate = true
+        card.merchantAccountId = "merchant-account-id"
+        card.isAuthenticationInsightRequested = true
+        card.setSessionId("test-session-id")
+
+        val streamed = JSONPayloadHelper.toString { writer -> card.writeJSON(writer) }
+
+        assertEquals(card.buildJSON().toString(), JSONObject(streamed).toString())
+    }
+
+    @Test
+    fun writeJSON_withoutBillingAddress_writesSameFieldsAsBuildJSON() {
+        val card = Card()
+        card.number = VISA
+
+        val streamed = JSONPayloadHelper.toString { writer -> card.writeJSON(writer) }
+
+        assertEquals(card.buildJSON().toString(), JSONObject(streamed).toString())
+    }
+
     @Test
     fun buildJSON_correctlyBuildsACardTokenizationPayload() {
         val card = Card()
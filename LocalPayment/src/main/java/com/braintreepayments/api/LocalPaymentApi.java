@@ -68,7 +68,7 @@ class LocalPaymentApi {
                 public void onResult(String responseBody, Exception httpError) {
                     if (responseBody != null) {
                         try {
-                            LocalPaymentNonce result = LocalPaymentNonce.fromJSON(new JSONObject(responseBody));
+                            LocalPaymentNonce result = LocalPaymentNonce.fromJSON(responseBody);
                             callback.onResult(result, null);
                         } catch (JSONException jsonException) {
                             callback.onResult(null, jsonException);
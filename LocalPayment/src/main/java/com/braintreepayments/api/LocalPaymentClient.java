@@ -326,18 +326,23 @@ public class LocalPaymentClient {
                     @Override
                     public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
                         if (configuration != null) {
-                            localPaymentApi.tokenize(merchantAccountId, responseString, payPalDataCollector.getClientMetadataId(context, configuration, hasUserLocationConsent),
-                                new LocalPaymentBrowserSwitchResultCallback() {
-                                    @Override
-                                    public void onResult(@Nullable LocalPaymentNonce localPaymentNonce, @Nullable Exception error) {
-                                        if (localPaymentNonce != null) {
-                                            sendAnalyticsEvent(paymentType, "local-payment.tokenize.succeeded");
-                                        } else if (error != null) {
-                                            sendAnalyticsEvent(paymentType, "local-payment.tokenize.failed");
-                                        }
-                                        callback.onResult(localPaymentNonce, error);
-                                    }
-                                });
+                            payPalDataCollector.getClientMetadataId(context, configuration, hasUserLocationConsent, new PayPalClientMetadataIdCallback() {
+                                @Override
+                                public void onResult(@Nullable String clientMetadataId) {
+                                    localPaymentApi.tokenize(merchantAccountId, responseString, clientMetadataId,
+                                        new LocalPaymentBrowserSwitchResultCallback() {
+                                            @Override
+                                            public void onResult(@Nullable LocalPaymentNonce localPaymentNonce, @Nullable Exception error) {
+                                                if (localPaymentNonce != null) {
+                                                    sendAnalyticsEvent(paymentType, "local-payment.tokenize.succeeded");
+                                                } else if (error != null) {
+                                                    sendAnalyticsEvent(paymentType, "local-payment.tokenize.failed");
+                                                }
+                                                callback.onResult(localPaymentNonce, error);
+                                            }
+                                        });
+                                }
+                            });
                         } else if (error != null) {
                             callback.onResult(null, error);
                         }
@@ -1,6 +1,7 @@
 package com.braintreepayments.api;
 
 import android.os.Parcel;
+import android.util.JsonReader;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -8,6 +9,9 @@ import androidx.annotation.Nullable;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.StringReader;
+
 /**
  * {@link PaymentMethodNonce} representing a local payment.
  *
@@ -89,6 +93,182 @@ public class LocalPaymentNonce extends PaymentMethodNonce {
         return new LocalPaymentNonce(clientMetadataId, billingAddress, shippingAddress, givenName, surname, phone, email, payerId, type, nonce, isDefault);
     }
 
+    /**
+     * Parse a local payment nonce from a tokenization response in a single pass, without building
+     * a JSON tree. Fields that are not part of a {@link LocalPaymentNonce} are skipped.
+     */
+    static LocalPaymentNonce fromJSON(String jsonString) throws JSONException {
+        JsonReader reader = new JsonReader(new StringReader(jsonString));
+        try {
+            LocalPaymentNonce nonce = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (API_RESOURCE_KEY.equals(reader.nextName())) {
+                    nonce = readPaymentMethods(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            if (nonce == null) {
+                throw new JSONException("No value for " + API_RESOURCE_KEY);
+            }
+            return nonce;
+        } catch (IOException | IllegalStateException e) {
+            throw Json.toJSONException(e);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {}
+        }
+    }
+
+    private static LocalPaymentNonce readPaymentMethods(JsonReader reader) throws IOException, JSONException {
+        LocalPaymentNonce nonce = null;
+        reader.beginArray();
+        if (reader.hasNext()) {
+            nonce = readPaymentMethod(reader);
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
+        }
+        reader.endArray();
+        return nonce;
+    }
+
+    private static LocalPaymentNonce readPaymentMethod(JsonReader reader) throws IOException, JSONException {
+        String nonce = null;
+        boolean isDefault = false;
+        String type = "PayPalAccount";
+        Details details = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case PAYMENT_METHOD_NONCE_KEY:
+                    nonce = Json.nextString(reader, null);
+                    break;
+                case PAYMENT_METHOD_DEFAULT_KEY:
+                    isDefault = Json.nextBoolean(reader, false);
+                    break;
+                case TYPE_KEY:
+                    type = Json.nextString(reader, "PayPalAccount");
+                    break;
+                case DETAILS_KEY:
+                    details = Details.read(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (details == null) {
+            throw new JSONException("No value for " + DETAILS_KEY);
+        }
+        if (nonce == null) {
+            throw new JSONException("No value for " + PAYMENT_METHOD_NONCE_KEY);
+        }
+
+        String email = (details.email != null) ? details.email : details.payerInfoEmail;
+        if (!details.hasPayerInfo) {
+            return new LocalPaymentNonce(details.clientMetadataId, new PostalAddress(), new PostalAddress(), null, null, null, email, null, type, nonce, isDefault);
+        }
+
+        PostalAddress billingAddress = details.hasAccountAddress ? details.accountAddress : details.billingAddress;
+        return new LocalPaymentNonce(details.clientMetadataId, orEmpty(billingAddress), orEmpty(details.shippingAddress), details.givenName, details.surname, details.phone, email, details.payerId, type, nonce, isDefault);
+    }
+
+    private static PostalAddress orEmpty(PostalAddress address) {
+        return (address != null) ? address : new PostalAddress();
+    }
+
+    /**
+     * Fields of the {@code details} object, collected while streaming since they can appear in
+     * any order.
+     */
+    private static class Details {
+
+        private String email;
+        private String clientMetadataId;
+        private boolean hasPayerInfo;
+        private String payerInfoEmail;
+        private String givenName = "";
+        private String surname = "";
+        private String phone = "";
+        private String payerId = "";
+        private boolean hasAccountAddress;
+        private PostalAddress accountAddress;
+        private PostalAddress billingAddress;
+        private PostalAddress shippingAddress;
+
+        static Details read(JsonReader reader) throws IOException {
+            Details details = new Details();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case EMAIL_KEY:
+                        details.email = Json.nextString(reader, null);
+                        break;
+                    case CLIENT_METADATA_ID_KEY:
+                        details.clientMetadataId = Json.nextString(reader, null);
+                        break;
+                    case PAYER_INFO_KEY:
+                        if (Json.nextIsObject(reader)) {
+                            details.hasPayerInfo = true;
+                            details.readPayerInfo(reader);
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return details;
+        }
+
+        private void readPayerInfo(JsonReader reader) throws IOException {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case ACCOUNT_ADDRESS_KEY:
+                        hasAccountAddress = true;
+                        accountAddress = readAddress(reader);
+                        break;
+                    case BILLING_ADDRESS_KEY:
+                        billingAddress = readAddress(reader);
+                        break;
+                    case SHIPPING_ADDRESS_KEY:
+                        shippingAddress = readAddress(reader);
+                        break;
+                    case FIRST_NAME_KEY:
+                        givenName = Json.nextString(reader, "");
+                        break;
+                    case LAST_NAME_KEY:
+                        surname = Json.nextString(reader, "");
+                        break;
+                    case PHONE_KEY:
+                        phone = Json.nextString(reader, "");
+                        break;
+                    case PAYER_ID_KEY:
+                        payerId = Json.nextString(reader, "");
+                        break;
+                    case EMAIL_KEY:
+                        payerInfoEmail = Json.nextString(reader, null);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        private static PostalAddress readAddress(JsonReader reader) throws IOException {
+            return PostalAddressParser.fromJsonReader(reader);
+        }
+    }
+
     private LocalPaymentNonce(String clientMetadataId, PostalAddress billingAddress, PostalAddress shippingAddress, String givenName, String surname, String phone, String email, String payerId, String type, String nonce, boolean isDefault) {
         super(nonce, isDefault);
         this.clientMetadataId = clientMetadataId;
@@ -11,6 +11,7 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -31,6 +32,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 
@@ -48,6 +51,7 @@ public class LocalPaymentClientUnitTest {
 
     private Configuration payPalEnabledConfig;
     private Configuration payPalDisabledConfig;
+    private String clientMetadataId;
 
     @Before
     public void beforeEach() throws JSONException {
@@ -62,6 +66,17 @@ public class LocalPaymentClientUnitTest {
 
         payPalEnabledConfig = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL);
         payPalDisabledConfig = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_DISABLED_PAYPAL);
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                PayPalClientMetadataIdCallback callback =
+                        (PayPalClientMetadataIdCallback) invocation.getArguments()[3];
+                callback.onResult(clientMetadataId);
+                return null;
+            }
+        }).when(payPalDataCollector).getClientMetadataId(any(Context.class), any(Configuration.class),
+                anyBoolean(), any(PayPalClientMetadataIdCallback.class));
     }
 
     @Test
@@ -143,7 +158,7 @@ public class LocalPaymentClientUnitTest {
                 .integration("sample-integration-type")
                 .build();
         when(braintreeClient.getApplicationContext()).thenReturn(activity);
-        when(payPalDataCollector.getClientMetadataId(activity, payPalEnabledConfig, false)).thenReturn("sample-correlation-id");
+        clientMetadataId = "sample-correlation-id";
 
         LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
         sut.pendingBrowserSwitchResult = browserSwitchResult;
@@ -579,7 +594,7 @@ public class LocalPaymentClientUnitTest {
                 .tokenizeError(postError)
                 .build();
 
-        when(payPalDataCollector.getClientMetadataId(activity, payPalEnabledConfig, false)).thenReturn("sample-correlation-id");
+        clientMetadataId = "sample-correlation-id";
 
         LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
         sut.setListener(listener);
@@ -610,7 +625,7 @@ public class LocalPaymentClientUnitTest {
                 .sessionId("sample-session-id")
                 .integration("sample-integration-type")
                 .build();
-        when(payPalDataCollector.getClientMetadataId(activity, payPalEnabledConfig, false)).thenReturn("sample-correlation-id");
+        clientMetadataId = "sample-correlation-id";
 
         LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
         sut.setListener(listener);
@@ -636,7 +651,7 @@ public class LocalPaymentClientUnitTest {
                 .integration("custom")
                 .sessionId("session-id")
                 .build();
-        when(payPalDataCollector.getClientMetadataId(any(Context.class), same(payPalEnabledConfig), anyBoolean())).thenReturn("client-metadata-id");
+        clientMetadataId = "client-metadata-id";
 
         LocalPaymentNonce successNonce = LocalPaymentNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHODS_LOCAL_PAYMENT_RESPONSE));
         LocalPaymentApi localPaymentApi = new MockLocalPaymentApiBuilder()
@@ -671,7 +686,7 @@ public class LocalPaymentClientUnitTest {
                 .tokenizeSuccess(LocalPaymentNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHODS_LOCAL_PAYMENT_RESPONSE)))
                 .build();
 
-        when(payPalDataCollector.getClientMetadataId(any(Context.class), same(payPalEnabledConfig), anyBoolean())).thenReturn("client-metadata-id");
+        clientMetadataId = "client-metadata-id";
 
         AnalyticsEventParams expectedPayload = new AnalyticsEventParams();
         ArgumentCaptor<AnalyticsEventParams> payloadCaptor = ArgumentCaptor.forClass(AnalyticsEventParams.class);
@@ -706,7 +721,7 @@ public class LocalPaymentClientUnitTest {
                 .sessionId("sample-session-id")
                 .integration("sample-integration-type")
                 .build();
-        when(payPalDataCollector.getClientMetadataId(activity, payPalEnabledConfig, false)).thenReturn("sample-correlation-id");
+        clientMetadataId = "sample-correlation-id";
 
         LocalPaymentClient sut = new LocalPaymentClient(activity, lifecycle, braintreeClient, payPalDataCollector, localPaymentApi);
         sut.setListener(listener);
@@ -853,7 +868,7 @@ public class LocalPaymentClientUnitTest {
             .integration("custom")
             .sessionId("session-id")
             .build();
-        when(payPalDataCollector.getClientMetadataId(any(Context.class), same(payPalEnabledConfig), anyBoolean())).thenReturn("client-metadata-id");
+        clientMetadataId = "client-metadata-id";
 
         LocalPaymentNonce successNonce = LocalPaymentNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHODS_LOCAL_PAYMENT_RESPONSE));
         LocalPaymentResult localPaymentResult = mock(LocalPaymentResult.class);
@@ -870,7 +885,8 @@ public class LocalPaymentClientUnitTest {
         sut.setListener(listener);
         sut.onBrowserSwitchResult(activity, browserSwitchResult);
 
-        verify(payPalDataCollector).getClientMetadataId(any(), same(payPalEnabledConfig), eq(true));
+        verify(payPalDataCollector).getClientMetadataId(any(), same(payPalEnabledConfig), eq(true),
+                any(PayPalClientMetadataIdCallback.class));
     }
 
     private LocalPaymentRequest getIdealLocalPaymentRequest() {
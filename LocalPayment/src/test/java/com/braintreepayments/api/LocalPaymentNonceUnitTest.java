@@ -34,6 +34,31 @@ public class LocalPaymentNonceUnitTest {
         assertEquals("084afbf1db15445587d30bc120a23b09", result.getClientMetadataId());
     }
 
+    @Test
+    public void fromJson_withString_parsesResponse() throws JSONException {
+        LocalPaymentNonce result = LocalPaymentNonce.fromJSON(Fixtures.PAYMENT_METHODS_LOCAL_PAYMENT_RESPONSE);
+
+        assertNotNull(result);
+        assertEquals("e11c9c39-d6a4-0305-791d-bfe680ef2d5d", result.getString());
+        assertEquals("jon@getbraintree.com", result.getEmail());
+        assertEquals("836486 of 22321 Park Lake", result.getShippingAddress().getStreetAddress());
+        assertEquals("Apt B", result.getShippingAddress().getExtendedAddress());
+        assertEquals("Den Haag", result.getShippingAddress().getLocality());
+        assertEquals("CA", result.getShippingAddress().getRegion());
+        assertEquals("2585 GJ", result.getShippingAddress().getPostalCode());
+        assertEquals("NL", result.getShippingAddress().getCountryCodeAlpha2());
+        assertEquals("Jon Doe", result.getShippingAddress().getRecipientName());
+        assertEquals("Jon", result.getGivenName());
+        assertEquals("Doe", result.getSurname());
+        assertEquals("9KQSUZTL7YZQ4", result.getPayerId());
+        assertEquals("084afbf1db15445587d30bc120a23b09", result.getClientMetadataId());
+    }
+
+    @Test(expected = JSONException.class)
+    public void fromJson_withString_whenPaypalAccountsIsMissing_throwsJSONException() throws JSONException {
+        LocalPaymentNonce.fromJSON("{\"creditCards\": []}");
+    }
+
     @Test
     public void parcelsCorrectly() throws JSONException {
         LocalPaymentNonce result = LocalPaymentNonce.fromJSON(new JSONObject(Fixtures.PAYMENT_METHODS_LOCAL_PAYMENT_RESPONSE));
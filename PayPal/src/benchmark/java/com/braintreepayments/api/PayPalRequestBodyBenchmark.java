@@ -0,0 +1,120 @@
+package com.braintreepayments.api;
+
+import android.util.JsonWriter;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares building a {@link JSONObject} tree for a large cart against streaming the same line
+ * items with {@link JsonWriter} into a reused buffer, and prints the time and bytes allocated per
+ * request body. {@link PayPalRequestBodyEquivalenceUnitTest} checks that both produce the same JSON.
+ * <p>
+ * Run with {@code ./gradlew :PayPal:testDebugUnitTest -Pbenchmarks --tests '*Benchmark'}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PayPalRequestBodyBenchmark {
+
+    private static final int LINE_ITEM_COUNT = 500;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 100;
+
+    private List<PayPalLineItem> lineItems;
+
+    @Before
+    public void beforeEach() {
+        lineItems = new ArrayList<>();
+        for (int i = 0; i < LINE_ITEM_COUNT; i++) {
+            PayPalLineItem item = new PayPalLineItem(PayPalLineItem.KIND_DEBIT, "Item " + i, "1", "10.00");
+            item.setDescription("Description of item " + i);
+            item.setProductCode("product-" + i);
+            item.setUnitTaxAmount("0.80");
+            item.setUrl("https://example.com/items/" + i);
+            lineItems.add(item);
+        }
+    }
+
+    @Test
+    public void benchmark_treeVersusStreaming() throws Exception {
+        StringWriter buffer = new StringWriter();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            buildTree();
+            stream(buffer);
+        }
+
+        long treeBytesStart = allocatedBytes();
+        long treeStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            buildTree();
+        }
+        long treeNanos = System.nanoTime() - treeStart;
+        long treeBytesEnd = allocatedBytes();
+
+        long streamBytesStart = allocatedBytes();
+        long streamStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            stream(buffer);
+        }
+        long streamNanos = System.nanoTime() - streamStart;
+        long streamBytesEnd = allocatedBytes();
+
+        System.out.println(String.format(
+                "%d line items, %d iterations%n  tree:      %d us/op, %s bytes/op%n  streaming: %d us/op, %s bytes/op",
+                LINE_ITEM_COUNT, ITERATIONS,
+                treeNanos / ITERATIONS / 1000, perOp(treeBytesStart, treeBytesEnd),
+                streamNanos / ITERATIONS / 1000, perOp(streamBytesStart, streamBytesEnd)));
+    }
+
+    private String buildTree() throws JSONException {
+        JSONArray items = new JSONArray();
+        for (PayPalLineItem lineItem : lineItems) {
+            items.put(lineItem.toJson());
+        }
+        return new JSONObject().put("line_items", items).toString();
+    }
+
+    private String stream(StringWriter buffer) throws IOException {
+        buffer.getBuffer().setLength(0);
+        JsonWriter writer = new JsonWriter(buffer);
+        writer.beginObject();
+        writer.name("line_items").beginArray();
+        for (PayPalLineItem lineItem : lineItems) {
+            lineItem.writeJson(writer);
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+        return buffer.toString();
+    }
+
+    private static String perOp(long start, long end) {
+        return (start < 0) ? "n/a" : String.valueOf((end - start) / ITERATIONS);
+    }
+
+    /**
+     * @return bytes allocated by the current thread so far, or a negative value if the JVM does
+     * not support allocation tracking.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
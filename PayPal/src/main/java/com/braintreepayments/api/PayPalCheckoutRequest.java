@@ -3,15 +3,13 @@ package com.braintreepayments.api;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
+import java.io.IOException;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
@@ -184,31 +182,31 @@ public class PayPalCheckoutRequest extends PayPalRequest implements Parcelable {
         return shouldRequestBillingAgreement;
     }
 
-    String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException {
-        JSONObject parameters = new JSONObject()
-                .put(RETURN_URL_KEY, successUrl)
-                .put(CANCEL_URL_KEY, cancelUrl)
-                .put(OFFER_PAY_LATER_KEY, shouldOfferPayLater);
+    @Override
+    void writeRequestBody(JsonWriter writer, Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws IOException {
+        Json.writeOpt(writer, RETURN_URL_KEY, successUrl);
+        Json.writeOpt(writer, CANCEL_URL_KEY, cancelUrl);
+        writer.name(OFFER_PAY_LATER_KEY).value(shouldOfferPayLater);
 
         if (authorization instanceof ClientToken) {
-            parameters.put(AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
+            Json.writeOpt(writer, AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
         } else {
-            parameters.put(TOKENIZATION_KEY, authorization.getBearer());
+            Json.writeOpt(writer, TOKENIZATION_KEY, authorization.getBearer());
         }
 
         if (shouldRequestBillingAgreement) {
-            parameters.put(REQUEST_BILLING_AGREEMENT_KEY, true);
+            writer.name(REQUEST_BILLING_AGREEMENT_KEY).value(true);
         }
 
         String billingAgreementDescription = getBillingAgreementDescription();
         if (shouldRequestBillingAgreement && !TextUtils.isEmpty(billingAgreementDescription)) {
-            JSONObject details = new JSONObject()
-                    .put(DESCRIPTION_KEY, billingAgreementDescription);
-            parameters.put(BILLING_AGREEMENT_DETAILS_KEY, details);
+            writer.name(BILLING_AGREEMENT_DETAILS_KEY).beginObject();
+            writer.name(DESCRIPTION_KEY).value(billingAgreementDescription);
+            writer.endObject();
         }
 
         if (userAuthenticationEmail != null && !userAuthenticationEmail.isEmpty()) {
-            parameters.put(PAYER_EMAIL_KEY, userAuthenticationEmail);
+            writer.name(PAYER_EMAIL_KEY).value(userAuthenticationEmail);
         }
 
         String currencyCode = getCurrencyCode();
@@ -216,61 +214,60 @@ public class PayPalCheckoutRequest extends PayPalRequest implements Parcelable {
             currencyCode = configuration.getPayPalCurrencyIsoCode();
         }
 
-        parameters
-                .put(AMOUNT_KEY, amount)
-                .put(CURRENCY_ISO_CODE_KEY, currencyCode)
-                .put(INTENT_KEY, intent);
+        Json.writeOpt(writer, AMOUNT_KEY, amount);
+        Json.writeOpt(writer, CURRENCY_ISO_CODE_KEY, currencyCode);
+        Json.writeOpt(writer, INTENT_KEY, intent);
 
         if (!getLineItems().isEmpty()) {
-            JSONArray lineItems = new JSONArray();
+            writer.name(LINE_ITEMS_KEY).beginArray();
             for (PayPalLineItem lineItem : getLineItems()) {
-                lineItems.put(lineItem.toJson());
+                lineItem.writeJson(writer);
             }
-            parameters.put(LINE_ITEMS_KEY, lineItems);
+            writer.endArray();
         }
 
-        JSONObject experienceProfile = new JSONObject();
-        experienceProfile.put(NO_SHIPPING_KEY, !isShippingAddressRequired());
-        experienceProfile.put(LANDING_PAGE_TYPE_KEY, getLandingPageType());
+        PostalAddress shippingAddress = getShippingAddressOverride();
+        if (shippingAddress != null) {
+            Json.writeOpt(writer, PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress());
+            Json.writeOpt(writer, PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress());
+            Json.writeOpt(writer, PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality());
+            Json.writeOpt(writer, PostalAddressParser.REGION_KEY, shippingAddress.getRegion());
+            Json.writeOpt(writer, PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode());
+            Json.writeOpt(writer, PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2());
+            Json.writeOpt(writer, PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
+        }
+
+        if (getMerchantAccountId() != null) {
+            writer.name(MERCHANT_ACCOUNT_ID).value(getMerchantAccountId());
+        }
+
+        if (getRiskCorrelationId() != null) {
+            writer.name(CORRELATION_ID_KEY).value(getRiskCorrelationId());
+        }
+
+        writer.name(EXPERIENCE_PROFILE_KEY).beginObject();
+        writer.name(NO_SHIPPING_KEY).value(!isShippingAddressRequired());
+        Json.writeOpt(writer, LANDING_PAGE_TYPE_KEY, getLandingPageType());
         String displayName = getDisplayName();
         if (TextUtils.isEmpty(displayName)) {
             displayName = configuration.getPayPalDisplayName();
         }
-        experienceProfile.put(DISPLAY_NAME_KEY, displayName);
+        Json.writeOpt(writer, DISPLAY_NAME_KEY, displayName);
 
         if (getLocaleCode() != null) {
-            experienceProfile.put(LOCALE_CODE_KEY, getLocaleCode());
+            writer.name(LOCALE_CODE_KEY).value(getLocaleCode());
         }
 
         if (getUserAction() != USER_ACTION_DEFAULT) {
-            experienceProfile.put(USER_ACTION_KEY, getUserAction());
+            Json.writeOpt(writer, USER_ACTION_KEY, getUserAction());
         }
 
-        if (getShippingAddressOverride() != null) {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, !isShippingAddressEditable());
-
-            PostalAddress shippingAddress = getShippingAddressOverride();
-            parameters.put(PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress());
-            parameters.put(PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress());
-            parameters.put(PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality());
-            parameters.put(PostalAddressParser.REGION_KEY, shippingAddress.getRegion());
-            parameters.put(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode());
-            parameters.put(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2());
-            parameters.put(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
+        if (shippingAddress != null) {
+            writer.name(ADDRESS_OVERRIDE_KEY).value(!isShippingAddressEditable());
         } else {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, false);
-        }
-
-        if (getMerchantAccountId() != null) {
-            parameters.put(MERCHANT_ACCOUNT_ID, getMerchantAccountId());
+            writer.name(ADDRESS_OVERRIDE_KEY).value(false);
         }
-
-        if (getRiskCorrelationId() != null) {
-            parameters.put(CORRELATION_ID_KEY, getRiskCorrelationId());
-        }
-
-        parameters.put(EXPERIENCE_PROFILE_KEY, experienceProfile);
-        return parameters.toString();
+        writer.endObject();
     }
 
     PayPalCheckoutRequest(Parcel in) {
@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import android.content.Context;
 import android.net.Uri;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 
@@ -41,73 +42,60 @@ class PayPalInternalClient {
                                 callback.onResult(null, configError);
                                 return;
                             }
-                            try {
-                                final boolean isBillingAgreement = payPalRequest instanceof PayPalVaultRequest;
-                                String endpoint = isBillingAgreement
-                                        ? SETUP_BILLING_AGREEMENT_ENDPOINT : CREATE_SINGLE_PAYMENT_ENDPOINT;
-                                String url = String.format("/v1/%s", endpoint);
-
-                                String cancelUrl;
-                                String successUrl;
-                                if (payPalRequest.isAppLinkEnabled() && braintreeClient.getAppLinkReturnUri() != null) {
-                                    String appLink = braintreeClient.getAppLinkReturnUri().toString();
-                                    cancelUrl = String.format("%s/cancel", appLink);
-                                    successUrl = String.format("%s/success", appLink);
-                                } else {
-                                    cancelUrl = String.format("%s://onetouch/v1/cancel", braintreeClient.getReturnUrlScheme());
-                                    successUrl = String.format("%s://onetouch/v1/success", braintreeClient.getReturnUrlScheme());
-                                }
+                            final boolean isBillingAgreement = payPalRequest instanceof PayPalVaultRequest;
+                            String endpoint = isBillingAgreement
+                                    ? SETUP_BILLING_AGREEMENT_ENDPOINT : CREATE_SINGLE_PAYMENT_ENDPOINT;
+                            String url = String.format("/v1/%s", endpoint);
+
+                            String cancelUrl;
+                            String successUrl;
+                            if (payPalRequest.isAppLinkEnabled() && braintreeClient.getAppLinkReturnUri() != null) {
+                                String appLink = braintreeClient.getAppLinkReturnUri().toString();
+                                cancelUrl = String.format("%s/cancel", appLink);
+                                successUrl = String.format("%s/success", appLink);
+                            } else {
+                                cancelUrl = String.format("%s://onetouch/v1/cancel", braintreeClient.getReturnUrlScheme());
+                                successUrl = String.format("%s://onetouch/v1/success", braintreeClient.getReturnUrlScheme());
+                            }
+
+                            JSONPayloadWriter requestBody = writer -> payPalRequest.writeRequestBody(writer, configuration, authorization, successUrl, cancelUrl);
+
+                            braintreeClient.sendJSONPOST(url, requestBody, new HttpResponseCallback() {
+
+                                @Override
+                                public void onResult(String responseBody, Exception httpError) {
+                                    if (responseBody != null) {
+                                        try {
+                                            PayPalResponse payPalResponse = new PayPalResponse(payPalRequest)
+                                                    .successUrl(successUrl);
 
-                                String requestBody = payPalRequest.createRequestBody(configuration, authorization, successUrl, cancelUrl);
-
-                                braintreeClient.sendPOST(url, requestBody, new HttpResponseCallback() {
-
-                                    @Override
-                                    public void onResult(String responseBody, Exception httpError) {
-                                        if (responseBody != null) {
-                                            try {
-                                                PayPalResponse payPalResponse = new PayPalResponse(payPalRequest)
-                                                        .successUrl(successUrl);
-
-                                                PayPalPaymentResource paypalPaymentResource = PayPalPaymentResource.fromJson(responseBody);
-                                                String redirectUrl = paypalPaymentResource.getRedirectUrl();
-                                                if (redirectUrl != null) {
-                                                    Uri parsedRedirectUri = Uri.parse(redirectUrl);
-                                                    String pairingId = findPairingId(parsedRedirectUri);
-
-                                                    String clientMetadataId = payPalRequest.getRiskCorrelationId();
-                                                    if (clientMetadataId == null) {
-                                                        PayPalDataCollectorInternalRequest dataCollectorRequest =
-                                                                new PayPalDataCollectorInternalRequest(payPalRequest.hasUserLocationConsent())
-                                                                        .setApplicationGuid(payPalDataCollector.getPayPalInstallationGUID(context));
-
-                                                        if (pairingId != null) {
-                                                            dataCollectorRequest.setRiskCorrelationId(pairingId);
-                                                        }
-                                                        clientMetadataId = payPalDataCollector.getClientMetadataId(context, dataCollectorRequest, configuration);
-                                                    }
-
-                                                    if (pairingId != null) {
-                                                        payPalResponse.pairingId(pairingId);
-                                                    }
-
-                                                    payPalResponse
-                                                            .clientMetadataId(clientMetadataId)
-                                                            .approvalUrl(parsedRedirectUri.toString());
+                                            PayPalPaymentResource paypalPaymentResource = PayPalPaymentResource.fromJson(responseBody);
+                                            String redirectUrl = paypalPaymentResource.getRedirectUrl();
+                                            if (redirectUrl != null) {
+                                                Uri parsedRedirectUri = Uri.parse(redirectUrl);
+                                                String pairingId = findPairingId(parsedRedirectUri);
+
+                                                if (pairingId != null) {
+                                                    payPalResponse.pairingId(pairingId);
                                                 }
-                                                callback.onResult(payPalResponse, null);
+                                                payPalResponse.approvalUrl(parsedRedirectUri.toString());
 
-                                            } catch (JSONException exception) {
-                                                callback.onResult(null, exception);
+                                                if (payPalRequest.getRiskCorrelationId() == null) {
+                                                    sendResponseWithClientMetadataId(context, configuration, payPalRequest, payPalResponse, pairingId, callback);
+                                                    return;
+                                                }
+                                                payPalResponse.clientMetadataId(payPalRequest.getRiskCorrelationId());
                                             }
-                                        } else {
-                                            callback.onResult(null, httpError);
+                                            callback.onResult(payPalResponse, null);
+
+                                        } catch (JSONException exception) {
+                                            callback.onResult(null, exception);
                                         }
+                                    } else {
+                                        callback.onResult(null, httpError);
                                     }
-                                });
-                            } catch (JSONException exception) {
-                                callback.onResult(null, exception);
-                            }
+                                }
+                            });
                         }
                     });
                 } else {
@@ -136,6 +124,26 @@ class PayPalInternalClient {
         });
     }
 
+    private void sendResponseWithClientMetadataId(final Context context, final Configuration configuration,
+                                                  final PayPalRequest payPalRequest, final PayPalResponse payPalResponse,
+                                                  final String pairingId, final PayPalInternalClientCallback callback) {
+        payPalDataCollector.getPayPalInstallationGUID(context, new UUIDCallback() {
+            @Override
+            public void onResult(@NonNull String installationGUID) {
+                PayPalDataCollectorInternalRequest dataCollectorRequest =
+                        new PayPalDataCollectorInternalRequest(payPalRequest.hasUserLocationConsent())
+                                .setApplicationGuid(installationGUID);
+
+                if (pairingId != null) {
+                    dataCollectorRequest.setRiskCorrelationId(pairingId);
+                }
+                payPalResponse.clientMetadataId(
+                        payPalDataCollector.getClientMetadataId(context, dataCollectorRequest, configuration));
+                callback.onResult(payPalResponse, null);
+            }
+        });
+    }
+
     private String findPairingId(Uri redirectUri) {
         String pairingId = redirectUri.getQueryParameter("ba_token");
         if (pairingId == null) {
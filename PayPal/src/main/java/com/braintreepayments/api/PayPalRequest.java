@@ -2,6 +2,7 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonWriter;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -9,6 +10,8 @@ import androidx.annotation.StringDef;
 
 import org.json.JSONException;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.ArrayList;
@@ -316,7 +319,26 @@ public abstract class PayPalRequest implements Parcelable {
         return this.userAuthenticationEmail;
     }
 
-    abstract String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException;
+    /**
+     * Write the fields of the request body to an open JSON object. The body is streamed with
+     * {@link JsonWriter} instead of being built as a tree of JSONObjects, which matters for
+     * requests with many line items.
+     */
+    abstract void writeRequestBody(JsonWriter writer, Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws IOException;
+
+    String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException {
+        StringWriter out = new StringWriter();
+        try {
+            JsonWriter writer = new JsonWriter(out);
+            writer.beginObject();
+            writeRequestBody(writer, configuration, authorization, successUrl, cancelUrl);
+            writer.endObject();
+            writer.close();
+        } catch (IOException e) {
+            throw Json.toJSONException(e);
+        }
+        return out.toString();
+    }
 
     protected PayPalRequest(Parcel in) {
         localeCode = in.readString();
@@ -3,11 +3,11 @@ package com.braintreepayments.api;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import androidx.annotation.Nullable;
 
-import org.json.JSONException;
-import org.json.JSONObject;
+import java.io.IOException;
 
 /**
  * Represents the parameters that are needed to start the PayPal Vault flow
@@ -50,66 +50,65 @@ public class PayPalVaultRequest extends PayPalRequest implements Parcelable {
         return shouldOfferCredit;
     }
 
-    String createRequestBody(Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws JSONException {
-        JSONObject parameters = new JSONObject()
-                .put(RETURN_URL_KEY, successUrl)
-                .put(CANCEL_URL_KEY, cancelUrl)
-                .put(OFFER_CREDIT_KEY, shouldOfferCredit);
+    @Override
+    void writeRequestBody(JsonWriter writer, Configuration configuration, Authorization authorization, String successUrl, String cancelUrl) throws IOException {
+        Json.writeOpt(writer, RETURN_URL_KEY, successUrl);
+        Json.writeOpt(writer, CANCEL_URL_KEY, cancelUrl);
+        writer.name(OFFER_CREDIT_KEY).value(shouldOfferCredit);
 
         if (authorization instanceof ClientToken) {
-            parameters.put(AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
+            Json.writeOpt(writer, AUTHORIZATION_FINGERPRINT_KEY, authorization.getBearer());
         } else {
-            parameters.put(TOKENIZATION_KEY, authorization.getBearer());
+            Json.writeOpt(writer, TOKENIZATION_KEY, authorization.getBearer());
         }
 
         String billingAgreementDescription = getBillingAgreementDescription();
         if (!TextUtils.isEmpty(billingAgreementDescription)) {
-            parameters.put(DESCRIPTION_KEY, billingAgreementDescription);
+            writer.name(DESCRIPTION_KEY).value(billingAgreementDescription);
+        }
+
+        Json.writeOpt(writer, PAYER_EMAIL_KEY, userAuthenticationEmail);
+
+        PostalAddress shippingAddress = getShippingAddressOverride();
+        if (shippingAddress != null) {
+            writer.name(SHIPPING_ADDRESS_KEY).beginObject();
+            Json.writeOpt(writer, PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress());
+            Json.writeOpt(writer, PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress());
+            Json.writeOpt(writer, PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality());
+            Json.writeOpt(writer, PostalAddressParser.REGION_KEY, shippingAddress.getRegion());
+            Json.writeOpt(writer, PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode());
+            Json.writeOpt(writer, PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2());
+            Json.writeOpt(writer, PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
+            writer.endObject();
         }
 
-        parameters.putOpt(PAYER_EMAIL_KEY, userAuthenticationEmail);
+        if (getMerchantAccountId() != null) {
+            writer.name(MERCHANT_ACCOUNT_ID).value(getMerchantAccountId());
+        }
 
-        JSONObject experienceProfile = new JSONObject();
-        experienceProfile.put(NO_SHIPPING_KEY, !isShippingAddressRequired());
-        experienceProfile.put(LANDING_PAGE_TYPE_KEY, getLandingPageType());
+        if (getRiskCorrelationId() != null) {
+            writer.name(CORRELATION_ID_KEY).value(getRiskCorrelationId());
+        }
+
+        writer.name(EXPERIENCE_PROFILE_KEY).beginObject();
+        writer.name(NO_SHIPPING_KEY).value(!isShippingAddressRequired());
+        Json.writeOpt(writer, LANDING_PAGE_TYPE_KEY, getLandingPageType());
         String displayName = getDisplayName();
         if (TextUtils.isEmpty(displayName)) {
             displayName = configuration.getPayPalDisplayName();
         }
-        experienceProfile.put(DISPLAY_NAME_KEY, displayName);
+        Json.writeOpt(writer, DISPLAY_NAME_KEY, displayName);
 
         if (getLocaleCode() != null) {
-            experienceProfile.put(LOCALE_CODE_KEY, getLocaleCode());
+            writer.name(LOCALE_CODE_KEY).value(getLocaleCode());
         }
 
-        if (getShippingAddressOverride() != null) {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, !isShippingAddressEditable());
-
-            JSONObject shippingAddressJson = new JSONObject();
-            parameters.put(SHIPPING_ADDRESS_KEY, shippingAddressJson);
-
-            PostalAddress shippingAddress = getShippingAddressOverride();
-            shippingAddressJson.put(PostalAddressParser.LINE_1_KEY, shippingAddress.getStreetAddress());
-            shippingAddressJson.put(PostalAddressParser.LINE_2_KEY, shippingAddress.getExtendedAddress());
-            shippingAddressJson.put(PostalAddressParser.LOCALITY_KEY, shippingAddress.getLocality());
-            shippingAddressJson.put(PostalAddressParser.REGION_KEY, shippingAddress.getRegion());
-            shippingAddressJson.put(PostalAddressParser.POSTAL_CODE_UNDERSCORE_KEY, shippingAddress.getPostalCode());
-            shippingAddressJson.put(PostalAddressParser.COUNTRY_CODE_UNDERSCORE_KEY, shippingAddress.getCountryCodeAlpha2());
-            shippingAddressJson.put(PostalAddressParser.RECIPIENT_NAME_UNDERSCORE_KEY, shippingAddress.getRecipientName());
+        if (shippingAddress != null) {
+            writer.name(ADDRESS_OVERRIDE_KEY).value(!isShippingAddressEditable());
         } else {
-            experienceProfile.put(ADDRESS_OVERRIDE_KEY, false);
-        }
-
-        if (getMerchantAccountId() != null) {
-            parameters.put(MERCHANT_ACCOUNT_ID, getMerchantAccountId());
+            writer.name(ADDRESS_OVERRIDE_KEY).value(false);
         }
-
-        if (getRiskCorrelationId() != null) {
-            parameters.put(CORRELATION_ID_KEY, getRiskCorrelationId());
-        }
-
-        parameters.put(EXPERIENCE_PROFILE_KEY, experienceProfile);
-        return parameters.toString();
+        writer.endObject();
     }
 
     PayPalVaultRequest(Parcel in) {
@@ -9,6 +9,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,6 +24,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 
@@ -53,6 +56,15 @@ public class PayPalInternalClientUnitTest {
         payPalDataCollector = mock(PayPalDataCollector.class);
         apiClient = mock(ApiClient.class);
         payPalInternalClientCallback = mock(PayPalInternalClientCallback.class);
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                UUIDCallback callback = (UUIDCallback) invocation.getArguments()[1];
+                callback.onResult("sample-installation-guid");
+                return null;
+            }
+        }).when(payPalDataCollector).getPayPalInstallationGUID(any(Context.class), any(UUIDCallback.class));
     }
 
     @Test
@@ -88,11 +100,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(eq("/v1/paypal_hermes/setup_billing_agreement"), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(eq("/v1/paypal_hermes/setup_billing_agreement"), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         JSONObject expected = new JSONObject()
                 .put("authorization_fingerprint", "client-token-bearer")
@@ -162,11 +173,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(eq("/v1/paypal_hermes/create_payment_resource"), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(eq("/v1/paypal_hermes/create_payment_resource"), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         JSONObject expected = new JSONObject()
                 .put("amount", "1.00")
@@ -220,11 +230,10 @@ public class PayPalInternalClientUnitTest {
         PayPalVaultRequest payPalRequest = new PayPalVaultRequest();
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertFalse(actual.has("authorization_fingerprint"));
         assertEquals("tokenization-key-bearer", actual.get("client_key"));
@@ -243,11 +252,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setDisplayName("");
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertEquals("paypal_merchant", ((JSONObject) actual.get("experience_profile")).get("brand_name"));
     }
@@ -265,11 +273,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setLocaleCode(null);
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertFalse(((JSONObject) actual.get("experience_profile")).has("locale_code"));
     }
@@ -287,11 +294,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setMerchantAccountId(null);
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertFalse(actual.has("merchant_account_id"));
     }
@@ -309,11 +315,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setShippingAddressOverride(null);
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertEquals(false, ((JSONObject) actual.get("experience_profile")).get("address_override"));
     }
@@ -334,11 +339,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(eq("/v1/paypal_hermes/setup_billing_agreement"), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(eq("/v1/paypal_hermes/setup_billing_agreement"), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertEquals(true, ((JSONObject) actual.get("experience_profile")).get("address_override"));
     }
@@ -356,11 +360,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setBillingAgreementDescription("");
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertFalse(actual.has("description"));
     }
@@ -377,11 +380,10 @@ public class PayPalInternalClientUnitTest {
         PayPalCheckoutRequest payPalRequest = new PayPalCheckoutRequest("1.00");
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertEquals("INR", actual.get("currency_iso_code"));
     }
@@ -399,11 +401,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setLineItems(new ArrayList<PayPalLineItem>());
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertFalse(actual.has("line_items"));
     }
@@ -522,11 +523,10 @@ public class PayPalInternalClientUnitTest {
         payPalRequest.setBillingAgreementDescription("Billing agreement description");
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> captor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), captor.capture(), any(HttpResponseCallback.class));
 
-        String result = captor.getValue();
-        JSONObject actual = new JSONObject(result);
+        JSONObject actual = JSONPayloadHelper.toJSONObject(captor.getValue());
 
         assertFalse(actual.has("request_billing_agreement"));
         assertFalse(actual.has("description"));
@@ -740,6 +740,7 @@ public class PayPalInternalClientUnitTest {
 
         PayPalDataCollectorInternalRequest dataCollectorRequest = captor.getValue();
         assertTrue(dataCollectorRequest.getHasUserLocationConsent());
+        assertEquals("sample-installation-guid", dataCollectorRequest.getApplicationGuid());
     }
 
     @Test
@@ -761,10 +762,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> requestCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(any(), requestCaptor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> requestCaptor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(any(), requestCaptor.capture(), any(HttpResponseCallback.class));
 
-        JSONObject request = new JSONObject(requestCaptor.getValue());
+        JSONObject request = JSONPayloadHelper.toJSONObject(requestCaptor.getValue());
 
         assertEquals(appLink + "/success", request.get("return_url"));
         assertEquals(appLink + "/cancel", request.get("cancel_url"));
@@ -789,10 +790,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> requestCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(any(), requestCaptor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> requestCaptor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(any(), requestCaptor.capture(), any(HttpResponseCallback.class));
 
-        JSONObject request = new JSONObject(requestCaptor.getValue());
+        JSONObject request = JSONPayloadHelper.toJSONObject(requestCaptor.getValue());
 
         assertEquals(returnUrlScheme + "://onetouch/v1/success", request.get("return_url"));
         assertEquals(returnUrlScheme + "://onetouch/v1/cancel", request.get("cancel_url"));
@@ -816,10 +817,10 @@ public class PayPalInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        ArgumentCaptor<String> requestCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(any(), requestCaptor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> requestCaptor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(any(), requestCaptor.capture(), any(HttpResponseCallback.class));
 
-        JSONObject request = new JSONObject(requestCaptor.getValue());
+        JSONObject request = JSONPayloadHelper.toJSONObject(requestCaptor.getValue());
 
         assertEquals(returnUrlScheme + "://onetouch/v1/success", request.get("return_url"));
         assertEquals(returnUrlScheme + "://onetouch/v1/cancel", request.get("cancel_url"));
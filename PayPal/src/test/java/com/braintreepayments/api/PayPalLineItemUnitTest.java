@@ -1,10 +1,15 @@
 package com.braintreepayments.api;
 
+import android.util.JsonWriter;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import java.io.StringWriter;
 
 import static junit.framework.Assert.assertEquals;
 
@@ -36,5 +41,20 @@ public class PayPalLineItemUnitTest {
         assertEquals("UPC-2", json.getString("upc_type"));
         assertEquals("upc-code", json.getString("upc_code"));
     }
-}
 
+    @Test
+    public void writeJson_writesSameJsonAsToJson() throws Exception {
+        PayPalLineItem item = new PayPalLineItem(PayPalLineItem.KIND_CREDIT, "An Item", "1", "2");
+        item.setDescription("A new item");
+        item.setImageUrl("http://example.com/image.jpg");
+        item.setUpcType(PayPalLineItem.UPC_TYPE_A);
+        item.setUrl("http://example.com");
+
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        item.writeJson(writer);
+        writer.close();
+
+        JSONAssert.assertEquals(item.toJson(), new JSONObject(out.toString()), true);
+    }
+}
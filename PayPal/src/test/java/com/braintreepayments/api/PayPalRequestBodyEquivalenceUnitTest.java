@@ -0,0 +1,73 @@
+package com.braintreepayments.api;
+
+import android.util.JsonWriter;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static junit.framework.Assert.assertEquals;
+
+/**
+ * Checks that streaming the line items of a large cart with {@link JsonWriter} produces the same
+ * JSON as building a {@link JSONObject} tree for them.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PayPalRequestBodyEquivalenceUnitTest {
+
+    private static final int LINE_ITEM_COUNT = 50;
+
+    private List<PayPalLineItem> lineItems;
+
+    @Before
+    public void beforeEach() {
+        lineItems = new ArrayList<>();
+        for (int i = 0; i < LINE_ITEM_COUNT; i++) {
+            PayPalLineItem item = new PayPalLineItem(PayPalLineItem.KIND_DEBIT, "Item " + i, "1", "10.00");
+            item.setDescription("Description of item " + i);
+            item.setProductCode("product-" + i);
+            item.setUnitTaxAmount("0.80");
+            item.setUrl("https://example.com/items/" + i);
+            lineItems.add(item);
+        }
+    }
+
+    @Test
+    public void streamingLineItems_producesSameJsonAsTree() throws Exception {
+        String tree = buildTree();
+        String streamed = stream();
+
+        assertEquals(new JSONObject(tree).toString(), new JSONObject(streamed).toString());
+    }
+
+    private String buildTree() throws JSONException {
+        JSONArray items = new JSONArray();
+        for (PayPalLineItem lineItem : lineItems) {
+            items.put(lineItem.toJson());
+        }
+        return new JSONObject().put("line_items", items).toString();
+    }
+
+    private String stream() throws IOException {
+        StringWriter buffer = new StringWriter();
+        JsonWriter writer = new JsonWriter(buffer);
+        writer.beginObject();
+        writer.name("line_items").beginArray();
+        for (PayPalLineItem lineItem : lineItems) {
+            lineItem.writeJson(writer);
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+        return buffer.toString();
+    }
+}
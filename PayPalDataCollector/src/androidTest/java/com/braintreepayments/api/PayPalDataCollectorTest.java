@@ -2,6 +2,7 @@ package com.braintreepayments.api;
 
 import android.text.TextUtils;
 
+import androidx.annotation.Nullable;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
 
@@ -9,19 +10,28 @@ import org.json.JSONException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.concurrent.CountDownLatch;
+
 import static junit.framework.Assert.assertFalse;
 
 @RunWith(AndroidJUnit4ClassRunner.class)
 public class PayPalDataCollectorTest {
 
-    @Test
-    public void getClientMetadataId_returnsClientMetadataId() throws JSONException {
+    @Test(timeout = 10000)
+    public void getClientMetadataId_returnsClientMetadataId() throws JSONException, InterruptedException {
         Configuration configuration = Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL);
         BraintreeClient braintreeClient = new BraintreeClient(ApplicationProvider.getApplicationContext(), Fixtures.TOKENIZATION_KEY);
         PayPalDataCollector sut = new PayPalDataCollector(braintreeClient);
-        String clientMetadataId = sut.getClientMetadataId(ApplicationProvider.getApplicationContext(), configuration, true);
 
-        assertFalse(TextUtils.isEmpty(clientMetadataId));
+        final CountDownLatch countDownLatch = new CountDownLatch(1);
+        sut.getClientMetadataId(ApplicationProvider.getApplicationContext(), configuration, true, new PayPalClientMetadataIdCallback() {
+            @Override
+            public void onResult(@Nullable String clientMetadataId) {
+                assertFalse(TextUtils.isEmpty(clientMetadataId));
+                countDownLatch.countDown();
+            }
+        });
+
+        countDownLatch.await();
     }
 }
-
@@ -0,0 +1,17 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Callback for receiving result of
+ * {@link PayPalDataCollector#getClientMetadataId(Context, Configuration, boolean, PayPalClientMetadataIdCallback)}
+ */
+interface PayPalClientMetadataIdCallback {
+
+    /**
+     * @param clientMetadataId the Client Metadata ID generated for the payment
+     */
+    void onResult(@Nullable String clientMetadataId);
+}
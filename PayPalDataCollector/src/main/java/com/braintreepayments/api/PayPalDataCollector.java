@@ -33,8 +33,13 @@ public class PayPalDataCollector {
         this.uuidHelper = uuidHelper;
     }
 
-    String getPayPalInstallationGUID(Context context) {
-        return uuidHelper.getInstallationGUID(context);
+    /**
+     * @param context  Android Context
+     * @param callback receives the installation GUID without waiting for stored identifiers to
+     *                 load on the calling thread
+     */
+    void getPayPalInstallationGUID(Context context, UUIDCallback callback) {
+        uuidHelper.getInstallationGUID(context, callback);
     }
 
     /**
@@ -51,19 +56,26 @@ public class PayPalDataCollector {
      *                               if your application has obtained consent from the user to collect location data in compliance with
      *                               <a href="https://support.google.com/googleplay/android-developer/answer/10144311#personal-sensitive">Google Play Developer Program policies</a>
      *                               This flag enables PayPal to collect necessary information required for Fraud Detection and Risk Management.
+     * @param callback               receives the Client Metadata ID once the installation GUID has been read
      * @see <a href="https://support.google.com/googleplay/android-developer/answer/10144311#personal-sensitive">User Data policies for the Google Play Developer Program </a>
      * @see <a href="https://support.google.com/googleplay/android-developer/answer/9799150?hl=en#Prominent%20in-app%20disclosure">Examples of prominent in-app disclosures</a>
      */
     @MainThread
-    String getClientMetadataId(
-        Context context,
-        Configuration configuration,
-        boolean hasUserLocationConsent
+    void getClientMetadataId(
+        final Context context,
+        final Configuration configuration,
+        final boolean hasUserLocationConsent,
+        final PayPalClientMetadataIdCallback callback
     ) {
-        PayPalDataCollectorInternalRequest request = new PayPalDataCollectorInternalRequest(hasUserLocationConsent)
-            .setApplicationGuid(getPayPalInstallationGUID(context));
+        getPayPalInstallationGUID(context, new UUIDCallback() {
+            @Override
+            public void onResult(@NonNull String installationGUID) {
+                PayPalDataCollectorInternalRequest request = new PayPalDataCollectorInternalRequest(hasUserLocationConsent)
+                    .setApplicationGuid(installationGUID);
 
-        return getClientMetadataId(context, request, configuration);
+                callback.onResult(getClientMetadataId(context, request, configuration));
+            }
+        });
     }
 
     /**
@@ -150,24 +162,29 @@ public class PayPalDataCollector {
             @Override
             public void onResult(@Nullable Configuration configuration, @Nullable Exception error) {
                 if (configuration != null) {
-                    final JSONObject deviceData = new JSONObject();
-                    try {
-                        PayPalDataCollectorInternalRequest request = new PayPalDataCollectorInternalRequest(
-                            payPalDataCollectorRequest.getHasUserLocationConsent()
-                        ).setApplicationGuid(getPayPalInstallationGUID(context));
-
-                        if (payPalDataCollectorRequest.getRiskCorrelationId() != null) {
-                            request.setRiskCorrelationId(payPalDataCollectorRequest.getRiskCorrelationId());
-                        }
-
-                        String correlationId =
-                            magnesInternalClient.getClientMetadataId(context, configuration, request);
-                        if (!TextUtils.isEmpty(correlationId)) {
-                            deviceData.put(CORRELATION_ID_KEY, correlationId);
+                    getPayPalInstallationGUID(context, new UUIDCallback() {
+                        @Override
+                        public void onResult(@NonNull String installationGUID) {
+                            final JSONObject deviceData = new JSONObject();
+                            try {
+                                PayPalDataCollectorInternalRequest request = new PayPalDataCollectorInternalRequest(
+                                    payPalDataCollectorRequest.getHasUserLocationConsent()
+                                ).setApplicationGuid(installationGUID);
+
+                                if (payPalDataCollectorRequest.getRiskCorrelationId() != null) {
+                                    request.setRiskCorrelationId(payPalDataCollectorRequest.getRiskCorrelationId());
+                                }
+
+                                String correlationId =
+                                    magnesInternalClient.getClientMetadataId(context, configuration, request);
+                                if (!TextUtils.isEmpty(correlationId)) {
+                                    deviceData.put(CORRELATION_ID_KEY, correlationId);
+                                }
+                            } catch (JSONException ignored) {
+                            }
+                            callback.onResult(deviceData.toString(), null);
                         }
-                    } catch (JSONException ignored) {
-                    }
-                    callback.onResult(deviceData.toString(), null);
+                    });
 
                 } else {
                     callback.onResult(null, error);
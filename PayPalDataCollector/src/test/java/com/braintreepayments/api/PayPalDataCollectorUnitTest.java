@@ -6,6 +6,7 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -20,6 +21,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 
 @RunWith(RobolectricTestRunner.class)
@@ -54,27 +57,35 @@ public class PayPalDataCollectorUnitTest {
         braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN))
                 .build();
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                UUIDCallback callback = (UUIDCallback) invocation.getArguments()[1];
+                callback.onResult(sampleInstallationGUID);
+                return null;
+            }
+        }).when(uuidHelper).getInstallationGUID(same(context), any(UUIDCallback.class));
     }
 
     @Test
     public void getPayPalInstallationGUID_returnsInstallationIdentifier() {
-
-        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
         PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
 
-        assertEquals(sampleInstallationGUID, sut.getPayPalInstallationGUID(context));
+        UUIDCallback callback = mock(UUIDCallback.class);
+        sut.getPayPalInstallationGUID(context, callback);
+
+        verify(callback).onResult(sampleInstallationGUID);
     }
 
     @Test
     public void getClientMetadataId_configuresMagnesWithDefaultRequest() {
         boolean hasUserLocationConsent = true;
 
-        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
-
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorInternalRequest.class))).thenReturn("paypal-clientmetadata-id");
 
         PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
-        sut.getClientMetadataId(context, configuration, hasUserLocationConsent);
+        sut.getClientMetadataId(context, configuration, hasUserLocationConsent, mock(PayPalClientMetadataIdCallback.class));
 
         ArgumentCaptor<PayPalDataCollectorInternalRequest> captor = ArgumentCaptor.forClass(PayPalDataCollectorInternalRequest.class);
         verify(magnesInternalClient).getClientMetadataId(same(context), same(configuration), captor.capture());
@@ -86,8 +97,6 @@ public class PayPalDataCollectorUnitTest {
 
     @Test
     public void getClientMetadataId_configuresMagnesWithCustomRequestAndForwardsClientMetadataIdFromMagnesResult() {
-        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
-
         PayPalDataCollectorInternalRequest customRequest = new PayPalDataCollectorInternalRequest(false);
         when(magnesInternalClient.getClientMetadataId(context, configuration, customRequest)).thenReturn("paypal-clientmetadata-id");
 
@@ -99,14 +108,13 @@ public class PayPalDataCollectorUnitTest {
 
     @Test
     public void getClientMetadataId_forwardsClientMetadataIdFromMagnesResult() {
-        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
-
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorInternalRequest.class))).thenReturn("paypal-clientmetadata-id");
 
         PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
-        String result = sut.getClientMetadataId(context, configuration, true);
+        PayPalClientMetadataIdCallback callback = mock(PayPalClientMetadataIdCallback.class);
+        sut.getClientMetadataId(context, configuration, true, callback);
 
-        assertEquals("paypal-clientmetadata-id", result);
+        verify(callback).onResult("paypal-clientmetadata-id");
     }
 
     @Test
@@ -130,7 +138,6 @@ public class PayPalDataCollectorUnitTest {
                 .configuration(configuration)
                 .build();
 
-        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorInternalRequest.class))).thenReturn("paypal-clientmetadata-id");
 
         PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
@@ -152,7 +159,6 @@ public class PayPalDataCollectorUnitTest {
             .configuration(configuration)
             .build();
 
-        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorInternalRequest.class))).thenReturn("paypal-clientmetadata-id");
 
         PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
@@ -175,7 +181,6 @@ public class PayPalDataCollectorUnitTest {
                 .configuration(configuration)
                 .build();
 
-        when(uuidHelper.getInstallationGUID(context)).thenReturn(sampleInstallationGUID);
         when(magnesInternalClient.getClientMetadataId(same(context), same(configuration), any(PayPalDataCollectorInternalRequest.class))).thenReturn("paypal-clientmetadata-id");
 
         PayPalDataCollector sut = new PayPalDataCollector(braintreeClient, magnesInternalClient, uuidHelper);
@@ -59,13 +59,18 @@ class PayPalNativeCheckoutInternalClient {
 
                                         String pairingIdKey = isBillingAgreement ? "ba_token" : "token";
                                         String pairingId = parsedRedirectUri.getQueryParameter(pairingIdKey);
-                                        String clientMetadataId = payPalRequest.getRiskCorrelationId() != null
-                                                ? payPalRequest.getRiskCorrelationId() : payPalDataCollector.getClientMetadataId(context, configuration, payPalRequest.hasUserLocationConsent());
-
-                                        payPalResponse.clientMetadataId(clientMetadataId);
                                         if (pairingId != null) {
                                             payPalResponse.pairingId(pairingId);
                                         }
+
+                                        if (payPalRequest.getRiskCorrelationId() == null) {
+                                            payPalDataCollector.getClientMetadataId(context, configuration, payPalRequest.hasUserLocationConsent(), clientMetadataId -> {
+                                                payPalResponse.clientMetadataId(clientMetadataId);
+                                                callback.onResult(payPalResponse, null);
+                                            });
+                                            return;
+                                        }
+                                        payPalResponse.clientMetadataId(payPalRequest.getRiskCorrelationId());
                                     }
                                     callback.onResult(payPalResponse, null);
 
@@ -10,6 +10,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,6 +24,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 
@@ -40,6 +43,7 @@ public class PayPalNativeCheckoutInternalClientUnitTest {
 
     private PayPalDataCollector payPalDataCollector;
     private ApiClient apiClient;
+    private String clientMetadataId;
 
     PayPalNativeCheckoutInternalClientCallback payPalInternalClientCallback;
 
@@ -53,6 +57,17 @@ public class PayPalNativeCheckoutInternalClientUnitTest {
         payPalDataCollector = mock(PayPalDataCollector.class);
         apiClient = mock(ApiClient.class);
         payPalInternalClientCallback = mock(PayPalNativeCheckoutInternalClientCallback.class);
+
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                PayPalClientMetadataIdCallback callback =
+                        (PayPalClientMetadataIdCallback) invocation.getArguments()[3];
+                callback.onResult(clientMetadataId);
+                return null;
+            }
+        }).when(payPalDataCollector).getClientMetadataId(any(), any(), anyBoolean(),
+                any(PayPalClientMetadataIdCallback.class));
     }
 
     @Test
@@ -322,7 +337,7 @@ public class PayPalNativeCheckoutInternalClientUnitTest {
 
     @Test
     public void sendRequest_whenRiskCorrelationIdNotNull_setsClientMetadataIdToRiskCorrelationId() throws Exception {
-        when(payPalDataCollector.getClientMetadataId(context, configuration, false)).thenReturn("sample-client-metadata-id");
+        clientMetadataId = "sample-client-metadata-id";
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL))
@@ -346,7 +361,7 @@ public class PayPalNativeCheckoutInternalClientUnitTest {
 
     @Test
     public void sendRequest_whenRiskCorrelationIdNull_setsClientMetadataIdFromPayPalDataCollector() throws Exception {
-        when(payPalDataCollector.getClientMetadataId(any(), any(), anyBoolean())).thenReturn("sample-client-metadata-id");
+        clientMetadataId = "sample-client-metadata-id";
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL))
@@ -394,7 +409,7 @@ public class PayPalNativeCheckoutInternalClientUnitTest {
 
     @Test
     public void sendRequest_withPayPalVaultRequest_callsBackPayPalResponseOnSuccess() throws Exception {
-        when(payPalDataCollector.getClientMetadataId(any(), any(), anyBoolean())).thenReturn("sample-client-metadata-id");
+        clientMetadataId = "sample-client-metadata-id";
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL))
@@ -425,7 +440,7 @@ public class PayPalNativeCheckoutInternalClientUnitTest {
 
     @Test
     public void sendRequest_withPayPalCheckoutRequest_callsBackPayPalResponseOnSuccess() throws Exception {
-        when(payPalDataCollector.getClientMetadataId(any(), any(), anyBoolean())).thenReturn("sample-client-metadata-id");
+        clientMetadataId = "sample-client-metadata-id";
 
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder()
                 .configuration(Configuration.fromJson(Fixtures.CONFIGURATION_WITH_LIVE_PAYPAL))
@@ -625,6 +640,7 @@ public class PayPalNativeCheckoutInternalClientUnitTest {
 
         sut.sendRequest(context, payPalRequest, payPalInternalClientCallback);
 
-        verify(payPalDataCollector).getClientMetadataId(context, configuration, true);
+        verify(payPalDataCollector).getClientMetadataId(same(context), same(configuration), eq(true),
+                any(PayPalClientMetadataIdCallback.class));
     }
 }
\ No newline at end of file
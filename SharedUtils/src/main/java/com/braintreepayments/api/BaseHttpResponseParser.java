@@ -1,10 +1,11 @@
 package com.braintreepayments.api;
 
-import java.io.ByteArrayOutputStream;
+import androidx.annotation.VisibleForTesting;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
-import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPInputStream;
 
 import static java.net.HttpURLConnection.HTTP_ACCEPTED;
@@ -25,6 +26,21 @@ class BaseHttpResponseParser implements HttpResponseParser {
     private static final int HTTP_UPGRADE_REQUIRED = 426;
     private static final int HTTP_TOO_MANY_REQUESTS = 429;
 
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+
+    private final ResponseBufferPool bufferPool;
+
+    BaseHttpResponseParser() {
+        this(ResponseBufferPool.getInstance());
+    }
+
+    @VisibleForTesting
+    BaseHttpResponseParser(ResponseBufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
     /**
      * @param responseCode the response code returned when the http request was made.
      * @param connection the connection through which the http request was made.
@@ -44,21 +60,43 @@ class BaseHttpResponseParser implements HttpResponseParser {
             case HTTP_UPGRADE_REQUIRED:
                 throw new UpgradeRequiredException(responseBody);
             case HTTP_TOO_MANY_REQUESTS:
-                throw new RateLimitException("You are being rate-limited. Please try again in a few minutes.");
+                throw new RateLimitException("You are being rate-limited. Please try again in a few minutes.",
+                        parseRetryAfterMillis(connection));
             case HTTP_INTERNAL_ERROR:
                 throw new ServerException(responseBody);
             case HTTP_UNAVAILABLE:
-                throw new ServiceUnavailableException(responseBody);
+                throw new ServiceUnavailableException(responseBody, parseRetryAfterMillis(connection));
             default:
                 throw new UnexpectedException(responseBody);
         }
     }
 
+    /**
+     * @return the delay requested by the Retry-After header, given either in seconds or as an
+     * HTTP date, or {@link RetryPolicy#NO_RETRY_AFTER} when the header is missing or invalid.
+     */
+    private long parseRetryAfterMillis(HttpURLConnection connection) {
+        String retryAfter = connection.getHeaderField(RETRY_AFTER_HEADER);
+        if (retryAfter == null) {
+            return RetryPolicy.NO_RETRY_AFTER;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            long retryAt = connection.getHeaderFieldDate(RETRY_AFTER_HEADER, RetryPolicy.NO_RETRY_AFTER);
+            if (retryAt == RetryPolicy.NO_RETRY_AFTER) {
+                return RetryPolicy.NO_RETRY_AFTER;
+            }
+            return Math.max(0, retryAt - System.currentTimeMillis());
+        }
+    }
+
     private String parseBody(int responseCode, HttpURLConnection connection) throws IOException {
         boolean gzip = "gzip".equals(connection.getContentEncoding());
+        int contentLength = connection.getContentLength();
         switch (responseCode) {
             case HTTP_OK: case HTTP_CREATED: case HTTP_ACCEPTED:
-                return readStream(connection.getInputStream(), gzip);
+                return readStream(connection.getInputStream(), contentLength, gzip);
             case HTTP_TOO_MANY_REQUESTS:
                 return null;
             case HTTP_UNAUTHORIZED:
@@ -69,27 +107,20 @@ class BaseHttpResponseParser implements HttpResponseParser {
             case HTTP_INTERNAL_ERROR:
             case HTTP_UNAVAILABLE:
             default:
-                return readStream(connection.getErrorStream(), gzip);
+                return readStream(connection.getErrorStream(), contentLength, gzip);
         }
     }
 
-    private String readStream(InputStream in, boolean gzip) throws IOException {
+    private String readStream(InputStream in, int contentLength, boolean gzip) throws IOException {
         if (in == null) {
             return null;
         }
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         try {
             if (gzip) {
-                in = new GZIPInputStream(in);
-            }
-
-            byte[] buffer = new byte[1024];
-            for (int count; (count = in.read(buffer)) != -1; ) {
-                out.write(buffer, 0, count);
+                in = new GZIPInputStream(in, GZIP_BUFFER_SIZE);
             }
-            return new String(out.toByteArray(), StandardCharsets.UTF_8);
-
+            return bufferPool.readString(in, contentLength, gzip);
         } finally {
             try {
                 in.close();
@@ -0,0 +1,570 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AtomicFile;
+import android.util.Base64;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Key-value store for SDK state. Each {@link Segment} is kept in its own file so that reading or
+ * writing one kind of state does not load or rewrite the others.
+ * <p>
+ * All disk access happens on a single background thread: segments are loaded as soon as the
+ * store is first used, which happens when a {@link BraintreeClient} is created, and every change
+ * is applied in memory immediately and written to disk afterwards with {@link AtomicFile}.
+ * Changes never wait for a segment to load: changes made before then are applied on top of the
+ * stored values once the segment has loaded. Callers on the main thread read from within
+ * {@link #whenLoaded(Runnable)}, which never waits; reads made anywhere else before the segment
+ * has loaded wait for it, so they belong on worker threads.
+ * <p>
+ * Binary values are kept in files of their own in a directory next to the segment file, so that
+ * large values are neither parsed nor rewritten together with the rest of the segment. They are
+ * read from disk on the calling thread when requested and written on the background thread.
+ * <p>
+ * On first use, values stored by earlier SDK versions in {@link SharedPreferences} are moved into
+ * their segments, and the old preferences file is cleared once every segment has been written.
+ */
+class BraintreeStore {
+
+    enum Segment {
+        CONFIGURATION("configuration"),
+        IDENTIFIERS("identifiers"),
+        VENMO("venmo"),
+        ANALYTICS("analytics");
+
+        final String fileName;
+
+        Segment(String fileName) {
+            this.fileName = fileName;
+        }
+    }
+
+    private static final String STORE_DIRECTORY = "com.braintreepayments.api.store";
+    private static final String BYTES_DIRECTORY_SUFFIX = ".bytes";
+    private static final byte[] REMOVED_BYTES = new byte[0];
+    private static final Object REMOVED_VALUE = new Object();
+    private static final Executor DISK_EXECUTOR =
+            Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "braintree-store");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    private static volatile Map<Segment, BraintreeStore> INSTANCES;
+
+    static BraintreeStore getInstance(Context context, Segment segment) {
+        return getInstances(context).get(segment);
+    }
+
+    /**
+     * Start loading every segment in the background, if not already started.
+     */
+    static void preload(Context context) {
+        getInstances(context);
+    }
+
+    /**
+     * Remove every value from every segment.
+     */
+    static void clearAll(Context context) {
+        for (BraintreeStore store : getInstances(context).values()) {
+            store.clear();
+        }
+    }
+
+    private static Map<Segment, BraintreeStore> getInstances(Context context) {
+        if (INSTANCES == null) {
+            synchronized (BraintreeStore.class) {
+                // double check that instances were not created in another thread
+                if (INSTANCES == null) {
+                    Map<Segment, BraintreeStore> instances = new EnumMap<>(Segment.class);
+                    for (Segment segment : Segment.values()) {
+                        instances.put(segment, new BraintreeStore(DISK_EXECUTOR));
+                    }
+                    loadInBackground(context.getApplicationContext(), instances);
+                    INSTANCES = Collections.unmodifiableMap(instances);
+                }
+            }
+        }
+        return INSTANCES;
+    }
+
+    private static void loadInBackground(final Context context,
+                                         final Map<Segment, BraintreeStore> instances) {
+        DISK_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    load(context, instances);
+                } finally {
+                    // never leave readers waiting; a segment that failed to load starts empty
+                    for (BraintreeStore store : instances.values()) {
+                        store.finishLoading();
+                    }
+                }
+            }
+        });
+    }
+
+    private static void load(Context context, Map<Segment, BraintreeStore> instances) {
+        File directory = new File(context.getFilesDir(), STORE_DIRECTORY);
+        boolean isFirstUse = !new File(directory, Segment.IDENTIFIERS.fileName).exists();
+        if (isFirstUse && !directory.isDirectory()) {
+            directory.mkdirs();
+        }
+
+        SharedPreferences legacyPreferences = null;
+        Map<Segment, Map<String, Object>> migratedValues = new EnumMap<>(Segment.class);
+        if (isFirstUse) {
+            legacyPreferences = BraintreeStoreMigration.getLegacyPreferences(context);
+            migratedValues = BraintreeStoreMigration.readLegacyValues(legacyPreferences);
+        }
+
+        boolean isStored = true;
+        for (Map.Entry<Segment, BraintreeStore> entry : instances.entrySet()) {
+            File file = new File(directory, entry.getKey().fileName);
+            isStored &= entry.getValue().load(new AtomicFile(file), migratedValues.get(entry.getKey()));
+        }
+
+        // keep the legacy values to migrate again on the next launch if a segment was not written
+        if (legacyPreferences != null && isStored) {
+            BraintreeStoreMigration.clearLegacyPreferences(legacyPreferences);
+        }
+    }
+
+    private final Executor executor;
+    private final Handler mainThreadHandler;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final List<Runnable> loadedCallbacks = new ArrayList<>();
+    private final Map<String, Object> values = new HashMap<>();
+
+    // binary values that have not been written to disk yet; REMOVED_BYTES marks a pending delete
+    private final Map<String, byte[]> pendingBytes = new HashMap<>();
+
+    // changes made before the segment has loaded; REMOVED_VALUE marks a removed key
+    private final Map<String, Object> changesBeforeLoad = new HashMap<>();
+    private boolean isClearedBeforeLoad;
+
+    private AtomicFile file;
+    private File bytesDirectory;
+    private boolean isLoaded;
+    private boolean isWriteScheduled;
+
+    @VisibleForTesting
+    BraintreeStore(Executor executor) {
+        this.executor = executor;
+        this.mainThreadHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Read the segment from {@code file}, add {@code migratedValues} that are not already present,
+     * apply the changes made so far, and release readers and callbacks waiting for the segment.
+     * Must be called on the disk executor.
+     *
+     * @return false if the segment had to be written and could not be.
+     */
+    @VisibleForTesting
+    boolean load(AtomicFile file, Map<String, Object> migratedValues) {
+        Map<String, Object> storedValues = readValues(file);
+        File baseFile = file.getBaseFile();
+        boolean isStored = true;
+        synchronized (this) {
+            this.file = file;
+            this.bytesDirectory =
+                    new File(baseFile.getParentFile(), baseFile.getName() + BYTES_DIRECTORY_SUFFIX);
+
+            boolean isChanged = isClearedBeforeLoad || !changesBeforeLoad.isEmpty();
+            if (isClearedBeforeLoad) {
+                removeStoredBytes();
+            } else {
+                values.putAll(storedValues);
+                if (migratedValues != null && !migratedValues.isEmpty()) {
+                    for (Map.Entry<String, Object> entry : migratedValues.entrySet()) {
+                        if (!values.containsKey(entry.getKey())) {
+                            values.put(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    isChanged = true;
+                }
+            }
+            for (Map.Entry<String, Object> entry : changesBeforeLoad.entrySet()) {
+                if (entry.getValue() == REMOVED_VALUE) {
+                    values.remove(entry.getKey());
+                } else {
+                    values.put(entry.getKey(), entry.getValue());
+                }
+            }
+            changesBeforeLoad.clear();
+
+            isLoaded = true;
+            for (Map.Entry<String, byte[]> entry : new HashMap<>(pendingBytes).entrySet()) {
+                executeBytesWrite(entry.getKey(), entry.getValue());
+            }
+            if (isChanged) {
+                isStored = writeValues(file, new HashMap<>(values));
+            }
+        }
+        finishLoading();
+        return isStored;
+    }
+
+    /**
+     * @return true if the segment has been read from disk, after which reads no longer wait.
+     */
+    synchronized boolean isLoaded() {
+        return isLoaded;
+    }
+
+    /**
+     * Run {@code callback} once the segment has loaded, so that it reads without waiting. If the
+     * segment has already loaded, {@code callback} runs right away on the calling thread,
+     * otherwise it runs on the main thread.
+     */
+    void whenLoaded(Runnable callback) {
+        synchronized (this) {
+            if (!isLoaded) {
+                loadedCallbacks.add(callback);
+                return;
+            }
+        }
+        callback.run();
+    }
+
+    // a segment that could not be loaded is marked loaded anyway, and starts empty
+    private void finishLoading() {
+        List<Runnable> callbacks;
+        synchronized (this) {
+            isLoaded = true;
+            callbacks = new ArrayList<>(loadedCallbacks);
+            loadedCallbacks.clear();
+        }
+        loaded.countDown();
+        for (Runnable callback : callbacks) {
+            mainThreadHandler.post(callback);
+        }
+    }
+
+    String getString(String key, String fallback) {
+        Object value = get(key);
+        return (value instanceof String) ? (String) value : fallback;
+    }
+
+    void putString(String key, String value) {
+        put(Collections.<String, Object>singletonMap(key, value));
+    }
+
+    boolean getBoolean(String key) {
+        Object value = get(key);
+        return (value instanceof Boolean) && (Boolean) value;
+    }
+
+    void putBoolean(String key, boolean value) {
+        put(Collections.<String, Object>singletonMap(key, value));
+    }
+
+    boolean containsKey(String key) {
+        awaitLoaded();
+        synchronized (this) {
+            return values.containsKey(key);
+        }
+    }
+
+    long getLong(String key) {
+        Object value = get(key);
+        return (value instanceof Number) ? ((Number) value).longValue() : 0;
+    }
+
+    void putLong(String key, long value) {
+        put(Collections.<String, Object>singletonMap(key, value));
+    }
+
+    /**
+     * Read a binary value. Unless the value was changed recently and has not been written yet,
+     * this reads its file on the calling thread.
+     *
+     * @return the value, or null if there is none or its file cannot be read.
+     */
+    @WorkerThread
+    byte[] getBytes(String key) {
+        synchronized (this) {
+            byte[] pending = pendingBytes.get(key);
+            if (pending != null) {
+                return (pending == REMOVED_BYTES) ? null : pending;
+            }
+        }
+        awaitLoaded();
+        File bytesFile;
+        synchronized (this) {
+            byte[] pending = pendingBytes.get(key);
+            if (pending != null) {
+                return (pending == REMOVED_BYTES) ? null : pending;
+            }
+            bytesFile = getBytesFile(key);
+        }
+        if (bytesFile == null) {
+            return null;
+        }
+        try {
+            return new AtomicFile(bytesFile).readFully();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Store a binary value in a file of its own. The value is written in the background.
+     */
+    synchronized void putBytes(String key, byte[] value) {
+        scheduleBytesWrite(key, value);
+    }
+
+    void removeBytes(Collection<String> keys) {
+        synchronized (this) {
+            for (String key : keys) {
+                scheduleBytesWrite(key, REMOVED_BYTES);
+            }
+        }
+    }
+
+    Set<String> getKeys() {
+        awaitLoaded();
+        synchronized (this) {
+            return new HashSet<>(values.keySet());
+        }
+    }
+
+    void removeKeys(Collection<String> keys) {
+        Map<String, Object> entries = new HashMap<>();
+        for (String key : keys) {
+            entries.put(key, null);
+        }
+        put(entries);
+    }
+
+    synchronized void clear() {
+        for (String key : new HashSet<>(pendingBytes.keySet())) {
+            scheduleBytesWrite(key, REMOVED_BYTES);
+        }
+        if (!isLoaded) {
+            // stored values are dropped when the segment loads
+            changesBeforeLoad.clear();
+            isClearedBeforeLoad = true;
+            return;
+        }
+        values.clear();
+        scheduleWrite();
+        removeStoredBytes();
+    }
+
+    private Object get(String key) {
+        awaitLoaded();
+        synchronized (this) {
+            return values.get(key);
+        }
+    }
+
+    // a null value removes the key
+    private synchronized void put(Map<String, Object> entries) {
+        if (!isLoaded) {
+            for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                Object value = entry.getValue();
+                changesBeforeLoad.put(entry.getKey(), (value == null) ? REMOVED_VALUE : value);
+            }
+            return;
+        }
+        boolean isChanged = false;
+        for (Map.Entry<String, Object> entry : entries.entrySet()) {
+            Object value = entry.getValue();
+            Object previousValue = (value == null)
+                    ? values.remove(entry.getKey())
+                    : values.put(entry.getKey(), value);
+            isChanged |= (value == null) ? previousValue != null : !value.equals(previousValue);
+        }
+        if (isChanged) {
+            scheduleWrite();
+        }
+    }
+
+    private void awaitLoaded() {
+        boolean isInterrupted = false;
+        while (loaded.getCount() > 0) {
+            try {
+                loaded.await();
+            } catch (InterruptedException e) {
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // changes made while a write is pending are picked up by that write
+    private void scheduleWrite() {
+        if (isWriteScheduled) {
+            return;
+        }
+        isWriteScheduled = true;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                AtomicFile file;
+                Map<String, Object> snapshot;
+                synchronized (BraintreeStore.this) {
+                    isWriteScheduled = false;
+                    file = BraintreeStore.this.file;
+                    snapshot = new HashMap<>(values);
+                }
+                writeValues(file, snapshot);
+            }
+        });
+    }
+
+    private void removeStoredBytes() {
+        String[] bytesFileNames = (bytesDirectory != null) ? bytesDirectory.list() : null;
+        if (bytesFileNames == null) {
+            return;
+        }
+        for (String fileName : bytesFileNames) {
+            // skip the temporary and backup files of AtomicFile
+            if (fileName.indexOf('.') >= 0) {
+                continue;
+            }
+            String key = getBytesKey(fileName);
+            // values changed since are already pending
+            if (!pendingBytes.containsKey(key)) {
+                scheduleBytesWrite(key, REMOVED_BYTES);
+            }
+        }
+    }
+
+    // values changed before the segment has loaded are written once it has
+    private void scheduleBytesWrite(String key, byte[] value) {
+        pendingBytes.put(key, value);
+        if (isLoaded) {
+            executeBytesWrite(key, value);
+        }
+    }
+
+    // writes for the same key run in the order they were scheduled on the single disk thread
+    private void executeBytesWrite(final String key, final byte[] value) {
+        final File bytesFile = getBytesFile(key);
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (bytesFile != null) {
+                    writeBytes(bytesFile, (value == REMOVED_BYTES) ? null : value);
+                }
+                synchronized (BraintreeStore.this) {
+                    if (pendingBytes.get(key) == value) {
+                        pendingBytes.remove(key);
+                    }
+                }
+            }
+        });
+    }
+
+    private File getBytesFile(String key) {
+        if (bytesDirectory == null) {
+            return null;
+        }
+        String fileName = Base64.encodeToString(key.getBytes(StandardCharsets.UTF_8),
+                Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+        return new File(bytesDirectory, fileName);
+    }
+
+    private static String getBytesKey(String fileName) {
+        return new String(Base64.decode(fileName, Base64.URL_SAFE), StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(File bytesFile, byte[] value) {
+        AtomicFile file = new AtomicFile(bytesFile);
+        if (value == null) {
+            file.delete();
+            return;
+        }
+        File directory = bytesFile.getParentFile();
+        if (directory != null && !directory.isDirectory()) {
+            directory.mkdirs();
+        }
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            stream.write(value);
+            file.finishWrite(stream);
+        } catch (IOException e) {
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+        }
+    }
+
+    private static Map<String, Object> readValues(AtomicFile file) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            byte[] bytes = file.readFully();
+            JSONObject json = new JSONObject(new String(bytes, StandardCharsets.UTF_8));
+            Iterator<String> keys = json.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                result.put(key, json.get(key));
+            }
+        } catch (FileNotFoundException ignored) {
+            // nothing stored yet
+        } catch (IOException | JSONException e) {
+            // a corrupt segment only holds cached or regenerable state; start over
+            file.delete();
+            result.clear();
+        }
+        return result;
+    }
+
+    private static boolean writeValues(AtomicFile file, Map<String, Object> values) {
+        if (file == null) {
+            return false;
+        }
+        FileOutputStream stream = null;
+        try {
+            stream = file.startWrite();
+            stream.write(new JSONObject(values).toString().getBytes(StandardCharsets.UTF_8));
+            file.finishWrite(stream);
+            return true;
+        } catch (IOException e) {
+            if (stream != null) {
+                file.failWrite(stream);
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Moves SDK state out of the single {@link SharedPreferences} file used by earlier SDK versions
+ * and into {@link BraintreeStore} segments. Cached configurations are not moved since they can be
+ * fetched again.
+ */
+class BraintreeStoreMigration {
+
+    private static final String LEGACY_PREFERENCES_FILE_KEY =
+        "com.braintreepayments.api.SHARED_PREFERENCES";
+
+    private static final Map<String, BraintreeStore.Segment> MIGRATED_KEYS = new HashMap<>();
+
+    static {
+        MIGRATED_KEYS.put("braintreeUUID", BraintreeStore.Segment.IDENTIFIERS);
+        MIGRATED_KEYS.put("InstallationGUID", BraintreeStore.Segment.IDENTIFIERS);
+        MIGRATED_KEYS.put("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY",
+            BraintreeStore.Segment.VENMO);
+    }
+
+    /**
+     * Written to the identifiers segment so that the segment file exists once migration has run,
+     * even when there was nothing to migrate.
+     */
+    static final String MIGRATED_KEY = "com.braintreepayments.api.store.MIGRATED";
+
+    static SharedPreferences getLegacyPreferences(Context context) {
+        return context.getSharedPreferences(LEGACY_PREFERENCES_FILE_KEY, Context.MODE_PRIVATE);
+    }
+
+    static Map<BraintreeStore.Segment, Map<String, Object>> readLegacyValues(
+        SharedPreferences legacyPreferences
+    ) {
+        Map<BraintreeStore.Segment, Map<String, Object>> result =
+            new EnumMap<>(BraintreeStore.Segment.class);
+        for (BraintreeStore.Segment segment : BraintreeStore.Segment.values()) {
+            result.put(segment, new HashMap<String, Object>());
+        }
+
+        for (Map.Entry<String, ?> entry : legacyPreferences.getAll().entrySet()) {
+            BraintreeStore.Segment segment = MIGRATED_KEYS.get(entry.getKey());
+            if (segment != null && entry.getValue() != null) {
+                result.get(segment).put(entry.getKey(), entry.getValue());
+            }
+        }
+        result.get(BraintreeStore.Segment.IDENTIFIERS).put(MIGRATED_KEY, true);
+        return result;
+    }
+
+    static void clearLegacyPreferences(SharedPreferences legacyPreferences) {
+        legacyPreferences.edit().clear().commit();
+    }
+}
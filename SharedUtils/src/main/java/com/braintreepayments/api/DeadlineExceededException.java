@@ -0,0 +1,13 @@
+package com.braintreepayments.api;
+
+/**
+ * Exception thrown when a request could not complete before the deadline of its
+ * {@link HttpRequestHandle}. Indicates the caller stopped waiting for a response; the request may
+ * or may not have been processed by the server.
+ */
+public class DeadlineExceededException extends Exception {
+
+    DeadlineExceededException(String message) {
+        super(message);
+    }
+}
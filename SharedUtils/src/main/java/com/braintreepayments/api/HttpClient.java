@@ -3,13 +3,12 @@ package com.braintreepayments.api;
 import androidx.annotation.IntDef;
 import androidx.annotation.VisibleForTesting;
 
+import org.json.JSONObject;
+
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
-import java.net.MalformedURLException;
-import java.net.URISyntaxException;
-import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.net.ssl.SSLSocketFactory;
 
@@ -28,17 +27,32 @@ class HttpClient {
     private final Scheduler scheduler;
     private final SynchronousHttpClient syncHttpClient;
 
-    private final Map<URL, Integer> retryCountMap;
+    private final ResponseReader<String> bodyReader = new ResponseReader<String>() {
+        @Override
+        public String read(HttpRequest request) throws Exception {
+            return syncHttpClient.request(request);
+        }
+    };
+
+    private final ResponseReader<JSONObject> jsonReader = new ResponseReader<JSONObject>() {
+        @Override
+        public JSONObject read(HttpRequest request) throws Exception {
+            return syncHttpClient.requestJSON(request);
+        }
+    };
+
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong totalBackoffMillis = new AtomicLong();
 
     protected HttpClient(SSLSocketFactory socketFactory, HttpResponseParser httpResponseParser) {
-        this(new SynchronousHttpClient(socketFactory, httpResponseParser), new ThreadScheduler());
+        this(new SynchronousHttpClient(socketFactory, httpResponseParser, HttpConnectionPool.getInstance()),
+                new ThreadScheduler());
     }
 
     @VisibleForTesting
     HttpClient(SynchronousHttpClient syncHttpClient, Scheduler scheduler) {
         this.syncHttpClient = syncHttpClient;
         this.scheduler = scheduler;
-        this.retryCountMap = new HashMap<>();
     }
 
     String sendRequest(HttpRequest request) throws Exception {
@@ -50,90 +64,150 @@ class HttpClient {
     }
 
     void sendRequest(HttpRequest request, @RetryStrategy int retryStrategy, HttpResponseCallback callback) {
-        scheduleRequest(request, retryStrategy, callback);
+        sendRequest(request, RetryPolicy.from(retryStrategy), callback);
     }
 
-    private void scheduleRequest(final HttpRequest request, @RetryStrategy final int retryStrategy, final HttpResponseCallback callback) {
-        resetRetryCount(request);
+    void sendRequest(HttpRequest request, RetryPolicy retryPolicy, final HttpResponseCallback callback) {
+        ResultCallback<String> resultCallback = null;
+        if (callback != null) {
+            resultCallback = new ResultCallback<String>() {
+                @Override
+                public void onResult(String responseBody, Exception error) {
+                    callback.onResult(responseBody, error);
+                }
+            };
+        }
+        scheduleRequest(request, retryPolicy, 1, 0, bodyReader, resultCallback);
+    }
 
-        scheduler.runOnBackground(new Runnable() {
+    /**
+     * Send a request and deliver the response body already parsed as JSON, so that callers that
+     * need a {@link org.json.JSONObject} do not parse the body again. The body is parsed only once
+     * when this client was created with a {@link JSONResponseParser}.
+     */
+    void sendJSONRequest(HttpRequest request, final JSONResponseCallback callback) {
+        ResultCallback<JSONObject> resultCallback = null;
+        if (callback != null) {
+            resultCallback = new ResultCallback<JSONObject>() {
+                @Override
+                public void onResult(JSONObject response, Exception error) {
+                    callback.onResult(response, error);
+                }
+            };
+        }
+        scheduleRequest(request, RetryPolicy.NONE, 1, 0, jsonReader, resultCallback);
+    }
+
+    /**
+     * @return the number of times a failed request has been retried by this client.
+     */
+    long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * @return the total time in milliseconds this client has waited before retrying requests.
+     */
+    long getTotalBackoffMillis() {
+        return totalBackoffMillis.get();
+    }
+
+    // retry state travels with each scheduled attempt, so concurrent requests never share it
+    private <T> void scheduleRequest(final HttpRequest request, final RetryPolicy retryPolicy,
+            final int attempt, long delayMillis, final ResponseReader<T> reader,
+            final ResultCallback<T> callback) {
+        Runnable runnable = new Runnable() {
             @Override
             public void run() {
+                if (isCancelled(request)) {
+                    return;
+                }
                 try {
-                    String responseBody = syncHttpClient.request(request);
-                    notifySuccessOnMainThread(callback, responseBody);
+                    T response = reader.read(request);
+                    notifySuccessOnMainThread(request, callback, response);
+                } catch (CancellationException e) {
+                    // the caller is gone; there is nobody left to notify
                 } catch (Exception e) {
-                    switch (retryStrategy) {
-                        case HttpClient.NO_RETRY:
-                            notifyErrorOnMainThread(callback, e);
-                            break;
-                        case HttpClient.RETRY_MAX_3_TIMES:
-                            retryGet(request, retryStrategy, callback);
-                            break;
-                    }
+                    retryOrNotifyError(request, retryPolicy, attempt, e, reader, callback);
                 }
             }
-        });
-    }
-
-    private void retryGet(final HttpRequest request, @RetryStrategy final int retryStrategy, final HttpResponseCallback callback) {
-        URL url = null;
-        try {
-            url = request.getURL();
-        } catch (MalformedURLException | URISyntaxException ignore) {}
-
-        if (url != null) {
-            int retryCount = getNumRetriesSoFar(url);
-            boolean shouldRetry = ((retryCount + 1) < MAX_RETRY_ATTEMPTS);
-            if (shouldRetry) {
-                scheduleRequest(request, retryStrategy, callback);
-                retryCountMap.put(url, retryCount + 1);
-            } else {
-                String message = "Retry limit has been exceeded. Try again later.";
-                HttpClientException retryLimitException = new HttpClientException(message);
-                notifyErrorOnMainThread(callback, retryLimitException);
-            }
+        };
+
+        if (delayMillis > 0) {
+            scheduler.runOnBackground(runnable, request.getPriority(), delayMillis);
+        } else {
+            scheduler.runOnBackground(runnable, request.getPriority());
         }
     }
 
-    private int getNumRetriesSoFar(URL url) {
-        Integer retryCount = retryCountMap.get(url);
-        if (retryCount == null) {
-            return 0;
+    private <T> void retryOrNotifyError(HttpRequest request, RetryPolicy retryPolicy, int attempt,
+            Exception error, ResponseReader<T> reader, ResultCallback<T> callback) {
+        if (retryPolicy.getMaxAttempts() <= 1 || !retryPolicy.isRetryable(error)) {
+            notifyErrorOnMainThread(request, callback, error);
+            return;
         }
-        return retryCount;
-    }
 
-    private void resetRetryCount(HttpRequest request) {
-        URL url = null;
-        try {
-            url = request.getURL();
-        } catch (MalformedURLException | URISyntaxException ignore) {}
+        if (attempt >= retryPolicy.getMaxAttempts()) {
+            String message = "Retry limit has been exceeded. Try again later.";
+            notifyErrorOnMainThread(request, callback, new HttpClientException(message));
+            return;
+        }
 
-        if (url != null) {
-            retryCountMap.remove(url);
+        long delayMillis = retryPolicy.getDelayMillis(attempt, error);
+        if (delayMillis == RetryPolicy.STOP_RETRYING || delayMillis >= getRemainingMillis(request)) {
+            // waiting would outlast the deadline, so report the failure now
+            notifyErrorOnMainThread(request, callback, error);
+            return;
         }
+
+        retryCount.incrementAndGet();
+        totalBackoffMillis.addAndGet(delayMillis);
+        scheduleRequest(request, retryPolicy, attempt + 1, delayMillis, reader, callback);
     }
 
-    private void notifySuccessOnMainThread(final HttpResponseCallback callback, final String responseBody) {
+    private <T> void notifySuccessOnMainThread(final HttpRequest request,
+            final ResultCallback<T> callback, final T response) {
         if (callback != null) {
             scheduler.runOnMain(new Runnable() {
                 @Override
                 public void run() {
-                    callback.onResult(responseBody, null);
+                    if (!isCancelled(request)) {
+                        callback.onResult(response, null);
+                    }
                 }
             });
         }
     }
 
-    private void notifyErrorOnMainThread(final HttpResponseCallback callback, final Exception e) {
+    private <T> void notifyErrorOnMainThread(final HttpRequest request,
+            final ResultCallback<T> callback, final Exception e) {
         if (callback != null) {
             scheduler.runOnMain(new Runnable() {
                 @Override
                 public void run() {
-                    callback.onResult(null, e);
+                    if (!isCancelled(request)) {
+                        callback.onResult(null, e);
+                    }
                 }
             });
         }
     }
+
+    private static boolean isCancelled(HttpRequest request) {
+        HttpRequestHandle requestHandle = request.getRequestHandle();
+        return requestHandle != null && requestHandle.isCancelled();
+    }
+
+    private static long getRemainingMillis(HttpRequest request) {
+        HttpRequestHandle requestHandle = request.getRequestHandle();
+        return (requestHandle != null) ? requestHandle.getRemainingMillis() : HttpRequestHandle.NO_DEADLINE;
+    }
+
+    private interface ResponseReader<T> {
+        T read(HttpRequest request) throws Exception;
+    }
+
+    private interface ResultCallback<T> {
+        void onResult(T response, Exception error);
+    }
 }
@@ -0,0 +1,261 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Keeps track of the sockets opened by {@link SynchronousHttpClient} when it runs in keep-alive
+ * mode. Connections themselves are pooled and reused by the platform
+ * {@link java.net.HttpURLConnection} implementation; this class bounds the number of idle
+ * connections kept per host, evicts connections to hosts that have been idle for longer than the
+ * keep-alive duration, and records how often requests were served over an existing connection.
+ */
+class HttpConnectionPool {
+
+    static final int DEFAULT_MAX_IDLE_CONNECTIONS_PER_HOST = 2;
+    static final long DEFAULT_KEEP_ALIVE_DURATION_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private static volatile HttpConnectionPool INSTANCE;
+
+    static HttpConnectionPool getInstance() {
+        if (INSTANCE == null) {
+            synchronized (HttpConnectionPool.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new HttpConnectionPool(
+                            DEFAULT_MAX_IDLE_CONNECTIONS_PER_HOST, DEFAULT_KEEP_ALIVE_DURATION_MS);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final int maxIdleConnectionsPerHost;
+    private final long keepAliveDurationMs;
+
+    // oldest connections first
+    private final List<PooledConnection> connections = new ArrayList<>();
+    private final Map<String, Integer> inFlightRequests = new HashMap<>();
+    private final Map<String, Long> lastUsedTimes = new HashMap<>();
+    // wrapped factories hold a strong reference to their delegate, so values are weakly held too
+    private final Map<SSLSocketFactory, WeakReference<SSLSocketFactory>> wrappedSocketFactories =
+            new WeakHashMap<>();
+
+    private long requestCount;
+    private long connectionCount;
+
+    @VisibleForTesting
+    HttpConnectionPool(int maxIdleConnectionsPerHost, long keepAliveDurationMs) {
+        this.maxIdleConnectionsPerHost = maxIdleConnectionsPerHost;
+        this.keepAliveDurationMs = keepAliveDurationMs;
+    }
+
+    /**
+     * Wrap a socket factory so that sockets it creates are registered with this pool. Wrapping the
+     * same factory again returns the same instance; the platform only reuses a pooled connection
+     * for requests that use the same {@link SSLSocketFactory} instance, so clients that share a
+     * socket factory also share connections.
+     */
+    synchronized SSLSocketFactory wrap(SSLSocketFactory socketFactory) {
+        WeakReference<SSLSocketFactory> reference = wrappedSocketFactories.get(socketFactory);
+        SSLSocketFactory wrapped = (reference == null) ? null : reference.get();
+        if (wrapped == null) {
+            wrapped = new PooledSSLSocketFactory(socketFactory, this);
+            wrappedSocketFactories.put(socketFactory, new WeakReference<>(wrapped));
+        }
+        return wrapped;
+    }
+
+    synchronized void onRequestStart(String host) {
+        host = normalize(host);
+        requestCount++;
+        inFlightRequests.put(host, getInFlightRequestCount(host) + 1);
+        evictIdleConnections(System.currentTimeMillis());
+    }
+
+    synchronized void onRequestEnd(String host) {
+        onRequestEnd(host, System.currentTimeMillis());
+    }
+
+    @VisibleForTesting
+    synchronized void onRequestEnd(String host, long currentTimeMillis) {
+        host = normalize(host);
+        int inFlight = getInFlightRequestCount(host) - 1;
+        if (inFlight > 0) {
+            inFlightRequests.put(host, inFlight);
+        } else {
+            inFlightRequests.remove(host);
+        }
+        lastUsedTimes.put(host, currentTimeMillis);
+        evictIdleConnections(currentTimeMillis);
+    }
+
+    synchronized void onConnectionOpened(String host, Socket socket) {
+        connectionCount++;
+        connections.add(new PooledConnection(normalize(host), socket));
+    }
+
+    /**
+     * Close connections to hosts without in-flight requests that have either been idle for longer
+     * than the keep-alive duration or exceed the per-host idle connection limit.
+     */
+    @VisibleForTesting
+    synchronized void evictIdleConnections(long currentTimeMillis) {
+        Map<String, Integer> liveConnectionsPerHost = new HashMap<>();
+        List<PooledConnection> newestFirst = new ArrayList<>(connections);
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            PooledConnection connection = newestFirst.get(i);
+            if (connection.socket.isClosed()) {
+                connections.remove(connection);
+                continue;
+            }
+
+            String host = connection.host;
+            if (getInFlightRequestCount(host) > 0) {
+                continue;
+            }
+
+            Long lastUsedTime = lastUsedTimes.get(host);
+            boolean isExpired = lastUsedTime != null
+                    && (currentTimeMillis - lastUsedTime) >= keepAliveDurationMs;
+
+            Integer liveConnections = liveConnectionsPerHost.get(host);
+            int liveCount = (liveConnections == null) ? 0 : liveConnections;
+            boolean exceedsLimit = liveCount >= maxIdleConnectionsPerHost;
+
+            if (isExpired || exceedsLimit) {
+                close(connection);
+                connections.remove(connection);
+            } else {
+                liveConnectionsPerHost.put(host, liveCount + 1);
+            }
+        }
+    }
+
+    /**
+     * @return the number of open connections currently held by the pool.
+     */
+    synchronized int getPoolSize() {
+        Iterator<PooledConnection> iterator = connections.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().socket.isClosed()) {
+                iterator.remove();
+            }
+        }
+        return connections.size();
+    }
+
+    synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    synchronized long getConnectionCount() {
+        return connectionCount;
+    }
+
+    /**
+     * @return the fraction of requests that were sent over an existing connection instead of
+     * opening a new one.
+     */
+    synchronized double getReuseHitRate() {
+        if (requestCount == 0) {
+            return 0;
+        }
+        long reusedRequests = Math.max(0, requestCount - connectionCount);
+        return (double) reusedRequests / requestCount;
+    }
+
+    private int getInFlightRequestCount(String host) {
+        Integer inFlight = inFlightRequests.get(host);
+        return (inFlight == null) ? 0 : inFlight;
+    }
+
+    private static String normalize(String host) {
+        return (host == null) ? "" : host;
+    }
+
+    private static void close(PooledConnection connection) {
+        try {
+            connection.socket.close();
+        } catch (IOException ignored) {}
+    }
+
+    private static class PooledConnection {
+
+        private final String host;
+        private final Socket socket;
+
+        PooledConnection(String host, Socket socket) {
+            this.host = host;
+            this.socket = socket;
+        }
+    }
+
+    private static class PooledSSLSocketFactory extends SSLSocketFactory {
+
+        private final SSLSocketFactory delegate;
+        private final HttpConnectionPool pool;
+
+        PooledSSLSocketFactory(SSLSocketFactory delegate, HttpConnectionPool pool) {
+            this.delegate = delegate;
+            this.pool = pool;
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return delegate.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return delegate.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket(Socket s, String host, int port, boolean autoClose)
+                throws IOException {
+            return register(host, delegate.createSocket(s, host, port, autoClose));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) throws IOException {
+            return register(host, delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+                throws IOException {
+            return register(host, delegate.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) throws IOException {
+            return register(host.getHostName(), delegate.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+                int localPort) throws IOException {
+            return register(address.getHostName(),
+                    delegate.createSocket(address, port, localAddress, localPort));
+        }
+
+        private Socket register(String host, Socket socket) {
+            pool.onConnectionOpened(host, socket);
+            return socket;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.braintreepayments.api;
 
+import androidx.annotation.IntDef;
+
 import java.io.File;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -14,12 +18,28 @@ import java.util.Map;
 
 class HttpRequest {
 
+    /**
+     * Scheduling priority of a request on the shared {@link NetworkExecutor}. Requests are
+     * scheduled with {@link #PRIORITY_HIGH} unless they opt into a lower priority.
+     */
+    @IntDef({ PRIORITY_HIGH, PRIORITY_NORMAL, PRIORITY_LOW })
+    @Retention(RetentionPolicy.SOURCE)
+    @interface Priority {
+    }
+
+    static final int PRIORITY_HIGH = 0;
+    static final int PRIORITY_NORMAL = 1;
+    static final int PRIORITY_LOW = 2;
+
     private static final int THIRTY_SECONDS_MS = 30000;
 
     private String path;
     private String baseUrl;
     private byte[] data;
+    private HttpRequestBody body;
     private String method;
+    private int priority;
+    private HttpRequestHandle requestHandle;
 
     private final int readTimeout;
     private final int connectTimeout;
@@ -35,6 +55,7 @@ class HttpRequest {
         headers = null;
         additionalHeaders = new HashMap<>();
         baseUrl = "";
+        priority = PRIORITY_HIGH;
 
         readTimeout = THIRTY_SECONDS_MS;
         connectTimeout = THIRTY_SECONDS_MS;
@@ -55,11 +76,32 @@ class HttpRequest {
         return this;
     }
 
+    /**
+     * Stream the body of this request with the given writer instead of sending {@link #data}.
+     */
+    HttpRequest body(HttpRequestBody body) {
+        this.body = body;
+        return this;
+    }
+
     HttpRequest method(String method) {
         this.method = method;
         return this;
     }
 
+    HttpRequest priority(@Priority int priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    /**
+     * Send this request with the deadline and cancellation of the given handle.
+     */
+    HttpRequest handle(HttpRequestHandle requestHandle) {
+        this.requestHandle = requestHandle;
+        return this;
+    }
+
     HttpRequest addHeader(String name, String value) {
         additionalHeaders.put(name, value);
         return this;
@@ -73,6 +115,10 @@ class HttpRequest {
         return data;
     }
 
+    HttpRequestBody getBody() {
+        return body;
+    }
+
     void dispose() {
         // overwrite data content with zeros
         if (data != null) {
@@ -84,6 +130,15 @@ class HttpRequest {
         return method;
     }
 
+    @Priority
+    int getPriority() {
+        return priority;
+    }
+
+    HttpRequestHandle getRequestHandle() {
+        return requestHandle;
+    }
+
     Map<String, String> getHeaders() {
         if (headers == null) {
             headers = new HashMap<>();
@@ -94,12 +149,33 @@ class HttpRequest {
         return Collections.unmodifiableMap(headers);
     }
 
+    /**
+     * @return the time to wait for the response: whatever is left of the deadline of the request
+     * handle, or 30 seconds when there is none.
+     */
     int getReadTimeout() {
-        return readTimeout;
+        long remainingMillis = getRemainingMillis();
+        if (remainingMillis == HttpRequestHandle.NO_DEADLINE) {
+            return readTimeout;
+        }
+        return toTimeout(remainingMillis);
     }
 
+    /**
+     * @return the time to wait for a connection: 30 seconds, or less if the deadline of the
+     * request handle is closer.
+     */
     int getConnectTimeout() {
-        return connectTimeout;
+        return toTimeout(Math.min(connectTimeout, getRemainingMillis()));
+    }
+
+    private long getRemainingMillis() {
+        return (requestHandle != null) ? requestHandle.getRemainingMillis() : HttpRequestHandle.NO_DEADLINE;
+    }
+
+    private static int toTimeout(long millis) {
+        // a timeout of zero means "wait forever" to HttpURLConnection, so never go below 1ms
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, millis));
     }
 
     URL getURL() throws MalformedURLException, URISyntaxException {
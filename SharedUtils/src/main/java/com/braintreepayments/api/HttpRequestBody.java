@@ -0,0 +1,14 @@
+package com.braintreepayments.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A request body that is written straight to the connection output stream when the request is
+ * sent, instead of being serialized to a string and copied into a byte array up front. The body
+ * may be written more than once if the request is retried.
+ */
+interface HttpRequestBody {
+
+    void writeTo(OutputStream out) throws IOException;
+}
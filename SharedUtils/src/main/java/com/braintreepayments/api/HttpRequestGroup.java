@@ -0,0 +1,100 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.RestrictTo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requests started by a feature client that are cancelled together when the host of the client is
+ * destroyed.
+ *
+ * Every request gets a handle of its own, so cancelling the group only affects the requests that
+ * are pending at that moment; requests started afterwards are sent normally. Cancelled requests
+ * are dropped silently: their callbacks are never called, because the host they would report to
+ * is gone.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class HttpRequestGroup {
+
+    private final Map<HttpRequestHandle, HttpResponseCallback> pendingRequests =
+            new LinkedHashMap<>();
+
+    private volatile long requestTimeoutMillis = HttpRequestHandle.NO_DEADLINE;
+
+    /**
+     * Give every request started from now on a deadline of its own.
+     *
+     * @param requestTimeoutMillis time after which a request fails with a
+     * {@link DeadlineExceededException}, or {@link HttpRequestHandle#NO_DEADLINE} to let requests
+     * time out individually.
+     */
+    public void setRequestTimeout(long requestTimeoutMillis) {
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    /**
+     * @return a new handle for a request in this group, with the deadline set by
+     * {@link #setRequestTimeout(long)}.
+     */
+    public HttpRequestHandle newRequestHandle() {
+        return newRequestHandle(requestTimeoutMillis);
+    }
+
+    /**
+     * @param timeoutMillis time from now after which the request fails with a
+     * {@link DeadlineExceededException}, or {@link HttpRequestHandle#NO_DEADLINE} for none.
+     * @return a new handle for a request in this group.
+     */
+    public HttpRequestHandle newRequestHandle(long timeoutMillis) {
+        if (timeoutMillis == HttpRequestHandle.NO_DEADLINE) {
+            return new HttpRequestHandle();
+        }
+        return new HttpRequestHandle(timeoutMillis);
+    }
+
+    /**
+     * Track the request sent with {@code requestHandle} until its result is delivered.
+     *
+     * @param requestHandle the handle the request is sent with
+     * @param callback the callback for the result of the request
+     * @return the callback to send the request with
+     */
+    public HttpResponseCallback track(final HttpRequestHandle requestHandle,
+            final HttpResponseCallback callback) {
+        synchronized (pendingRequests) {
+            pendingRequests.put(requestHandle, callback);
+        }
+        return new HttpResponseCallback() {
+            @Override
+            public void onResult(String responseBody, Exception httpError) {
+                synchronized (pendingRequests) {
+                    pendingRequests.remove(requestHandle);
+                }
+                if (!requestHandle.isCancelled()) {
+                    callback.onResult(responseBody, httpError);
+                }
+            }
+        };
+    }
+
+    /**
+     * Cancel every pending request of this group and drop its callback without calling it.
+     */
+    @MainThread
+    public void cancelAll() {
+        List<HttpRequestHandle> cancelled;
+        synchronized (pendingRequests) {
+            cancelled = new ArrayList<>(pendingRequests.keySet());
+            pendingRequests.clear();
+        }
+        for (HttpRequestHandle requestHandle : cancelled) {
+            requestHandle.cancel();
+        }
+    }
+}
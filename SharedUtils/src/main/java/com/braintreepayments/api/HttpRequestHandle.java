@@ -0,0 +1,118 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.RestrictTo;
+
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deadline and cancellation shared by every request sent with this handle.
+ *
+ * The deadline starts when the handle is created and covers all of the work done for the caller,
+ * including loading configuration and waiting between retries, so a handle can be reused across a
+ * chain of requests that together must finish in time. Cancelling a handle aborts its in-flight
+ * connections and drops any response that has not been delivered yet; a cancelled handle stays
+ * cancelled. Feature clients send each request with a handle of its own from an
+ * {@link HttpRequestGroup} and cancel the group when the {@link androidx.lifecycle.Lifecycle} they
+ * observe is destroyed.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class HttpRequestHandle {
+
+    public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long deadlineNanos;
+    private final boolean hasDeadline;
+
+    private final Set<HttpURLConnection> connections = new HashSet<>();
+    private volatile boolean isCancelled;
+
+    /**
+     * Create a handle without a deadline. Requests still time out individually.
+     */
+    public HttpRequestHandle() {
+        this.hasDeadline = false;
+        this.deadlineNanos = 0;
+    }
+
+    /**
+     * @param timeoutMillis time from now after which requests sent with this handle fail with a
+     * {@link DeadlineExceededException}.
+     */
+    public HttpRequestHandle(long timeoutMillis) {
+        this.hasDeadline = true;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+    }
+
+    /**
+     * Abort in-flight requests and drop responses that have not been delivered yet.
+     */
+    public void cancel() {
+        List<HttpURLConnection> openConnections;
+        synchronized (connections) {
+            if (isCancelled) {
+                return;
+            }
+            isCancelled = true;
+            openConnections = new ArrayList<>(connections);
+            connections.clear();
+        }
+        // disconnecting unblocks the thread waiting on the response with an IOException
+        for (HttpURLConnection connection : openConnections) {
+            connection.disconnect();
+        }
+    }
+
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    public boolean isDeadlineExceeded() {
+        return hasDeadline && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * @return the time left before the deadline, or {@link #NO_DEADLINE} when there is none.
+     */
+    long getRemainingMillis() {
+        if (!hasDeadline) {
+            return NO_DEADLINE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * @throws CancellationException if this handle was cancelled.
+     * @throws DeadlineExceededException if the deadline of this handle has passed.
+     */
+    void ensureActive() throws DeadlineExceededException {
+        if (isCancelled) {
+            throw new CancellationException("Request was cancelled");
+        }
+        if (isDeadlineExceeded()) {
+            throw new DeadlineExceededException("Request did not complete before its deadline");
+        }
+    }
+
+    void attach(HttpURLConnection connection) {
+        synchronized (connections) {
+            if (isCancelled) {
+                throw new CancellationException("Request was cancelled");
+            }
+            connections.add(connection);
+        }
+    }
+
+    void detach(HttpURLConnection connection) {
+        synchronized (connections) {
+            connections.remove(connection);
+        }
+    }
+}
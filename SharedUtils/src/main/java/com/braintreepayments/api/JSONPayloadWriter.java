@@ -0,0 +1,19 @@
+package com.braintreepayments.api;
+
+import android.util.JsonWriter;
+
+import androidx.annotation.RestrictTo;
+
+import java.io.IOException;
+
+/**
+ * Writes the fields of a JSON object request body. The enclosing object is opened and closed by
+ * the HTTP client, which can add its own fields, such as authorization, to the same object.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface JSONPayloadWriter {
+
+    void writeFields(JsonWriter writer) throws IOException;
+}
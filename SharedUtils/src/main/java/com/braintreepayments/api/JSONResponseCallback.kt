@@ -0,0 +1,15 @@
+package com.braintreepayments.api
+
+import androidx.annotation.MainThread
+import androidx.annotation.RestrictTo
+import org.json.JSONObject
+
+/**
+ * @suppress
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+fun interface JSONResponseCallback {
+
+    @MainThread
+    fun onResult(response: JSONObject?, httpError: Exception?)
+}
@@ -0,0 +1,20 @@
+package com.braintreepayments.api;
+
+import org.json.JSONObject;
+
+import java.net.HttpURLConnection;
+
+/**
+ * An {@link HttpResponseParser} that can return the response body as parsed JSON. Parsers that
+ * already parse the body, for example to check it for errors, implement this so that the parsed
+ * object is handed to the caller instead of being parsed a second time.
+ */
+interface JSONResponseParser extends HttpResponseParser {
+
+    /**
+     * @param responseCode the response code returned when the http request was made.
+     * @param connection the connection through which the http request was made.
+     * @return the body of the http response parsed as JSON.
+     */
+    JSONObject parseJSON(int responseCode, HttpURLConnection connection) throws Exception;
+}
@@ -1,7 +1,16 @@
 package com.braintreepayments.api;
 
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.util.Iterator;
+
 class Json {
 
     /**
@@ -30,4 +39,130 @@ class Json {
             return json.optBoolean(name, fallback);
         }
     }
+
+    /**
+     * Streaming counterpart of {@link #optString(JSONObject, String, String)}. Reads the next
+     * value, coercing numbers and booleans to strings, or returns fallback if the value is null.
+     * Objects and arrays are skipped and also return fallback.
+     */
+    static String nextString(JsonReader reader, String fallback) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+            case NUMBER:
+                return reader.nextString();
+            case BOOLEAN:
+                return String.valueOf(reader.nextBoolean());
+            case NULL:
+                reader.nextNull();
+                return fallback;
+            default:
+                reader.skipValue();
+                return fallback;
+        }
+    }
+
+    /**
+     * Streaming counterpart of {@link JSONObject#optBoolean(String, boolean)}. Reads the next
+     * value as a boolean, accepting the strings "true" and "false", or returns fallback.
+     */
+    static boolean nextBoolean(JsonReader reader, boolean fallback) throws IOException {
+        if (reader.peek() == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        } else if (reader.peek() == JsonToken.STRING) {
+            String value = reader.nextString();
+            if ("true".equalsIgnoreCase(value)) {
+                return true;
+            } else if ("false".equalsIgnoreCase(value)) {
+                return false;
+            }
+            return fallback;
+        }
+        reader.skipValue();
+        return fallback;
+    }
+
+    /**
+     * @return true if the next value is a JSON object; otherwise the value is skipped.
+     */
+    static boolean nextIsObject(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+            return true;
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    /**
+     * Wrap an error raised by {@link JsonReader} so that streaming parsers fail with the same
+     * {@link JSONException} as their {@link JSONObject} based counterparts.
+     */
+    static JSONException toJSONException(Exception cause) {
+        JSONException exception = new JSONException(cause.getMessage());
+        exception.initCause(cause);
+        return exception;
+    }
+
+    /**
+     * Streaming counterpart of {@link JSONObject#putOpt(String, Object)}: write the field only if
+     * value is not null.
+     */
+    static void writeOpt(JsonWriter writer, String name, String value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+
+    static void writeOpt(JsonWriter writer, String name, Number value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+
+    /**
+     * Write the fields of json to a writer whose enclosing object is already open, producing the
+     * same document as {@link JSONObject#toString()} without building the intermediate string.
+     * A null json writes no fields.
+     */
+    static void writeFields(JsonWriter writer, JSONObject json) throws IOException {
+        if (json == null) {
+            return;
+        }
+        Iterator<String> names = json.keys();
+        while (names.hasNext()) {
+            String name = names.next();
+            writer.name(name);
+            writeValue(writer, json.opt(name));
+        }
+    }
+
+    private static void writeValue(JsonWriter writer, Object value) throws IOException {
+        if (value == null || value == JSONObject.NULL) {
+            writer.nullValue();
+        } else if (value instanceof JSONObject) {
+            writer.beginObject();
+            writeFields(writer, (JSONObject) value);
+            writer.endObject();
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            writer.beginArray();
+            for (int i = 0; i < array.length(); i++) {
+                writeValue(writer, array.opt(i));
+            }
+            writer.endArray();
+        } else if (value instanceof Boolean) {
+            writer.value((Boolean) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            // JSONObject writes whole doubles without a fraction, e.g. 10 instead of 10.0
+            if (number == (long) number) {
+                writer.value((long) number);
+            } else {
+                writer.value(number);
+            }
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else {
+            writer.value(value.toString());
+        }
+    }
 }
@@ -0,0 +1,113 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide, bounded executor shared by every {@link HttpClient}. Work is ordered by
+ * {@link HttpRequest.Priority} so that merchant initiated requests (e.g. tokenization) are picked
+ * up ahead of configuration refreshes and analytics uploads. Tasks with the same priority run in
+ * submission order.
+ */
+class NetworkExecutor extends ThreadPoolExecutor {
+
+    static final int MAX_THREADS = 4;
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static volatile NetworkExecutor INSTANCE;
+
+    static NetworkExecutor getInstance() {
+        if (INSTANCE == null) {
+            synchronized (NetworkExecutor.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new NetworkExecutor(MAX_THREADS);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    @VisibleForTesting
+    NetworkExecutor(int maxThreads) {
+        // a PriorityBlockingQueue is unbounded, so the pool never grows past its core size;
+        // core threads are allowed to time out so an idle SDK holds no threads
+        super(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<Runnable>(), new NetworkThreadFactory());
+        allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        if (command instanceof PrioritizedRunnable) {
+            super.execute(command);
+        } else {
+            super.execute(new PrioritizedRunnable(command, HttpRequest.PRIORITY_HIGH));
+        }
+    }
+
+    /**
+     * @return the number of tasks waiting for a thread to become available.
+     */
+    int getQueueDepth() {
+        return getQueue().size();
+    }
+
+    /**
+     * @return the approximate number of threads actively executing requests.
+     */
+    int getActiveThreadCount() {
+        return getActiveCount();
+    }
+
+    static class PrioritizedRunnable implements Runnable, Comparable<PrioritizedRunnable> {
+
+        private static final AtomicLong SEQUENCE = new AtomicLong();
+
+        private final Runnable runnable;
+        private final int priority;
+        private final long sequenceNumber;
+
+        PrioritizedRunnable(Runnable runnable, @HttpRequest.Priority int priority) {
+            this.runnable = runnable;
+            this.priority = priority;
+            this.sequenceNumber = SEQUENCE.getAndIncrement();
+        }
+
+        int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedRunnable other) {
+            if (priority != other.priority) {
+                return priority < other.priority ? -1 : 1;
+            }
+            return Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+
+    private static class NetworkThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "braintree-network-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Reusable byte buffers for reading HTTP response bodies. A response is read straight into a
+ * pooled buffer that is presized from the expected body length and decoded to a {@link String}
+ * in a single copy, instead of going through a small read buffer, a growing
+ * {@link java.io.ByteArrayOutputStream} and an intermediate byte array.
+ *
+ * Only a few buffers are kept, one per concurrent reader at most, and buffers that grew past
+ * {@link #MAX_POOLED_BUFFER_SIZE} for an unusually large response are dropped instead of pooled.
+ * The pool also counts the bytes it had to allocate so that the allocation cost per response can
+ * be measured.
+ */
+class ResponseBufferPool {
+
+    static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    static final int MAX_POOLED_BUFFER_SIZE = 256 * 1024;
+    static final int DEFAULT_MAX_POOLED_BUFFERS = 4;
+
+    // typical compression ratio of JSON payloads; only used to presize the buffer for gzip bodies
+    private static final int GZIP_EXPANSION_ESTIMATE = 4;
+
+    private static volatile ResponseBufferPool INSTANCE;
+
+    static ResponseBufferPool getInstance() {
+        if (INSTANCE == null) {
+            synchronized (ResponseBufferPool.class) {
+                // double check that instance was not created in another thread
+                if (INSTANCE == null) {
+                    INSTANCE = new ResponseBufferPool(DEFAULT_MAX_POOLED_BUFFERS);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private final int maxPooledBuffers;
+    private final Deque<byte[]> buffers = new ArrayDeque<>();
+
+    private long allocatedBytes;
+    private long responseCount;
+
+    @VisibleForTesting
+    ResponseBufferPool(int maxPooledBuffers) {
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    /**
+     * Read {@code in} to the end and decode it as UTF-8. The stream is not closed.
+     *
+     * @param in the response body stream.
+     * @param contentLength the length of the body as sent by the server, or a value less than one
+     * if unknown.
+     * @param gzip whether {@code in} decompresses a gzip body, in which case the decoded body is
+     * expected to be larger than {@code contentLength}.
+     * @return the decoded response body.
+     */
+    String readString(InputStream in, int contentLength, boolean gzip) throws IOException {
+        int expectedSize = estimateSize(contentLength, gzip);
+        byte[] buffer = acquire(expectedSize);
+        long allocated = 0;
+        int size = 0;
+        try {
+            while (true) {
+                if (size == buffer.length) {
+                    // the body may end exactly at the presized length; only grow if it does not
+                    int next = in.read();
+                    if (next == -1) {
+                        break;
+                    }
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    allocated += buffer.length;
+                    buffer[size++] = (byte) next;
+                }
+                int count = in.read(buffer, size, buffer.length - size);
+                if (count == -1) {
+                    break;
+                }
+                size += count;
+            }
+            allocated += size * 2L; // UTF-16 chars of the decoded string, at most one per byte
+            return new String(buffer, 0, size, StandardCharsets.UTF_8);
+        } finally {
+            release(buffer, size, allocated);
+        }
+    }
+
+    /**
+     * @return the average number of bytes allocated to read a response, including the decoded
+     * string.
+     */
+    synchronized long getAllocatedBytesPerResponse() {
+        return (responseCount == 0) ? 0 : allocatedBytes / responseCount;
+    }
+
+    synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    synchronized int getPooledBufferCount() {
+        return buffers.size();
+    }
+
+    private static int estimateSize(int contentLength, boolean gzip) {
+        if (contentLength <= 0) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+        long estimate = gzip ? (long) contentLength * GZIP_EXPANSION_ESTIMATE : contentLength;
+        return (int) Math.min(estimate, MAX_POOLED_BUFFER_SIZE);
+    }
+
+    private synchronized byte[] acquire(int minimumSize) {
+        // pooled buffers are all at least DEFAULT_BUFFER_SIZE; take the first one that fits
+        for (byte[] buffer : buffers) {
+            if (buffer.length >= minimumSize) {
+                buffers.remove(buffer);
+                return buffer;
+            }
+        }
+        byte[] buffer = new byte[Math.max(minimumSize, DEFAULT_BUFFER_SIZE)];
+        allocatedBytes += buffer.length;
+        return buffer;
+    }
+
+    private synchronized void release(byte[] buffer, int size, long allocated) {
+        allocatedBytes += allocated;
+        responseCount++;
+        if (buffer.length <= MAX_POOLED_BUFFER_SIZE && buffers.size() < maxPooledBuffers) {
+            // responses can contain payment method nonces; do not keep them around in the pool
+            Arrays.fill(buffer, 0, size, (byte) 0);
+            buffers.push(buffer);
+        }
+    }
+}
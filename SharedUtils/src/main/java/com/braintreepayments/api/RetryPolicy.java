@@ -0,0 +1,103 @@
+package com.braintreepayments.api;
+
+import androidx.annotation.VisibleForTesting;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether a failed {@link HttpRequest} is retried and how long to wait before the next
+ * attempt. Delays grow exponentially with "full jitter" (a random delay between zero and the
+ * exponential cap) so that clients failing at the same time do not retry in lockstep. A
+ * Retry-After delay sent with a 429 or 503 response takes precedence over the computed delay.
+ */
+class RetryPolicy {
+
+    static final long STOP_RETRYING = -1;
+
+    /**
+     * Retry-After delay of a 429 or 503 response that did not send a valid Retry-After header.
+     */
+    static final long NO_RETRY_AFTER = -1;
+
+    static final RetryPolicy NONE = new RetryPolicy(1, 0, 0, 0);
+
+    static final RetryPolicy EXPONENTIAL_BACKOFF = new RetryPolicy(
+            HttpClient.MAX_RETRY_ATTEMPTS,
+            TimeUnit.SECONDS.toMillis(1),
+            TimeUnit.SECONDS.toMillis(10),
+            TimeUnit.SECONDS.toMillis(60)
+    );
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long maxRetryAfterMillis;
+    private final Random random;
+
+    RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, long maxRetryAfterMillis) {
+        this(maxAttempts, baseDelayMillis, maxDelayMillis, maxRetryAfterMillis, new Random());
+    }
+
+    @VisibleForTesting
+    RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis,
+            long maxRetryAfterMillis, Random random) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.maxRetryAfterMillis = maxRetryAfterMillis;
+        this.random = random;
+    }
+
+    static RetryPolicy from(@HttpClient.RetryStrategy int retryStrategy) {
+        return (retryStrategy == HttpClient.RETRY_MAX_3_TIMES) ? EXPONENTIAL_BACKOFF : NONE;
+    }
+
+    int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Errors caused by the request itself (4xx responses other than 429) fail the same way on
+     * every attempt, so they are never retried, and neither are requests whose deadline has
+     * passed. Everything else, including network errors and 5xx responses, is considered
+     * transient.
+     */
+    boolean isRetryable(Exception error) {
+        return !(error instanceof DeadlineExceededException
+                || error instanceof UnprocessableEntityException
+                || error instanceof AuthenticationException
+                || error instanceof AuthorizationException
+                || error instanceof UpgradeRequiredException);
+    }
+
+    /**
+     * @param attempt the number of attempts made so far, starting at 1.
+     * @param error the error that caused the attempt to fail.
+     * @return the delay in milliseconds before the next attempt, or {@link #STOP_RETRYING} when the
+     * server asked the client to wait longer than this policy allows.
+     */
+    long getDelayMillis(int attempt, Exception error) {
+        long retryAfterMillis = getRetryAfterMillis(error);
+        if (retryAfterMillis != NO_RETRY_AFTER) {
+            return (retryAfterMillis <= maxRetryAfterMillis) ? retryAfterMillis : STOP_RETRYING;
+        }
+
+        if (baseDelayMillis <= 0) {
+            return 0;
+        }
+        // cap the shift so the exponential term cannot overflow
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << exponent);
+        return (long) (random.nextDouble() * (cap + 1));
+    }
+
+    private static long getRetryAfterMillis(Exception error) {
+        if (error instanceof RateLimitException) {
+            return ((RateLimitException) error).getRetryAfterMillis();
+        } else if (error instanceof ServiceUnavailableException) {
+            return ((ServiceUnavailableException) error).getRetryAfterMillis();
+        }
+        return NO_RETRY_AFTER;
+    }
+}
@@ -3,4 +3,6 @@ package com.braintreepayments.api;
 interface Scheduler {
     void runOnMain(Runnable runnable);
     void runOnBackground(Runnable runnable);
+    void runOnBackground(Runnable runnable, @HttpRequest.Priority int priority);
+    void runOnBackground(Runnable runnable, @HttpRequest.Priority int priority, long delayMillis);
 }
@@ -6,7 +6,22 @@ package com.braintreepayments.api;
  */
 public class ServiceUnavailableException extends Exception {
 
+    private final long retryAfterMillis;
+
     ServiceUnavailableException(String message) {
+        this(message, RetryPolicy.NO_RETRY_AFTER);
+    }
+
+    ServiceUnavailableException(String message, long retryAfterMillis) {
         super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return how long the server asked the client to wait before retrying, as sent in the
+     * Retry-After header, or {@link RetryPolicy#NO_RETRY_AFTER} when the header was not present.
+     */
+    long getRetryAfterMillis() {
+        return retryAfterMillis;
     }
 }
@@ -1,5 +1,8 @@
 package com.braintreepayments.api;
 
+import org.json.JSONObject;
+
+import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -12,19 +15,33 @@ import javax.net.ssl.SSLSocketFactory;
 /**
  * This class performs an http request on the calling thread. The external caller is
  * responsible for thread scheduling to ensure that this is not called on the main thread.
+ *
+ * When created with an {@link HttpConnectionPool}, connections are kept alive after a successful
+ * response so that subsequent requests to the same host can reuse them. Otherwise each connection
+ * is closed once its response has been parsed.
  */
 class SynchronousHttpClient {
 
     private SSLSocketFactory socketFactory;
     private final HttpResponseParser parser;
+    private final HttpConnectionPool connectionPool;
 
     SynchronousHttpClient(SSLSocketFactory socketFactory, HttpResponseParser parser) {
+        this(socketFactory, parser, null);
+    }
+
+    SynchronousHttpClient(
+            SSLSocketFactory socketFactory,
+            HttpResponseParser parser,
+            HttpConnectionPool connectionPool
+    ) {
         this.parser = parser;
+        this.connectionPool = connectionPool;
         if (socketFactory != null) {
-            this.socketFactory = socketFactory;
+            setSSLSocketFactory(socketFactory);
         } else {
             try {
-                this.socketFactory = TLSSocketFactory.newInstance();
+                setSSLSocketFactory(TLSSocketFactory.newInstance());
             } catch (SSLException e) {
                 this.socketFactory = null;
             }
@@ -32,13 +49,33 @@ class SynchronousHttpClient {
     }
 
     void setSSLSocketFactory(SSLSocketFactory socketFactory) {
-        this.socketFactory = socketFactory;
+        if (connectionPool != null && socketFactory != null) {
+            // wrap once; pooled connections are only reused for the same socket factory instance
+            this.socketFactory = connectionPool.wrap(socketFactory);
+        } else {
+            this.socketFactory = socketFactory;
+        }
     }
 
     String request(HttpRequest httpRequest) throws Exception {
+        return request(httpRequest, BODY_READER);
+    }
+
+    /**
+     * @return the response body parsed as JSON, or null if the response has no body.
+     */
+    JSONObject requestJSON(HttpRequest httpRequest) throws Exception {
+        return request(httpRequest, JSON_READER);
+    }
+
+    private <T> T request(HttpRequest httpRequest, ResponseReader<T> reader) throws Exception {
         if (httpRequest.getPath() == null) {
             throw new IllegalArgumentException("Path cannot be null");
         }
+        HttpRequestHandle requestHandle = httpRequest.getRequestHandle();
+        if (requestHandle != null) {
+            requestHandle.ensureActive();
+        }
         URL url = httpRequest.getURL();
 
         HttpURLConnection connection = (HttpURLConnection) url.openConnection();
@@ -49,6 +86,50 @@ class SynchronousHttpClient {
             ((HttpsURLConnection) connection).setSSLSocketFactory(socketFactory);
         }
 
+        if (requestHandle == null) {
+            return execute(url, connection, httpRequest, reader);
+        }
+
+        // registering the connection lets HttpRequestHandle#cancel() abort it from another thread
+        requestHandle.attach(connection);
+        try {
+            return execute(url, connection, httpRequest, reader);
+        } catch (IOException e) {
+            // surface why the connection was aborted or timed out early, if the handle caused it
+            requestHandle.ensureActive();
+            throw e;
+        } finally {
+            requestHandle.detach(connection);
+        }
+    }
+
+    private <T> T execute(URL url, HttpURLConnection connection, HttpRequest httpRequest,
+            ResponseReader<T> reader) throws Exception {
+        if (connectionPool == null) {
+            try {
+                return sendRequest(connection, httpRequest, reader);
+            } finally {
+                connection.disconnect();
+            }
+        }
+
+        String host = url.getHost();
+        connectionPool.onRequestStart(host);
+        try {
+            // the parser fully reads and closes the response stream, which releases the
+            // connection back to the platform connection pool
+            return sendRequest(connection, httpRequest, reader);
+        } catch (Exception e) {
+            // a connection in an unknown state should not be reused
+            connection.disconnect();
+            throw e;
+        } finally {
+            connectionPool.onRequestEnd(host);
+        }
+    }
+
+    private <T> T sendRequest(HttpURLConnection connection, HttpRequest httpRequest,
+            ResponseReader<T> reader) throws Exception {
         String requestMethod = httpRequest.getMethod();
         connection.setRequestMethod(requestMethod);
 
@@ -66,18 +147,44 @@ class SynchronousHttpClient {
             connection.setDoOutput(true);
 
             OutputStream outputStream = connection.getOutputStream();
-            outputStream.write(httpRequest.getData());
+            HttpRequestBody body = httpRequest.getBody();
+            if (body != null) {
+                body.writeTo(outputStream);
+            } else {
+                outputStream.write(httpRequest.getData());
+            }
             outputStream.flush();
             outputStream.close();
 
             httpRequest.dispose();
         }
 
-        try {
-            int responseCode = connection.getResponseCode();
+        int responseCode = connection.getResponseCode();
+        return reader.read(parser, responseCode, connection);
+    }
+
+    private interface ResponseReader<T> {
+        T read(HttpResponseParser parser, int responseCode, HttpURLConnection connection)
+                throws Exception;
+    }
+
+    private static final ResponseReader<String> BODY_READER = new ResponseReader<String>() {
+        @Override
+        public String read(HttpResponseParser parser, int responseCode,
+                HttpURLConnection connection) throws Exception {
             return parser.parse(responseCode, connection);
-        } finally {
-            connection.disconnect();
         }
-    }
+    };
+
+    private static final ResponseReader<JSONObject> JSON_READER = new ResponseReader<JSONObject>() {
+        @Override
+        public JSONObject read(HttpResponseParser parser, int responseCode,
+                HttpURLConnection connection) throws Exception {
+            if (parser instanceof JSONResponseParser) {
+                return ((JSONResponseParser) parser).parseJSON(responseCode, connection);
+            }
+            String responseBody = parser.parse(responseCode, connection);
+            return (responseBody == null) ? null : new JSONObject(responseBody);
+        }
+    };
 }
@@ -3,30 +3,80 @@ package com.braintreepayments.api;
 import android.os.Handler;
 import android.os.Looper;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.VisibleForTesting;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 class ThreadScheduler implements Scheduler {
 
+    private static volatile ScheduledExecutorService DELAY_TIMER;
+
+    // delayed work only waits on the timer thread and still runs on the background pool, so a
+    // single timer thread is shared by all schedulers
+    private static ScheduledExecutorService getDelayTimer() {
+        if (DELAY_TIMER == null) {
+            synchronized (ThreadScheduler.class) {
+                // double check that timer was not created in another thread
+                if (DELAY_TIMER == null) {
+                    DELAY_TIMER = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                        @Override
+                        public Thread newThread(@NonNull Runnable runnable) {
+                            Thread thread = new Thread(runnable, "braintree-delay-timer");
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+                }
+            }
+        }
+        return DELAY_TIMER;
+    }
+
     private final Handler mainThreadHandler;
     private final ExecutorService backgroundThreadService;
+    private final ScheduledExecutorService delayTimer;
 
     ThreadScheduler() {
-        this(new Handler(Looper.getMainLooper()), Executors.newCachedThreadPool());
+        this(new Handler(Looper.getMainLooper()), NetworkExecutor.getInstance());
     }
 
     @VisibleForTesting
     ThreadScheduler(Handler mainThreadHandler, ExecutorService backgroundThreadPool) {
+        this(mainThreadHandler, backgroundThreadPool, getDelayTimer());
+    }
+
+    @VisibleForTesting
+    ThreadScheduler(Handler mainThreadHandler, ExecutorService backgroundThreadPool,
+            ScheduledExecutorService delayTimer) {
         this.mainThreadHandler = mainThreadHandler;
         this.backgroundThreadService = backgroundThreadPool;
+        this.delayTimer = delayTimer;
     }
 
     public void runOnBackground(Runnable runnable) {
         backgroundThreadService.submit(runnable);
     }
 
+    public void runOnBackground(Runnable runnable, @HttpRequest.Priority int priority) {
+        backgroundThreadService.execute(new NetworkExecutor.PrioritizedRunnable(runnable, priority));
+    }
+
+    public void runOnBackground(final Runnable runnable, @HttpRequest.Priority final int priority,
+            long delayMillis) {
+        // the timer only keeps time; the work itself still runs on the background pool
+        delayTimer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                runOnBackground(runnable, priority);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
     public void runOnMain(Runnable runnable) {
         mainThreadHandler.post(runnable);
     }
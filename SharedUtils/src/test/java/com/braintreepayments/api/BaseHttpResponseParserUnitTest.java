@@ -26,6 +26,7 @@ import static java.net.HttpURLConnection.HTTP_UNAUTHORIZED;
 import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
@@ -149,6 +150,67 @@ public class BaseHttpResponseParserUnitTest {
 
             String expectedMessage = "You are being rate-limited. Please try again in a few minutes.";
             assertEquals(expectedMessage, exception.getMessage());
+            assertEquals(RetryPolicy.NO_RETRY_AFTER,
+                    ((RateLimitException) exception).getRetryAfterMillis());
+        }
+
+        @Test
+        public void parse_withRetryAfterSeconds_setsRetryAfterMillis() {
+            final HttpURLConnection connection = mock(HttpURLConnection.class);
+            when(connection.getHeaderField("Retry-After")).thenReturn("30");
+
+            final BaseHttpResponseParser sut = new BaseHttpResponseParser();
+            RateLimitException exception = assertThrows(RateLimitException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    sut.parse(429, connection);
+                }
+            });
+
+            assertEquals(30000, exception.getRetryAfterMillis());
+        }
+
+        @Test
+        public void parse_withInvalidRetryAfter_ignoresHeader() {
+            final HttpURLConnection connection = mock(HttpURLConnection.class);
+            when(connection.getHeaderField("Retry-After")).thenReturn("soon");
+            when(connection.getHeaderFieldDate("Retry-After", RetryPolicy.NO_RETRY_AFTER))
+                    .thenReturn(RetryPolicy.NO_RETRY_AFTER);
+
+            final BaseHttpResponseParser sut = new BaseHttpResponseParser();
+            RateLimitException exception = assertThrows(RateLimitException.class, new ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    sut.parse(429, connection);
+                }
+            });
+
+            assertEquals(RetryPolicy.NO_RETRY_AFTER, exception.getRetryAfterMillis());
+        }
+    }
+
+    public static class HttpServiceUnavailableRetryAfterTest {
+
+        @Test
+        public void parse_withRetryAfterDate_setsRetryAfterMillis() throws IOException {
+            final HttpURLConnection connection = mock(HttpURLConnection.class);
+            long retryAt = System.currentTimeMillis() + 120000;
+            when(connection.getErrorStream()).thenReturn(createPlainTextInputStream("unavailable"));
+            when(connection.getHeaderField("Retry-After")).thenReturn("Wed, 21 Oct 2015 07:28:00 GMT");
+            when(connection.getHeaderFieldDate("Retry-After", RetryPolicy.NO_RETRY_AFTER))
+                    .thenReturn(retryAt);
+
+            final BaseHttpResponseParser sut = new BaseHttpResponseParser();
+            ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                    new ThrowingRunnable() {
+                        @Override
+                        public void run() throws Throwable {
+                            sut.parse(HTTP_UNAVAILABLE, connection);
+                        }
+                    });
+
+            long retryAfterMillis = exception.getRetryAfterMillis();
+            assertTrue(retryAfterMillis > 110000 && retryAfterMillis <= 120000);
         }
     }
 
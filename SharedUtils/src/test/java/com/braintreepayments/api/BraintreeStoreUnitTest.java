@@ -0,0 +1,341 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Looper;
+import android.util.AtomicFile;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+@RunWith(RobolectricTestRunner.class)
+public class BraintreeStoreUnitTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final Executor directExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private AtomicFile file;
+
+    @Before
+    public void beforeEach() {
+        file = new AtomicFile(new File(temporaryFolder.getRoot(), "segment"));
+    }
+
+    @Test
+    public void getString_returnsFallbackStringByDefault() {
+        BraintreeStore sut = createStore();
+        assertEquals("fallbackValue", sut.getString("stringKey", "fallbackValue"));
+    }
+
+    @Test
+    public void putString_storesStringAndWritesItToDisk() {
+        BraintreeStore sut = createStore();
+        sut.putString("stringKey", "stringValue");
+
+        assertEquals("stringValue", sut.getString("stringKey", ""));
+        assertEquals("stringValue", createStore().getString("stringKey", ""));
+    }
+
+    @Test
+    public void putBoolean_storesBooleanAndWritesItToDisk() {
+        BraintreeStore sut = createStore();
+        assertFalse(sut.getBoolean("booleanKey"));
+
+        sut.putBoolean("booleanKey", true);
+
+        assertTrue(sut.getBoolean("booleanKey"));
+        assertTrue(createStore().getBoolean("booleanKey"));
+    }
+
+    @Test
+    public void putLong_storesLongAndWritesItToDisk() {
+        BraintreeStore sut = createStore();
+        sut.putLong("longKey", 12345678901L);
+
+        assertEquals(12345678901L, sut.getLong("longKey"));
+        assertEquals(12345678901L, createStore().getLong("longKey"));
+    }
+
+    @Test
+    public void putBytes_storesBytesInFileOfTheirOwn() {
+        BraintreeStore sut = createStore();
+        assertNull(sut.getBytes("bytesKey"));
+
+        sut.putBytes("bytesKey", new byte[] { 1, 2, 3 });
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, sut.getBytes("bytesKey"));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, createStore().getBytes("bytesKey"));
+        assertTrue(createStore().getKeys().isEmpty());
+        assertTrue(new File(temporaryFolder.getRoot(), "segment.bytes").isDirectory());
+    }
+
+    @Test
+    public void removeBytes_removesOnlyGivenKeys() {
+        BraintreeStore sut = createStore();
+        sut.putBytes("bytesKey", new byte[] { 1 });
+        sut.putBytes("bytesKey2", new byte[] { 2 });
+        sut.removeBytes(Collections.singletonList("bytesKey2"));
+
+        BraintreeStore reloaded = createStore();
+        assertArrayEquals(new byte[] { 1 }, reloaded.getBytes("bytesKey"));
+        assertNull(reloaded.getBytes("bytesKey2"));
+    }
+
+    @Test
+    public void getLong_returnsZeroByDefault() {
+        assertEquals(0L, createStore().getLong("longKey"));
+    }
+
+    @Test
+    public void containsKey_returnsWhetherKeyIsStored() {
+        BraintreeStore sut = createStore();
+        assertFalse(sut.containsKey("booleanKey"));
+
+        sut.putBoolean("booleanKey", true);
+
+        assertTrue(sut.containsKey("booleanKey"));
+    }
+
+    @Test
+    public void removeKeys_removesOnlyGivenKeys() {
+        BraintreeStore sut = createStore();
+        sut.putString("stringKey", "stringValue");
+        sut.putString("stringKey2", "stringValue2");
+        sut.putLong("longKey", 123L);
+        sut.removeKeys(Arrays.asList("stringKey2", "longKey"));
+
+        BraintreeStore reloaded = createStore();
+        assertEquals(Collections.singleton("stringKey"), reloaded.getKeys());
+    }
+
+    @Test
+    public void clear_removesAllValues() {
+        BraintreeStore sut = createStore();
+        sut.putString("stringKey", "stringValue");
+        sut.putBoolean("booleanKey", true);
+        sut.putBytes("bytesKey", new byte[] { 1 });
+        sut.clear();
+
+        assertTrue(sut.getKeys().isEmpty());
+        assertNull(sut.getBytes("bytesKey"));
+
+        BraintreeStore reloaded = createStore();
+        assertTrue(reloaded.getKeys().isEmpty());
+        assertNull(reloaded.getBytes("bytesKey"));
+    }
+
+    @Test
+    public void put_whenWriteIsPending_writesOnceWithAllChanges() {
+        final Runnable[] pendingWrite = new Runnable[1];
+        final int[] writeCount = new int[1];
+        Executor deferredExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                writeCount[0]++;
+                pendingWrite[0] = command;
+            }
+        };
+        BraintreeStore sut = new BraintreeStore(deferredExecutor);
+        sut.load(file, null);
+
+        sut.putString("first", "value");
+        sut.putString("second", "value");
+        pendingWrite[0].run();
+
+        assertEquals(1, writeCount[0]);
+        assertEquals(2, createStore().getKeys().size());
+    }
+
+    @Test
+    public void put_whenValueIsUnchanged_doesNotWriteAgain() {
+        final int[] writeCount = new int[1];
+        Executor countingExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                writeCount[0]++;
+                command.run();
+            }
+        };
+        BraintreeStore sut = new BraintreeStore(countingExecutor);
+        sut.load(file, null);
+
+        sut.putString("stringKey", "stringValue");
+        sut.putString("stringKey", "stringValue");
+        sut.removeKeys(Collections.singletonList("otherKey"));
+
+        assertEquals(1, writeCount[0]);
+    }
+
+    @Test
+    public void put_beforeLoad_doesNotWaitAndIsAppliedOnLoad() {
+        BraintreeStore stored = createStore();
+        stored.putString("storedKey", "storedValue");
+        stored.putString("removedKey", "removedValue");
+
+        BraintreeStore sut = new BraintreeStore(directExecutor);
+        sut.putString("stringKey", "stringValue");
+        sut.removeKeys(Collections.singletonList("removedKey"));
+        sut.putBytes("bytesKey", new byte[] { 1 });
+        assertFalse(sut.isLoaded());
+        assertArrayEquals(new byte[] { 1 }, sut.getBytes("bytesKey"));
+
+        assertTrue(sut.load(file, null));
+
+        assertTrue(sut.isLoaded());
+        BraintreeStore reloaded = createStore();
+        assertEquals("storedValue", reloaded.getString("storedKey", null));
+        assertEquals("stringValue", reloaded.getString("stringKey", null));
+        assertFalse(reloaded.containsKey("removedKey"));
+        assertArrayEquals(new byte[] { 1 }, reloaded.getBytes("bytesKey"));
+    }
+
+    @Test
+    public void whenLoaded_afterLoad_runsCallbackImmediately() {
+        BraintreeStore sut = createStore();
+        final boolean[] isCalled = { false };
+
+        sut.whenLoaded(new Runnable() {
+            @Override
+            public void run() {
+                isCalled[0] = true;
+            }
+        });
+
+        assertTrue(isCalled[0]);
+    }
+
+    @Test
+    public void whenLoaded_beforeLoad_runsCallbackOnMainThreadOnceLoaded() {
+        createStore().putString("stringKey", "storedValue");
+
+        final BraintreeStore sut = new BraintreeStore(directExecutor);
+        final String[] result = { null };
+        sut.whenLoaded(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = sut.getString("stringKey", null);
+            }
+        });
+        assertNull(result[0]);
+
+        sut.load(file, null);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        assertEquals("storedValue", result[0]);
+    }
+
+    @Test
+    public void clear_beforeLoad_removesStoredValuesOnLoad() {
+        BraintreeStore stored = createStore();
+        stored.putString("storedKey", "storedValue");
+        stored.putBytes("storedBytesKey", new byte[] { 1 });
+
+        BraintreeStore sut = new BraintreeStore(directExecutor);
+        sut.clear();
+        sut.putString("stringKey", "stringValue");
+        sut.load(file, null);
+
+        BraintreeStore reloaded = createStore();
+        assertEquals(Collections.singleton("stringKey"), reloaded.getKeys());
+        assertNull(reloaded.getBytes("storedBytesKey"));
+    }
+
+    @Test
+    public void load_whenMigratedValuesCannotBeWritten_returnsFalse() throws Exception {
+        File notADirectory = temporaryFolder.newFile("notADirectory");
+        AtomicFile unwritableFile = new AtomicFile(new File(notADirectory, "segment"));
+
+        BraintreeStore sut = new BraintreeStore(directExecutor);
+
+        assertFalse(sut.load(unwritableFile,
+                Collections.<String, Object>singletonMap("braintreeUUID", "legacy-uuid")));
+        assertEquals("legacy-uuid", sut.getString("braintreeUUID", null));
+    }
+
+    @Test
+    public void load_whenFileIsCorrupt_startsEmpty() throws Exception {
+        FileOutputStream stream = file.startWrite();
+        stream.write("not json".getBytes(StandardCharsets.UTF_8));
+        file.finishWrite(stream);
+
+        BraintreeStore sut = createStore();
+
+        assertTrue(sut.getKeys().isEmpty());
+    }
+
+    @Test
+    public void load_addsMigratedValuesWithoutOverwritingStoredValues() {
+        createStore().putString("braintreeUUID", "stored-uuid");
+
+        Map<String, Object> migratedValues = new HashMap<>();
+        migratedValues.put("braintreeUUID", "legacy-uuid");
+        migratedValues.put("InstallationGUID", "legacy-guid");
+        BraintreeStore sut = new BraintreeStore(directExecutor);
+        assertTrue(sut.load(file, migratedValues));
+
+        assertEquals("stored-uuid", sut.getString("braintreeUUID", null));
+        assertEquals("legacy-guid", createStore().getString("InstallationGUID", null));
+    }
+
+    @Test
+    public void readLegacyValues_sortsLegacyKeysIntoSegments() {
+        Context context = ApplicationProvider.getApplicationContext();
+        SharedPreferences legacyPreferences = BraintreeStoreMigration.getLegacyPreferences(context);
+        legacyPreferences.edit()
+                .putString("braintreeUUID", "uuid")
+                .putString("InstallationGUID", "guid")
+                .putBoolean("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY", true)
+                .putString("cacheKey", "{}")
+                .putLong("cacheKey_timestamp", 123L)
+                .commit();
+
+        Map<BraintreeStore.Segment, Map<String, Object>> result =
+                BraintreeStoreMigration.readLegacyValues(legacyPreferences);
+
+        Map<String, Object> identifiers = result.get(BraintreeStore.Segment.IDENTIFIERS);
+        assertEquals("uuid", identifiers.get("braintreeUUID"));
+        assertEquals("guid", identifiers.get("InstallationGUID"));
+        assertEquals(true, identifiers.get(BraintreeStoreMigration.MIGRATED_KEY));
+        assertEquals(true, result.get(BraintreeStore.Segment.VENMO)
+                .get("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY"));
+        assertTrue(result.get(BraintreeStore.Segment.CONFIGURATION).isEmpty());
+
+        BraintreeStoreMigration.clearLegacyPreferences(legacyPreferences);
+        assertTrue(legacyPreferences.getAll().isEmpty());
+    }
+
+    private BraintreeStore createStore() {
+        BraintreeStore store = new BraintreeStore(directExecutor);
+        store.load(file, null);
+        return store;
+    }
+}
@@ -2,6 +2,7 @@ package com.braintreepayments.api;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -12,10 +13,14 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
 
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
 public class HttpClientUnitTest {
 
     private SynchronousHttpClient syncHttpClient;
@@ -44,6 +49,16 @@ public class HttpClientUnitTest {
         verify(syncHttpClient).request(httpRequest);
     }
 
+    @Test
+    public void sendRequest_schedulesRequestWithRequestPriority() {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        httpRequest.priority(HttpRequest.PRIORITY_LOW);
+        sut.sendRequest(httpRequest, mock(HttpResponseCallback.class));
+
+        verify(threadScheduler).runOnBackground(any(Runnable.class), eq(HttpRequest.PRIORITY_LOW));
+    }
+
     @Test
     public void sendRequest_whenBaseHttpClientThrowsException_notifiesErrorViaCallbackOnMainThread() throws Exception {
         HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
@@ -77,6 +92,40 @@ public class HttpClientUnitTest {
         verify(callback).onResult("response body", null);
     }
 
+    @Test
+    public void sendJSONRequest_onSuccess_notifiesParsedResponseViaCallbackOnMainThread() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        JSONObject response = mock(JSONObject.class);
+        when(syncHttpClient.requestJSON(httpRequest)).thenReturn(response);
+
+        JSONResponseCallback callback = mock(JSONResponseCallback.class);
+        sut.sendJSONRequest(httpRequest, callback);
+
+        threadScheduler.flushBackgroundThread();
+        verify(callback, never()).onResult(response, null);
+        verify(syncHttpClient, never()).request(httpRequest);
+
+        threadScheduler.flushMainThread();
+        verify(callback).onResult(response, null);
+    }
+
+    @Test
+    public void sendJSONRequest_onError_notifiesErrorViaCallbackOnMainThread() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        Exception exception = new Exception("error");
+        when(syncHttpClient.requestJSON(httpRequest)).thenThrow(exception);
+
+        JSONResponseCallback callback = mock(JSONResponseCallback.class);
+        sut.sendJSONRequest(httpRequest, callback);
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+        verify(callback).onResult(null, exception);
+        verify(syncHttpClient, times(1)).requestJSON(httpRequest);
+    }
+
     @Test
     public void sendRequest_whenCallbackIsNull_doesNotNotifySuccess() throws Exception {
         HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
@@ -162,6 +211,128 @@ public class HttpClientUnitTest {
         verify(callback).onResult("response body", null);
     }
 
+    @Test
+    public void sendRequest_whenRetryMax3TimesEnabled_waitsBeforeEachRetry() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        when(syncHttpClient.request(httpRequest)).thenThrow(new Exception("error"));
+        RetryPolicy retryPolicy = new RetryPolicy(3, 1000, 10000, 60000, new FixedRandom(0.999));
+
+        sut.sendRequest(httpRequest, retryPolicy, mock(HttpResponseCallback.class));
+        threadScheduler.flushBackgroundThread();
+
+        assertEquals(2, threadScheduler.getBackgroundThreadDelays().size());
+        assertEquals(999, (long) threadScheduler.getBackgroundThreadDelays().get(0));
+        assertEquals(1998, (long) threadScheduler.getBackgroundThreadDelays().get(1));
+        assertEquals(2, sut.getRetryCount());
+        assertEquals(2997, sut.getTotalBackoffMillis());
+    }
+
+    @Test
+    public void sendRequest_whenErrorIsNotRetryable_notifiesErrorWithoutRetrying() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        Exception exception = new AuthenticationException("unauthorized");
+        when(syncHttpClient.request(httpRequest)).thenThrow(exception);
+
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        sut.sendRequest(httpRequest, HttpClient.RETRY_MAX_3_TIMES, callback);
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+
+        verify(syncHttpClient, times(1)).request(httpRequest);
+        verify(callback).onResult(null, exception);
+        assertEquals(0, sut.getRetryCount());
+    }
+
+    @Test
+    public void sendRequest_whenServerSendsRetryAfter_waitsRequestedDelay() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        when(syncHttpClient.request(httpRequest))
+                .thenThrow(new ServiceUnavailableException("unavailable", 5000))
+                .thenReturn("response body");
+
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        sut.sendRequest(httpRequest, HttpClient.RETRY_MAX_3_TIMES, callback);
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+
+        assertEquals(5000, (long) threadScheduler.getBackgroundThreadDelays().get(0));
+        verify(callback).onResult("response body", null);
+    }
+
+    @Test
+    public void sendRequest_whenRetryAfterExceedsPolicyLimit_notifiesErrorWithoutRetrying() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        Exception exception = new RateLimitException("rate limited", 120000);
+        when(syncHttpClient.request(httpRequest)).thenThrow(exception);
+
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        sut.sendRequest(httpRequest, HttpClient.RETRY_MAX_3_TIMES, callback);
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+
+        verify(syncHttpClient, times(1)).request(httpRequest);
+        verify(callback).onResult(null, exception);
+    }
+
+    @Test
+    public void sendRequest_whenRequestHandleIsCancelledBeforeResponse_doesNotNotifyCallback() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        HttpRequestHandle requestHandle = new HttpRequestHandle();
+        httpRequest.handle(requestHandle);
+        when(syncHttpClient.request(httpRequest)).thenReturn("response body");
+
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        sut.sendRequest(httpRequest, callback);
+
+        threadScheduler.flushBackgroundThread();
+        requestHandle.cancel();
+        threadScheduler.flushMainThread();
+
+        verifyNoInteractions(callback);
+    }
+
+    @Test
+    public void sendRequest_whenRequestIsCancelledInFlight_doesNotRetryOrNotifyCallback() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        when(syncHttpClient.request(httpRequest)).thenThrow(new CancellationException());
+
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        sut.sendRequest(httpRequest, HttpClient.RETRY_MAX_3_TIMES, callback);
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+
+        verify(syncHttpClient, times(1)).request(httpRequest);
+        verifyNoInteractions(callback);
+    }
+
+    @Test
+    public void sendRequest_whenRetryDelayOutlastsDeadline_notifiesErrorWithoutRetrying() throws Exception {
+        HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
+
+        httpRequest.handle(new HttpRequestHandle(1000));
+        Exception exception = new ServiceUnavailableException("unavailable", 5000);
+        when(syncHttpClient.request(httpRequest)).thenThrow(exception);
+
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        sut.sendRequest(httpRequest, HttpClient.RETRY_MAX_3_TIMES, callback);
+
+        threadScheduler.flushBackgroundThread();
+        threadScheduler.flushMainThread();
+
+        verify(syncHttpClient, times(1)).request(httpRequest);
+        verify(callback).onResult(null, exception);
+    }
+
     @Test
     public void sendRequestSynchronous_sendsHttpRequest() throws Exception {
         HttpClient sut = new HttpClient(syncHttpClient, threadScheduler);
@@ -171,4 +342,18 @@ public class HttpClientUnitTest {
         String result = sut.sendRequest(httpRequest);
         assertEquals("response body", result);
     }
+
+    private static class FixedRandom extends Random {
+
+        private final double value;
+
+        FixedRandom(double value) {
+            this.value = value;
+        }
+
+        @Override
+        public double nextDouble() {
+            return value;
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.Socket;
+
+import javax.net.ssl.SSLSocketFactory;
+
+public class HttpConnectionPoolUnitTest {
+
+    private static final long KEEP_ALIVE_MS = 1000;
+
+    private HttpConnectionPool sut;
+
+    @Before
+    public void beforeEach() {
+        sut = new HttpConnectionPool(1, KEEP_ALIVE_MS);
+    }
+
+    @Test
+    public void getInstance_returnsSingleton() {
+        assertSame(HttpConnectionPool.getInstance(), HttpConnectionPool.getInstance());
+    }
+
+    @Test
+    public void wrap_registersSocketsCreatedBySocketFactory() throws Exception {
+        SSLSocketFactory socketFactory = mock(SSLSocketFactory.class);
+        Socket socket = mock(Socket.class);
+        when(socketFactory.createSocket("example.com", 443)).thenReturn(socket);
+
+        Socket result = sut.wrap(socketFactory).createSocket("example.com", 443);
+
+        assertSame(socket, result);
+        assertEquals(1, sut.getConnectionCount());
+        assertEquals(1, sut.getPoolSize());
+    }
+
+    @Test
+    public void wrap_whenCalledWithSameSocketFactory_returnsSameInstance() {
+        SSLSocketFactory socketFactory = mock(SSLSocketFactory.class);
+
+        assertSame(sut.wrap(socketFactory), sut.wrap(socketFactory));
+        assertNotSame(sut.wrap(socketFactory), sut.wrap(mock(SSLSocketFactory.class)));
+    }
+
+    @Test
+    public void getReuseHitRate_returnsFractionOfRequestsServedByExistingConnections() {
+        sut.onConnectionOpened("example.com", mock(Socket.class));
+        for (int i = 0; i < 4; i++) {
+            sut.onRequestStart("example.com");
+            sut.onRequestEnd("example.com", 0);
+        }
+
+        assertEquals(4, sut.getRequestCount());
+        assertEquals(0.75, sut.getReuseHitRate(), 0.0001);
+    }
+
+    @Test
+    public void getReuseHitRate_withoutRequests_returnsZero() {
+        assertEquals(0, sut.getReuseHitRate(), 0.0001);
+    }
+
+    @Test
+    public void getPoolSize_excludesClosedConnections() {
+        Socket socket = mock(Socket.class);
+        when(socket.isClosed()).thenReturn(true);
+        sut.onConnectionOpened("example.com", socket);
+
+        assertEquals(0, sut.getPoolSize());
+    }
+
+    @Test
+    public void evictIdleConnections_closesConnectionsIdleLongerThanKeepAlive() throws Exception {
+        Socket socket = mock(Socket.class);
+        sut.onConnectionOpened("example.com", socket);
+        sut.onRequestStart("example.com");
+        sut.onRequestEnd("example.com", 0);
+
+        sut.evictIdleConnections(KEEP_ALIVE_MS - 1);
+        verify(socket, never()).close();
+
+        sut.evictIdleConnections(KEEP_ALIVE_MS);
+        verify(socket).close();
+    }
+
+    @Test
+    public void evictIdleConnections_doesNotCloseConnectionsWithRequestsInFlight() throws Exception {
+        Socket socket = mock(Socket.class);
+        sut.onConnectionOpened("example.com", socket);
+        sut.onRequestStart("example.com");
+        sut.onRequestStart("example.com");
+        sut.onRequestEnd("example.com", 0);
+
+        sut.evictIdleConnections(KEEP_ALIVE_MS * 2);
+        verify(socket, never()).close();
+    }
+
+    @Test
+    public void evictIdleConnections_closesOldestConnectionsAboveIdleLimit() throws Exception {
+        Socket oldSocket = mock(Socket.class);
+        Socket newSocket = mock(Socket.class);
+        sut.onConnectionOpened("example.com", oldSocket);
+        sut.onConnectionOpened("example.com", newSocket);
+
+        sut.evictIdleConnections(0);
+
+        verify(oldSocket).close();
+        verify(newSocket, never()).close();
+        assertEquals(1, sut.getPoolSize());
+    }
+}
@@ -0,0 +1,101 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class HttpRequestGroupUnitTest {
+
+    @Test
+    public void newRequestHandle_returnsNewHandleForEveryRequest() {
+        HttpRequestGroup sut = new HttpRequestGroup();
+
+        assertNotSame(sut.newRequestHandle(), sut.newRequestHandle());
+    }
+
+    @Test
+    public void newRequestHandle_byDefault_returnsHandleWithoutDeadline() {
+        HttpRequestGroup sut = new HttpRequestGroup();
+
+        assertEquals(HttpRequestHandle.NO_DEADLINE, sut.newRequestHandle().getRemainingMillis());
+    }
+
+    @Test
+    public void newRequestHandle_withRequestTimeout_returnsHandleWithDeadline() {
+        HttpRequestGroup sut = new HttpRequestGroup();
+        sut.setRequestTimeout(5000);
+
+        long remainingMillis = sut.newRequestHandle().getRemainingMillis();
+        assertTrue(remainingMillis > 0 && remainingMillis <= 5000);
+    }
+
+    @Test
+    public void newRequestHandle_withTimeout_overridesRequestTimeout() {
+        HttpRequestGroup sut = new HttpRequestGroup();
+        sut.setRequestTimeout(5000);
+
+        assertTrue(sut.newRequestHandle(0).isDeadlineExceeded());
+    }
+
+    @Test
+    public void track_forwardsResultToCallback() {
+        HttpRequestGroup sut = new HttpRequestGroup();
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+
+        HttpRequestHandle requestHandle = sut.newRequestHandle();
+        sut.track(requestHandle, callback).onResult("response", null);
+
+        verify(callback).onResult("response", null);
+    }
+
+    @Test
+    public void cancelAll_cancelsPendingRequestsWithoutNotifyingCallbacks() {
+        HttpRequestGroup sut = new HttpRequestGroup();
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+
+        HttpRequestHandle requestHandle = sut.newRequestHandle();
+        HttpResponseCallback trackedCallback = sut.track(requestHandle, callback);
+        sut.cancelAll();
+        trackedCallback.onResult(null, new IOException("Socket closed"));
+
+        assertTrue(requestHandle.isCancelled());
+        verify(callback, never()).onResult(any(), any());
+    }
+
+    @Test
+    public void cancelAll_doesNotCancelCompletedRequests() {
+        HttpRequestGroup sut = new HttpRequestGroup();
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+
+        HttpRequestHandle requestHandle = sut.newRequestHandle();
+        sut.track(requestHandle, callback).onResult("response", null);
+        sut.cancelAll();
+
+        assertFalse(requestHandle.isCancelled());
+        verify(callback, times(1)).onResult(any(), any());
+    }
+
+    @Test
+    public void cancelAll_doesNotAffectRequestsStartedAfterwards() {
+        HttpRequestGroup sut = new HttpRequestGroup();
+        sut.track(sut.newRequestHandle(), mock(HttpResponseCallback.class));
+        sut.cancelAll();
+
+        HttpResponseCallback callback = mock(HttpResponseCallback.class);
+        HttpRequestHandle requestHandle = sut.newRequestHandle();
+        sut.track(requestHandle, callback).onResult("response", null);
+
+        assertFalse(requestHandle.isCancelled());
+        verify(callback).onResult("response", null);
+    }
+}
@@ -0,0 +1,94 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.junit.function.ThrowingRunnable;
+
+import java.net.HttpURLConnection;
+import java.util.concurrent.CancellationException;
+
+public class HttpRequestHandleUnitTest {
+
+    @Test
+    public void constructor_withoutTimeout_hasNoDeadline() throws Exception {
+        HttpRequestHandle sut = new HttpRequestHandle();
+
+        assertFalse(sut.isDeadlineExceeded());
+        assertEquals(HttpRequestHandle.NO_DEADLINE, sut.getRemainingMillis());
+        sut.ensureActive();
+    }
+
+    @Test
+    public void constructor_withTimeout_setsDeadline() {
+        HttpRequestHandle sut = new HttpRequestHandle(60000);
+
+        assertFalse(sut.isDeadlineExceeded());
+        assertTrue(sut.getRemainingMillis() <= 60000);
+        assertTrue(sut.getRemainingMillis() > 50000);
+    }
+
+    @Test
+    public void ensureActive_whenDeadlineHasPassed_throwsDeadlineExceededException() {
+        final HttpRequestHandle sut = new HttpRequestHandle(0);
+
+        assertTrue(sut.isDeadlineExceeded());
+        assertEquals(0, sut.getRemainingMillis());
+        assertThrows(DeadlineExceededException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                sut.ensureActive();
+            }
+        });
+    }
+
+    @Test
+    public void ensureActive_whenCancelled_throwsCancellationException() {
+        final HttpRequestHandle sut = new HttpRequestHandle();
+        sut.cancel();
+
+        assertTrue(sut.isCancelled());
+        assertThrows(CancellationException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                sut.ensureActive();
+            }
+        });
+    }
+
+    @Test
+    public void cancel_disconnectsAttachedConnections() {
+        HttpRequestHandle sut = new HttpRequestHandle();
+        HttpURLConnection attached = mock(HttpURLConnection.class);
+        HttpURLConnection detached = mock(HttpURLConnection.class);
+
+        sut.attach(attached);
+        sut.attach(detached);
+        sut.detach(detached);
+        sut.cancel();
+        sut.cancel();
+
+        verify(attached, times(1)).disconnect();
+        verify(detached, never()).disconnect();
+    }
+
+    @Test
+    public void attach_whenCancelled_throwsCancellationException() {
+        final HttpRequestHandle sut = new HttpRequestHandle();
+        sut.cancel();
+
+        assertThrows(CancellationException.class, new ThrowingRunnable() {
+            @Override
+            public void run() {
+                sut.attach(mock(HttpURLConnection.class));
+            }
+        });
+    }
+}
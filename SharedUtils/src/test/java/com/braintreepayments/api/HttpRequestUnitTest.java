@@ -38,6 +38,16 @@ public class HttpRequestUnitTest {
             assertEquals("sample data", new String(sut.getData(), StandardCharsets.UTF_8));
         }
 
+        @Test
+        public void getBody_returnsBody() {
+            HttpRequestBody body = out -> out.write(1);
+            HttpRequest sut = HttpRequest.newInstance()
+                    .body(body);
+
+            assertSame(body, sut.getBody());
+            assertNull(sut.getData());
+        }
+
         @Test
         public void dispose_whenDataIsNull_doesNothing() {
             HttpRequest sut = HttpRequest.newInstance();
@@ -55,6 +65,19 @@ public class HttpRequestUnitTest {
             assertArrayEquals(new byte[actual.length], actual);
         }
 
+        @Test
+        public void getPriority_defaultsToHighPriority() {
+            HttpRequest sut = HttpRequest.newInstance();
+            assertEquals(HttpRequest.PRIORITY_HIGH, sut.getPriority());
+        }
+
+        @Test
+        public void getPriority_returnsPriority() {
+            HttpRequest sut = HttpRequest.newInstance()
+                    .priority(HttpRequest.PRIORITY_LOW);
+            assertEquals(HttpRequest.PRIORITY_LOW, sut.getPriority());
+        }
+
         @Test
         public void getMethod_returnsMethod() {
             HttpRequest sut = HttpRequest.newInstance()
@@ -103,6 +126,43 @@ public class HttpRequestUnitTest {
             assertEquals(30000, sut.getReadTimeout());
         }
 
+        @Test
+        public void getTimeouts_withRequestHandleDeadline_limitsTimeoutsToRemainingTime() {
+            HttpRequest sut = HttpRequest.newInstance()
+                    .handle(new HttpRequestHandle(5000));
+
+            assertTrue(sut.getConnectTimeout() <= 5000);
+            assertTrue(sut.getReadTimeout() <= 5000);
+        }
+
+        @Test
+        public void getTimeouts_withRequestHandleDeadlineBeyondDefaultTimeout_waitsForResponseUntilDeadline() {
+            HttpRequest sut = HttpRequest.newInstance()
+                    .handle(new HttpRequestHandle(60000));
+
+            assertEquals(30000, sut.getConnectTimeout());
+            assertTrue(sut.getReadTimeout() > 30000);
+            assertTrue(sut.getReadTimeout() <= 60000);
+        }
+
+        @Test
+        public void getTimeouts_whenRequestHandleDeadlineHasPassed_returnsMinimumTimeout() {
+            HttpRequest sut = HttpRequest.newInstance()
+                    .handle(new HttpRequestHandle(0));
+
+            assertEquals(1, sut.getConnectTimeout());
+            assertEquals(1, sut.getReadTimeout());
+        }
+
+        @Test
+        public void getTimeouts_withRequestHandleWithoutDeadline_returnsDefaultTimeouts() {
+            HttpRequest sut = HttpRequest.newInstance()
+                    .handle(new HttpRequestHandle());
+
+            assertEquals(30000, sut.getConnectTimeout());
+            assertEquals(30000, sut.getReadTimeout());
+        }
+
         @Test
         public void getURL_throwsMalformedURLExceptionIfBaseURLIsNull() {
             HttpRequest sut = HttpRequest.newInstance()
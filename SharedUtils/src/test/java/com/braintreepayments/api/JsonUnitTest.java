@@ -0,0 +1,60 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+
+import android.util.JsonWriter;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.StringWriter;
+
+@RunWith(RobolectricTestRunner.class)
+public class JsonUnitTest {
+
+    @Test
+    public void writeFields_writesSameDocumentAsToString() throws Exception {
+        JSONObject json = new JSONObject()
+                .put("string", "value")
+                .put("int", 1)
+                .put("long", 12345678901L)
+                .put("double", 1.5)
+                .put("wholeDouble", 10.0)
+                .put("boolean", true)
+                .put("null", JSONObject.NULL)
+                .put("object", new JSONObject().put("nested", "value"))
+                .put("array", new JSONArray()
+                        .put("a")
+                        .put(2)
+                        .put(new JSONObject().put("b", false))
+                        .put(new JSONArray()));
+
+        assertEquals(json.toString(), new JSONObject(writeObject(json)).toString());
+        assertEquals(10, new JSONObject(writeObject(json)).get("wholeDouble"));
+    }
+
+    @Test
+    public void writeFields_whenJSONIsNull_writesNoFields() throws Exception {
+        assertEquals("{}", writeObject(null));
+    }
+
+    @Test
+    public void writeFields_escapesStrings() throws Exception {
+        JSONObject json = new JSONObject().put("quote", "\"Bjärne\"\n");
+
+        assertEquals("\"Bjärne\"\n", new JSONObject(writeObject(json)).getString("quote"));
+    }
+
+    private static String writeObject(JSONObject json) throws Exception {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        Json.writeFields(writer, json);
+        writer.endObject();
+        writer.close();
+        return out.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class NetworkExecutorUnitTest {
+
+    private NetworkExecutor sut;
+
+    @Before
+    public void beforeEach() {
+        sut = new NetworkExecutor(1);
+    }
+
+    @After
+    public void afterEach() {
+        sut.shutdownNow();
+    }
+
+    @Test
+    public void getInstance_returnsSingleton() {
+        assertSame(NetworkExecutor.getInstance(), NetworkExecutor.getInstance());
+    }
+
+    @Test
+    public void getInstance_isBoundedToMaxThreads() {
+        assertEquals(NetworkExecutor.MAX_THREADS, NetworkExecutor.getInstance().getMaximumPoolSize());
+    }
+
+    @Test
+    public void execute_runsHigherPriorityTasksFirst() throws InterruptedException {
+        final CountDownLatch blockWorker = new CountDownLatch(1);
+        final CountDownLatch allDone = new CountDownLatch(3);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+
+        // occupy the only worker thread so subsequent tasks are queued
+        sut.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blockWorker.await();
+                } catch (InterruptedException ignored) {}
+            }
+        });
+
+        sut.execute(new NetworkExecutor.PrioritizedRunnable(
+                recordingRunnable("analytics", order, allDone), HttpRequest.PRIORITY_LOW));
+        sut.execute(new NetworkExecutor.PrioritizedRunnable(
+                recordingRunnable("configuration", order, allDone), HttpRequest.PRIORITY_NORMAL));
+        sut.execute(new NetworkExecutor.PrioritizedRunnable(
+                recordingRunnable("tokenize", order, allDone), HttpRequest.PRIORITY_HIGH));
+
+        assertEquals(3, sut.getQueueDepth());
+
+        blockWorker.countDown();
+        assertTrue(allDone.await(5, TimeUnit.SECONDS));
+
+        assertEquals("tokenize", order.get(0));
+        assertEquals("configuration", order.get(1));
+        assertEquals("analytics", order.get(2));
+    }
+
+    @Test
+    public void execute_withEqualPriority_runsTasksInSubmissionOrder() throws InterruptedException {
+        final CountDownLatch blockWorker = new CountDownLatch(1);
+        final CountDownLatch allDone = new CountDownLatch(2);
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+
+        sut.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blockWorker.await();
+                } catch (InterruptedException ignored) {}
+            }
+        });
+        sut.execute(recordingRunnable("first", order, allDone));
+        sut.execute(recordingRunnable("second", order, allDone));
+
+        blockWorker.countDown();
+        assertTrue(allDone.await(5, TimeUnit.SECONDS));
+
+        assertEquals("first", order.get(0));
+        assertEquals("second", order.get(1));
+    }
+
+    private static Runnable recordingRunnable(
+            final String name, final List<String> order, final CountDownLatch latch) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(name);
+                latch.countDown();
+            }
+        };
+    }
+}
@@ -0,0 +1,144 @@
+package com.braintreepayments.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class ResponseBufferPoolUnitTest {
+
+    private ResponseBufferPool sut;
+
+    @Before
+    public void beforeEach() {
+        sut = new ResponseBufferPool(1);
+    }
+
+    @Test
+    public void getInstance_returnsSingleton() {
+        assertSame(ResponseBufferPool.getInstance(), ResponseBufferPool.getInstance());
+    }
+
+    @Test
+    public void readString_decodesBodyAsUtf8() throws Exception {
+        String body = "{\"name\":\"Zoë\"}";
+
+        String result = sut.readString(stream(body), -1, false);
+
+        assertEquals(body, result);
+    }
+
+    @Test
+    public void readString_whenContentLengthIsKnown_presizesBuffer() throws Exception {
+        String body = repeat('a', 20000);
+
+        sut.readString(stream(body), 20000, false);
+
+        // one 20000 byte buffer and the decoded string; the buffer never grew
+        assertEquals(20000 + 20000 * 2, sut.getAllocatedBytes());
+    }
+
+    @Test
+    public void readString_whenBodyIsLargerThanExpected_growsBuffer() throws Exception {
+        String body = repeat('a', 20000);
+
+        String result = sut.readString(stream(body), 10000, false);
+
+        assertEquals(body, result);
+        assertEquals(10000 + 20000 + 20000 * 2, sut.getAllocatedBytes());
+    }
+
+    @Test
+    public void readString_whenContentLengthIsUnknown_readsBodyLargerThanDefaultBuffer()
+            throws Exception {
+        String body = repeat('a', ResponseBufferPool.DEFAULT_BUFFER_SIZE * 3);
+
+        String result = sut.readString(stream(body), -1, false);
+
+        assertEquals(body, result);
+    }
+
+    @Test
+    public void readString_reusesPooledBuffer() throws Exception {
+        sut.readString(stream("first"), -1, false);
+        long allocatedBytes = sut.getAllocatedBytes();
+
+        String result = sut.readString(stream("second"), -1, false);
+
+        assertEquals("second", result);
+        assertEquals(1, sut.getPooledBufferCount());
+        // only the decoded string was allocated
+        assertEquals(allocatedBytes + "second".length() * 2, sut.getAllocatedBytes());
+    }
+
+    @Test
+    public void readString_doesNotPoolMoreThanMaxBuffers() throws Exception {
+        sut.readString(stream("first"), -1, false);
+        sut.readString(stream("second"), -1, false);
+
+        assertEquals(1, sut.getPooledBufferCount());
+    }
+
+    @Test
+    public void readString_doesNotPoolBuffersLargerThanMaxPooledBufferSize() throws Exception {
+        String body = repeat('a', ResponseBufferPool.MAX_POOLED_BUFFER_SIZE + 1);
+
+        String result = sut.readString(stream(body), body.length(), false);
+
+        assertEquals(body, result);
+        assertEquals(0, sut.getPooledBufferCount());
+    }
+
+    @Test
+    public void readString_withGzip_decodesBody() throws Exception {
+        String body = repeat('a', 50000);
+        byte[] compressed = gzip(body);
+
+        InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed));
+        String result = sut.readString(in, compressed.length, true);
+
+        assertEquals(body, result);
+    }
+
+    @Test
+    public void getAllocatedBytesPerResponse_returnsAverageAllocation() throws Exception {
+        sut.readString(stream("abcd"), 4, false);
+        sut.readString(stream("abcd"), 4, false);
+
+        // one default size buffer shared by both responses, plus two 8 byte strings
+        long expected = (ResponseBufferPool.DEFAULT_BUFFER_SIZE + 8 + 8) / 2;
+        assertEquals(expected, sut.getAllocatedBytesPerResponse());
+    }
+
+    @Test
+    public void getAllocatedBytesPerResponse_withoutResponses_returnsZero() {
+        assertEquals(0, sut.getAllocatedBytesPerResponse());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    private static byte[] gzip(String body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        gzip.close();
+        return out.toByteArray();
+    }
+}
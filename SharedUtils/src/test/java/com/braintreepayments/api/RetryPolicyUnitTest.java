@@ -0,0 +1,95 @@
+package com.braintreepayments.api;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RetryPolicyUnitTest {
+
+    private Random random;
+
+    @Before
+    public void beforeEach() {
+        random = mock(Random.class);
+    }
+
+    @Test
+    public void from_mapsRetryStrategyToPolicy() {
+        assertSame(RetryPolicy.NONE, RetryPolicy.from(HttpClient.NO_RETRY));
+        assertSame(RetryPolicy.EXPONENTIAL_BACKOFF, RetryPolicy.from(HttpClient.RETRY_MAX_3_TIMES));
+        assertEquals(3, RetryPolicy.EXPONENTIAL_BACKOFF.getMaxAttempts());
+    }
+
+    @Test
+    public void isRetryable_returnsFalseForClientErrors() {
+        RetryPolicy sut = new RetryPolicy(3, 1000, 10000, 60000, random);
+
+        assertFalse(sut.isRetryable(new UnprocessableEntityException("error")));
+        assertFalse(sut.isRetryable(new AuthenticationException("error")));
+        assertFalse(sut.isRetryable(new AuthorizationException("error")));
+        assertFalse(sut.isRetryable(new UpgradeRequiredException("error")));
+        assertFalse(sut.isRetryable(new DeadlineExceededException("error")));
+    }
+
+    @Test
+    public void isRetryable_returnsTrueForTransientErrors() {
+        RetryPolicy sut = new RetryPolicy(3, 1000, 10000, 60000, random);
+
+        assertTrue(sut.isRetryable(new Exception("error")));
+        assertTrue(sut.isRetryable(new ServerException("error")));
+        assertTrue(sut.isRetryable(new ServiceUnavailableException("error")));
+        assertTrue(sut.isRetryable(new RateLimitException("error")));
+    }
+
+    @Test
+    public void getDelayMillis_appliesFullJitterToExponentialCap() {
+        when(random.nextDouble()).thenReturn(0.5);
+        RetryPolicy sut = new RetryPolicy(5, 1000, 10000, 60000, random);
+
+        assertEquals(500, sut.getDelayMillis(1, new Exception("error")));
+        assertEquals(1000, sut.getDelayMillis(2, new Exception("error")));
+        assertEquals(2000, sut.getDelayMillis(3, new Exception("error")));
+    }
+
+    @Test
+    public void getDelayMillis_neverExceedsMaxDelay() {
+        when(random.nextDouble()).thenReturn(0.9999);
+        RetryPolicy sut = new RetryPolicy(50, 1000, 10000, 60000, random);
+
+        assertTrue(sut.getDelayMillis(10, new Exception("error")) <= 10000);
+        assertTrue(sut.getDelayMillis(49, new Exception("error")) <= 10000);
+    }
+
+    @Test
+    public void getDelayMillis_whenRandomReturnsZero_retriesImmediately() {
+        when(random.nextDouble()).thenReturn(0.0);
+        RetryPolicy sut = new RetryPolicy(3, 1000, 10000, 60000, random);
+
+        assertEquals(0, sut.getDelayMillis(2, new Exception("error")));
+    }
+
+    @Test
+    public void getDelayMillis_prefersRetryAfter() {
+        when(random.nextDouble()).thenReturn(0.5);
+        RetryPolicy sut = new RetryPolicy(3, 1000, 10000, 60000, random);
+
+        assertEquals(30000, sut.getDelayMillis(1, new RateLimitException("error", 30000)));
+        assertEquals(15000, sut.getDelayMillis(1, new ServiceUnavailableException("error", 15000)));
+    }
+
+    @Test
+    public void getDelayMillis_whenRetryAfterExceedsLimit_stopsRetrying() {
+        RetryPolicy sut = new RetryPolicy(3, 1000, 10000, 60000, random);
+
+        assertEquals(RetryPolicy.STOP_RETRYING,
+                sut.getDelayMillis(1, new RateLimitException("error", 60001)));
+    }
+}
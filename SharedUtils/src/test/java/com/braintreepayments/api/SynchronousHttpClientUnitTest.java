@@ -1,22 +1,32 @@
 package com.braintreepayments.api;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.json.JSONObject;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.function.ThrowingRunnable;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import java.io.IOException;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CancellationException;
 
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLException;
@@ -245,6 +255,31 @@ public class SynchronousHttpClientUnitTest {
         assertEquals("http_ok", result);
     }
 
+    @Test
+    public void requestJSON_withJSONResponseParser_returnsParsedResponseWithoutParsingBodyAgain() throws Exception {
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+        when(connection.getResponseCode()).thenReturn(200);
+
+        JSONObject response = mock(JSONObject.class);
+        JSONResponseParser jsonResponseParser = mock(JSONResponseParser.class);
+        when(jsonResponseParser.parseJSON(200, connection)).thenReturn(response);
+
+        SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, jsonResponseParser);
+        JSONObject result = sut.requestJSON(httpRequest);
+
+        assertSame(response, result);
+        verify(jsonResponseParser, never()).parse(anyInt(), any(HttpURLConnection.class));
+    }
+
     @Test
     public void request_onSuccess_closesUrlConnection() throws Exception {
         final HttpRequest httpRequest = spy(new HttpRequest()
@@ -292,6 +327,95 @@ public class SynchronousHttpClientUnitTest {
         verify(connection).disconnect();
     }
 
+    @Test
+    public void request_withConnectionPool_onSuccess_keepsUrlConnectionAlive() throws Exception {
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(url.getHost()).thenReturn("www.sample.com");
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        when(connection.getResponseCode()).thenReturn(200);
+        when(httpResponseParser.parse(200, connection)).thenReturn("http_ok");
+
+        HttpConnectionPool connectionPool = mock(HttpConnectionPool.class);
+        when(connectionPool.wrap(sslSocketFactory)).thenReturn(sslSocketFactory);
+        SynchronousHttpClient sut =
+                new SynchronousHttpClient(sslSocketFactory, httpResponseParser, connectionPool);
+        String result = sut.request(httpRequest);
+
+        assertEquals("http_ok", result);
+        verify(connection, never()).disconnect();
+        verify(connectionPool).onRequestStart("www.sample.com");
+        verify(connectionPool).onRequestEnd("www.sample.com");
+    }
+
+    @Test
+    public void request_withConnectionPool_onHttpResponseParserException_closesUrlConnection() throws Exception {
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(url.getHost()).thenReturn("www.sample.com");
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        when(connection.getResponseCode()).thenReturn(200);
+        when(httpResponseParser.parse(200, connection)).thenThrow(new Exception("error"));
+
+        HttpConnectionPool connectionPool = mock(HttpConnectionPool.class);
+        when(connectionPool.wrap(sslSocketFactory)).thenReturn(sslSocketFactory);
+        final SynchronousHttpClient sut =
+                new SynchronousHttpClient(sslSocketFactory, httpResponseParser, connectionPool);
+        assertThrows(Exception.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                sut.request(httpRequest);
+            }
+        });
+        verify(connection).disconnect();
+        verify(connectionPool).onRequestEnd("www.sample.com");
+    }
+
+    @Test
+    public void request_withConnectionPool_setsWrappedSSLSocketFactory() throws Exception {
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpsURLConnection connection = mock(HttpsURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        when(connection.getResponseCode()).thenReturn(200);
+        when(httpResponseParser.parse(200, connection)).thenReturn("http_ok");
+
+        HttpConnectionPool connectionPool = mock(HttpConnectionPool.class);
+        SSLSocketFactory pooledSocketFactory = mock(SSLSocketFactory.class);
+        when(connectionPool.wrap(sslSocketFactory)).thenReturn(pooledSocketFactory);
+
+        SynchronousHttpClient sut =
+                new SynchronousHttpClient(sslSocketFactory, httpResponseParser, connectionPool);
+        sut.request(httpRequest);
+        sut.request(httpRequest);
+
+        verify(connectionPool).wrap(sslSocketFactory);
+        verify(connection, times(2)).setSSLSocketFactory(pooledSocketFactory);
+    }
+
     @Test
     public void request_whenPost_addsContentTypeHeader() throws Exception {
         final HttpRequest httpRequest = spy(new HttpRequest()
@@ -376,6 +500,109 @@ public class SynchronousHttpClientUnitTest {
         verify(httpRequest).dispose();
     }
 
+    @Test
+    public void request_whenPostWithBody_streamsBodyToOutputStream() throws Exception {
+        HttpRequestBody body = mock(HttpRequestBody.class);
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("POST")
+                .body(body)
+                .baseUrl("https://www.sample.com"));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+
+        when(connection.getResponseCode()).thenReturn(200);
+        when(httpResponseParser.parse(200, connection)).thenReturn("http_ok");
+
+        OutputStream outputStream = mock(OutputStream.class);
+        when(connection.getOutputStream()).thenReturn(outputStream);
+
+        SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        sut.request(httpRequest);
+
+        verify(connection).setDoOutput(true);
+        verify(connection).setRequestProperty("Content-Type", "application/json");
+        verify(body).writeTo(outputStream);
+        verify(outputStream, never()).write(any(byte[].class));
+        verify(outputStream).flush();
+        verify(outputStream).close();
+    }
+
+    @Test
+    public void request_whenRequestHandleIsCancelled_throwsCancellationExceptionWithoutConnecting() throws Exception {
+        HttpRequestHandle requestHandle = new HttpRequestHandle();
+        requestHandle.cancel();
+
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com")
+                .handle(requestHandle));
+
+        final SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        assertThrows(CancellationException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                sut.request(httpRequest);
+            }
+        });
+        verify(httpRequest, never()).getURL();
+    }
+
+    @Test
+    public void request_whenRequestHandleIsCancelledInFlight_disconnectsAndThrowsCancellationException() throws Exception {
+        final HttpRequestHandle requestHandle = new HttpRequestHandle();
+        final HttpRequest httpRequest = spy(new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com")
+                .handle(requestHandle));
+
+        URL url = mock(URL.class);
+        when(httpRequest.getURL()).thenReturn(url);
+
+        final HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(url.openConnection()).thenReturn(connection);
+        when(connection.getResponseCode()).thenAnswer(new Answer<Integer>() {
+            @Override
+            public Integer answer(InvocationOnMock invocation) throws Throwable {
+                // simulate the user leaving checkout while waiting for the response
+                requestHandle.cancel();
+                throw new IOException("Socket closed");
+            }
+        });
+
+        final SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        assertThrows(CancellationException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                sut.request(httpRequest);
+            }
+        });
+        verify(connection, atLeastOnce()).disconnect();
+    }
+
+    @Test
+    public void request_whenRequestHandleDeadlineHasPassed_throwsDeadlineExceededException() {
+        final HttpRequest httpRequest = new HttpRequest()
+                .path("sample/path")
+                .method("GET")
+                .baseUrl("https://www.sample.com")
+                .handle(new HttpRequestHandle(0));
+
+        final SynchronousHttpClient sut = new SynchronousHttpClient(sslSocketFactory, httpResponseParser);
+        assertThrows(DeadlineExceededException.class, new ThrowingRunnable() {
+            @Override
+            public void run() throws Throwable {
+                sut.request(httpRequest);
+            }
+        });
+    }
+
     private static byte[] toByteArray(String data) {
         return data.getBytes(StandardCharsets.UTF_8);
     }
@@ -6,11 +6,17 @@ import com.braintreepayments.api.ThreadScheduler;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 public class ThreadSchedulerUnitTest {
 
@@ -36,6 +42,45 @@ public class ThreadSchedulerUnitTest {
         verify(backgroundThreadPool).submit(runnable);
     }
 
+    @Test
+    public void runOnBackground_withPriority_executesPrioritizedRunnableOnThreadPool() {
+        ThreadScheduler sut = new ThreadScheduler(mainThreadHandler, backgroundThreadPool);
+        Runnable runnable = mock(Runnable.class);
+
+        sut.runOnBackground(runnable, HttpRequest.PRIORITY_LOW);
+
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(backgroundThreadPool).execute(captor.capture());
+
+        NetworkExecutor.PrioritizedRunnable prioritizedRunnable =
+                (NetworkExecutor.PrioritizedRunnable) captor.getValue();
+        assertEquals(HttpRequest.PRIORITY_LOW, prioritizedRunnable.getPriority());
+
+        prioritizedRunnable.run();
+        verify(runnable).run();
+    }
+
+    @Test
+    public void runOnBackground_withDelay_schedulesOnTimerAndExecutesOnThreadPool() {
+        ScheduledExecutorService delayTimer = mock(ScheduledExecutorService.class);
+        ThreadScheduler sut =
+                new ThreadScheduler(mainThreadHandler, backgroundThreadPool, delayTimer);
+        Runnable runnable = mock(Runnable.class);
+
+        sut.runOnBackground(runnable, HttpRequest.PRIORITY_LOW, 500);
+
+        ArgumentCaptor<Runnable> timerCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(delayTimer).schedule(timerCaptor.capture(), eq(500L), eq(TimeUnit.MILLISECONDS));
+        verifyNoInteractions(mainThreadHandler, backgroundThreadPool);
+
+        timerCaptor.getValue().run();
+
+        ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(backgroundThreadPool).execute(captor.capture());
+        NetworkExecutor.PrioritizedRunnable prioritizedRunnable =
+                (NetworkExecutor.PrioritizedRunnable) captor.getValue();
+        assertEquals(HttpRequest.PRIORITY_LOW, prioritizedRunnable.getPriority());
+    }
 
     @Test
     public void runOnMain_postsRunnableToHandler() {
@@ -26,7 +26,7 @@ public class BraintreeActivityTestRule<T extends AppCompatActivity> extends Acti
     private void init() {
         Context context = ApplicationProvider.getApplicationContext();
         getSharedPreferences(context).edit().clear().commit();
-        BraintreeSharedPreferences.getInstance(context).clearSharedPreferences();
+        BraintreeStore.clearAll(context);
 
         keyguardLock = ((KeyguardManager) ApplicationProvider.getApplicationContext().getSystemService(Context.KEYGUARD_SERVICE))
                 .newKeyguardLock("BraintreeActivityTestRule");
@@ -41,7 +41,7 @@ public class BraintreeActivityTestRule<T extends AppCompatActivity> extends Acti
 
         Context context = ApplicationProvider.getApplicationContext();
         getSharedPreferences(context).edit().clear().commit();
-        BraintreeSharedPreferences.getInstance(context).clearSharedPreferences();
+        BraintreeStore.clearAll(context);
 
         keyguardLock.reenableKeyguard();
     }
@@ -661,6 +661,34 @@ object Fixtures {
         }
     """
 
+    // language=JSON
+    const val CONFIGURATION_WITH_GRAPHQL_PERSISTED_QUERIES = """
+        {
+          "clientApiUrl": "client_api_url",
+          "environment": "test",
+          "merchantId": "integration_merchant_id",
+          "merchantAccountId": "integration_merchant_account_id",
+          "graphQL": {
+            "url": "https://example-graphql.com/graphql",
+            "features": ["tokenize_credit_cards", "persisted_queries"]
+          }
+        }
+    """
+
+    // language=JSON
+    const val CONFIGURATION_WITH_GRAPHQL_BATCHED_OPERATIONS = """
+        {
+          "clientApiUrl": "client_api_url",
+          "environment": "test",
+          "merchantId": "integration_merchant_id",
+          "merchantAccountId": "integration_merchant_account_id",
+          "graphQL": {
+            "url": "https://example-graphql.com/graphql",
+            "features": ["tokenize_credit_cards", "batched_operations"]
+          }
+        }
+    """
+
     // language=JSON
     const val CONFIGURATION_WITH_GRAPHQL_WITHOUT_FEATURES = """
         {
@@ -0,0 +1,34 @@
+package com.braintreepayments.api;
+
+import android.util.JsonWriter;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+public class JSONPayloadHelper {
+
+    /**
+     * Write a payload the way {@link BraintreeHttpClient} does, without authorization fields,
+     * and parse the result.
+     */
+    public static JSONObject toJSONObject(JSONPayloadWriter payload) throws JSONException {
+        return new JSONObject(toString(payload));
+    }
+
+    public static String toString(JSONPayloadWriter payload) {
+        StringWriter out = new StringWriter();
+        try {
+            JsonWriter writer = new JsonWriter(out);
+            writer.beginObject();
+            payload.writeFields(writer);
+            writer.endObject();
+            writer.close();
+        } catch (IOException e) {
+            throw new AssertionError("writing to a StringWriter does not fail", e);
+        }
+        return out.toString();
+    }
+}
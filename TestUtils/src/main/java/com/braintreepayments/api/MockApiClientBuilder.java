@@ -1,6 +1,7 @@
 package com.braintreepayments.api;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 
@@ -48,6 +49,15 @@ public class MockApiClientBuilder {
             }
         }).when(apiClient).tokenizeREST(any(PaymentMethod.class), any(TokenizeCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                TokenizeCallback listener = (TokenizeCallback) invocation.getArguments()[2];
+                listener.onResult(tokenizeRESTSuccess, tokenizeRESTError);
+                return null;
+            }
+        }).when(apiClient).tokenizeREST(any(PaymentMethod.class), anyBoolean(), any(TokenizeCallback.class));
+
         doAnswer(new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
@@ -57,6 +67,15 @@ public class MockApiClientBuilder {
             }
         }).when(apiClient).tokenizeGraphQL(any(JSONObject.class), any(TokenizeCallback.class));
 
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                TokenizeCallback listener = (TokenizeCallback) invocation.getArguments()[2];
+                listener.onResult(tokenizeGraphQLSuccess, tokenizeGraphQLError);
+                return null;
+            }
+        }).when(apiClient).tokenizeGraphQL(any(JSONObject.class), anyBoolean(), any(TokenizeCallback.class));
+
         return apiClient;
     }
 }
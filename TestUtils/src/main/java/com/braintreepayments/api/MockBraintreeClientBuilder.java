@@ -3,6 +3,7 @@ package com.braintreepayments.api;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.nullable;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
@@ -13,6 +14,7 @@ import android.net.Uri;
 
 import androidx.fragment.app.FragmentActivity;
 
+import org.mockito.ArgumentMatchers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
@@ -179,10 +181,10 @@ public class MockBraintreeClientBuilder {
             }
         }).when(braintreeClient).getConfiguration(any(ConfigurationCallback.class));
 
-        doAnswer(new Answer<Void>() {
+        Answer<Void> sendGETAnswer = new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
-                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[1];
+                HttpResponseCallback callback = lastArgument(invocation);
                 if (sendGETSuccess != null) {
                     callback.onResult(sendGETSuccess, null);
                 } else if (sendGETError != null) {
@@ -190,12 +192,15 @@ public class MockBraintreeClientBuilder {
                 }
                 return null;
             }
-        }).when(braintreeClient).sendGET(anyString(), any(HttpResponseCallback.class));
+        };
+        doAnswer(sendGETAnswer).when(braintreeClient).sendGET(anyString(), any(HttpResponseCallback.class));
+        doAnswer(sendGETAnswer).when(braintreeClient)
+                .sendGET(anyString(), nullable(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
-        doAnswer(new Answer<Void>() {
+        Answer<Void> sendPOSTAnswer = new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
-                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                HttpResponseCallback callback = lastArgument(invocation);
                 if (sendPOSTSuccess != null) {
                     callback.onResult(sendPOSTSuccess, null);
                 } else if (sendPOSTError != null) {
@@ -203,12 +208,21 @@ public class MockBraintreeClientBuilder {
                 }
                 return null;
             }
-        }).when(braintreeClient).sendPOST(anyString(), anyString(), any(HttpResponseCallback.class));
-
-        doAnswer(new Answer<Void>() {
+        };
+        doAnswer(sendPOSTAnswer).when(braintreeClient).sendPOST(anyString(), anyString(), any(HttpResponseCallback.class));
+        doAnswer(sendPOSTAnswer).when(braintreeClient).sendPOST(anyString(), anyString(),
+                ArgumentMatchers.<String, String>anyMap(), nullable(HttpRequestHandle.class),
+                any(HttpResponseCallback.class));
+        doAnswer(sendPOSTAnswer).when(braintreeClient)
+                .sendJSONPOST(anyString(), any(JSONPayloadWriter.class), any(HttpResponseCallback.class));
+        doAnswer(sendPOSTAnswer).when(braintreeClient).sendJSONPOST(anyString(),
+                any(JSONPayloadWriter.class), ArgumentMatchers.<String, String>anyMap(),
+                nullable(HttpRequestHandle.class), any(HttpResponseCallback.class));
+
+        Answer<Void> sendGraphQLPOSTAnswer = new Answer<Void>() {
             @Override
             public Void answer(InvocationOnMock invocation) {
-                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[1];
+                HttpResponseCallback callback = lastArgument(invocation);
                 if (sendGraphQLPOSTSuccess != null) {
                     callback.onResult(sendGraphQLPOSTSuccess, null);
                 } else if (sendGraphQLPOSTError != null) {
@@ -216,8 +230,17 @@ public class MockBraintreeClientBuilder {
                 }
                 return null;
             }
-        }).when(braintreeClient).sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
+        };
+        doAnswer(sendGraphQLPOSTAnswer).when(braintreeClient)
+                .sendGraphQLPOST(anyString(), any(HttpResponseCallback.class));
+        doAnswer(sendGraphQLPOSTAnswer).when(braintreeClient)
+                .sendGraphQLPOST(anyString(), nullable(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         return braintreeClient;
     }
+
+    private static HttpResponseCallback lastArgument(InvocationOnMock invocation) {
+        Object[] arguments = invocation.getArguments();
+        return (HttpResponseCallback) arguments[arguments.length - 1];
+    }
 }
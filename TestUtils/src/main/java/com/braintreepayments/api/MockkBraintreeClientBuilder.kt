@@ -2,6 +2,7 @@ package com.braintreepayments.api
 
 import io.mockk.every
 import io.mockk.mockk
+import org.json.JSONObject
 
 class MockkBraintreeClientBuilder {
 
@@ -48,6 +49,12 @@ class MockkBraintreeClientBuilder {
                 ?: sendGraphQLPOSTError?.let { callback.onResult(null, it) }
         }
 
+        every { braintreeClient.sendGraphQLPOSTForJSON(any(), any(), any()) } answers { call ->
+            val callback = call.invocation.args[2] as JSONResponseCallback
+            sendGraphQLPostSuccess?.let { callback.onResult(JSONObject(it), null) }
+                ?: sendGraphQLPOSTError?.let { callback.onResult(null, it) }
+        }
+
         return braintreeClient
     }
 
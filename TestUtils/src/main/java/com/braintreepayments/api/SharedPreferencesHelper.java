@@ -2,8 +2,6 @@ package com.braintreepayments.api;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.net.Uri;
-import android.util.Base64;
 
 public class SharedPreferencesHelper {
 
@@ -16,20 +14,15 @@ public class SharedPreferencesHelper {
     }
 
     public static void overrideConfigurationCache(Context context, Authorization authorization, Configuration configuration) {
-        final String configUrl = Uri.parse(authorization.getConfigUrl())
-                .buildUpon()
-                .appendQueryParameter("configVersion", "3")
-                .build()
-                .toString();
-
-        String cacheKey = Base64.encodeToString(String.format("%s%s", configUrl, authorization.getBearer()).getBytes(), 0);
+        String cacheKey = ConfigurationLoader.createCacheKey(authorization);
         String timestampKey = String.format("%s_timestamp", cacheKey);
-        BraintreeSharedPreferences
-                .getInstance(context)
-                .putStringAndLong(cacheKey, configuration.toJson(), timestampKey, System.currentTimeMillis());
+        BraintreeStore store =
+                BraintreeStore.getInstance(context, BraintreeStore.Segment.CONFIGURATION);
+        store.putBytes(cacheKey, ConfigurationCodec.INSTANCE.encode(configuration));
+        store.putLong(timestampKey, System.currentTimeMillis());
     }
 
     public static void clearConfigurationCacheOverride(Context context) {
-        BraintreeSharedPreferences.getInstance(context).clearSharedPreferences();
+        BraintreeStore.clearAll(context);
     }
 }
@@ -1,21 +1,43 @@
 package com.braintreepayments.api;
 
+import androidx.annotation.VisibleForTesting;
+
 import org.json.JSONException;
-import org.json.JSONObject;
+
+import java.util.Collections;
 
 class ThreeDSecureAPI {
 
     private final BraintreeClient braintreeClient;
+    private final HttpRequestGroup pendingRequests;
 
     ThreeDSecureAPI(BraintreeClient braintreeClient) {
+        this(braintreeClient, new HttpRequestGroup());
+    }
+
+    @VisibleForTesting
+    ThreeDSecureAPI(BraintreeClient braintreeClient, HttpRequestGroup pendingRequests) {
         this.braintreeClient = braintreeClient;
+        this.pendingRequests = pendingRequests;
+    }
+
+    /**
+     * Abort in-flight lookup and authentication requests without calling their callbacks.
+     */
+    void cancelPendingRequests() {
+        pendingRequests.cancelAll();
+    }
+
+    void setRequestTimeout(long timeoutMillis) {
+        pendingRequests.setRequestTimeout(timeoutMillis);
     }
 
     void performLookup(final ThreeDSecureRequest request, String cardinalConsumerSessionId, final ThreeDSecureResultCallback callback) {
         String url = ApiClient.versionedPath(ApiClient.PAYMENT_METHOD_ENDPOINT + "/" + request.getNonce() + "/three_d_secure/lookup");
-        String data = request.build(cardinalConsumerSessionId);
+        JSONPayloadWriter payload = writer -> request.writeFields(writer, cardinalConsumerSessionId);
 
-        braintreeClient.sendPOST(url, data, new HttpResponseCallback() {
+        HttpRequestHandle requestHandle = pendingRequests.newRequestHandle();
+        braintreeClient.sendJSONPOST(url, payload, Collections.<String, String>emptyMap(), requestHandle, pendingRequests.track(requestHandle, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
@@ -30,7 +52,7 @@ class ThreeDSecureAPI {
                     callback.onResult(null, httpError);
                 }
             }
-        });
+        }));
     }
 
     void authenticateCardinalJWT(ThreeDSecureResult threeDSecureResult, String cardinalJWT, final ThreeDSecureResultCallback callback) {
@@ -40,17 +62,17 @@ class ThreeDSecureAPI {
 
         final String lookupNonce = lookupCardNonce.getString();
 
-        JSONObject body = new JSONObject();
-        try {
-            body.put("jwt", cardinalJWT);
-            body.put("paymentMethodNonce", lookupNonce);
-        } catch (JSONException ignored) {
-        }
+        JSONPayloadWriter payload = writer -> {
+            if (cardinalJWT != null) {
+                writer.name("jwt").value(cardinalJWT);
+            }
+            writer.name("paymentMethodNonce").value(lookupNonce);
+        };
 
         String url = ApiClient.versionedPath(ApiClient.PAYMENT_METHOD_ENDPOINT + "/" + lookupNonce + "/three_d_secure/authenticate_from_jwt");
-        String data = body.toString();
 
-        braintreeClient.sendPOST(url, data, new HttpResponseCallback() {
+        HttpRequestHandle requestHandle = pendingRequests.newRequestHandle();
+        braintreeClient.sendJSONPOST(url, payload, Collections.<String, String>emptyMap(), requestHandle, pendingRequests.track(requestHandle, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
@@ -69,6 +91,6 @@ class ThreeDSecureAPI {
                     callback.onResult(null, httpError);
                 }
             }
-        });
+        }));
     }
 }
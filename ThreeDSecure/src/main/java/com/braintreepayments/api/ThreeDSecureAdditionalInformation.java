@@ -2,12 +2,15 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonWriter;
 
 import androidx.annotation.Nullable;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * A class containing additional information for ThreeDSecure 2.0 Requests
  */
@@ -845,6 +848,65 @@ public class ThreeDSecureAdditionalInformation implements Parcelable {
         }
     };
 
+    /**
+     * Write the same fields as {@link #toJson()} to an open JSON object without building it.
+     */
+    void writeFields(JsonWriter writer) throws IOException {
+        if (shippingAddress != null) {
+            Json.writeOpt(writer, "shipping_given_name", shippingAddress.getGivenName());
+            Json.writeOpt(writer, "shipping_surname", shippingAddress.getSurname());
+            Json.writeOpt(writer, "shipping_phone", shippingAddress.getPhoneNumber());
+
+            Json.writeOpt(writer, "shipping_line1", shippingAddress.getStreetAddress());
+            Json.writeOpt(writer, "shipping_line2", shippingAddress.getExtendedAddress());
+            Json.writeOpt(writer, "shipping_line3", shippingAddress.getLine3());
+            Json.writeOpt(writer, "shipping_city", shippingAddress.getLocality());
+            Json.writeOpt(writer, "shipping_state", shippingAddress.getRegion());
+            Json.writeOpt(writer, "shipping_postal_code", shippingAddress.getPostalCode());
+            Json.writeOpt(writer, "shipping_country_code", shippingAddress.getCountryCodeAlpha2());
+        }
+
+        Json.writeOpt(writer, "shipping_method_indicator", shippingMethodIndicator);
+        Json.writeOpt(writer, "product_code", productCode);
+        Json.writeOpt(writer, "delivery_timeframe", deliveryTimeframe);
+        Json.writeOpt(writer, "delivery_email", deliveryEmail);
+        Json.writeOpt(writer, "reorder_indicator", reorderIndicator);
+        Json.writeOpt(writer, "preorder_indicator", preorderIndicator);
+        Json.writeOpt(writer, "preorder_date", preorderDate);
+        Json.writeOpt(writer, "gift_card_amount", giftCardAmount);
+        Json.writeOpt(writer, "gift_card_currency_code", giftCardCurrencyCode);
+        Json.writeOpt(writer, "gift_card_count", giftCardCount);
+        Json.writeOpt(writer, "account_age_indicator", accountAgeIndicator);
+        Json.writeOpt(writer, "account_create_date", accountCreateDate);
+        Json.writeOpt(writer, "account_change_indicator", accountChangeIndicator);
+        Json.writeOpt(writer, "account_change_date", accountChangeDate);
+        Json.writeOpt(writer, "account_pwd_change_indicator", accountPwdChangeIndicator);
+        Json.writeOpt(writer, "account_pwd_change_date", accountPwdChangeDate);
+        Json.writeOpt(writer, "shipping_address_usage_indicator", shippingAddressUsageIndicator);
+        Json.writeOpt(writer, "shipping_address_usage_date", shippingAddressUsageDate);
+        Json.writeOpt(writer, "transaction_count_day", transactionCountDay);
+        Json.writeOpt(writer, "transaction_count_year", transactionCountYear);
+        Json.writeOpt(writer, "add_card_attempts", addCardAttempts);
+        Json.writeOpt(writer, "account_purchases", accountPurchases);
+        Json.writeOpt(writer, "fraud_activity", fraudActivity);
+        Json.writeOpt(writer, "shipping_name_indicator", shippingNameIndicator);
+        Json.writeOpt(writer, "payment_account_indicator", paymentAccountIndicator);
+        Json.writeOpt(writer, "payment_account_age", paymentAccountAge);
+        Json.writeOpt(writer, "address_match", addressMatch);
+        Json.writeOpt(writer, "account_id", accountId);
+        Json.writeOpt(writer, "ip_address", ipAddress);
+        Json.writeOpt(writer, "order_description", orderDescription);
+        Json.writeOpt(writer, "tax_amount", taxAmount);
+        Json.writeOpt(writer, "user_agent", userAgent);
+        Json.writeOpt(writer, "authentication_indicator", authenticationIndicator);
+        Json.writeOpt(writer, "installment", installment);
+        Json.writeOpt(writer, "purchase_date", purchaseDate);
+        Json.writeOpt(writer, "recurring_end", recurringEnd);
+        Json.writeOpt(writer, "recurring_frequency", recurringFrequency);
+        Json.writeOpt(writer, "sdk_max_timeout", sdkMaxTimeout);
+        Json.writeOpt(writer, "work_phone_number", workPhoneNumber);
+    }
+
     /**
      * @return JSONObject representation of {@link ThreeDSecureAdditionalInformation}.
      */
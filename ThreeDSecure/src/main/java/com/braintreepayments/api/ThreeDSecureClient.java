@@ -92,6 +92,14 @@ public class ThreeDSecureClient {
         lifecycle.addObserver(observer);
     }
 
+    /**
+     * Abort in-flight 3DS requests once the host Activity or Fragment is destroyed. The flows that
+     * were waiting on them end without reporting a result to the destroyed host.
+     */
+    void cancelPendingRequests() {
+        api.cancelPendingRequests();
+    }
+
     /**
      * Add a {@link ThreeDSecureListener} to your client to receive results or errors from the 3DS payment flow.
      * This method must be invoked on a {@link ThreeDSecureClient(Fragment, BraintreeClient)} or
@@ -106,6 +114,17 @@ public class ThreeDSecureClient {
         }
     }
 
+    /**
+     * Set how long each 3DS lookup and authentication request may take, including retries, before
+     * it fails with a {@link DeadlineExceededException}. By default requests only time out when
+     * a connection or response takes longer than 30 seconds.
+     *
+     * @param timeoutMillis the deadline of each request in milliseconds
+     */
+    public void setRequestTimeout(long timeoutMillis) {
+        api.setRequestTimeout(timeoutMillis);
+    }
+
     // region Cardinal Initialize/Prepare Callback Methods
 
     /**
@@ -100,6 +100,23 @@ class ThreeDSecureLifecycleObserver implements LifecycleEventObserver {
                         }
                     });
                 }
+                break;
+            case ON_DESTROY:
+                if (!isChangingConfigurations(lifecycleOwner)) {
+                    threeDSecureClient.cancelPendingRequests();
+                }
+                break;
+        }
+    }
+
+    // requests outlive an Activity that is only being recreated, e.g. on rotation
+    private static boolean isChangingConfigurations(LifecycleOwner lifecycleOwner) {
+        FragmentActivity activity = null;
+        if (lifecycleOwner instanceof FragmentActivity) {
+            activity = (FragmentActivity) lifecycleOwner;
+        } else if (lifecycleOwner instanceof Fragment) {
+            activity = ((Fragment) lifecycleOwner).getActivity();
         }
+        return activity != null && activity.isChangingConfigurations();
     }
 }
@@ -2,6 +2,7 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonWriter;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.Nullable;
@@ -10,6 +11,7 @@ import androidx.annotation.StringDef;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.List;
@@ -514,6 +516,53 @@ public class ThreeDSecureRequest implements Parcelable {
         return base.toString();
     }
 
+    /**
+     * Write the same fields as {@link #build(String)} to an open JSON object, streaming the
+     * additional information instead of building it as a tree first.
+     */
+    void writeFields(JsonWriter writer, String dfReferenceId) throws IOException {
+        ThreeDSecurePostalAddress billing = getBillingAddress();
+
+        Json.writeOpt(writer, "amount", amount);
+
+        writer.name("additional_info").beginObject();
+        if (getAdditionalInformation() != null) {
+            getAdditionalInformation().writeFields(writer);
+        }
+        Json.writeOpt(writer, "mobile_phone_number", getMobilePhoneNumber());
+        Json.writeOpt(writer, "shipping_method", getShippingMethodAsString());
+        Json.writeOpt(writer, "email", getEmail());
+
+        if (billing != null) {
+            Json.writeOpt(writer, "billing_given_name", billing.getGivenName());
+            Json.writeOpt(writer, "billing_surname", billing.getSurname());
+            Json.writeOpt(writer, "billing_line1", billing.getStreetAddress());
+            Json.writeOpt(writer, "billing_line2", billing.getExtendedAddress());
+            Json.writeOpt(writer, "billing_line3", billing.getLine3());
+            Json.writeOpt(writer, "billing_city", billing.getLocality());
+            Json.writeOpt(writer, "billing_state", billing.getRegion());
+            Json.writeOpt(writer, "billing_postal_code", billing.getPostalCode());
+            Json.writeOpt(writer, "billing_country_code", billing.getCountryCodeAlpha2());
+            Json.writeOpt(writer, "billing_phone_number", billing.getPhoneNumber());
+        }
+        writer.endObject();
+
+        Json.writeOpt(writer, "account_type", accountType);
+
+        if (cardAddChallengeRequested != null) {
+            writer.name("card_add").value(cardAddChallengeRequested);
+        }
+
+        if (VERSION_2.equals(getVersionRequested())) {
+            Json.writeOpt(writer, "df_reference_id", dfReferenceId);
+        }
+
+        writer.name("challenge_requested").value(challengeRequested);
+        writer.name("data_only_requested").value(dataOnlyRequested);
+        writer.name("exemption_requested").value(exemptionRequested);
+        Json.writeOpt(writer, "requested_exemption_type", requestedExemptionType);
+    }
+
     private String getShippingMethodAsString() {
         switch (shippingMethod) {
             case ThreeDSecureShippingMethod.SAME_DAY:
@@ -2,11 +2,14 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonReader;
 
 import androidx.annotation.Nullable;
 
 import org.json.JSONException;
-import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.StringReader;
 
 /**
  * Class to parse and contain 3D Secure authentication responses
@@ -25,35 +28,88 @@ public class ThreeDSecureResult implements Parcelable {
     private ThreeDSecureLookup lookup;
 
     /**
-     * Used to parse a response from the Braintree Gateway to be used for 3D Secure.
+     * Used to parse a response from the Braintree Gateway to be used for 3D Secure. The response
+     * is read in a single pass without building a JSON tree; fields that are not part of the
+     * result are skipped.
      *
      * @param jsonString The json response from the Braintree Gateway 3D Secure authentication route.
      * @return The {@link ThreeDSecureResult} to use when performing 3D Secure
      * authentication.
      */
     static ThreeDSecureResult fromJson(String jsonString) throws JSONException {
-        ThreeDSecureResult result = new ThreeDSecureResult();
-        JSONObject json = new JSONObject(jsonString);
-
-        JSONObject cardJson = json.optJSONObject(PAYMENT_METHOD_KEY);
-        if (cardJson != null) {
-            result.tokenizedCard = CardNonce.fromJSON(cardJson);
+        JsonReader reader = new JsonReader(new StringReader(jsonString));
+        try {
+            return fromJsonReader(reader);
+        } catch (IOException | IllegalStateException e) {
+            throw Json.toJSONException(e);
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {}
         }
+    }
 
-        if (json.has(ERRORS_KEY)) {
-            // 3DS v2
-            result.errorMessage = Json.optString(json.getJSONArray(ERRORS_KEY).getJSONObject(0), MESSAGE_KEY, null);
-        } else if (json.has(ERROR_KEY)) {
-            // 3DS v1
-            result.errorMessage = Json.optString(json.getJSONObject(ERROR_KEY), MESSAGE_KEY, null);
+    private static ThreeDSecureResult fromJsonReader(JsonReader reader) throws IOException, JSONException {
+        ThreeDSecureResult result = new ThreeDSecureResult();
+        boolean hasErrors = false;
+        String errorsMessage = null;
+        String errorMessage = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case PAYMENT_METHOD_KEY:
+                    if (Json.nextIsObject(reader)) {
+                        result.tokenizedCard = CardNonce.fromJSONReader(reader);
+                    }
+                    break;
+                case ERRORS_KEY:
+                    // 3DS v2
+                    hasErrors = true;
+                    errorsMessage = readFirstErrorMessage(reader);
+                    break;
+                case ERROR_KEY:
+                    // 3DS v1
+                    errorMessage = readErrorMessage(reader);
+                    break;
+                case LOOKUP_KEY:
+                    result.lookup = ThreeDSecureLookup.fromJsonReader(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
         }
+        reader.endObject();
+
+        result.errorMessage = hasErrors ? errorsMessage : errorMessage;
+        return result;
+    }
 
-        if (json.has(LOOKUP_KEY)) {
-            String lookupJson = json.getJSONObject(LOOKUP_KEY).toString();
-            result.lookup = ThreeDSecureLookup.fromJson(lookupJson);
+    private static String readFirstErrorMessage(JsonReader reader) throws IOException {
+        String message = null;
+        reader.beginArray();
+        if (reader.hasNext()) {
+            message = readErrorMessage(reader);
+        }
+        while (reader.hasNext()) {
+            reader.skipValue();
         }
+        reader.endArray();
+        return message;
+    }
 
-        return result;
+    private static String readErrorMessage(JsonReader reader) throws IOException {
+        String message = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (MESSAGE_KEY.equals(reader.nextName())) {
+                message = Json.nextString(reader, null);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return message;
     }
 
     /**
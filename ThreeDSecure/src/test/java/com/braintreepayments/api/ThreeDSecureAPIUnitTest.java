@@ -7,44 +7,96 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import android.util.JsonWriter;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
+import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.io.IOException;
+
+// requests and responses go through android.util.JsonWriter and JsonReader, which need the
+// Robolectric runtime
+@RunWith(RobolectricTestRunner.class)
 public class ThreeDSecureAPIUnitTest {
 
     private ThreeDSecureAPI sut;
 
     @Test
-    public void performLookup_sendsPOSTRequest() {
+    public void performLookup_sendsPOSTRequest() throws Exception {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
         sut = new ThreeDSecureAPI(braintreeClient);
 
         ThreeDSecureRequest threeDSecureRequest = mock(ThreeDSecureRequest.class);
-        String mockData = "{\"mock\":\"json\"}";
         when(threeDSecureRequest.getNonce()).thenReturn("sample-nonce");
-        when(threeDSecureRequest.build("cardinal-session-id")).thenReturn(mockData);
+        doAnswer(invocation -> {
+            JsonWriter writer = invocation.getArgument(0);
+            writer.name("mock").value("json");
+            return null;
+        }).when(threeDSecureRequest).writeFields(any(JsonWriter.class), eq("cardinal-session-id"));
 
         ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
         sut.performLookup(threeDSecureRequest, "cardinal-session-id", callback);
 
         ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(urlCaptor.capture(), dataCaptor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> payloadCaptor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(urlCaptor.capture(), payloadCaptor.capture(), ArgumentMatchers.<String, String>anyMap(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         String url = urlCaptor.getValue();
         assertEquals("/v1/payment_methods/sample-nonce/three_d_secure/lookup", url);
 
-        String data = dataCaptor.getValue();
-        assertSame(mockData, data);
+        JSONObject data = JSONPayloadHelper.toJSONObject(payloadCaptor.getValue());
+        JSONAssert.assertEquals(new JSONObject().put("mock", "json"), data, true);
+    }
+
+    @Test
+    public void cancelPendingRequests_cancelsLookupWithoutNotifyingCallback() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        sut = new ThreeDSecureAPI(braintreeClient, new HttpRequestGroup());
+
+        ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
+        sut.performLookup(mock(ThreeDSecureRequest.class), "cardinal-session-id", callback);
+        sut.cancelPendingRequests();
+
+        ArgumentCaptor<HttpRequestHandle> handleCaptor = ArgumentCaptor.forClass(HttpRequestHandle.class);
+        ArgumentCaptor<HttpResponseCallback> callbackCaptor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendJSONPOST(anyString(), any(JSONPayloadWriter.class),
+                ArgumentMatchers.<String, String>anyMap(), handleCaptor.capture(), callbackCaptor.capture());
+        assertTrue(handleCaptor.getValue().isCancelled());
+
+        callbackCaptor.getValue().onResult(null, new IOException("Socket closed"));
+        verify(callback, never()).onResult(any(), any());
+    }
+
+    @Test
+    public void performLookup_afterCancelPendingRequests_sendsRequestWithNewHandle() {
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+        sut = new ThreeDSecureAPI(braintreeClient, new HttpRequestGroup());
+
+        sut.performLookup(mock(ThreeDSecureRequest.class), "cardinal-session-id", mock(ThreeDSecureResultCallback.class));
+        sut.cancelPendingRequests();
+        sut.performLookup(mock(ThreeDSecureRequest.class), "cardinal-session-id", mock(ThreeDSecureResultCallback.class));
+
+        ArgumentCaptor<HttpRequestHandle> handleCaptor = ArgumentCaptor.forClass(HttpRequestHandle.class);
+        verify(braintreeClient, times(2)).sendJSONPOST(anyString(), any(JSONPayloadWriter.class),
+                ArgumentMatchers.<String, String>anyMap(), handleCaptor.capture(), any(HttpResponseCallback.class));
+        assertTrue(handleCaptor.getAllValues().get(0).isCancelled());
+        assertFalse(handleCaptor.getAllValues().get(1).isCancelled());
     }
 
     @Test
@@ -55,7 +107,6 @@ public class ThreeDSecureAPIUnitTest {
         sut = new ThreeDSecureAPI(braintreeClient);
 
         ThreeDSecureRequest threeDSecureRequest = mock(ThreeDSecureRequest.class);
-        when(threeDSecureRequest.build(anyString())).thenReturn("{}");
 
         ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
         sut.performLookup(threeDSecureRequest, "another-session-id", callback);
@@ -71,7 +122,6 @@ public class ThreeDSecureAPIUnitTest {
         sut = new ThreeDSecureAPI(braintreeClient);
 
         ThreeDSecureRequest threeDSecureRequest = mock(ThreeDSecureRequest.class);
-        when(threeDSecureRequest.build(anyString())).thenReturn("{}");
 
         ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
         sut.performLookup(threeDSecureRequest, "cardinal-session-id", callback);
@@ -88,7 +138,6 @@ public class ThreeDSecureAPIUnitTest {
         sut = new ThreeDSecureAPI(braintreeClient);
 
         ThreeDSecureRequest threeDSecureRequest = mock(ThreeDSecureRequest.class);
-        when(threeDSecureRequest.build(anyString())).thenReturn("{}");
 
         ThreeDSecureResultCallback callback = mock(ThreeDSecureResultCallback.class);
         sut.performLookup(threeDSecureRequest, "cardinal-session-id", callback);
@@ -97,7 +146,7 @@ public class ThreeDSecureAPIUnitTest {
     }
 
     @Test
-    public void authenticateCardinalJWT_sendsPOSTRequest() throws JSONException {
+    public void authenticateCardinalJWT_sendsPOSTRequest() throws Exception {
         BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
         sut = new ThreeDSecureAPI(braintreeClient);
 
@@ -109,17 +158,17 @@ public class ThreeDSecureAPIUnitTest {
         sut.authenticateCardinalJWT(threeDSecureResult, cardinalJWT, callback);
 
         ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(urlCaptor.capture(), dataCaptor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> payloadCaptor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(urlCaptor.capture(), payloadCaptor.capture(), ArgumentMatchers.<String, String>anyMap(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         String url = urlCaptor.getValue();
         assertEquals("/v1/payment_methods/123456-12345-12345-a-adfa/three_d_secure/authenticate_from_jwt", url);
 
-        String data = dataCaptor.getValue();
+        JSONObject data = JSONPayloadHelper.toJSONObject(payloadCaptor.getValue());
         JSONObject expectedJSON = new JSONObject()
                 .put("jwt", "cardinal-jwt")
                 .put("paymentMethodNonce", "123456-12345-12345-a-adfa");
-        JSONAssert.assertEquals(expectedJSON, new JSONObject(data), true);
+        JSONAssert.assertEquals(expectedJSON, data, true);
     }
 
     @Test
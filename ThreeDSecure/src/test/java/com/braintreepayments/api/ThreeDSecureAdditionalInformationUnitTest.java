@@ -7,6 +7,7 @@ import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.skyscreamer.jsonassert.JSONAssert;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertTrue;
@@ -269,4 +270,30 @@ public class ThreeDSecureAdditionalInformationUnitTest {
         assertTrue(jsonParams.isNull("sdk_max_timeout"));
         assertTrue(jsonParams.isNull("work_phone_number"));
     }
+
+    @Test
+    public void writeFields_writesSameJsonAsToJson() throws JSONException {
+        ThreeDSecurePostalAddress shippingAddress = new ThreeDSecurePostalAddress();
+        shippingAddress.setGivenName("shipping-given-name");
+        shippingAddress.setStreetAddress("shipping-line1");
+        shippingAddress.setCountryCodeAlpha2("shipping-country-code");
+
+        ThreeDSecureAdditionalInformation additionalInformation = new ThreeDSecureAdditionalInformation();
+        additionalInformation.setShippingAddress(shippingAddress);
+        additionalInformation.setProductCode("product_code");
+        additionalInformation.setAccountId("account_id");
+        additionalInformation.setSdkMaxTimeout("06");
+        additionalInformation.setWorkPhoneNumber("5551115555");
+
+        JSONObject streamed = JSONPayloadHelper.toJSONObject(additionalInformation::writeFields);
+
+        JSONAssert.assertEquals(additionalInformation.toJson(), streamed, true);
+    }
+
+    @Test
+    public void writeFields_whenEmpty_writesNoFields() throws JSONException {
+        ThreeDSecureAdditionalInformation additionalInformation = new ThreeDSecureAdditionalInformation();
+
+        assertEquals("{}", JSONPayloadHelper.toString(additionalInformation::writeFields));
+    }
 }
@@ -36,10 +36,13 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.IOException;
+
 @RunWith(RobolectricTestRunner.class)
 public class ThreeDSecureClientUnitTest {
 
@@ -85,6 +88,28 @@ public class ThreeDSecureClientUnitTest {
         when(activity.getLifecycle()).thenReturn(lifecycle);
     }
 
+    @Test
+    public void cancelPendingRequests_cancelsPendingAPIRequests() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.cancelPendingRequests();
+
+        verify(threeDSecureAPI).cancelPendingRequests();
+    }
+
+    @Test
+    public void setRequestTimeout_setsTimeoutOfAPIRequests() throws BraintreeException {
+        CardinalClient cardinalClient = new MockCardinalClientBuilder().build();
+        BraintreeClient braintreeClient = new MockBraintreeClientBuilder().build();
+
+        ThreeDSecureClient sut = new ThreeDSecureClient(activity, lifecycle, braintreeClient, cardinalClient, threeDSecureAPI);
+        sut.setRequestTimeout(5000);
+
+        verify(threeDSecureAPI).setRequestTimeout(5000);
+    }
+
     @Test
     public void performVerification_sendsAnalyticEvent() throws BraintreeException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder()
@@ -102,7 +127,7 @@ public class ThreeDSecureClientUnitTest {
     }
 
     @Test
-    public void performVerification_sendsParamsInLookupRequest() throws JSONException, BraintreeException {
+    public void performVerification_sendsParamsInLookupRequest() throws JSONException, BraintreeException, IOException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder()
                 .successReferenceId("df-reference-id")
                 .build();
@@ -125,10 +150,10 @@ public class ThreeDSecureClientUnitTest {
         sut.performVerification(activity, request, threeDSecureResultCallback);
 
         String expectedUrl = "/v1/payment_methods/a-nonce/three_d_secure/lookup";
-        ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(eq(expectedUrl), bodyCaptor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> bodyCaptor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(eq(expectedUrl), bodyCaptor.capture(), ArgumentMatchers.<String, String>anyMap(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
-        JSONObject body = new JSONObject(bodyCaptor.getValue());
+        JSONObject body = JSONPayloadHelper.toJSONObject(bodyCaptor.getValue());
         assertEquals("amount", body.getString("amount"));
         assertEquals("df-reference-id", body.getString("df_reference_id"));
         assertEquals("billing-given-name", body.getJSONObject("additional_info").getString("billing_given_name"));
@@ -136,7 +161,7 @@ public class ThreeDSecureClientUnitTest {
     }
 
     @Test
-    public void performVerification_performsLookup_WhenCardinalSDKInitFails() throws JSONException, BraintreeException {
+    public void performVerification_performsLookup_WhenCardinalSDKInitFails() throws JSONException, BraintreeException, IOException {
         CardinalClient cardinalClient = new MockCardinalClientBuilder()
                 .error(new Exception("error"))
                 .build();
@@ -158,12 +183,11 @@ public class ThreeDSecureClientUnitTest {
         sut.performVerification(activity, request, threeDSecureResultCallback);
 
         ArgumentCaptor<String> pathCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendPOST(pathCaptor.capture(), bodyCaptor.capture(), any(HttpResponseCallback.class));
+        ArgumentCaptor<JSONPayloadWriter> bodyCaptor = ArgumentCaptor.forClass(JSONPayloadWriter.class);
+        verify(braintreeClient).sendJSONPOST(pathCaptor.capture(), bodyCaptor.capture(), ArgumentMatchers.<String, String>anyMap(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         String path = pathCaptor.getValue();
-        String body = bodyCaptor.getValue();
-        JSONObject bodyJson = new JSONObject(body);
+        JSONObject bodyJson = JSONPayloadHelper.toJSONObject(bodyCaptor.getValue());
 
         assertEquals("/v1/payment_methods/a-nonce/three_d_secure/lookup", path);
         assertEquals("amount", bodyJson.get("amount"));
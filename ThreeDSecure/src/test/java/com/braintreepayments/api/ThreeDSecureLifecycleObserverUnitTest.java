@@ -201,6 +201,41 @@ public class ThreeDSecureLifecycleObserverUnitTest {
         verify(threeDSecureClient, never()).onBrowserSwitchResult(any(BrowserSwitchResult.class));
     }
 
+    @Test
+    public void onDestroy_cancelsPendingRequests() {
+        ActivityResultRegistry activityResultRegistry = mock(ActivityResultRegistry.class);
+        ThreeDSecureClient threeDSecureClient = mock(ThreeDSecureClient.class);
+
+        ThreeDSecureLifecycleObserver sut = new ThreeDSecureLifecycleObserver(activityResultRegistry, threeDSecureClient);
+        sut.onStateChanged(new FragmentActivity(), Lifecycle.Event.ON_DESTROY);
+
+        verify(threeDSecureClient).cancelPendingRequests();
+    }
+
+    @Test
+    public void onDestroy_whenActivityIsChangingConfigurations_doesNotCancelPendingRequests() {
+        ActivityResultRegistry activityResultRegistry = mock(ActivityResultRegistry.class);
+        ThreeDSecureClient threeDSecureClient = mock(ThreeDSecureClient.class);
+        FragmentActivity activity = mock(FragmentActivity.class);
+        when(activity.isChangingConfigurations()).thenReturn(true);
+
+        ThreeDSecureLifecycleObserver sut = new ThreeDSecureLifecycleObserver(activityResultRegistry, threeDSecureClient);
+        sut.onStateChanged(activity, Lifecycle.Event.ON_DESTROY);
+
+        verify(threeDSecureClient, never()).cancelPendingRequests();
+    }
+
+    @Test
+    public void onResume_doesNotCancelPendingRequests() {
+        ActivityResultRegistry activityResultRegistry = mock(ActivityResultRegistry.class);
+        ThreeDSecureClient threeDSecureClient = mock(ThreeDSecureClient.class);
+
+        ThreeDSecureLifecycleObserver sut = new ThreeDSecureLifecycleObserver(activityResultRegistry, threeDSecureClient);
+        sut.onStateChanged(new FragmentActivity(), Lifecycle.Event.ON_RESUME);
+
+        verify(threeDSecureClient, never()).cancelPendingRequests();
+    }
+
     @Test
     public void launch_launchesActivityWithThreeDSecureResult() throws JSONException {
         ThreeDSecureResult threeDSecureResult =
@@ -7,6 +7,7 @@ import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.skyscreamer.jsonassert.JSONAssert;
 
 import static com.braintreepayments.api.ThreeDSecureRequest.VERSION_1;
 import static com.braintreepayments.api.ThreeDSecureRequest.VERSION_2;
@@ -319,4 +320,44 @@ public class ThreeDSecureRequestUnitTest {
         JSONObject json = new JSONObject(threeDSecureRequest.build("df-reference-id"));
         assertFalse(json.getBoolean("card_add"));
     }
+
+    @Test
+    public void writeFields_writesSameJsonAsBuild() throws JSONException {
+        ThreeDSecureAdditionalInformation additionalInformation = new ThreeDSecureAdditionalInformation();
+        additionalInformation.setAccountId("account-id");
+
+        ThreeDSecurePostalAddress billingAddress = new ThreeDSecurePostalAddress();
+        billingAddress.setGivenName("billing-given-name");
+        billingAddress.setStreetAddress("billing-line1");
+        billingAddress.setPostalCode("billing-postal-code");
+
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setVersionRequested(VERSION_2);
+        request.setAmount("amount");
+        request.setEmail("email");
+        request.setShippingMethod(ThreeDSecureShippingMethod.SAME_DAY);
+        request.setBillingAddress(billingAddress);
+        request.setAdditionalInformation(additionalInformation);
+        request.setChallengeRequested(true);
+        request.setCardAddChallengeRequested(false);
+        request.setAccountType(ThreeDSecureRequest.DEBIT);
+
+        JSONObject streamed = JSONPayloadHelper.toJSONObject(
+                writer -> request.writeFields(writer, "df-reference-id"));
+
+        JSONAssert.assertEquals(request.build("df-reference-id"), streamed, true);
+    }
+
+    @Test
+    public void writeFields_withVersion1_writesSameJsonAsBuild() throws JSONException {
+        ThreeDSecureRequest request = new ThreeDSecureRequest();
+        request.setVersionRequested(VERSION_1);
+        request.setAmount("amount");
+
+        JSONObject streamed = JSONPayloadHelper.toJSONObject(
+                writer -> request.writeFields(writer, "df-reference-id"));
+
+        JSONAssert.assertEquals(request.build("df-reference-id"), streamed, true);
+        assertFalse(streamed.has("df_reference_id"));
+    }
 }
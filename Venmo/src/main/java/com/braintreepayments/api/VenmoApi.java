@@ -1,78 +1,68 @@
 package com.braintreepayments.api;
 
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
 
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONArray;
+
+import java.io.IOException;
+import java.io.StringWriter;
 
 class VenmoApi {
 
+    private static final String CREATE_PAYMENT_CONTEXT_MUTATION =
+            "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }";
+
+    private static final String PAYMENT_CONTEXT_QUERY =
+            "query PaymentContext($id: ID!) { node(id: $id) { ... on VenmoPaymentContext { paymentMethodId userName payerInfo { firstName lastName phoneNumber email externalId userName " +
+            "shippingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } billingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } } } } }";
+
     private final BraintreeClient braintreeClient;
     private final ApiClient apiClient;
+    private final HttpRequestGroup pendingRequests;
 
     VenmoApi(BraintreeClient braintreeClient, ApiClient apiClient) {
+        this(braintreeClient, apiClient, new HttpRequestGroup());
+    }
+
+    @VisibleForTesting
+    VenmoApi(BraintreeClient braintreeClient, ApiClient apiClient, HttpRequestGroup pendingRequests) {
         this.braintreeClient = braintreeClient;
         this.apiClient = apiClient;
+        this.pendingRequests = pendingRequests;
     }
 
-    void createPaymentContext(@NonNull final VenmoRequest request, String venmoProfileId, final VenmoApiCallback callback) {
-        JSONObject params = new JSONObject();
-        try {
-            params.put("query", "mutation CreateVenmoPaymentContext($input: CreateVenmoPaymentContextInput!) { createVenmoPaymentContext(input: $input) { venmoPaymentContext { id } } }");
-            JSONObject input = new JSONObject();
-            input.put("paymentMethodUsage", request.getPaymentMethodUsageAsString());
-            input.put("merchantProfileId", venmoProfileId);
-            input.put("customerClient", "MOBILE_APP");
-            input.put("intent", "CONTINUE");
-            input.put("isFinalAmount", request.getIsFinalAmountAsString());
-            JSONObject paysheetDetails = new JSONObject();
-            paysheetDetails.put("collectCustomerShippingAddress", request.getCollectCustomerShippingAddressAsString());
-            paysheetDetails.put("collectCustomerBillingAddress", request.getCollectCustomerBillingAddressAsString());
-
-            JSONObject transactionDetails = new JSONObject();
-            transactionDetails.put("subTotalAmount", request.getSubTotalAmount());
-            transactionDetails.put("discountAmount", request.getDiscountAmount());
-            transactionDetails.put("taxAmount", request.getTaxAmount());
-            transactionDetails.put("shippingAmount", request.getShippingAmount());
-            transactionDetails.put("totalAmount", request.getTotalAmount());
-
-            if (!request.getLineItems().isEmpty()) {
-                JSONArray lineItems = new JSONArray();
-                for (VenmoLineItem lineItem : request.getLineItems()) {
-                    if (lineItem.getUnitTaxAmount() == null || lineItem.getUnitTaxAmount().equals("")) {
-                        lineItem.setUnitTaxAmount("0");
-                    }
-                    lineItems.put(lineItem.toJson());
-                }
-                transactionDetails.put("lineItems", lineItems);
-            }
-
-            if (transactionDetails.length() > 0) {
-                paysheetDetails.put("transactionDetails", transactionDetails);
-            }
-            input.put("paysheetDetails", paysheetDetails);
-
-            input.putOpt("displayName", request.getDisplayName());
-
-            JSONObject variables = new JSONObject();
-            variables.put("input", input);
-            params.put("variables", variables);
+    /**
+     * Abort in-flight payment context requests without calling their callbacks.
+     */
+    void cancelPendingRequests() {
+        pendingRequests.cancelAll();
+    }
 
-            JSONObject braintreeData = new MetadataBuilder()
-                    .sessionId(braintreeClient.getSessionId())
-                    .integration(braintreeClient.getIntegrationType())
-                    .version()
-                    .build();
+    void setRequestTimeout(long timeoutMillis) {
+        pendingRequests.setRequestTimeout(timeoutMillis);
+    }
 
-            params.put("clientSdkMetadata", braintreeData);
-        } catch (JSONException e) {
+    void createPaymentContext(@NonNull final VenmoRequest request, String venmoProfileId, final VenmoApiCallback callback) {
+        // GraphQL request bodies are sent as strings, so unlike the REST bodies of other payment
+        // methods this one cannot be streamed to the connection. Writing it with JsonWriter only
+        // skips the intermediate JSONObject tree, which for a payment context is a small saving.
+        StringWriter params = new StringWriter();
+        try {
+            JsonWriter writer = new JsonWriter(params);
+            writePaymentContextParams(writer, request, venmoProfileId);
+            writer.flush();
+        } catch (IOException e) {
             callback.onResult(null, new BraintreeException("unexpected error"));
+            return;
         }
 
-        braintreeClient.sendGraphQLPOST(params.toString(), new HttpResponseCallback() {
+        HttpRequestHandle requestHandle = pendingRequests.newRequestHandle();
+        braintreeClient.sendGraphQLPOST(params.toString(), requestHandle, pendingRequests.track(requestHandle, new HttpResponseCallback() {
 
             @Override
             public void onResult(String responseBody, Exception httpError) {
@@ -87,19 +77,81 @@ class VenmoApi {
                     callback.onResult(null, httpError);
                 }
             }
-        });
+        }));
+    }
+
+    private void writePaymentContextParams(JsonWriter writer, VenmoRequest request, String venmoProfileId)
+            throws IOException {
+        writer.beginObject();
+        writer.name("query").value(CREATE_PAYMENT_CONTEXT_MUTATION);
+
+        writer.name("variables").beginObject();
+        writer.name("input").beginObject();
+        Json.writeOpt(writer, "paymentMethodUsage", request.getPaymentMethodUsageAsString());
+        Json.writeOpt(writer, "merchantProfileId", venmoProfileId);
+        writer.name("customerClient").value("MOBILE_APP");
+        writer.name("intent").value("CONTINUE");
+        Json.writeOpt(writer, "isFinalAmount", request.getIsFinalAmountAsString());
+
+        writer.name("paysheetDetails").beginObject();
+        Json.writeOpt(writer, "collectCustomerShippingAddress", request.getCollectCustomerShippingAddressAsString());
+        Json.writeOpt(writer, "collectCustomerBillingAddress", request.getCollectCustomerBillingAddressAsString());
+
+        // a written name cannot be taken back, so only open transactionDetails if it has fields
+        boolean hasTransactionDetails = request.getSubTotalAmount() != null
+                || request.getDiscountAmount() != null
+                || request.getTaxAmount() != null
+                || request.getShippingAmount() != null
+                || request.getTotalAmount() != null
+                || !request.getLineItems().isEmpty();
+        if (hasTransactionDetails) {
+            writer.name("transactionDetails").beginObject();
+            Json.writeOpt(writer, "subTotalAmount", request.getSubTotalAmount());
+            Json.writeOpt(writer, "discountAmount", request.getDiscountAmount());
+            Json.writeOpt(writer, "taxAmount", request.getTaxAmount());
+            Json.writeOpt(writer, "shippingAmount", request.getShippingAmount());
+            Json.writeOpt(writer, "totalAmount", request.getTotalAmount());
+
+            if (!request.getLineItems().isEmpty()) {
+                writer.name("lineItems").beginArray();
+                for (VenmoLineItem lineItem : request.getLineItems()) {
+                    if (lineItem.getUnitTaxAmount() == null || lineItem.getUnitTaxAmount().equals("")) {
+                        lineItem.setUnitTaxAmount("0");
+                    }
+                    lineItem.writeJson(writer);
+                }
+                writer.endArray();
+            }
+            writer.endObject();
+        }
+        writer.endObject();
+
+        Json.writeOpt(writer, "displayName", request.getDisplayName());
+        writer.endObject();
+        writer.endObject();
+
+        JSONObject braintreeData = new MetadataBuilder()
+                .sessionId(braintreeClient.getSessionId())
+                .integration(braintreeClient.getIntegrationType())
+                .version()
+                .build();
+
+        writer.name("clientSdkMetadata").beginObject();
+        Json.writeFields(writer, braintreeData);
+        writer.endObject();
+        writer.endObject();
     }
 
     void createNonceFromPaymentContext(String paymentContextId, final VenmoOnActivityResultCallback callback) {
         JSONObject params = new JSONObject();
         try {
-            params.put("query", "query PaymentContext($id: ID!) { node(id: $id) { ... on VenmoPaymentContext { paymentMethodId userName payerInfo { firstName lastName phoneNumber email externalId userName " +
-                    "shippingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } billingAddress { fullName addressLine1 addressLine2 adminArea1 adminArea2 postalCode countryCode } } } } }");
+            params.put("query", PAYMENT_CONTEXT_QUERY);
             JSONObject variables = new JSONObject();
             variables.put("id", paymentContextId);
             params.put("variables", variables);
 
-            braintreeClient.sendGraphQLPOST(params.toString(), new HttpResponseCallback() {
+            HttpRequestHandle requestHandle = pendingRequests.newRequestHandle();
+            braintreeClient.sendGraphQLPOST(params.toString(), requestHandle, pendingRequests.track(requestHandle, new HttpResponseCallback() {
 
                 @Override
                 public void onResult(String responseBody, Exception httpError) {
@@ -116,7 +168,7 @@ class VenmoApi {
                         callback.onResult(null, httpError);
                     }
                 }
-            });
+            }));
 
         } catch (JSONException exception) {
             callback.onResult(null, exception);
@@ -116,6 +116,14 @@ public class VenmoClient {
         lifecycle.addObserver(observer);
     }
 
+    /**
+     * Abort in-flight Venmo requests once the host Activity or Fragment is destroyed. The flows
+     * that were waiting on them end without reporting a result to the destroyed host.
+     */
+    void cancelPendingRequests() {
+        venmoApi.cancelPendingRequests();
+    }
+
     /**
      * Add a {@link VenmoListener} to your client to receive results or errors from the Venmo flow.
      * This method must be invoked on a {@link VenmoClient(Fragment, BraintreeClient)} or
@@ -130,6 +138,17 @@ public class VenmoClient {
         }
     }
 
+    /**
+     * Set how long each Venmo payment context request may take, including retries, before it
+     * fails with a {@link DeadlineExceededException}. By default requests only time out when a
+     * connection or response takes longer than 30 seconds.
+     *
+     * @param timeoutMillis the deadline of each request in milliseconds
+     */
+    public void setRequestTimeout(long timeoutMillis) {
+        venmoApi.setRequestTimeout(timeoutMillis);
+    }
+
     /**
      * Launches an Android Intent pointing to the Venmo app on the Google Play Store
      *
@@ -318,25 +337,30 @@ public class VenmoClient {
                                 @Override
                                 public void onResult(@Nullable VenmoAccountNonce nonce, @Nullable Exception error) {
                                     if (nonce != null) {
-                                        isVaultRequest = sharedPrefsWriter.getVenmoVaultOption(braintreeClient.getApplicationContext());
-                                        if (isVaultRequest && isClientTokenAuth) {
-                                            vaultVenmoAccountNonce(nonce.getString(), new VenmoOnActivityResultCallback() {
-                                                @Override
-                                                public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
-                                                    if (venmoAccountNonce != null) {
-                                                        deliverVenmoSuccess(venmoAccountNonce);
-                                                    } else if (error != null) {
-                                                        deliverVenmoFailure(error);
-                                                    }
+                                        sharedPrefsWriter.getVenmoVaultOption(braintreeClient.getApplicationContext(), new VenmoVaultOptionCallback() {
+                                            @Override
+                                            public void onResult(boolean shouldVault) {
+                                                isVaultRequest = shouldVault;
+                                                if (isVaultRequest && isClientTokenAuth) {
+                                                    vaultVenmoAccountNonce(nonce.getString(), new VenmoOnActivityResultCallback() {
+                                                        @Override
+                                                        public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
+                                                            if (venmoAccountNonce != null) {
+                                                                deliverVenmoSuccess(venmoAccountNonce);
+                                                            } else if (error != null) {
+                                                                deliverVenmoFailure(error);
+                                                            }
+                                                        }
+                                                    });
+                                                } else {
+                                                    braintreeClient.sendAnalyticsEvent(
+                                                            "pay-with-venmo.app-switch.failure",
+                                                            getAnalyticsParams()
+                                                    );
+                                                    deliverVenmoSuccess(nonce);
                                                 }
-                                            });
-                                        } else {
-                                            braintreeClient.sendAnalyticsEvent(
-                                                    "pay-with-venmo.app-switch.failure",
-                                                    getAnalyticsParams()
-                                            );
-                                            deliverVenmoSuccess(nonce);
-                                        }
+                                            }
+                                        });
                                     } else {
                                         braintreeClient.sendAnalyticsEvent(
                                                 "pay-with-venmo.app-switch.failure",
@@ -349,23 +373,28 @@ public class VenmoClient {
                         } else {
                             String nonce = venmoResult.getVenmoAccountNonce();
 
-                            isVaultRequest = sharedPrefsWriter.getVenmoVaultOption(braintreeClient.getApplicationContext());
-                            if (isVaultRequest && isClientTokenAuth) {
-                                vaultVenmoAccountNonce(nonce, new VenmoOnActivityResultCallback() {
-                                    @Override
-                                    public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
-                                        if (venmoAccountNonce != null) {
-                                            deliverVenmoSuccess(venmoAccountNonce);
-                                        } else if (error != null) {
-                                            deliverVenmoFailure(error);
-                                        }
+                            sharedPrefsWriter.getVenmoVaultOption(braintreeClient.getApplicationContext(), new VenmoVaultOptionCallback() {
+                                @Override
+                                public void onResult(boolean shouldVault) {
+                                    isVaultRequest = shouldVault;
+                                    if (isVaultRequest && isClientTokenAuth) {
+                                        vaultVenmoAccountNonce(nonce, new VenmoOnActivityResultCallback() {
+                                            @Override
+                                            public void onResult(@Nullable VenmoAccountNonce venmoAccountNonce, @Nullable Exception error) {
+                                                if (venmoAccountNonce != null) {
+                                                    deliverVenmoSuccess(venmoAccountNonce);
+                                                } else if (error != null) {
+                                                    deliverVenmoFailure(error);
+                                                }
+                                            }
+                                        });
+                                    } else {
+                                        String venmoUsername = venmoResult.getVenmoUsername();
+                                        VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce(nonce, venmoUsername, false);
+                                        deliverVenmoSuccess(venmoAccountNonce);
                                     }
-                                });
-                            } else {
-                                String venmoUsername = venmoResult.getVenmoUsername();
-                                VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce(nonce, venmoUsername, false);
-                                deliverVenmoSuccess(venmoAccountNonce);
-                            }
+                                }
+                            });
 
                         }
                     } else if (authError != null) {
@@ -426,16 +455,21 @@ public class VenmoClient {
                                 @Override
                                 public void onResult(@Nullable VenmoAccountNonce nonce, @Nullable Exception error) {
                                     if (nonce != null) {
-                                        isVaultRequest = sharedPrefsWriter.getVenmoVaultOption(context);
-                                        if (isVaultRequest && isClientTokenAuth) {
-                                            vaultVenmoAccountNonce(nonce.getString(), callback);
-                                        } else {
-                                            braintreeClient.sendAnalyticsEvent(
-                                                    "pay-with-venmo.app-switch.failure",
-                                                    getAnalyticsParams()
-                                            );
-                                            callback.onResult(nonce, null);
-                                        }
+                                        sharedPrefsWriter.getVenmoVaultOption(context, new VenmoVaultOptionCallback() {
+                                            @Override
+                                            public void onResult(boolean shouldVault) {
+                                                isVaultRequest = shouldVault;
+                                                if (isVaultRequest && isClientTokenAuth) {
+                                                    vaultVenmoAccountNonce(nonce.getString(), callback);
+                                                } else {
+                                                    braintreeClient.sendAnalyticsEvent(
+                                                            "pay-with-venmo.app-switch.failure",
+                                                            getAnalyticsParams()
+                                                    );
+                                                    callback.onResult(nonce, null);
+                                                }
+                                            }
+                                        });
 
                                     } else {
                                         braintreeClient.sendAnalyticsEvent(
@@ -449,14 +483,19 @@ public class VenmoClient {
                         } else {
                             String nonce = data.getStringExtra(EXTRA_PAYMENT_METHOD_NONCE);
 
-                            isVaultRequest = sharedPrefsWriter.getVenmoVaultOption(context);
-                            if (isVaultRequest && isClientTokenAuth) {
-                                vaultVenmoAccountNonce(nonce, callback);
-                            } else {
-                                String venmoUsername = data.getStringExtra(EXTRA_USERNAME);
-                                VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce(nonce, venmoUsername, false);
-                                callback.onResult(venmoAccountNonce, null);
-                            }
+                            sharedPrefsWriter.getVenmoVaultOption(context, new VenmoVaultOptionCallback() {
+                                @Override
+                                public void onResult(boolean shouldVault) {
+                                    isVaultRequest = shouldVault;
+                                    if (isVaultRequest && isClientTokenAuth) {
+                                        vaultVenmoAccountNonce(nonce, callback);
+                                    } else {
+                                        String venmoUsername = data.getStringExtra(EXTRA_USERNAME);
+                                        VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce(nonce, venmoUsername, false);
+                                        callback.onResult(venmoAccountNonce, null);
+                                    }
+                                }
+                            });
                         }
                     } else if (authError != null) {
                         callback.onResult(null, authError);
@@ -560,20 +599,25 @@ public class VenmoClient {
                                         @Override
                                         public void onResult(@Nullable VenmoAccountNonce nonce, @Nullable Exception error) {
                                             if (nonce != null) {
-                                                isVaultRequest = sharedPrefsWriter.getVenmoVaultOption(context);
-                                                if (isVaultRequest && isClientTokenAuth) {
-                                                    braintreeClient.sendAnalyticsEvent(
-                                                            "pay-with-venmo.app-links.success",
-                                                            getAnalyticsParams()
-                                                    );
-                                                    vaultVenmoAccountNonce(nonce.getString(), callback);
-                                                } else {
-                                                    braintreeClient.sendAnalyticsEvent(
-                                                            "pay-with-venmo.app-links.success",
-                                                            getAnalyticsParams()
-                                                    );
-                                                    callback.onResult(nonce, null);
-                                                }
+                                                sharedPrefsWriter.getVenmoVaultOption(context, new VenmoVaultOptionCallback() {
+                                                    @Override
+                                                    public void onResult(boolean shouldVault) {
+                                                        isVaultRequest = shouldVault;
+                                                        if (isVaultRequest && isClientTokenAuth) {
+                                                            braintreeClient.sendAnalyticsEvent(
+                                                                    "pay-with-venmo.app-links.success",
+                                                                    getAnalyticsParams()
+                                                            );
+                                                            vaultVenmoAccountNonce(nonce.getString(), callback);
+                                                        } else {
+                                                            braintreeClient.sendAnalyticsEvent(
+                                                                    "pay-with-venmo.app-links.success",
+                                                                    getAnalyticsParams()
+                                                            );
+                                                            callback.onResult(nonce, null);
+                                                        }
+                                                    }
+                                                });
                                             } else {
                                                 braintreeClient.sendAnalyticsEvent(
                                                         "pay-with-venmo.app-links.failure",
@@ -584,21 +628,26 @@ public class VenmoClient {
                                         }
                                     });
                                 } else if (paymentMethodNonce != null && username != null) {
-                                    isVaultRequest = sharedPrefsWriter.getVenmoVaultOption(context);
-                                    if (isVaultRequest && isClientTokenAuth) {
-                                        braintreeClient.sendAnalyticsEvent(
-                                                "pay-with-venmo.app-links.success",
-                                                getAnalyticsParams()
-                                        );
-                                        vaultVenmoAccountNonce(paymentMethodNonce, callback);
-                                    } else {
-                                        braintreeClient.sendAnalyticsEvent(
-                                                "pay-with-venmo.app-links.success",
-                                                getAnalyticsParams()
-                                        );
-                                        VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce(paymentMethodNonce, username, false);
-                                        callback.onResult(venmoAccountNonce, null);
-                                    }
+                                    sharedPrefsWriter.getVenmoVaultOption(context, new VenmoVaultOptionCallback() {
+                                        @Override
+                                        public void onResult(boolean shouldVault) {
+                                            isVaultRequest = shouldVault;
+                                            if (isVaultRequest && isClientTokenAuth) {
+                                                braintreeClient.sendAnalyticsEvent(
+                                                        "pay-with-venmo.app-links.success",
+                                                        getAnalyticsParams()
+                                                );
+                                                vaultVenmoAccountNonce(paymentMethodNonce, callback);
+                                            } else {
+                                                braintreeClient.sendAnalyticsEvent(
+                                                        "pay-with-venmo.app-links.success",
+                                                        getAnalyticsParams()
+                                                );
+                                                VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce(paymentMethodNonce, username, false);
+                                                callback.onResult(venmoAccountNonce, null);
+                                            }
+                                        }
+                                    });
                                 }
                             } else if (authError != null) {
                                 braintreeClient.sendAnalyticsEvent(
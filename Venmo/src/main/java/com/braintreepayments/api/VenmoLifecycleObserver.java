@@ -1,5 +1,6 @@
 package com.braintreepayments.api;
 
+import static androidx.lifecycle.Lifecycle.Event.ON_DESTROY;
 import static androidx.lifecycle.Lifecycle.Event.ON_RESUME;
 import static com.braintreepayments.api.BraintreeRequestCodes.VENMO;
 
@@ -84,9 +85,25 @@ class VenmoLifecycleObserver implements LifecycleEventObserver {
                 });
             }
         }
+
+        if (event == ON_DESTROY && !isChangingConfigurations(lifecycleOwner)) {
+            venmoClient.cancelPendingRequests();
+        }
     }
 
     void launch(VenmoIntentData venmoIntentData) {
         activityLauncher.launch(venmoIntentData);
     }
+
+    // an Activity destroyed for a configuration change is recreated right away, so its pending
+    // requests are kept
+    private static boolean isChangingConfigurations(LifecycleOwner lifecycleOwner) {
+        FragmentActivity activity = null;
+        if (lifecycleOwner instanceof FragmentActivity) {
+            activity = (FragmentActivity) lifecycleOwner;
+        } else if (lifecycleOwner instanceof Fragment) {
+            activity = ((Fragment) lifecycleOwner).getActivity();
+        }
+        return activity != null && activity.isChangingConfigurations();
+    }
 }
@@ -2,6 +2,7 @@ package com.braintreepayments.api;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.util.JsonWriter;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -10,6 +11,7 @@ import androidx.annotation.StringDef;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 
@@ -195,6 +197,22 @@ public class VenmoLineItem implements Parcelable {
         return new JSONObject();
     }
 
+    /**
+     * Write the same object as {@link #toJson()} without building it.
+     */
+    void writeJson(JsonWriter writer) throws IOException {
+        writer.beginObject();
+        Json.writeOpt(writer, DESCRIPTION_KEY, description);
+        Json.writeOpt(writer, KIND_KEY, kind);
+        Json.writeOpt(writer, NAME_KEY, name);
+        Json.writeOpt(writer, PRODUCT_CODE_KEY, productCode);
+        Json.writeOpt(writer, QUANTITY_KEY, quantity);
+        Json.writeOpt(writer, UNIT_AMOUNT_KEY, unitAmount);
+        Json.writeOpt(writer, UNIT_TAX_AMOUNT_KEY, unitTaxAmount);
+        Json.writeOpt(writer, URL_KEY, url);
+        writer.endObject();
+    }
+
     VenmoLineItem(Parcel in) {
         description = in.readString();
         kind = in.readString();
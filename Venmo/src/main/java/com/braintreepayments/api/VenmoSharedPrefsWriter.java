@@ -9,20 +9,29 @@ class VenmoSharedPrefsWriter {
     private static final String VAULT_VENMO_KEY = "com.braintreepayments.api.Venmo.VAULT_VENMO_KEY";
 
     void persistVenmoVaultOption(Context context, boolean shouldVault) {
-        persistVenmoVaultOption(BraintreeSharedPreferences.getInstance(context), shouldVault);
+        persistVenmoVaultOption(
+            BraintreeStore.getInstance(context, BraintreeStore.Segment.VENMO), shouldVault);
     }
 
     @VisibleForTesting
-    void persistVenmoVaultOption(BraintreeSharedPreferences braintreeSharedPreferences, boolean shouldVault) {
-        braintreeSharedPreferences.putBoolean(VAULT_VENMO_KEY, shouldVault);
+    void persistVenmoVaultOption(BraintreeStore braintreeStore, boolean shouldVault) {
+        braintreeStore.putBoolean(VAULT_VENMO_KEY, shouldVault);
     }
 
-    boolean getVenmoVaultOption(Context context) {
-        return getVenmoVaultOption(BraintreeSharedPreferences.getInstance(context));
+    // the callback runs once stored Venmo settings have loaded, so reading them never waits
+    void getVenmoVaultOption(Context context, final VenmoVaultOptionCallback callback) {
+        final BraintreeStore braintreeStore =
+            BraintreeStore.getInstance(context, BraintreeStore.Segment.VENMO);
+        braintreeStore.whenLoaded(new Runnable() {
+            @Override
+            public void run() {
+                callback.onResult(getVenmoVaultOption(braintreeStore));
+            }
+        });
     }
 
     @VisibleForTesting
-    boolean getVenmoVaultOption(BraintreeSharedPreferences braintreeSharedPreferences) {
-        return braintreeSharedPreferences.getBoolean(VAULT_VENMO_KEY);
+    boolean getVenmoVaultOption(BraintreeStore braintreeStore) {
+        return braintreeStore.getBoolean(VAULT_VENMO_KEY);
     }
 }
@@ -0,0 +1,6 @@
+package com.braintreepayments.api;
+
+interface VenmoVaultOptionCallback {
+
+    void onResult(boolean shouldVault);
+}
@@ -8,6 +8,8 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import org.json.JSONArray;
@@ -18,6 +20,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
 import java.util.ArrayList;
 
 @RunWith(RobolectricTestRunner.class)
@@ -32,6 +36,39 @@ public class VenmoApiUnitTest {
         apiClient = mock(ApiClient.class);
     }
 
+    @Test
+    public void cancelPendingRequests_cancelsPaymentContextRequestWithoutNotifyingCallback() {
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient, new HttpRequestGroup());
+
+        VenmoApiCallback callback = mock(VenmoApiCallback.class);
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        venmoAPI.createPaymentContext(request, "sample-venmo-merchant", callback);
+        venmoAPI.cancelPendingRequests();
+
+        ArgumentCaptor<HttpRequestHandle> handleCaptor = ArgumentCaptor.forClass(HttpRequestHandle.class);
+        ArgumentCaptor<HttpResponseCallback> callbackCaptor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(braintreeClient).sendGraphQLPOST(anyString(), handleCaptor.capture(), callbackCaptor.capture());
+        assertTrue(handleCaptor.getValue().isCancelled());
+
+        callbackCaptor.getValue().onResult(null, new IOException("Socket closed"));
+        verify(callback, never()).onResult(any(), any());
+    }
+
+    @Test
+    public void createNonceFromPaymentContext_afterCancelPendingRequests_sendsRequestWithNewHandle() {
+        VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient, new HttpRequestGroup());
+
+        VenmoRequest request = new VenmoRequest(VenmoPaymentMethodUsage.SINGLE_USE);
+        venmoAPI.createPaymentContext(request, "sample-venmo-merchant", mock(VenmoApiCallback.class));
+        venmoAPI.cancelPendingRequests();
+        venmoAPI.createNonceFromPaymentContext("payment-context-id", mock(VenmoOnActivityResultCallback.class));
+
+        ArgumentCaptor<HttpRequestHandle> handleCaptor = ArgumentCaptor.forClass(HttpRequestHandle.class);
+        verify(braintreeClient, times(2)).sendGraphQLPOST(anyString(), handleCaptor.capture(), any(HttpResponseCallback.class));
+        assertTrue(handleCaptor.getAllValues().get(0).isCancelled());
+        assertFalse(handleCaptor.getAllValues().get(1).isCancelled());
+    }
+
     @Test
     public void createPaymentContext_createsPaymentContextViaGraphQL() throws JSONException {
         VenmoApi venmoAPI = new VenmoApi(braintreeClient, apiClient);
@@ -53,7 +90,7 @@ public class VenmoApiUnitTest {
         venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
 
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         String graphQLBody = captor.getValue();
         JSONObject graphQLJSON = new JSONObject(graphQLBody);
@@ -99,7 +136,7 @@ public class VenmoApiUnitTest {
         venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
 
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         String graphQLBody = captor.getValue();
         JSONObject graphQLJSON = new JSONObject(graphQLBody);
@@ -184,7 +221,7 @@ public class VenmoApiUnitTest {
         venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
 
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         String graphQLBody = captor.getValue();
         JSONObject graphQLJSON = new JSONObject(graphQLBody);
@@ -213,7 +250,7 @@ public class VenmoApiUnitTest {
         venmoAPI.createPaymentContext(request, request.getProfileId(), mock(VenmoApiCallback.class));
 
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         String graphQLBody = captor.getValue();
         JSONObject graphQLJSON = new JSONObject(graphQLBody);
@@ -236,7 +273,7 @@ public class VenmoApiUnitTest {
         sut.createNonceFromPaymentContext("payment-context-id", mock(VenmoOnActivityResultCallback.class));
 
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpResponseCallback.class));
+        verify(braintreeClient).sendGraphQLPOST(captor.capture(), any(HttpRequestHandle.class), any(HttpResponseCallback.class));
 
         String payload = captor.getValue();
         JSONObject jsonPayload = new JSONObject(payload);
@@ -18,6 +18,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -25,6 +26,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import android.content.ComponentName;
+import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
@@ -48,6 +50,8 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.skyscreamer.jsonassert.JSONCompareMode;
@@ -65,6 +69,7 @@ public class VenmoClientUnitTest {
     private VenmoTokenizeAccountCallback venmoTokenizeAccountCallback;
     private VenmoSharedPrefsWriter sharedPrefsWriter;
     private DeviceInspector deviceInspector;
+    private boolean shouldVault;
 
     private VenmoApi venmoApi;
     private VenmoOnActivityResultCallback onActivityResultCallback;
@@ -85,6 +90,15 @@ public class VenmoClientUnitTest {
         venmoDisabledConfiguration = Configuration.fromJson(Fixtures.CONFIGURATION_WITHOUT_ACCESS_TOKEN);
         venmoTokenizeAccountCallback = mock(VenmoTokenizeAccountCallback.class);
         sharedPrefsWriter = mock(VenmoSharedPrefsWriter.class);
+        shouldVault = false;
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                VenmoVaultOptionCallback callback = (VenmoVaultOptionCallback) invocation.getArguments()[1];
+                callback.onResult(shouldVault);
+                return null;
+            }
+        }).when(sharedPrefsWriter).getVenmoVaultOption(any(Context.class), any(VenmoVaultOptionCallback.class));
 
         onActivityResultCallback = mock(VenmoOnActivityResultCallback.class);
         clientToken = Authorization.fromString(Fixtures.BASE64_CLIENT_TOKEN);
@@ -136,6 +150,24 @@ public class VenmoClientUnitTest {
         verify(lifecycle, never()).addObserver(any(LifecycleObserver.class));
     }
 
+    @Test
+    public void cancelPendingRequests_cancelsPendingVenmoApiRequests() {
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+
+        sut.cancelPendingRequests();
+
+        verify(venmoApi).cancelPendingRequests();
+    }
+
+    @Test
+    public void setRequestTimeout_setsTimeoutOfVenmoApiRequests() {
+        VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
+
+        sut.setRequestTimeout(5000);
+
+        verify(venmoApi).setRequestTimeout(5000);
+    }
+
     @Test
     public void showVenmoInGooglePlayStore_opensVenmoAppStoreURL() {
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
@@ -1135,7 +1167,7 @@ public class VenmoClientUnitTest {
         request.setShouldVault(true);
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
 
@@ -1216,7 +1248,7 @@ public class VenmoClientUnitTest {
         request.setShouldVault(true);
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(null, null, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
         sut.tokenizeVenmoAccount(activity, request);
@@ -1236,7 +1268,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         Intent intent = new Intent().putExtra(EXTRA_PAYMENT_METHOD_NONCE, "nonce");
 
@@ -1260,7 +1292,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         Intent intent = new Intent()
                 .putExtra(EXTRA_PAYMENT_METHOD_NONCE, "nonce");
@@ -1286,7 +1318,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
 
@@ -1319,7 +1351,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         Intent intent = new Intent()
                 .putExtra(EXTRA_PAYMENT_METHOD_NONCE, "nonce");
@@ -1349,7 +1381,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
 
@@ -1377,7 +1409,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
 
@@ -1410,7 +1442,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
 
@@ -1573,7 +1605,7 @@ public class VenmoClientUnitTest {
         request.setShouldVault(true);
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
         sut.setListener(listener);
@@ -1652,7 +1684,7 @@ public class VenmoClientUnitTest {
         request.setShouldVault(true);
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
         sut.setListener(listener);
@@ -1671,7 +1703,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
         sut.setListener(listener);
@@ -1697,7 +1729,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
         sut.setListener(listener);
@@ -1732,7 +1764,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
         sut.setListener(listener);
@@ -1765,7 +1797,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
         sut.setListener(listener);
@@ -1801,7 +1833,7 @@ public class VenmoClientUnitTest {
                 .build();
 
         when(deviceInspector.isVenmoAppSwitchAvailable(activity)).thenReturn(true);
-        when(sharedPrefsWriter.getVenmoVaultOption(activity)).thenReturn(true);
+        shouldVault = true;
 
         VenmoClient sut = new VenmoClient(activity, lifecycle, braintreeClient, venmoApi, sharedPrefsWriter, deviceInspector);
         sut.setListener(listener);
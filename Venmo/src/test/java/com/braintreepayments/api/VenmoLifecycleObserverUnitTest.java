@@ -92,6 +92,32 @@ public class VenmoLifecycleObserverUnitTest {
         verify(activityResultLauncher).launch(venmoIntentData);
     }
 
+    @Test
+    public void onDestroy_cancelsPendingRequests() {
+        ActivityResultRegistry activityResultRegistry = mock(ActivityResultRegistry.class);
+        VenmoClient venmoClient = mock(VenmoClient.class);
+
+        VenmoLifecycleObserver sut = new VenmoLifecycleObserver(activityResultRegistry, venmoClient);
+        sut.onStateChanged(mock(FragmentActivity.class), Lifecycle.Event.ON_DESTROY);
+
+        verify(venmoClient).cancelPendingRequests();
+    }
+
+    @Test
+    public void onDestroy_whenFragmentActivityIsChangingConfigurations_doesNotCancelPendingRequests() {
+        ActivityResultRegistry activityResultRegistry = mock(ActivityResultRegistry.class);
+        VenmoClient venmoClient = mock(VenmoClient.class);
+        FragmentActivity activity = mock(FragmentActivity.class);
+        when(activity.isChangingConfigurations()).thenReturn(true);
+        Fragment fragment = mock(Fragment.class);
+        when(fragment.getActivity()).thenReturn(activity);
+
+        VenmoLifecycleObserver sut = new VenmoLifecycleObserver(activityResultRegistry, venmoClient);
+        sut.onStateChanged(fragment, Lifecycle.Event.ON_DESTROY);
+
+        verify(venmoClient, never()).cancelPendingRequests();
+    }
+
     @Test
     public void onResume_whenLifeCycleObserverIsFragment_venmoClientDeliversResultWithFragmentActivity() {
         ActivityResultRegistry activityResultRegistry = mock(ActivityResultRegistry.class);
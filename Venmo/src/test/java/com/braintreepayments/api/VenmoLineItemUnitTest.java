@@ -1,10 +1,15 @@
 package com.braintreepayments.api;
 
+import android.util.JsonWriter;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.skyscreamer.jsonassert.JSONAssert;
+
+import java.io.StringWriter;
 
 import static junit.framework.Assert.assertEquals;
 
@@ -30,5 +35,18 @@ public class VenmoLineItemUnitTest {
         assertEquals("1.50", json.getString("unitTaxAmount"));
         assertEquals("http://example.com", json.getString("url"));
     }
-}
 
+    @Test
+    public void writeJson_writesSameJsonAsToJson() throws Exception {
+        VenmoLineItem item = new VenmoLineItem(VenmoLineItem.KIND_CREDIT, "An Item", 3, "2");
+        item.setDescription("A new item");
+        item.setUrl("http://example.com");
+
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        item.writeJson(writer);
+        writer.close();
+
+        JSONAssert.assertEquals(item.toJson(), new JSONObject(out.toString()), true);
+    }
+}
@@ -8,24 +8,24 @@ import org.junit.Test;
 
 public class VenmoSharedPrefsWriterUnitTest {
 
-    private BraintreeSharedPreferences braintreeSharedPreferences;
+    private BraintreeStore braintreeStore;
 
     @Before
     public void beforeEach() {
-        braintreeSharedPreferences = mock(BraintreeSharedPreferences.class);
+        braintreeStore = mock(BraintreeStore.class);
     }
 
     @Test
     public void persistVenmoVaultOption_persistsVaultOption() {
         VenmoSharedPrefsWriter sut = new VenmoSharedPrefsWriter();
-        sut.persistVenmoVaultOption(braintreeSharedPreferences, true);
-        verify(braintreeSharedPreferences).putBoolean("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY", true);
+        sut.persistVenmoVaultOption(braintreeStore, true);
+        verify(braintreeStore).putBoolean("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY", true);
     }
 
     @Test
     public void getVenmoVaultOption_retrievesVaultOptionFromSharedPrefs() {
         VenmoSharedPrefsWriter sut = new VenmoSharedPrefsWriter();
-        sut.getVenmoVaultOption(braintreeSharedPreferences);
-        verify(braintreeSharedPreferences).getBoolean("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY");
+        sut.getVenmoVaultOption(braintreeStore);
+        verify(braintreeStore).getBoolean("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY");
     }
 }
\ No newline at end of file